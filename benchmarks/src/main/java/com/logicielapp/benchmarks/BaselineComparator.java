@@ -0,0 +1,120 @@
+package com.logicielapp.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Comparaison de résultats JMH (format JSON) avec une référence
+ * Une régression est signalée quand le temps par opération ou les octets alloués
+ * par opération dépassent la référence de plus du seuil donné.
+ *
+ * Usage autonome :
+ *   java -cp benchmarks.jar com.logicielapp.benchmarks.BaselineComparator reference.json resultats.json [seuil%]
+ */
+public class BaselineComparator {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    // En dessous, l'écart d'allocation relève du bruit (arrondis du profileur)
+    private static final double MIN_ALLOC_BYTES = 16.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <reference.json> <resultats.json> [seuil%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        int regressions = compare(Paths.get(args[0]), Paths.get(args[1]), threshold, System.out);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Compare les résultats à la référence et retourne le nombre de régressions
+     */
+    public static int compare(Path baselineFile, Path resultFile, double thresholdPercent, PrintStream out)
+            throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Measure> baseline = read(mapper.readTree(baselineFile.toFile()));
+        Map<String, Measure> current = read(mapper.readTree(resultFile.toFile()));
+
+        int regressions = 0;
+        out.printf("%-70s %14s %14s %9s %12s %12s%n", "Benchmark", "Référence", "Actuel", "Écart", "Alloc réf.", "Alloc act.");
+        for (Map.Entry<String, Measure> entry : current.entrySet()) {
+            Measure now = entry.getValue();
+            Measure ref = baseline.get(entry.getKey());
+            if (ref == null) {
+                out.printf("%-70s %14s %14.3f %9s (nouveau)%n", entry.getKey(), "-", now.score, "-");
+                continue;
+            }
+
+            // En débit, une baisse est une régression ; en temps, une hausse
+            double delta = (now.score - ref.score) / ref.score * 100.0;
+            boolean slower = now.higherIsBetter ? -delta > thresholdPercent : delta > thresholdPercent;
+            boolean moreAlloc = now.allocBytes > MIN_ALLOC_BYTES
+                && now.allocBytes > ref.allocBytes * (1.0 + thresholdPercent / 100.0);
+
+            String verdict = slower && moreAlloc ? "RÉGRESSION (temps, allocations)"
+                : slower ? "RÉGRESSION (temps)"
+                : moreAlloc ? "RÉGRESSION (allocations)"
+                : "";
+            if (!verdict.isEmpty()) {
+                regressions++;
+            }
+            out.printf("%-70s %14.3f %14.3f %+8.1f%% %12.0f %12.0f %s%n",
+                       entry.getKey(), ref.score, now.score, delta, ref.allocBytes, now.allocBytes, verdict);
+        }
+
+        if (regressions > 0) {
+            out.println(regressions + " régression(s) au-delà de " + thresholdPercent + "%");
+        } else {
+            out.println("Aucune régression au-delà de " + thresholdPercent + "%");
+        }
+        return regressions;
+    }
+
+    private static Map<String, Measure> read(JsonNode results) {
+        Map<String, Measure> measures = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String key = result.path("benchmark").asText() + params(result.path("params"));
+            String mode = result.path("mode").asText();
+            Measure measure = new Measure();
+            measure.score = result.path("primaryMetric").path("score").asDouble();
+            measure.higherIsBetter = "thrpt".equals(mode);
+
+            // Selon la version de JMH, la métrique est préfixée par « · »
+            Iterator<Map.Entry<String, JsonNode>> secondary = result.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                Map.Entry<String, JsonNode> metric = secondary.next();
+                if (metric.getKey().replace("·", "").equals(ALLOC_METRIC)) {
+                    measure.allocBytes = metric.getValue().path("score").asDouble();
+                }
+            }
+            measures.put(key, measure);
+        }
+        return measures;
+    }
+
+    private static String params(JsonNode params) {
+        if (params.isMissingNode() || params.size() == 0) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        params.fields().forEachRemaining(p -> out.append(out.length() == 0 ? "(" : ",")
+            .append(p.getKey()).append('=').append(p.getValue().asText()));
+        return out.append(')').toString();
+    }
+
+    private static final class Measure {
+        double score;
+        double allocBytes;
+        boolean higherIsBetter;
+    }
+}
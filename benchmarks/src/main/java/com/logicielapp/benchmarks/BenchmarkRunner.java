@@ -0,0 +1,55 @@
+package com.logicielapp.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Point d'entrée de benchmarks.jar
+ * Exécute les benchmarks avec le profileur GC (octets alloués par opération)
+ * et écrit les résultats JSON, puis les compare à la référence si elle existe.
+ *
+ * Usage :
+ *   java -jar benchmarks.jar [options JMH] [filtre]
+ *   -Dbenchmarks.result=target/jmh-result.json   fichier de résultats
+ *   -Dbenchmarks.baseline=baseline/jmh-baseline.json   référence de comparaison
+ *   -Dbenchmarks.threshold=10   régression tolérée en pourcentage
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Path result = Paths.get(System.getProperty("benchmarks.result", "target/jmh-result.json"));
+        Path baseline = Paths.get(System.getProperty("benchmarks.baseline", "baseline/jmh-baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("benchmarks.threshold", "10"));
+
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+
+        // Les options de la ligne de commande (-f, -wi, -i, filtre...) priment sur les annotations
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(result.toString());
+
+        new Runner(options.build()).run();
+        System.out.println("Résultats écrits: " + result.toAbsolutePath());
+
+        if (Files.exists(baseline)) {
+            int regressions = BaselineComparator.compare(baseline, result, threshold, System.out);
+            if (regressions > 0) {
+                System.exit(1);
+            }
+        } else {
+            System.out.println("Aucune référence trouvée (" + baseline + "), comparaison ignorée");
+        }
+    }
+}
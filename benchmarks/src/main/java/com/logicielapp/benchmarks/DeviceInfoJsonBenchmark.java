@@ -0,0 +1,66 @@
+package com.logicielapp.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logicielapp.service.DHRUApiService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON d'une réponse de vérification IMEI (chemin de l'API /api/verify-imei)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DeviceInfoJsonBenchmark {
+
+    // getWarrantyStatus() est un alias en lecture seule : la relecture doit l'ignorer
+    private final ObjectMapper mapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private DHRUApiService.DeviceInfo deviceInfo;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        deviceInfo = new DHRUApiService.DeviceInfo();
+        deviceInfo.setSuccess(true);
+        deviceInfo.setImei("353918051234561");
+        deviceInfo.setBrand("Apple");
+        deviceInfo.setModel("iPhone 14 Pro");
+        deviceInfo.setCapacity("256GB");
+        deviceInfo.setColor("Deep Purple");
+        deviceInfo.setIcloudStatus("OFF");
+        deviceInfo.setCarrier("Orange France");
+        deviceInfo.setCountryOrigin("France");
+        deviceInfo.setWarranty("Expired");
+        deviceInfo.setSerialNumber("F2LZK0ABCDEF");
+        deviceInfo.setActivationStatus("Activated");
+        deviceInfo.setSimlockStatus("Unlocked");
+        deviceInfo.setBlacklistStatus("Clean");
+        json = mapper.writeValueAsString(deviceInfo);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return mapper.writeValueAsString(deviceInfo);
+    }
+
+    @Benchmark
+    public DHRUApiService.DeviceInfo deserialize() throws Exception {
+        return mapper.readValue(json, DHRUApiService.DeviceInfo.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.logicielapp.benchmarks;
+
+import com.logicielapp.util.IMEIValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation d'IMEI (Luhn, format, TAC) : appelée à chaque saisie et à chaque requête API
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class IMEIValidationBenchmark {
+
+    // IMEI valide (TAC Apple), IMEI à somme de contrôle fausse, saisie non numérique
+    private String validImei = "353918051234561";
+    private String badChecksumImei = "353918051234562";
+    private String malformedImei = "35391805ABCD563";
+
+    @Benchmark
+    public IMEIValidator.ValidationResult validateValid() {
+        return IMEIValidator.validateIMEI(validImei);
+    }
+
+    @Benchmark
+    public IMEIValidator.ValidationResult validateBadChecksum() {
+        return IMEIValidator.validateIMEI(badChecksumImei);
+    }
+
+    @Benchmark
+    public IMEIValidator.ValidationResult validateMalformed() {
+        return IMEIValidator.validateIMEI(malformedImei);
+    }
+
+    @Benchmark
+    public boolean isValidImei() {
+        return IMEIValidator.isValidIMEI(validImei);
+    }
+}
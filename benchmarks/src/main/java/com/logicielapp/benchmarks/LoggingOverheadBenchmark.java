@@ -0,0 +1,87 @@
+package com.logicielapp.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import com.logicielapp.service.PhoneInfoDatabase;
+import com.logicielapp.util.IMEIValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Coût de la journalisation par vérification IMEI (validation + informations complètes)
+ *   - off   : journalisation coupée, coût du traitement seul
+ *   - sync  : avant, configuration par défaut de logback (DEBUG, écriture synchrone, sans limitation)
+ *   - async : après, configuration de l'application (INFO, files asynchrones, JSON, limitation de débit)
+ * Le surcoût par vérification est l'écart avec « off ». Les journaux vont dans un fichier temporaire
+ * (la console perturberait JMH) ; alterner IMEI connu et TAC inconnu reproduit les avertissements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class LoggingOverheadBenchmark {
+
+    @Param({ "off", "sync", "async" })
+    public String logging;
+
+    private final String[] imeis = { "353918051234561", "999999991234567" };
+    private int next;
+    private Path logDir;
+
+    @Setup
+    public void configure() throws Exception {
+        logDir = Files.createTempDirectory("logging-bench");
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        if ("off".equals(logging)) {
+            context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.OFF);
+            return;
+        }
+        URL config = LoggingOverheadBenchmark.class.getResource("/logback-bench-" + logging + ".xml");
+        context.putProperty("BENCH_LOG_DIR", logDir.toString());
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(config);
+    }
+
+    @TearDown
+    public void restore() throws Exception {
+        // Arrêt des appenders (vidage des files asynchrones) avant suppression des fichiers
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.WARN);
+        try (Stream<Path> files = Files.walk(logDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void imeiCheck(Blackhole blackhole) {
+        String imei = imeis[next++ & 1];
+        blackhole.consume(IMEIValidator.validateIMEI(imei));
+        blackhole.consume(PhoneInfoDatabase.getCompletePhoneInfo(imei));
+    }
+}
@@ -0,0 +1,45 @@
+package com.logicielapp.benchmarks;
+
+import com.logicielapp.service.PhoneInfoDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Informations complètes d'un téléphone (TAC, opérateur, statut) et recherche par modèle
+ * La journalisation est limitée à WARN (logback.xml du module) pour ne mesurer que le traitement
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PhoneInfoBenchmark {
+
+    private String knownImei = "353918051234561";
+    private String unknownImei = "999999991234567";
+
+    @Benchmark
+    public PhoneInfoDatabase.CompletePhoneInfo completeInfoKnown() {
+        return PhoneInfoDatabase.getCompletePhoneInfo(knownImei);
+    }
+
+    @Benchmark
+    public PhoneInfoDatabase.CompletePhoneInfo completeInfoUnknown() {
+        return PhoneInfoDatabase.getCompletePhoneInfo(unknownImei);
+    }
+
+    @Benchmark
+    public PhoneInfoDatabase.PhoneInfo findByModelName() {
+        return PhoneInfoDatabase.findByModelName("iPhone 14");
+    }
+}
@@ -0,0 +1,30 @@
+package com.logicielapp.benchmarks;
+
+import com.logicielapp.util.TACDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconstruction complète de la base TAC (lecture, plages, index de modèles, préfiltre)
+ * Mesure le démarrage de l'application et chaque rechargement à chaud d'une nouvelle base
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(2)
+public class TACLoadBenchmark {
+
+    @Benchmark
+    public int rebuild() {
+        TACDatabase.rebuild();
+        return TACDatabase.getDatabaseSize();
+    }
+}
@@ -0,0 +1,83 @@
+package com.logicielapp.benchmarks;
+
+import com.logicielapp.util.ModelSearchIndex;
+import com.logicielapp.util.TACDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche dans la base TAC : TAC connu, TAC inconnu, repli sur 6 chiffres,
+ * préfiltre des blocs attribués et recherche par nom de modèle
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TACLookupBenchmark {
+
+    private String knownTac;
+    private String unknownTac = "99999999";
+    private String knownImei;
+    private String unknownBlockImei = "000001000000000";
+
+    @Setup(Level.Trial)
+    public void setup() {
+        TACDatabase.loadDatabase();
+        if (TACDatabase.getDatabaseSize() == 0) {
+            throw new IllegalStateException("Base TAC vide : benchmark impossible");
+        }
+        // TAC réellement présent dans la base chargée, quelle que soit sa version
+        List<ModelSearchIndex.Entry> entries = TACDatabase.searchModels("iphone", 1);
+        knownTac = entries.isEmpty() ? "35391805" : entries.get(0).getTac();
+        knownImei = knownTac + "1234560";
+    }
+
+    @Benchmark
+    public TACDatabase.DeviceInfo lookupKnownTac() {
+        return TACDatabase.getDeviceByTAC(knownTac);
+    }
+
+    @Benchmark
+    public TACDatabase.DeviceInfo lookupUnknownTac() {
+        return TACDatabase.getDeviceByTAC(unknownTac);
+    }
+
+    @Benchmark
+    public TACDatabase.DeviceInfo lookupByImei() {
+        return TACDatabase.getDeviceByIMEI(knownImei);
+    }
+
+    @Benchmark
+    public boolean prefilterKnownBlock() {
+        return TACDatabase.isKnownTacBlock(knownImei);
+    }
+
+    @Benchmark
+    public boolean prefilterUnknownBlock() {
+        return TACDatabase.isKnownTacBlock(unknownBlockImei);
+    }
+
+    @Benchmark
+    public List<ModelSearchIndex.Entry> searchModelShortPrefix() {
+        return TACDatabase.searchModels("ga", 10);
+    }
+
+    @Benchmark
+    public List<ModelSearchIndex.Entry> searchModelTwoWords() {
+        return TACDatabase.searchModels("galaxy s2", 10);
+    }
+}
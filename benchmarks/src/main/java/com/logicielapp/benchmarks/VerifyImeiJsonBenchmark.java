@@ -0,0 +1,148 @@
+package com.logicielapp.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logicielapp.service.DHRUApiService;
+import com.logicielapp.service.ProviderJson;
+import com.logicielapp.web.VerifyImeiResponse;
+import com.logicielapp.web.server.HttpResponses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON de /api/verify-imei : ancienne approche (Map sérialisée par Jackson, arbre JsonNode
+ * pour les réponses des fournisseurs) contre réponse typée et lecture en flux (ProviderJson)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class VerifyImeiJsonBenchmark {
+
+    private static final String PROVIDER_PAYLOAD = "{\"status\":\"success\",\"data\":{"
+        + "\"imei\":\"356938035643809\",\"brand\":\"Apple\",\"model\":\"iPhone 14 Pro\","
+        + "\"storage\":\"128GB\",\"color\":\"Black\",\"country\":\"France\","
+        + "\"carrier\":\"Orange France\",\"warranty\":\"Expired\",\"icloud_status\":\"OFF\","
+        + "\"simlock\":\"Unlocked\",\"blacklist\":\"Clean\",\"serial\":\"STUB035643809\"}}";
+
+    private final ObjectMapper mapper = HttpResponses.mapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+    private final String imei = "356938035643809";
+    private DHRUApiService.DeviceInfo device;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        device = new DHRUApiService.DeviceInfo();
+        device.setSuccess(true);
+        device.setBrand("Apple");
+        device.setModel("iPhone 14 Pro");
+        device.setColor("Black");
+        device.setStorage("128GB");
+        device.setSimlockStatus("Unlocked");
+        device.setBlacklistStatus("Clean");
+        device.setWarranty("Expired");
+        device.setActivationStatus("Activated");
+    }
+
+    @Benchmark
+    public int responseMap() throws Exception {
+        out.reset();
+        mapper.writeValue(out, mapResponse(imei, device));
+        return out.size();
+    }
+
+    @Benchmark
+    public int responseTyped() throws Exception {
+        out.reset();
+        mapper.writeValue(out, VerifyImeiResponse.of(imei, device));
+        return out.size();
+    }
+
+    @Benchmark
+    public DHRUApiService.DeviceInfo providerTreeNewMapper() throws Exception {
+        return fromTree(new ObjectMapper().readTree(PROVIDER_PAYLOAD));
+    }
+
+    @Benchmark
+    public DHRUApiService.DeviceInfo providerTreeSharedMapper() throws Exception {
+        return fromTree(mapper.readTree(PROVIDER_PAYLOAD));
+    }
+
+    @Benchmark
+    public DHRUApiService.DeviceInfo providerStream() throws Exception {
+        return fromStream(ProviderJson.parse(PROVIDER_PAYLOAD));
+    }
+
+    /**
+     * Ancienne réponse : Map remplie puis sérialisée par Jackson
+     */
+    private static Map<String, Object> mapResponse(String imei, DHRUApiService.DeviceInfo info) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("imei", imei);
+        response.put("brand", info.getBrand());
+        response.put("model", info.getModel());
+        response.put("color", info.getColor());
+        response.put("storage", info.getStorage());
+        response.put("simlock", info.getSimlockStatus());
+        response.put("blacklist", info.getBlacklistStatus());
+        response.put("warranty", info.getWarrantyStatus());
+        response.put("activation", info.getActivationStatus());
+        response.put("fake", false);
+        return response;
+    }
+
+    /**
+     * Ancienne lecture : arbre JsonNode puis copie champ par champ
+     */
+    private static DHRUApiService.DeviceInfo fromTree(JsonNode json) {
+        DHRUApiService.DeviceInfo d = new DHRUApiService.DeviceInfo();
+        d.setSuccess("success".equalsIgnoreCase(json.get("status").asText()));
+        JsonNode data = json.has("data") ? json.get("data") : json;
+        if (data.has("brand")) d.setBrand(data.get("brand").asText());
+        if (data.has("model")) d.setModel(data.get("model").asText());
+        if (data.has("storage")) d.setStorage(data.get("storage").asText());
+        if (data.has("color")) d.setColor(data.get("color").asText());
+        if (data.has("icloud_status")) d.setIcloudStatus(data.get("icloud_status").asText());
+        if (data.has("carrier")) d.setCarrier(data.get("carrier").asText());
+        if (data.has("country")) d.setCountryOrigin(data.get("country").asText());
+        if (data.has("warranty")) d.setWarranty(data.get("warranty").asText());
+        if (data.has("serial")) d.setSerialNumber(data.get("serial").asText());
+        if (data.has("simlock")) d.setSimlockStatus(data.get("simlock").asText());
+        if (data.has("blacklist")) d.setBlacklistStatus(data.get("blacklist").asText());
+        return d;
+    }
+
+    private static DHRUApiService.DeviceInfo fromStream(ProviderJson json) {
+        DHRUApiService.DeviceInfo d = new DHRUApiService.DeviceInfo();
+        d.setSuccess("success".equalsIgnoreCase(json.get(ProviderJson.Field.STATUS)));
+        if (json.hasData(ProviderJson.Field.BRAND)) d.setBrand(json.data(ProviderJson.Field.BRAND));
+        if (json.hasData(ProviderJson.Field.MODEL)) d.setModel(json.data(ProviderJson.Field.MODEL));
+        if (json.hasData(ProviderJson.Field.STORAGE)) d.setStorage(json.data(ProviderJson.Field.STORAGE));
+        if (json.hasData(ProviderJson.Field.COLOR)) d.setColor(json.data(ProviderJson.Field.COLOR));
+        if (json.hasData(ProviderJson.Field.ICLOUD_STATUS)) d.setIcloudStatus(json.data(ProviderJson.Field.ICLOUD_STATUS));
+        if (json.hasData(ProviderJson.Field.CARRIER)) d.setCarrier(json.data(ProviderJson.Field.CARRIER));
+        if (json.hasData(ProviderJson.Field.COUNTRY)) d.setCountryOrigin(json.data(ProviderJson.Field.COUNTRY));
+        if (json.hasData(ProviderJson.Field.WARRANTY)) d.setWarranty(json.data(ProviderJson.Field.WARRANTY));
+        if (json.hasData(ProviderJson.Field.SERIAL)) d.setSerialNumber(json.data(ProviderJson.Field.SERIAL));
+        if (json.hasData(ProviderJson.Field.SIMLOCK)) d.setSimlockStatus(json.data(ProviderJson.Field.SIMLOCK));
+        if (json.hasData(ProviderJson.Field.BLACKLIST)) d.setBlacklistStatus(json.data(ProviderJson.Field.BLACKLIST));
+        return d;
+    }
+}
@@ -0,0 +1,273 @@
+package com.logicielapp.benchmarks.load;
+
+import com.logicielapp.util.TACDatabase;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Faux fournisseur IMEI local pour les tests de charge hors ligne
+ * Reproduit les formats de réponse lus par DHRUApiService (IMEI.pro, iFreeCheck, DHRU/SICKW)
+ * avec une latence configurable (base, gigue, queue lente) et une injection d'erreurs.
+ *
+ * Erreurs injectées :
+ *   - errorRate : HTTP 503 (le service passe au fournisseur suivant)
+ *   - rejectRate : réponse JSON d'erreur au format du fournisseur
+ */
+public class StubProviderServer {
+
+    /**
+     * Fournisseur imité : chemin servi et propriété de configuration de DHRUApiService
+     */
+    public enum Provider {
+        IMEI_PRO("/", "IMEI_PRO_BASE_URL"),
+        IFREECHECK("/api_procesor.php", "IFREECHECK_BASE_URL"),
+        DHRU("/api.php", "DHRU_BASE_URL");
+
+        private final String path;
+        private final String baseUrlProperty;
+
+        Provider(String path, String baseUrlProperty) {
+            this.path = path;
+            this.baseUrlProperty = baseUrlProperty;
+        }
+
+        public String getPath() { return path; }
+        public String getBaseUrlProperty() { return baseUrlProperty; }
+    }
+
+    private final Provider provider;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double slowRate;
+    private final long slowLatencyMs;
+    private final double errorRate;
+    private final double rejectRate;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private StubProviderServer(Builder builder) {
+        this.provider = builder.provider;
+        this.latencyMs = builder.latencyMs;
+        this.jitterMs = builder.jitterMs;
+        this.slowRate = builder.slowRate;
+        this.slowLatencyMs = builder.slowLatencyMs;
+        this.errorRate = builder.errorRate;
+        this.rejectRate = builder.rejectRate;
+    }
+
+    public static Builder builder(Provider provider) {
+        return new Builder(provider);
+    }
+
+    /**
+     * Configuration lue depuis les propriétés système « loadtest.&lt;fournisseur&gt;.* »
+     * (latencyMs, jitterMs, slowRate, slowLatencyMs, errorRate, rejectRate)
+     */
+    public static StubProviderServer fromSystemProperties(Provider provider) {
+        String prefix = "loadtest." + provider.name().toLowerCase().replace("_", "") + ".";
+        return builder(provider)
+            .latency(Long.getLong(prefix + "latencyMs", 80), Long.getLong(prefix + "jitterMs", 40))
+            .slowTail(doubleProperty(prefix + "slowRate", 0.01), Long.getLong(prefix + "slowLatencyMs", 1500))
+            .errorRate(doubleProperty(prefix + "errorRate", 0.0))
+            .rejectRate(doubleProperty(prefix + "rejectRate", 0.0))
+            .build();
+    }
+
+    /**
+     * Démarre le serveur sur un port libre
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        // Un thread par requête en attente : la latence simulée ne doit pas sérialiser les appels
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "Stub-" + provider.name() + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(provider.getPath(), this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * URL de base à fournir à DHRUApiService (propriété {@link Provider#getBaseUrlProperty()})
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public Provider getProvider() { return provider; }
+    public long getRequestCount() { return requests.get(); }
+    public long getInjectedErrorCount() { return injectedErrors.get(); }
+    public long getRejectionCount() { return rejections.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("%s (latence %d±%d ms, lente %.1f%% à %d ms, erreurs HTTP %.1f%%, rejets %.1f%%)",
+            provider, latencyMs, jitterMs, slowRate * 100, slowLatencyMs, errorRate * 100, rejectRate * 100);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            String imei = queryParameter(exchange.getRequestURI().getRawQuery(), "imei");
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            sleep(random.nextDouble() < slowRate ? slowLatencyMs
+                : latencyMs + (jitterMs > 0 ? random.nextLong(-jitterMs, jitterMs + 1) : 0));
+
+            if (random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 503, "Service temporairement indisponible", "text/plain");
+            } else if (imei == null || random.nextDouble() < rejectRate) {
+                rejections.incrementAndGet();
+                send(exchange, 200, errorBody(imei == null ? "IMEI manquant" : "Crédit insuffisant"), "application/json");
+            } else {
+                send(exchange, 200, successBody(imei), "application/json");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String errorBody(String message) {
+        if (provider == Provider.DHRU) {
+            return "{\"ERROR\":[{\"MESSAGE\":\"" + message + "\",\"FULL_DESCRIPTION\":\"Stub\"}]}";
+        }
+        return "{\"status\":\"error\",\"message\":\"" + message + "\"}";
+    }
+
+    private String successBody(String imei) {
+        TACDatabase.DeviceInfo device = TACDatabase.getDeviceByIMEI(imei);
+        String brand = device != null ? device.getManufacturer() : "Unknown";
+        String model = device != null ? device.getModel() : "Unknown";
+        StringBuilder json = new StringBuilder(384);
+        json.append("{\"status\":\"success\",\"data\":{")
+            .append("\"imei\":\"").append(imei).append("\",")
+            .append("\"brand\":\"").append(escape(brand)).append("\",")
+            .append("\"model\":\"").append(escape(model)).append("\",")
+            .append("\"storage\":\"128GB\",\"color\":\"Black\",\"country\":\"France\",")
+            .append("\"carrier\":\"Orange France\",\"warranty\":\"Expired\",");
+        if (provider == Provider.IFREECHECK) {
+            json.append("\"find_my_iphone\":\"OFF\",");
+        } else {
+            json.append("\"icloud_status\":\"OFF\",");
+        }
+        json.append("\"simlock\":\"Unlocked\",\"blacklist\":\"Clean\",\"serial\":\"STUB")
+            .append(imei, 9, 15).append("\"}}");
+        return json.toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body, String contentType) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String queryParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                String value = pair.substring(eq + 1);
+                return value.length() == 15 ? value : null;
+            }
+        }
+        return null;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double doubleProperty(String key, double def) {
+        String value = System.getProperty(key);
+        return value != null ? Double.parseDouble(value) : def;
+    }
+
+    /**
+     * Construction d'un faux fournisseur
+     */
+    public static final class Builder {
+        private final Provider provider;
+        private long latencyMs = 80;
+        private long jitterMs = 40;
+        private double slowRate;
+        private long slowLatencyMs = 1500;
+        private double errorRate;
+        private double rejectRate;
+
+        private Builder(Provider provider) {
+            this.provider = provider;
+        }
+
+        public Builder latency(long latencyMs, long jitterMs) {
+            this.latencyMs = latencyMs;
+            this.jitterMs = Math.min(jitterMs, latencyMs);
+            return this;
+        }
+
+        public Builder slowTail(double slowRate, long slowLatencyMs) {
+            this.slowRate = slowRate;
+            this.slowLatencyMs = slowLatencyMs;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder rejectRate(double rejectRate) {
+            this.rejectRate = rejectRate;
+            return this;
+        }
+
+        public StubProviderServer build() {
+            return new StubProviderServer(this);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.logicielapp.benchmarks.load;
+
+import com.logicielapp.service.LookupHistoryService;
+import com.logicielapp.util.IMEIValidator;
+import com.logicielapp.util.ModelSearchIndex;
+import com.logicielapp.util.TACDatabase;
+import com.logicielapp.web.server.EmbeddedWebServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Test de charge hors ligne du chemin de vérification IMEI (POST /api/verify-imei)
+ * Les fournisseurs IMEI.pro, iFreeCheck et DHRU sont remplacés par des serveurs locaux
+ * ({@link StubProviderServer}) ; la charge rejoue une liste d'IMEI et mesure
+ * le débit et les latences p50/p99/p999 de bout en bout.
+ *
+ * Lancement (module benchmarks) :
+ *   java -cp target/benchmarks.jar com.logicielapp.benchmarks.load.VerifyImeiLoadTest [clients] [secondes] [fichier d'IMEI]
+ *
+ * Les réponses des fournisseurs passent par DHRUApiService comme en production : avec une clé
+ * d'historique (-Dimei.hashKey ou IMEI_HASH_KEY), chaque vérification est aussi enregistrée en base
+ * par LookupHistoryService. Sans clé, l'historique est désactivé.
+ *
+ * Le limiteur de débit des fournisseurs (ProviderRateLimiter) est désactivé
+ * (-Dimei.providerRatePerMinute=0, sauf valeur explicite) pour mesurer le débit et non la limite ;
+ * le harnais ne démarre pas sa relecture de serveurs_imei et quota_fournisseurs, la base n'est
+ * donc sollicitée que par l'historique.
+ * La journalisation suit le logback.xml du module (avertissements seulement, résultats en INFO).
+ *
+ * Sans fichier, la charge est générée à partir de la base TAC (graine fixe, rejouable) :
+ *   -Dloadtest.distinct=2000        nombre d'IMEI distincts
+ *   -Dloadtest.unknownRatio=0.05    part d'IMEI de blocs TAC non attribués
+ *   -Dloadtest.seed=42
+ * Fournisseurs (imeipro, ifreecheck, dhru) :
+ *   -Dloadtest.imeipro.latencyMs=80 -Dloadtest.imeipro.jitterMs=40
+ *   -Dloadtest.imeipro.slowRate=0.01 -Dloadtest.imeipro.slowLatencyMs=1500
+ *   -Dloadtest.imeipro.errorRate=0.0 -Dloadtest.imeipro.rejectRate=0.0
+ */
+public class VerifyImeiLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifyImeiLoadTest.class);
+
+    private static final String VERIFY_PATH = "/api/verify-imei";
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String workloadFile = args.length > 2 ? args[2] : null;
+
+        TACDatabase.loadDatabase();
+
+        // Les faux fournisseurs et le limiteur doivent être configurés avant le chargement de DHRUApiService
+        Map<StubProviderServer.Provider, StubProviderServer> stubs = new EnumMap<>(StubProviderServer.Provider.class);
+        for (StubProviderServer.Provider provider : StubProviderServer.Provider.values()) {
+            StubProviderServer stub = StubProviderServer.fromSystemProperties(provider);
+            stub.start();
+            System.setProperty(provider.getBaseUrlProperty(), stub.getBaseUrl());
+            stubs.put(provider, stub);
+        }
+        if (System.getProperty("DHRU_API_KEY") == null) {
+            System.setProperty("DHRU_API_KEY", "loadtest");
+        }
+        if (System.getProperty("imei.providerRatePerMinute") == null) {
+            System.setProperty("imei.providerRatePerMinute", "0");
+        }
+
+        List<String> workload = workloadFile != null ? readWorkload(workloadFile) : generateWorkload();
+        if (workload.isEmpty()) {
+            throw new IllegalArgumentException("Charge vide : aucun IMEI à rejouer");
+        }
+
+        EmbeddedWebServer server = new EmbeddedWebServer(0);
+        server.start();
+
+        try {
+            URI uri = URI.create("http://localhost:" + server.getPort() + VERIFY_PATH);
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+            logger.info("Charge : {} clients, {} s, {} IMEI ({}), {} cœur(s) disponible(s)",
+                clients, seconds, workload.size(), workloadFile != null ? workloadFile : "générés",
+                Runtime.getRuntime().availableProcessors());
+            stubs.values().forEach(stub -> logger.info("  {}", stub));
+
+            // Préchauffage (JIT, connexions keep-alive), hors mesures
+            runLoad(client, uri, workload, clients, Math.min(5, seconds));
+
+            long[] before = requestCounts(stubs);
+            Result result = runLoad(client, uri, workload, clients, seconds);
+            long[] after = requestCounts(stubs);
+
+            report(result, seconds);
+            int i = 0;
+            for (StubProviderServer stub : stubs.values()) {
+                logger.info(String.format("  %-11s %8d appels (%.2f par vérification)", stub.getProvider(),
+                    after[i] - before[i], (after[i] - before[i]) / (double) Math.max(1, result.count())));
+                i++;
+            }
+        } finally {
+            server.stop();
+            stubs.values().forEach(StubProviderServer::stop);
+            LookupHistoryService.getInstance().shutdown();
+        }
+    }
+
+    private static Result runLoad(HttpClient client, URI uri, List<String> workload, int clients, int seconds)
+            throws InterruptedException {
+        AtomicInteger cursor = new AtomicInteger();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        Recorder[] recorders = new Recorder[clients];
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Recorder recorder = recorders[c] = new Recorder();
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    // Rejeu dans l'ordre de la charge, partagée entre les clients
+                    String imei = workload.get(Math.floorMod(cursor.getAndIncrement(), workload.size()));
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .timeout(Duration.ofSeconds(60))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"imei\":\"" + imei + "\"}"))
+                        .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        long elapsed = System.nanoTime() - start;
+                        if (response.statusCode() != 200) {
+                            recorder.record(elapsed, Outcome.HTTP_ERROR);
+                        } else if (response.body().contains("\"success\":true")) {
+                            recorder.record(elapsed, Outcome.SUCCESS);
+                        } else {
+                            recorder.record(elapsed, Outcome.REJECTED);
+                        }
+                    } catch (IOException e) {
+                        recorder.record(System.nanoTime() - start, Outcome.HTTP_ERROR);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "VerifyLoadClient-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return Result.merge(recorders);
+    }
+
+    private static void report(Result result, int seconds) {
+        logger.info("Vérifications : {} (réussies {}, refusées {}, erreurs {})",
+            result.count(), result.outcomes()[Outcome.SUCCESS.ordinal()],
+            result.outcomes()[Outcome.REJECTED.ordinal()], result.outcomes()[Outcome.HTTP_ERROR.ordinal()]);
+        logger.info(String.format("Débit : %.1f vérifications/s", result.count() / (double) seconds));
+        logger.info(String.format("Latence (ms) : p50 %.1f  p99 %.1f  p999 %.1f  max %.1f",
+            result.percentileMillis(50), result.percentileMillis(99),
+            result.percentileMillis(99.9), result.percentileMillis(100)));
+    }
+
+    private static long[] requestCounts(Map<StubProviderServer.Provider, StubProviderServer> stubs) {
+        return stubs.values().stream().mapToLong(StubProviderServer::getRequestCount).toArray();
+    }
+
+    /**
+     * Fichier d'IMEI : un par ligne, lignes vides et commentaires « # » ignorés
+     */
+    private static List<String> readWorkload(String file) throws IOException {
+        return Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8).stream()
+            .map(String::trim)
+            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * IMEI valides sur des TAC de la base, avec une part de blocs non attribués
+     */
+    private static List<String> generateWorkload() {
+        int distinct = Integer.getInteger("loadtest.distinct", 2000);
+        double unknownRatio = Double.parseDouble(System.getProperty("loadtest.unknownRatio", "0.05"));
+        Random random = new Random(Long.getLong("loadtest.seed", 42L));
+
+        Set<String> tacs = new LinkedHashSet<>();
+        for (String brand : new String[] { "apple", "samsung", "xiaomi", "huawei", "google", "oppo" }) {
+            for (ModelSearchIndex.Entry entry : TACDatabase.searchModels(brand, 100)) {
+                tacs.add(entry.getTac());
+            }
+        }
+        if (tacs.isEmpty()) {
+            tacs.addAll(Arrays.asList("35391805", "35693611", "86753503"));
+        }
+        List<String> tacList = new ArrayList<>(tacs);
+
+        List<String> imeis = new ArrayList<>(distinct);
+        while (imeis.size() < distinct) {
+            String tac;
+            if (random.nextDouble() < unknownRatio) {
+                tac = String.format("%08d", random.nextInt(100_000_000));
+                if (TACDatabase.isKnownTacBlock(tac)) {
+                    continue;
+                }
+            } else {
+                tac = tacList.get(random.nextInt(tacList.size()));
+            }
+            String body = tac + String.format("%06d", random.nextInt(1_000_000));
+            imeis.add(body + IMEIValidator.calculateLuhnChecksum(body));
+        }
+        return imeis;
+    }
+
+    private enum Outcome {
+        SUCCESS, REJECTED, HTTP_ERROR
+    }
+
+    /**
+     * Latences d'un client (un seul thread écrit, lecture après join)
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[4096];
+        private int size;
+        private final long[] outcomes = new long[Outcome.values().length];
+
+        void record(long nanos, Outcome outcome) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            outcomes[outcome.ordinal()]++;
+        }
+    }
+
+    private record Result(long[] sortedLatencies, long[] outcomes) {
+
+        static Result merge(Recorder[] recorders) {
+            int total = 0;
+            for (Recorder recorder : recorders) {
+                total += recorder.size;
+            }
+            long[] all = new long[total];
+            long[] outcomes = new long[Outcome.values().length];
+            int offset = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, all, offset, recorder.size);
+                offset += recorder.size;
+                for (int i = 0; i < outcomes.length; i++) {
+                    outcomes[i] += recorder.outcomes[i];
+                }
+            }
+            Arrays.sort(all);
+            return new Result(all, outcomes);
+        }
+
+        long count() {
+            return sortedLatencies.length;
+        }
+
+        /**
+         * Percentile au rang le plus proche
+         */
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+            return sortedLatencies[Math.max(0, Math.min(rank, sortedLatencies.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
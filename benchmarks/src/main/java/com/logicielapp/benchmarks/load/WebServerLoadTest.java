@@ -0,0 +1,93 @@
+package com.logicielapp.benchmarks.load;
+
+import com.logicielapp.web.server.EmbeddedWebServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test de charge du serveur web embarqué (requêtes/seconde)
+ *
+ * Lancement sur un seul cœur (module benchmarks) :
+ *   java -XX:ActiveProcessorCount=1 -cp target/benchmarks.jar com.logicielapp.benchmarks.load.WebServerLoadTest [clients] [secondes] [chemin]
+ *
+ * Le chemin par défaut (/help/api/faq) ne dépend ni de la base de données ni des APIs externes.
+ */
+public class WebServerLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebServerLoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String path = args.length > 2 ? args[2] : "/help/api/faq";
+
+        EmbeddedWebServer server = new EmbeddedWebServer(0);
+        server.start();
+
+        try {
+            URI uri = URI.create("http://localhost:" + server.getPort() + path);
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+
+            // Préchauffage (JIT, connexions keep-alive)
+            runLoad(client, request, clients, 2);
+
+            logger.info("Charge : {} clients, {} s, {} ({} cœur(s) disponible(s))",
+                clients, seconds, uri, Runtime.getRuntime().availableProcessors());
+            long[] result = runLoad(client, request, clients, seconds);
+            long ok = result[0];
+            long errors = result[1];
+
+            logger.info("Requêtes réussies : {}, erreurs : {}", ok, errors);
+            logger.info(String.format("Débit : %.0f requêtes/s", ok / (double) seconds));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static long[] runLoad(HttpClient client, HttpRequest request, int clients, int seconds)
+            throws InterruptedException {
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() == 200) {
+                            ok.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }, "LoadClient-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new long[] { ok.get(), errors.get() };
+    }
+}
@@ -88,6 +88,8 @@ CREATE TABLE statistiques (
 );
 
 -- Table des serveurs IMEI distants
+-- code_fournisseur relie la ligne à un fournisseur du service IMEI (imei_pro, ifreecheck, dhru) :
+-- actif, priorite (ordre de repli) et limites de débit sont relus toutes les minutes
 CREATE TABLE serveurs_imei (
     id INT AUTO_INCREMENT PRIMARY KEY,
     nom_serveur VARCHAR(100) NOT NULL,
@@ -96,7 +98,43 @@ CREATE TABLE serveurs_imei (
     actif BOOLEAN DEFAULT TRUE,
     plateforme_supportee ENUM('iOS', 'Android', 'Both') DEFAULT 'Both',
     priorite INT DEFAULT 1,
-    date_ajout TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    code_fournisseur VARCHAR(30),
+    -- Limites des fournisseurs IMEI ; NULL : pas de limite de débit
+    requetes_par_minute INT DEFAULT NULL,
+    rafale INT DEFAULT NULL,
+    quota_journalier INT DEFAULT NULL,
+    cout_requete DECIMAL(10,4) DEFAULT 0,
+    date_ajout TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY unique_code_fournisseur (code_fournisseur)
+);
+
+-- Consommation journalière des fournisseurs IMEI (quota_journalier conservé au redémarrage)
+CREATE TABLE quota_fournisseurs (
+    code_fournisseur VARCHAR(30) NOT NULL,
+    jour DATE NOT NULL,
+    requetes INT NOT NULL DEFAULT 0,
+    cout DECIMAL(12,4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (code_fournisseur, jour)
+);
+
+-- Historique des vérifications IMEI (HMAC-SHA-256 de l'IMEI avec IMEI_HASH_KEY, TAC seul en clair ;
+-- un résultat identique au précédent incrémente nombre_verifications au lieu de créer une ligne)
+CREATE TABLE historique_verifications (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    imei_hash BINARY(32) NOT NULL,
+    imei_masque VARCHAR(15),
+    succes BOOLEAN NOT NULL,
+    marque VARCHAR(50),
+    modele VARCHAR(100),
+    statut_blacklist VARCHAR(50),
+    fournisseur VARCHAR(50),
+    latence_ms INT,
+    empreinte BINARY(32) NOT NULL,
+    nombre_verifications INT NOT NULL DEFAULT 1,
+    premiere_verification TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    derniere_verification TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_historique_imei (imei_hash, derniere_verification),
+    INDEX idx_historique_date (derniere_verification)
 );
 
 -- Insertion de données de base
@@ -145,6 +183,12 @@ INSERT INTO serveurs_imei (nom_serveur, url_api, plateforme_supportee, priorite)
 ('Serveur Principal Android', 'https://api-android.logiciel-app.com', 'Android', 1),
 ('Serveur Backup', 'https://backup-api.logiciel-app.com', 'Both', 2);
 
+-- Fournisseurs de vérification IMEI (limites de débit et coût par requête)
+INSERT INTO serveurs_imei (nom_serveur, url_api, plateforme_supportee, priorite, code_fournisseur, requetes_par_minute, rafale, cout_requete) VALUES
+('IMEI.pro', 'https://api.imei.pro', 'Both', 1, 'imei_pro', 60, 10, 0.0500),
+('iFreeCheck', 'https://ifreecheck.net', 'Both', 2, 'ifreecheck', 30, 5, 0.0200),
+('DHRU Fusion (SICKW)', 'https://sickw.com', 'Both', 3, 'dhru', 30, 5, 0.1000);
+
 -- Vues utiles
 CREATE VIEW vue_sessions_actives AS
 SELECT 
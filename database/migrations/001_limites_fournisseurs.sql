@@ -0,0 +1,26 @@
+-- Migration d'une base existante : limites et consommation des fournisseurs IMEI
+-- (déjà présentes dans logiciel_app_schema.sql pour une nouvelle installation)
+-- À exécuter une seule fois :
+--   mysql -u root -p < database/migrations/001_limites_fournisseurs.sql
+--
+-- Aucun fournisseur n'est limité après la migration : les limites se règlent ligne par ligne,
+-- par exemple
+--   UPDATE serveurs_imei SET requetes_par_minute = 60, rafale = 10 WHERE code_fournisseur = 'imei_pro';
+
+USE logiciel_App;
+
+ALTER TABLE serveurs_imei
+    ADD COLUMN code_fournisseur VARCHAR(30) AFTER priorite,
+    ADD COLUMN requetes_par_minute INT DEFAULT NULL AFTER code_fournisseur,
+    ADD COLUMN rafale INT DEFAULT NULL AFTER requetes_par_minute,
+    ADD COLUMN quota_journalier INT DEFAULT NULL AFTER rafale,
+    ADD COLUMN cout_requete DECIMAL(10,4) DEFAULT 0 AFTER quota_journalier,
+    ADD UNIQUE KEY unique_code_fournisseur (code_fournisseur);
+
+CREATE TABLE IF NOT EXISTS quota_fournisseurs (
+    code_fournisseur VARCHAR(30) NOT NULL,
+    jour DATE NOT NULL,
+    requetes INT NOT NULL DEFAULT 0,
+    cout DECIMAL(12,4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (code_fournisseur, jour)
+);
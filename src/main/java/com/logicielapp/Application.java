@@ -1,21 +1,20 @@
 package com.logicielapp;
 
-import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.ConfigurableApplicationContext;
+import com.logicielapp.web.server.EmbeddedWebServer;
 import javafx.application.Platform;
 
-@SpringBootApplication
 public class Application {
-    private static ConfigurableApplicationContext springContext;
-    
-    public static void main(String[] args) {
-        // Démarrer Spring Boot en mode web
+    private static EmbeddedWebServer webServer;
+
+    public static void main(String[] args) throws Exception {
+        // Démarrer le serveur web embarqué
         System.setProperty("java.awt.headless", "false");
-        System.setProperty("server.port", "8080");
-        
-        springContext = SpringApplication.run(Application.class, args);
-        
+        int port = Integer.getInteger("server.port", EmbeddedWebServer.DEFAULT_PORT);
+
+        webServer = new EmbeddedWebServer(port);
+        webServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(webServer::stop, "WebServerShutdown"));
+
         // Démarrer JavaFX en parallèle
         Platform.startup(() -> {
             try {
@@ -24,18 +23,18 @@ public class Application {
                 e.printStackTrace();
             }
         });
-        
+
         System.out.println("=================================================");
         System.out.println("🚀 Application démarrée avec succès!");
         System.out.println("📱 Interface JavaFX: Application de bureau");
-        System.out.println("🌐 Interface Web: http://localhost:8080");
-        System.out.println("📊 Statistiques: http://localhost:8080/statistiques.html");
-        System.out.println("⚙️ Paramètres: http://localhost:8080/parametres.html");
-        System.out.println("❓ Aide: http://localhost:8080/aide.html");
+        System.out.println("🌐 Interface Web: http://localhost:" + port);
+        System.out.println("📊 Statistiques: http://localhost:" + port + "/statistics");
+        System.out.println("⚙️ Paramètres: http://localhost:" + port + "/parametres.html");
+        System.out.println("❓ Aide: http://localhost:" + port + "/help");
         System.out.println("=================================================");
     }
-    
-    public static ConfigurableApplicationContext getSpringContext() {
-        return springContext;
+
+    public static EmbeddedWebServer getWebServer() {
+        return webServer;
     }
 }
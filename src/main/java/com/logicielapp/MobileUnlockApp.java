@@ -7,9 +7,18 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 import javafx.concurrent.Task;
+import com.logicielapp.util.ConfigurationService;
 import com.logicielapp.util.DatabaseManager;
 import com.logicielapp.util.ErrorHandler;
+import com.logicielapp.util.FxThreadMonitor;
+import com.logicielapp.util.SessionManager;
+import com.logicielapp.util.TACDatabase;
+import com.logicielapp.service.AdbClient;
 import com.logicielapp.service.AuthenticationService;
+import com.logicielapp.service.DHRUApiService;
+import com.logicielapp.service.LookupHistoryService;
+import com.logicielapp.service.ProviderRateLimiter;
+import com.logicielapp.service.UsbHotplugMonitor;
 import com.logicielapp.ui.SplashScreen;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,6 +80,9 @@ public class MobileUnlockApp extends Application {
             // Configuration de la fenêtre principale (cachée initialement)
             setupPrimaryStage();
             
+            // Mesure de la réactivité du thread JavaFX (métriques)
+            FxThreadMonitor.getInstance().start();
+            
             // Créer et afficher le splash screen
             showSplashScreen();
             
@@ -114,6 +126,13 @@ public class MobileUnlockApp extends Application {
                 updateMessage("Vérification des utilisateurs...");
                 createDefaultUsers();
                 
+                updateMessage("Chargement de la base TAC...");
+                TACDatabase.loadDatabase();
+                TACDatabase.startWatching();
+                
+                updateMessage("Chargement de la configuration...");
+                loadConfiguration();
+                
                 Thread.sleep(300);
                 updateMessage("Chargement de l'interface...");
                 
@@ -180,6 +199,21 @@ public class MobileUnlockApp extends Application {
         logger.info("Arrêt de l'application");
         
         try {
+            // Arrêt de la surveillance des données TAC et du thread JavaFX
+            TACDatabase.stopWatching();
+            ConfigurationService.getInstance().stopWatching();
+            UsbHotplugMonitor.getInstance().stop();
+            AdbClient.getInstance().stop();
+            FxThreadMonitor.getInstance().stop();
+            
+            // État de session en attente (la session reste reprenable au prochain démarrage)
+            SessionManager.getInstance().flush();
+            
+            // Historique des vérifications et consommation des fournisseurs en attente, avant la fermeture du pool
+            LookupHistoryService.getInstance().shutdown();
+            ProviderRateLimiter.getInstance().stopRefreshing();
+            ProviderRateLimiter.getInstance().flush();
+            
             // Fermeture propre de la base de données
             DatabaseManager.getInstance().shutdown();
             logger.info("Base de données fermée proprement");
@@ -235,6 +269,39 @@ public class MobileUnlockApp extends Application {
         }
     }
     
+    /**
+     * Charge la table configurations et applique ses paramètres aux services,
+     * puis à chaque modification (depuis l'écran Paramètres ou un autre poste)
+     */
+    private void loadConfiguration() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        config.subscribe(this::applyConfiguration);
+        config.reload();
+        config.startWatching();
+        
+        // Réglages et consommation des fournisseurs IMEI (thread de fond)
+        ProviderRateLimiter.getInstance().startRefreshing();
+    }
+    
+    private void applyConfiguration(ConfigurationService.Snapshot config) {
+        // Une clé absente (table réinitialisée, ligne supprimée) rétablit la valeur par défaut ;
+        // pour skip_unknown_tac, c'est le choix par variable d'environnement (TAC_PREFILTER_POLICY)
+        DHRUApiService.UnknownTacPolicy tacPolicy = DHRUApiService.getDefaultUnknownTacPolicy();
+        if (config.contains(ConfigurationService.KEY_SKIP_UNKNOWN_TAC)) {
+            tacPolicy = config.getBoolean(ConfigurationService.KEY_SKIP_UNKNOWN_TAC, false)
+                ? DHRUApiService.UnknownTacPolicy.SKIP : DHRUApiService.UnknownTacPolicy.QUERY;
+        }
+        DHRUApiService.setUnknownTacPolicy(tacPolicy);
+        DHRUApiService.setApiTimeoutSeconds(
+            config.getInt(ConfigurationService.KEY_API_TIMEOUT, DHRUApiService.DEFAULT_API_TIMEOUT_SECONDS));
+        
+        // La durée saisie dans l'écran Paramètres (minutes) prime sur timeout_session (secondes)
+        long sessionTimeout = config.contains(ConfigurationService.KEY_SESSION_DURATION)
+            ? config.getLong(ConfigurationService.KEY_SESSION_DURATION, 0) * 60
+            : config.getLong(ConfigurationService.KEY_SESSION_TIMEOUT, SessionManager.DEFAULT_SESSION_TIMEOUT_SECONDS);
+        SessionManager.getInstance().setSessionTimeoutSeconds(sessionTimeout);
+    }
+    
     /**
      * Configure la fenêtre principale
      */
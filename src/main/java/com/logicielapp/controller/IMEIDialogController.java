@@ -1,12 +1,15 @@
 package com.logicielapp.controller;
 
+import javafx.animation.PauseTransition;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.application.Platform;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import com.logicielapp.model.Device;
 import com.logicielapp.model.UnlockOperation;
@@ -15,12 +18,18 @@ import com.logicielapp.service.IMEIDeviceDetectionService;
 import com.logicielapp.service.DHRUApiService;
 import com.logicielapp.service.USBDeviceDetectionService;
 import com.logicielapp.util.IMEIValidator;
+import com.logicielapp.util.ModelSearchIndex;
+import com.logicielapp.util.TACDatabase;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URL;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -35,6 +44,15 @@ public class IMEIDialogController implements Initializable {
     // Pattern pour validation IMEI (15 chiffres)
     private static final Pattern IMEI_PATTERN = Pattern.compile("^\\d{15}$");
     
+    // Recherche de modèles hors du thread JavaFX (un seul thread, requêtes en série)
+    private static final int MAX_MODEL_SUGGESTIONS = 10;
+    private static final int MIN_MODEL_QUERY_LENGTH = 2;
+    private static final ExecutorService MODEL_SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ModelSearch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     // Services
     private UnlockService unlockService;
     private IMEIDeviceDetectionService imeiDetectionService;
@@ -46,8 +64,14 @@ public class IMEIDialogController implements Initializable {
     private UnlockOperation currentOperation;
     private boolean imeiValidated = false;
     
+    // Saisie semi-automatique des modèles
+    private final AtomicLong modelSearchGeneration = new AtomicLong();
+    private final ContextMenu modelSuggestions = new ContextMenu();
+    private final PauseTransition modelSearchDelay = new PauseTransition(Duration.millis(150));
+    
     // Contrôles FXML
     @FXML private TextField txtIMEI;
+    @FXML private TextField txtModelSearch;
     @FXML private RadioButton radioIOS, radioAndroid;
     @FXML private ToggleGroup platformGroup;
     @FXML private CheckBox chkSaveDevice, chkNotifyCompletion;
@@ -146,10 +170,87 @@ public class IMEIDialogController implements Initializable {
             }
         });
         
+        // Recherche de modèle avec suggestions
+        setupModelAutocomplete();
+        
         // Style initial
         updateIMEIValidationStyle(false);
     }
     
+    /**
+     * Saisie semi-automatique du modèle : la recherche s'exécute hors du thread JavaFX,
+     * après une courte pause de frappe, et seules les réponses à la dernière saisie sont affichées
+     */
+    private void setupModelAutocomplete() {
+        if (txtModelSearch == null) {
+            return;
+        }
+        
+        // Préchargement de la base TAC et de son index
+        MODEL_SEARCH_EXECUTOR.execute(TACDatabase::getDatabaseSize);
+        
+        modelSearchDelay.setOnFinished(event -> searchModels(txtModelSearch.getText()));
+        txtModelSearch.textProperty().addListener((observable, oldValue, newValue) -> {
+            // Une seule lettre correspond à une grande partie de la base : pas de suggestions
+            if (newValue == null || newValue.trim().length() < MIN_MODEL_QUERY_LENGTH) {
+                modelSearchGeneration.incrementAndGet();
+                modelSearchDelay.stop();
+                modelSuggestions.hide();
+                return;
+            }
+            modelSearchDelay.playFromStart();
+        });
+        txtModelSearch.focusedProperty().addListener((observable, wasFocused, focused) -> {
+            if (!focused) {
+                modelSuggestions.hide();
+            }
+        });
+    }
+    
+    private void searchModels(String query) {
+        long generation = modelSearchGeneration.incrementAndGet();
+        MODEL_SEARCH_EXECUTOR.execute(() -> {
+            List<ModelSearchIndex.Entry> results = TACDatabase.searchModels(query, MAX_MODEL_SUGGESTIONS);
+            Platform.runLater(() -> {
+                if (generation == modelSearchGeneration.get()) {
+                    showModelSuggestions(results);
+                }
+            });
+        });
+    }
+    
+    private void showModelSuggestions(List<ModelSearchIndex.Entry> results) {
+        if (results.isEmpty() || !txtModelSearch.isFocused()) {
+            modelSuggestions.hide();
+            return;
+        }
+        
+        modelSuggestions.getItems().clear();
+        for (ModelSearchIndex.Entry entry : results) {
+            MenuItem item = new MenuItem(entry.getLabel() + "  —  TAC " + entry.getTac());
+            item.setOnAction(event -> selectModel(entry));
+            modelSuggestions.getItems().add(item);
+        }
+        if (!modelSuggestions.isShowing()) {
+            modelSuggestions.show(txtModelSearch, Side.BOTTOM, 0, 0);
+        }
+    }
+    
+    /**
+     * Pré-remplit l'IMEI avec le TAC du modèle choisi
+     */
+    private void selectModel(ModelSearchIndex.Entry entry) {
+        modelSearchGeneration.incrementAndGet();
+        modelSuggestions.hide();
+        txtModelSearch.setText(entry.getLabel());
+        
+        txtIMEI.setText(entry.getTac());
+        txtIMEI.requestFocus();
+        txtIMEI.positionCaret(txtIMEI.getText().length());
+        lblIMEIInfo.setText("💡 TAC " + entry.getTac() + " (" + entry.getLabel() + ") : complétez les 7 derniers chiffres");
+        lblIMEIInfo.setStyle("-fx-text-fill: #666666;");
+    }
+    
     /**
      * Configuration des listeners
      */
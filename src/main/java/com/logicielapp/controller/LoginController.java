@@ -79,6 +79,16 @@ public class LoginController implements Initializable {
             // Charger les préférences utilisateur
             loadUserPreferences();
             
+            // Reprendre la session précédente si elle n'a pas expiré (utilisateur relu en base)
+            Thread restoreThread = new Thread(() -> {
+                if (SessionManager.getInstance().restoreLastSession(authService::findActiveUserById)) {
+                    logger.info("Session précédente restaurée, ouverture directe de l'écran principal");
+                    Platform.runLater(this::loadMainScreen);
+                }
+            }, "SessionRestore");
+            restoreThread.setDaemon(true);
+            restoreThread.start();
+            
             logger.info("Écran de connexion initialisé avec succès");
             
         } catch (Exception e) {
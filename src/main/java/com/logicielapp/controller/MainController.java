@@ -1,9 +1,12 @@
 package com.logicielapp.controller;
 
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.util.Duration;
 import javafx.fxml.FXMLLoader;
@@ -53,6 +56,8 @@ public class MainController implements Initializable {
     // Variables d'état
     private Device currentDevice;
     private UnlockOperation currentOperation;
+    // Appareils branchés (registre de FastDeviceDetectionService), affichés dans tblDevices
+    private final ObservableList<Device> connectedDevices = FXCollections.observableArrayList();
     
     // Détection automatique
     private Timeline autoDetectionTimeline;
@@ -74,6 +79,9 @@ public class MainController implements Initializable {
     
     // Page opérations
     @FXML private Label lblDeviceModel, lblDeviceIMEI, lblDevicePlatform, lblDeviceOS;
+    @FXML private TableView<Device> tblDevices;
+    @FXML private TableColumn<Device, String> colDeviceName, colDeviceIMEI, colDeviceOS;
+    @FXML private TableColumn<Device, Device.Platform> colDevicePlatform;
     @FXML private Button btnStartUnlock, btnStopOperation, btnResetDevice, btnOperationSelection;
     @FXML private Button btnPowerOff, btnPowerOn, btnReboot, btnLock;
     @FXML private TextArea txtConsole;
@@ -100,6 +108,7 @@ public class MainController implements Initializable {
             
             // Configuration initiale de l'interface avec animations extraordinaires
             setupUltraModernUI();
+            setupDeviceTable();
             
             // Vérifier la connexion à la base de données
             updateDatabaseStatus();
@@ -181,9 +190,50 @@ public class MainController implements Initializable {
     }
     
     /**
-     * Démarre la détection automatique des appareils en arrière-plan
+     * Démarre la détection automatique des appareils
+     * Par événements USB quand libusb est disponible, sinon par interrogation périodique
      */
     private void startAutoDetection() {
+        if (deviceService.isEventDriven()) {
+            deviceService.addDeviceListener(new FastDeviceDetectionService.DeviceListener() {
+                // Registre par emplacement USB : chaque branchement est un objet distinct
+                @Override
+                public void onDeviceConnected(Device device) {
+                    Platform.runLater(() -> {
+                        if (connectedDevices.stream().noneMatch(d -> d == device)) {
+                            connectedDevices.add(device);
+                        }
+                        if (currentDevice == null) {
+                            showConnectedDevice(device);
+                        } else if (device != currentDevice) {
+                            // Appareil supplémentaire (hub) : ajouté sans quitter l'appareil en cours
+                            addConsoleMessage("📱 Appareil ajouté: " + device.getDisplayName() + " - " + device.getOsVersion());
+                            updateConnectedCount();
+                        }
+                    });
+                }
+                
+                @Override
+                public void onDeviceDisconnected(Device device) {
+                    Platform.runLater(() -> {
+                        connectedDevices.removeIf(d -> d == device);
+                        if (device == currentDevice) {
+                            showDeviceDisconnected();
+                            // Un autre appareil encore branché prend le relais
+                            List<Device> remaining = deviceService.detectAllConnectedDevices();
+                            if (!remaining.isEmpty()) {
+                                showConnectedDevice(remaining.get(0));
+                            }
+                        } else {
+                            addConsoleMessage("🔌 Appareil retiré: " + device.getDisplayName());
+                        }
+                        updateConnectedCount();
+                    });
+                }
+            });
+            return;
+        }
+        
         Task<Void> detectionTask = new Task<Void>() {
             @Override
             protected Void call() throws Exception {
@@ -201,58 +251,19 @@ public class MainController implements Initializable {
                         final Device finalDetectedDevice = detectedDevice;
                         
                         Platform.runLater(() -> {
-                            if (finalDetectedDevice != null && !isSameDevice(finalDetectedDevice, currentDevice)) {
-                                // Nouvel appareil détecté
-                                currentDevice = finalDetectedDevice;
-                                updateDeviceInfo(currentDevice);
-                                addConsoleMessage("📱 Nouvel appareil détecté automatiquement: " + currentDevice.getDisplayName());
-                                addConsoleMessage("✅ " + currentDevice.getBrand() + " " + currentDevice.getModel() + " - " + currentDevice.getOsVersion());
-                                lblUSBStatus.setText("🔗 Connecté: " + currentDevice.getDisplayName());
-                                lblUSBStatus.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
-                                
-                                // Activer les boutons d'opération
-                                btnStartUnlock.setDisable(false);
-                                btnResetDevice.setDisable(false);
-                                
-                                // Activer les boutons d'alimentation
-                                btnPowerOff.setDisable(false);
-                                btnPowerOn.setDisable(false);
-                                btnReboot.setDisable(false);
-                                btnLock.setDisable(false);
-                                
-                                // Passer automatiquement à la page opérations
-                                showPage("operations");
-                                updateStatus("Appareil détecté - Prêt pour opérations");
-                                
+                            refreshDeviceList(detectedDevices);
+                            // L'appareil choisi dans la liste reste sélectionné tant qu'il est branché
+                            boolean currentStillConnected = detectedDevices.stream()
+                                .anyMatch(d -> isSameDevice(d, currentDevice));
+                            if (finalDetectedDevice != null && !currentStillConnected) {
+                                showConnectedDevice(finalDetectedDevice);
                             } else if (finalDetectedDevice == null && currentDevice != null) {
-                                // Appareil déconnecté automatiquement
-                                String deviceName = currentDevice.getDisplayName();
-                                addConsoleMessage("🔌 Appareil déconnecté automatiquement: " + deviceName);
-                                addConsoleMessage("⚠️ Retour à l'écran d'accueil");
-                                
-                                currentDevice = null;
-                                clearDeviceInfo();
-                                lblUSBStatus.setText("⚡ Détection automatique active");
-                                lblUSBStatus.setStyle("-fx-text-fill: orange;");
-                                
-                                // Désactiver les boutons d'opération
-                                btnStartUnlock.setDisable(true);
-                                btnStopOperation.setDisable(true);
-                                btnResetDevice.setDisable(true);
-                                
-                                // Désactiver les boutons d'alimentation
-                                btnPowerOff.setDisable(true);
-                                btnPowerOn.setDisable(true);
-                                btnReboot.setDisable(true);
-                                btnLock.setDisable(true);
-                                
-                                // Revenir automatiquement à l'accueil
-                                showPage("accueil");
-                                updateStatus("En attente d'appareil...");
+                                showDeviceDisconnected();
                             }
                         });
                         
-                        Thread.sleep(500); // 500ms pour une détection ultra-rapide
+                        // Sans événements USB, chaque passage lance des processus : rythme réduit
+                        Thread.sleep(2000);
                     } catch (InterruptedException e) {
                         break;
                     } catch (Exception e) {
@@ -269,6 +280,139 @@ public class MainController implements Initializable {
         detectionThread.start();
     }
     
+    /**
+     * Configure la liste des appareils branchés ; une sélection change l'appareil en cours
+     */
+    private void setupDeviceTable() {
+        colDeviceName.setCellValueFactory(new PropertyValueFactory<>("displayName"));
+        colDevicePlatform.setCellValueFactory(new PropertyValueFactory<>("platform"));
+        colDeviceOS.setCellValueFactory(new PropertyValueFactory<>("osVersion"));
+        colDeviceIMEI.setCellValueFactory(new PropertyValueFactory<>("imei"));
+        tblDevices.setPlaceholder(new Label("Aucun appareil branché"));
+        tblDevices.setItems(connectedDevices);
+        
+        tblDevices.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal != null && !isSameDevice(newVal, currentDevice)) {
+                selectDevice(newVal);
+            }
+        });
+    }
+    
+    /**
+     * Remplace la liste par le résultat d'une détection sans événements, si elle a changé
+     */
+    private void refreshDeviceList(List<Device> devices) {
+        boolean unchanged = devices.size() == connectedDevices.size();
+        for (int i = 0; unchanged && i < devices.size(); i++) {
+            unchanged = isSameDevice(devices.get(i), connectedDevices.get(i));
+        }
+        if (!unchanged) {
+            connectedDevices.setAll(devices);
+            if (currentDevice != null) {
+                tblDevices.getSelectionModel().select(currentDevice);
+            }
+        }
+    }
+    
+    /**
+     * Fait d'un appareil de la liste l'appareil en cours (refusé pendant une opération)
+     */
+    private void selectDevice(Device device) {
+        if (!btnStopOperation.isDisabled()) {
+            addConsoleMessage("⚠️ Opération en cours : changement d'appareil impossible");
+            Platform.runLater(() -> tblDevices.getSelectionModel().select(currentDevice));
+            return;
+        }
+        if (currentDevice == null) {
+            showConnectedDevice(device);
+            return;
+        }
+        currentDevice = device;
+        updateDeviceInfo(currentDevice);
+        addConsoleMessage("📱 Appareil sélectionné: " + currentDevice.getDisplayName());
+        lblUSBStatus.setText("🔗 Connecté: " + currentDevice.getDisplayName());
+        updateConnectedCount();
+        updateStatus("Appareil sélectionné - Prêt pour opérations");
+    }
+    
+    /**
+     * Indique l'appareil en cours et le nombre d'appareils branchés (détection par événements)
+     */
+    private void updateConnectedCount() {
+        if (currentDevice == null) {
+            return;
+        }
+        int connected = deviceService.detectAllConnectedDevices().size();
+        int pending = deviceService.getPendingIdentificationCount();
+        StringBuilder status = new StringBuilder("🔗 Connecté: ").append(currentDevice.getDisplayName());
+        if (connected > 1) {
+            status.append(" (").append(connected).append(" appareils branchés)");
+        }
+        if (pending > 0) {
+            status.append(" – ").append(pending).append(" en identification");
+        }
+        lblUSBStatus.setText(status.toString());
+    }
+    
+    /**
+     * Affiche un appareil nouvellement détecté et active les opérations
+     */
+    private void showConnectedDevice(Device device) {
+        // Nouvel appareil détecté
+        currentDevice = device;
+        updateDeviceInfo(currentDevice);
+        addConsoleMessage("📱 Nouvel appareil détecté automatiquement: " + currentDevice.getDisplayName());
+        addConsoleMessage("✅ " + currentDevice.getBrand() + " " + currentDevice.getModel() + " - " + currentDevice.getOsVersion());
+        lblUSBStatus.setText("🔗 Connecté: " + currentDevice.getDisplayName());
+        lblUSBStatus.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
+        tblDevices.getSelectionModel().select(currentDevice);
+        
+        // Activer les boutons d'opération
+        btnStartUnlock.setDisable(false);
+        btnResetDevice.setDisable(false);
+        
+        // Activer les boutons d'alimentation
+        btnPowerOff.setDisable(false);
+        btnPowerOn.setDisable(false);
+        btnReboot.setDisable(false);
+        btnLock.setDisable(false);
+        
+        // Passer automatiquement à la page opérations
+        showPage("operations");
+        updateStatus("Appareil détecté - Prêt pour opérations");
+    }
+    
+    /**
+     * Revient à l'accueil après le débranchement de l'appareil courant
+     */
+    private void showDeviceDisconnected() {
+        // Appareil déconnecté automatiquement
+        String deviceName = currentDevice.getDisplayName();
+        addConsoleMessage("🔌 Appareil déconnecté automatiquement: " + deviceName);
+        addConsoleMessage("⚠️ Retour à l'écran d'accueil");
+        
+        currentDevice = null;
+        clearDeviceInfo();
+        tblDevices.getSelectionModel().clearSelection();
+        lblUSBStatus.setText("⚡ Détection automatique active");
+        lblUSBStatus.setStyle("-fx-text-fill: orange;");
+        
+        // Désactiver les boutons d'opération
+        btnStartUnlock.setDisable(true);
+        btnStopOperation.setDisable(true);
+        btnResetDevice.setDisable(true);
+        
+        // Désactiver les boutons d'alimentation
+        btnPowerOff.setDisable(true);
+        btnPowerOn.setDisable(true);
+        btnReboot.setDisable(true);
+        btnLock.setDisable(true);
+        
+        // Revenir automatiquement à l'accueil
+        showPage("accueil");
+        updateStatus("En attente d'appareil...");
+    }
+    
     // =========================== NAVIGATION ===========================
     
     @FXML
@@ -1008,6 +1152,7 @@ public class MainController implements Initializable {
                     // Effacer immédiatement les informations de l'appareil
                     currentDevice = null;
                     clearDeviceInfo();
+                    tblDevices.getSelectionModel().clearSelection();
                     
                     // Mettre à jour l'interface pour refléter la déconnexion
                     lblUSBStatus.setText("🚫 Appareil déconnecté physiquement");
@@ -1156,7 +1301,9 @@ public class MainController implements Initializable {
                         addConsoleMessage("   • Acceptez 'Faire confiance à cet ordinateur'");
                         addConsoleMessage("   • Installez libimobiledevice: brew install libimobiledevice");
                     } else {
+                        connectedDevices.setAll(devices);
                         currentDevice = devices.get(0); // Sélectionner le premier appareil
+                        tblDevices.getSelectionModel().select(currentDevice);
                         lblUSBStatus.setText(devices.size() + " appareil(s) détecté(s)");
                         lblUSBStatus.setStyle("-fx-text-fill: green;");
                         addConsoleMessage("✅ Détection terminée: " + devices.size() + " appareil(s) réel(s) trouvé(s)");
@@ -8,15 +8,20 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import javafx.stage.Modality;
 import javafx.application.Platform;
-import com.logicielapp.util.DatabaseManager;
+import com.logicielapp.service.AuthenticationService;
+import com.logicielapp.util.ConfigurationService;
+import com.logicielapp.util.SessionManager;
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ParametersController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ParametersController.class);
+
     @FXML private Button homeBtn;
     @FXML private Button statisticsBtn;
     @FXML private Button parametersBtn;
@@ -36,6 +41,7 @@ public class ParametersController {
     @FXML private CheckBox luhnValidationCheck;
     @FXML private CheckBox fakeDetectionCheck;
     @FXML private CheckBox gsmaDbCheck;
+    @FXML private CheckBox skipUnknownTacCheck;
     @FXML private ComboBox<String> validationModeCombo;
     
     // Interface utilisateur
@@ -48,6 +54,7 @@ public class ParametersController {
     @FXML private CheckBox detailedLogsCheck;
     @FXML private CheckBox maskImeiCheck;
     @FXML private Spinner<Integer> sessionDurationSpinner;
+    @FXML private Button unlockLoginsBtn;
 
     @FXML
     private void initialize() {
@@ -70,6 +77,11 @@ public class ParametersController {
             languageCombo.setValue("Français");
         }
         
+        // Le déblocage des connexions est réservé aux administrateurs
+        if (unlockLoginsBtn != null) {
+            unlockLoginsBtn.setDisable(!SessionManager.getInstance().isCurrentUserAdmin());
+        }
+        
         // Charger les paramètres sauvegardés
         loadSettings();
         
@@ -93,88 +105,80 @@ public class ParametersController {
                 stage.centerOnScreen();
             }
             
-            System.out.println("🎯 Taille de fenêtre Paramètres configurée: 900x700 (état préservé)");
+            logger.debug("Taille de fenêtre Paramètres configurée: 900x700 (état préservé)");
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     private void loadSettings() {
-        // Charger depuis la base de données directement
-        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
-            
-            // Configuration API
-            if (dhruEnabledCheck != null) {
-                dhruEnabledCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "dhru_enabled", "true")));
-            }
-            if (dhruApiKeyField != null) {
-                dhruApiKeyField.setText(loadConfigValue(conn, "dhru_api_key", "8AE-VC2-G18-1K7-K73-8FI-4H4-2AU"));
-            }
-            if (ifreeEnabledCheck != null) {
-                ifreeEnabledCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "ifree_enabled", "true")));
-            }
-            if (apiTimeoutSpinner != null) {
-                apiTimeoutSpinner.getValueFactory().setValue(Integer.parseInt(loadConfigValue(conn, "api_timeout", "15")));
-            }
-            
-            // Validation
-            if (luhnValidationCheck != null) {
-                luhnValidationCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "luhn_validation", "true")));
-            }
-            if (fakeDetectionCheck != null) {
-                fakeDetectionCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "fake_detection", "true")));
-            }
-            if (gsmaDbCheck != null) {
-                gsmaDbCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "gsma_db", "true")));
-            }
-            if (validationModeCombo != null) {
-                validationModeCombo.setValue(loadConfigValue(conn, "validation_mode", "Normal"));
-            }
-            
-            // Interface
-            if (darkThemeCheck != null) {
-                darkThemeCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "dark_theme", "false")));
-            }
-            if (animationsCheck != null) {
-                animationsCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "animations", "true")));
-            }
-            if (languageCombo != null) {
-                languageCombo.setValue(loadConfigValue(conn, "language", "Français"));
-            }
-            if (notificationsCheck != null) {
-                notificationsCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "notifications", "true")));
-            }
-            
-            // Sécurité
-            if (detailedLogsCheck != null) {
-                detailedLogsCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "detailed_logs", "true")));
-            }
-            if (maskImeiCheck != null) {
-                maskImeiCheck.setSelected(Boolean.parseBoolean(loadConfigValue(conn, "mask_imei", "true")));
-            }
-            if (sessionDurationSpinner != null) {
-                sessionDurationSpinner.getValueFactory().setValue(Integer.parseInt(loadConfigValue(conn, "session_duration", "60")));
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-            // Utiliser les valeurs par défaut en cas d'erreur
-            setDefaultValues();
+        // Valeurs en cache : aucune requête sur le thread JavaFX
+        ConfigurationService.Snapshot config = ConfigurationService.getInstance().getSnapshot();
+        if (config.isLoaded()) {
+            applySettings(config);
+            return;
         }
+        setDefaultValues();
+        ConfigurationService.getInstance().reloadAsync()
+            .thenAccept(loaded -> Platform.runLater(() -> applySettings(loaded)));
     }
     
-    private String loadConfigValue(Connection conn, String key, String defaultValue) {
-        String sql = "SELECT valeur FROM configurations WHERE cle_config = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, key);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("valeur");
-            }
-        } catch (SQLException e) {
-            System.err.println("Erreur chargement config " + key + ": " + e.getMessage());
+    private void applySettings(ConfigurationService.Snapshot config) {
+        // Configuration API
+        if (dhruEnabledCheck != null) {
+            dhruEnabledCheck.setSelected(config.getBoolean("dhru_enabled", true));
+        }
+        if (dhruApiKeyField != null) {
+            dhruApiKeyField.setText(config.getString("dhru_api_key", "8AE-VC2-G18-1K7-K73-8FI-4H4-2AU"));
+        }
+        if (ifreeEnabledCheck != null) {
+            ifreeEnabledCheck.setSelected(config.getBoolean("ifree_enabled", true));
+        }
+        if (apiTimeoutSpinner != null) {
+            apiTimeoutSpinner.getValueFactory().setValue(config.getInt("api_timeout", 15));
+        }
+        
+        // Validation
+        if (luhnValidationCheck != null) {
+            luhnValidationCheck.setSelected(config.getBoolean("luhn_validation", true));
+        }
+        if (fakeDetectionCheck != null) {
+            fakeDetectionCheck.setSelected(config.getBoolean("fake_detection", true));
+        }
+        if (gsmaDbCheck != null) {
+            gsmaDbCheck.setSelected(config.getBoolean("gsma_db", true));
+        }
+        if (skipUnknownTacCheck != null) {
+            skipUnknownTacCheck.setSelected(config.getBoolean("skip_unknown_tac", false));
+        }
+        if (validationModeCombo != null) {
+            validationModeCombo.setValue(config.getString("validation_mode", "Normal"));
+        }
+        
+        // Interface
+        if (darkThemeCheck != null) {
+            darkThemeCheck.setSelected(config.getBoolean("dark_theme", false));
+        }
+        if (animationsCheck != null) {
+            animationsCheck.setSelected(config.getBoolean("animations", true));
+        }
+        if (languageCombo != null) {
+            languageCombo.setValue(config.getString("language", "Français"));
+        }
+        if (notificationsCheck != null) {
+            notificationsCheck.setSelected(config.getBoolean("notifications", true));
+        }
+        
+        // Sécurité
+        if (detailedLogsCheck != null) {
+            detailedLogsCheck.setSelected(config.getBoolean("detailed_logs", true));
+        }
+        if (maskImeiCheck != null) {
+            maskImeiCheck.setSelected(config.getBoolean("mask_imei", true));
+        }
+        if (sessionDurationSpinner != null) {
+            sessionDurationSpinner.getValueFactory().setValue(config.getInt("session_duration", 60));
         }
-        return defaultValue;
     }
     
     private void setDefaultValues() {
@@ -185,6 +189,7 @@ public class ParametersController {
         if (luhnValidationCheck != null) luhnValidationCheck.setSelected(true);
         if (fakeDetectionCheck != null) fakeDetectionCheck.setSelected(true);
         if (gsmaDbCheck != null) gsmaDbCheck.setSelected(true);
+        if (skipUnknownTacCheck != null) skipUnknownTacCheck.setSelected(false);
         if (validationModeCombo != null) validationModeCombo.setValue("Normal");
         if (darkThemeCheck != null) darkThemeCheck.setSelected(false);
         if (animationsCheck != null) animationsCheck.setSelected(true);
@@ -195,20 +200,6 @@ public class ParametersController {
         if (sessionDurationSpinner != null) sessionDurationSpinner.getValueFactory().setValue(60);
     }
     
-    private boolean saveConfigValue(Connection conn, String key, String value) {
-        String sql = "INSERT INTO configurations (cle_config, valeur, description) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE valeur = VALUES(valeur)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, key);
-            stmt.setString(2, value);
-            stmt.setString(3, getConfigDescription(key));
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Erreur sauvegarde config " + key + ": " + e.getMessage());
-            return false;
-        }
-    }
-    
     private String getConfigDescription(String key) {
         switch (key) {
             case "dhru_enabled": return "Activation du service DHRU";
@@ -218,6 +209,7 @@ public class ParametersController {
             case "luhn_validation": return "Validation Luhn des IMEI";
             case "fake_detection": return "Détection des IMEI factices";
             case "gsma_db": return "Utilisation base GSMA";
+            case "skip_unknown_tac": return "Ne pas interroger les fournisseurs pour les TAC non attribués";
             case "validation_mode": return "Mode de validation";
             case "dark_theme": return "Thème sombre";
             case "animations": return "Animations interface";
@@ -230,101 +222,96 @@ public class ParametersController {
         }
     }
     
-    private boolean resetAllConfigurations() {
-        String sql = "DELETE FROM configurations";
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            int rowsAffected = stmt.executeUpdate();
-            System.out.println("Configurations supprimées: " + rowsAffected);
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Erreur réinitialisation configurations: " + e.getMessage());
-            return false;
-        }
-    }
-
     @FXML
     private void saveSettings() {
-        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
-            
-            // Validation des paramètres
-            if (apiTimeoutSpinner != null && (apiTimeoutSpinner.getValue() < 5 || apiTimeoutSpinner.getValue() > 60)) {
-                showAlert("Le timeout API doit être entre 5 et 60 secondes", false);
-                return;
-            }
-            
-            if (sessionDurationSpinner != null && (sessionDurationSpinner.getValue() < 15 || sessionDurationSpinner.getValue() > 480)) {
-                showAlert("La durée de session doit être entre 15 et 480 minutes", false);
-                return;
-            }
-            
-            // Sauvegarder tous les paramètres dans la base de données
-            boolean allSaved = true;
-            
-            // Configuration API
-            if (dhruEnabledCheck != null) {
-                allSaved &= saveConfigValue(conn, "dhru_enabled", String.valueOf(dhruEnabledCheck.isSelected()));
-            }
-            if (dhruApiKeyField != null) {
-                allSaved &= saveConfigValue(conn, "dhru_api_key", dhruApiKeyField.getText());
-            }
-            if (ifreeEnabledCheck != null) {
-                allSaved &= saveConfigValue(conn, "ifree_enabled", String.valueOf(ifreeEnabledCheck.isSelected()));
-            }
-            if (apiTimeoutSpinner != null) {
-                allSaved &= saveConfigValue(conn, "api_timeout", String.valueOf(apiTimeoutSpinner.getValue()));
-            }
-            
-            // Validation
-            if (luhnValidationCheck != null) {
-                allSaved &= saveConfigValue(conn, "luhn_validation", String.valueOf(luhnValidationCheck.isSelected()));
-            }
-            if (fakeDetectionCheck != null) {
-                allSaved &= saveConfigValue(conn, "fake_detection", String.valueOf(fakeDetectionCheck.isSelected()));
-            }
-            if (gsmaDbCheck != null) {
-                allSaved &= saveConfigValue(conn, "gsma_db", String.valueOf(gsmaDbCheck.isSelected()));
-            }
-            if (validationModeCombo != null) {
-                allSaved &= saveConfigValue(conn, "validation_mode", validationModeCombo.getValue());
-            }
-            
-            // Interface
-            if (darkThemeCheck != null) {
-                allSaved &= saveConfigValue(conn, "dark_theme", String.valueOf(darkThemeCheck.isSelected()));
-            }
-            if (animationsCheck != null) {
-                allSaved &= saveConfigValue(conn, "animations", String.valueOf(animationsCheck.isSelected()));
-            }
-            if (languageCombo != null) {
-                allSaved &= saveConfigValue(conn, "language", languageCombo.getValue());
-            }
-            if (notificationsCheck != null) {
-                allSaved &= saveConfigValue(conn, "notifications", String.valueOf(notificationsCheck.isSelected()));
-            }
-            
-            // Sécurité
-            if (detailedLogsCheck != null) {
-                allSaved &= saveConfigValue(conn, "detailed_logs", String.valueOf(detailedLogsCheck.isSelected()));
-            }
-            if (maskImeiCheck != null) {
-                allSaved &= saveConfigValue(conn, "mask_imei", String.valueOf(maskImeiCheck.isSelected()));
-            }
-            if (sessionDurationSpinner != null) {
-                allSaved &= saveConfigValue(conn, "session_duration", String.valueOf(sessionDurationSpinner.getValue()));
-            }
-            
-            if (allSaved) {
-                showAlert("Paramètres sauvegardés avec succès dans la base de données !", true);
-                System.out.println("✅ Tous les paramètres ont été sauvegardés dans la base de données");
-            } else {
-                showAlert("Erreur partielle lors de la sauvegarde des paramètres", false);
-            }
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-            showAlert("Erreur lors de la sauvegarde des paramètres", false);
+        // Validation des paramètres
+        if (apiTimeoutSpinner != null && (apiTimeoutSpinner.getValue() < 5 || apiTimeoutSpinner.getValue() > 60)) {
+            showAlert("Le timeout API doit être entre 5 et 60 secondes", false);
+            return;
+        }
+        
+        if (sessionDurationSpinner != null && (sessionDurationSpinner.getValue() < 15 || sessionDurationSpinner.getValue() > 480)) {
+            showAlert("La durée de session doit être entre 15 et 480 minutes", false);
+            return;
+        }
+        
+        // Relevé des valeurs sur le thread JavaFX, enregistrement groupé en arrière-plan
+        Map<String, String> values = new LinkedHashMap<>();
+        
+        // Configuration API
+        if (dhruEnabledCheck != null) {
+            values.put("dhru_enabled", String.valueOf(dhruEnabledCheck.isSelected()));
+        }
+        if (dhruApiKeyField != null) {
+            values.put("dhru_api_key", dhruApiKeyField.getText());
+        }
+        if (ifreeEnabledCheck != null) {
+            values.put("ifree_enabled", String.valueOf(ifreeEnabledCheck.isSelected()));
+        }
+        if (apiTimeoutSpinner != null) {
+            values.put("api_timeout", String.valueOf(apiTimeoutSpinner.getValue()));
         }
+        
+        // Validation
+        if (luhnValidationCheck != null) {
+            values.put("luhn_validation", String.valueOf(luhnValidationCheck.isSelected()));
+        }
+        if (fakeDetectionCheck != null) {
+            values.put("fake_detection", String.valueOf(fakeDetectionCheck.isSelected()));
+        }
+        if (gsmaDbCheck != null) {
+            values.put("gsma_db", String.valueOf(gsmaDbCheck.isSelected()));
+        }
+        if (skipUnknownTacCheck != null) {
+            values.put("skip_unknown_tac", String.valueOf(skipUnknownTacCheck.isSelected()));
+        }
+        if (validationModeCombo != null) {
+            values.put("validation_mode", validationModeCombo.getValue());
+        }
+        
+        // Interface
+        if (darkThemeCheck != null) {
+            values.put("dark_theme", String.valueOf(darkThemeCheck.isSelected()));
+        }
+        if (animationsCheck != null) {
+            values.put("animations", String.valueOf(animationsCheck.isSelected()));
+        }
+        if (languageCombo != null) {
+            values.put("language", languageCombo.getValue());
+        }
+        if (notificationsCheck != null) {
+            values.put("notifications", String.valueOf(notificationsCheck.isSelected()));
+        }
+        
+        // Sécurité
+        if (detailedLogsCheck != null) {
+            values.put("detailed_logs", String.valueOf(detailedLogsCheck.isSelected()));
+        }
+        if (maskImeiCheck != null) {
+            values.put("mask_imei", String.valueOf(maskImeiCheck.isSelected()));
+        }
+        if (sessionDurationSpinner != null) {
+            values.put("session_duration", String.valueOf(sessionDurationSpinner.getValue()));
+        }
+        
+        Map<String, String> descriptions = new HashMap<>();
+        for (String key : values.keySet()) {
+            descriptions.put(key, getConfigDescription(key));
+        }
+        
+        // Les services abonnés (fournisseurs IMEI, sessions) appliquent les nouvelles valeurs au rechargement
+        saveBtn.setDisable(true);
+        ConfigurationService.getInstance().saveAllAsync(values, descriptions)
+            .exceptionally(e -> false)
+            .thenAccept(saved -> Platform.runLater(() -> {
+                saveBtn.setDisable(false);
+                if (saved) {
+                    showAlert("Paramètres sauvegardés avec succès dans la base de données !", true);
+                    logger.info("Tous les paramètres ont été sauvegardés dans la base de données");
+                } else {
+                    showAlert("Erreur lors de la sauvegarde des paramètres", false);
+                }
+            }));
     }
 
     @FXML
@@ -336,16 +323,31 @@ public class ParametersController {
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                if (resetAllConfigurations()) {
-                    loadSettings(); // Recharger les valeurs par défaut
-                    showAlert("Paramètres réinitialisés avec succès !", true);
-                } else {
-                    showAlert("Erreur lors de la réinitialisation des paramètres", false);
-                }
+                ConfigurationService.getInstance().resetAllAsync()
+                    .exceptionally(e -> false)
+                    .thenAccept(reset -> Platform.runLater(() -> {
+                        if (reset) {
+                            // Recharger les valeurs par défaut
+                            applySettings(ConfigurationService.getInstance().getSnapshot());
+                            showAlert("Paramètres réinitialisés avec succès !", true);
+                        } else {
+                            showAlert("Erreur lors de la réinitialisation des paramètres", false);
+                        }
+                    }));
             }
         });
     }
 
+    @FXML
+    private void unlockLogins() {
+        try {
+            new AuthenticationService().clearLoginBlocks();
+            showAlert("Tentatives de connexion débloquées", true);
+        } catch (SecurityException e) {
+            showAlert("Action réservée aux administrateurs", false);
+        }
+    }
+
     private void showAlert(String message, boolean success) {
         saveAlert.setText((success ? "✅ " : "❌ ") + message);
         saveAlert.setStyle(success ? 
@@ -5,10 +5,14 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.Parent;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Alert;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Tooltip;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.Modality;
 import javafx.application.Platform;
@@ -16,14 +20,18 @@ import javafx.concurrent.Task;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.PieChart;
 import javafx.scene.chart.XYChart;
+import com.logicielapp.service.ExportService;
 import com.logicielapp.service.StatisticsService;
 import com.logicielapp.util.TransitionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Random;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Contrôleur pour l'écran des statistiques
@@ -32,8 +40,17 @@ import java.util.Map;
 public class StatisticsController {
 
     private static final Logger logger = LoggerFactory.getLogger(StatisticsController.class);
+    
+    // Un export à la fois, hors du thread JavaFX
+    private static final ExecutorService EXPORT_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "StatsExport");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     private final StatisticsService statisticsService;
     private Task<Void> updateTask;
+    private Task<Long> exportTask;
     
     public StatisticsController() {
         this.statisticsService = new StatisticsService();
@@ -59,6 +76,15 @@ public class StatisticsController {
     
     // Conteneur d'activité
     @FXML private VBox activityContainer;
+    
+    // Export
+    @FXML private ComboBox<ExportService.Dataset> exportDatasetCombo;
+    @FXML private ComboBox<ExportService.Format> exportFormatCombo;
+    @FXML private CheckBox exportGzipCheck;
+    @FXML private Button exportBtn;
+    @FXML private Button cancelExportBtn;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private Label exportStatusLabel;
 
     @FXML
     private void initialize() {
@@ -68,6 +94,9 @@ public class StatisticsController {
             // Configuration des tooltips
             setupTooltips();
             
+            // Choix d'export
+            setupExport();
+            
             // Chargement initial des statistiques
             loadStatistics();
             
@@ -302,6 +331,79 @@ public class StatisticsController {
         }
     }
 
+    // ======================== EXPORT ========================
+
+    private void setupExport() {
+        exportDatasetCombo.getItems().setAll(ExportService.Dataset.values());
+        exportDatasetCombo.setValue(ExportService.Dataset.HISTORIQUE);
+        exportFormatCombo.getItems().setAll(ExportService.Format.values());
+        exportFormatCombo.setValue(ExportService.Format.CSV);
+        exportProgressBar.setVisible(false);
+        cancelExportBtn.setDisable(true);
+    }
+
+    /**
+     * Exporte le jeu de données choisi dans un fichier, en arrière-plan avec suivi de l'avancement
+     */
+    @FXML
+    private void exportData() {
+        ExportService.Dataset dataset = exportDatasetCombo.getValue();
+        ExportService.Format format = exportFormatCombo.getValue();
+        boolean gzip = exportGzipCheck.isSelected();
+        String extension = format.getExtension() + (gzip ? ".gz" : "");
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Exporter : " + dataset);
+        fileChooser.setInitialFileName(dataset.getTable() + "." + extension);
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter(format + (gzip ? " compressé" : ""), "*." + extension)
+        );
+        File file = fileChooser.showSaveDialog(exportBtn.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        exportTask = new Task<Long>() {
+            @Override
+            protected Long call() throws Exception {
+                return ExportService.getInstance().export(dataset, format, file.toPath(), gzip, (written, total) -> {
+                    updateProgress(written, total);
+                    updateMessage(String.format("%,d lignes exportées", written));
+                });
+            }
+        };
+        exportStatusLabel.textProperty().bind(exportTask.messageProperty());
+        exportProgressBar.progressProperty().bind(exportTask.progressProperty());
+        exportProgressBar.setVisible(true);
+        exportBtn.setDisable(true);
+        cancelExportBtn.setDisable(false);
+        
+        exportTask.setOnSucceeded(e -> finishExport(String.format("✅ %,d lignes exportées dans %s",
+            exportTask.getValue(), file.getName())));
+        exportTask.setOnCancelled(e -> finishExport("Export annulé"));
+        exportTask.setOnFailed(e -> {
+            logger.error("Échec de l'export {}", dataset.getTable(), exportTask.getException());
+            finishExport("❌ Échec de l'export: " + exportTask.getException().getMessage());
+        });
+        EXPORT_EXECUTOR.submit(exportTask);
+    }
+
+    @FXML
+    private void cancelExport() {
+        if (exportTask != null) {
+            exportTask.cancel(true);
+        }
+    }
+
+    private void finishExport(String status) {
+        exportStatusLabel.textProperty().unbind();
+        exportProgressBar.progressProperty().unbind();
+        exportStatusLabel.setText(status);
+        exportProgressBar.setVisible(false);
+        exportBtn.setDisable(false);
+        cancelExportBtn.setDisable(true);
+    }
+
     // ======================== NAVIGATION ========================
 
     // Les méthodes de navigation ont été supprimées car cette interface s'ouvre maintenant dans une fenêtre séparée
@@ -0,0 +1,34 @@
+package com.logicielapp.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteur monotone (incréments concurrents sans contention)
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void inc() {
+        if (Metrics.ENABLED) {
+            value.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (Metrics.ENABLED) {
+            value.add(amount);
+        }
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
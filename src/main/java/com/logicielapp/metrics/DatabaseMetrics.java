@@ -0,0 +1,171 @@
+package com.logicielapp.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métriques de la base de données : attente et usage du pool HikariCP,
+ * latence des requêtes par type d'instruction (select, insert, update, delete)
+ */
+public final class DatabaseMetrics {
+
+    private static final String[] OPERATIONS = { "select", "insert", "update", "delete", "other" };
+    private static final Histogram[] STATEMENT_LATENCY = new Histogram[OPERATIONS.length];
+
+    static {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            STATEMENT_LATENCY[i] = Metrics.histogram("db_statement_seconds",
+                "Durée d'exécution des requêtes SQL", "operation", OPERATIONS[i]);
+        }
+    }
+
+    private static final Histogram POOL_WAIT = Metrics.histogram("db_pool_wait_seconds",
+        "Attente d'une connexion du pool");
+    private static final Histogram CONNECTION_USAGE = Metrics.histogram("db_connection_usage_seconds",
+        "Durée d'emprunt des connexions");
+    private static final Counter POOL_TIMEOUTS = Metrics.counter("db_pool_timeouts_total",
+        "Délais d'attente de connexion dépassés");
+
+    private DatabaseMetrics() {
+    }
+
+    /**
+     * Suivi du pool à installer dans la configuration HikariCP (null si désactivé)
+     */
+    public static MetricsTrackerFactory poolTracker() {
+        if (!Metrics.ENABLED) {
+            return null;
+        }
+        return (poolName, poolStats) -> {
+            registerPoolGauges(poolStats);
+            return new IMetricsTracker() {
+                @Override
+                public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                    POOL_WAIT.record(elapsedAcquiredNanos);
+                }
+
+                @Override
+                public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                    CONNECTION_USAGE.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+                }
+
+                @Override
+                public void recordConnectionTimeout() {
+                    POOL_TIMEOUTS.inc();
+                }
+            };
+        };
+    }
+
+    private static void registerPoolGauges(PoolStats stats) {
+        Metrics.gauge("db_pool_connections", "Connexions du pool", stats::getActiveConnections, "state", "active");
+        Metrics.gauge("db_pool_connections", "Connexions du pool", stats::getIdleConnections, "state", "idle");
+        Metrics.gauge("db_pool_connections", "Connexions du pool", stats::getTotalConnections, "state", "total");
+        Metrics.gauge("db_pool_pending_threads", "Threads en attente d'une connexion", stats::getPendingThreads);
+    }
+
+    /**
+     * Enveloppe une connexion pour mesurer ses requêtes (connexion inchangée si désactivé)
+     */
+    public static Connection wrap(Connection connection) {
+        if (!Metrics.ENABLED) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(DatabaseMetrics.class.getClassLoader(),
+            new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    private static int operationIndex(String sql) {
+        if (sql == null) {
+            return OPERATIONS.length - 1;
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        for (int i = 0; i < OPERATIONS.length - 1; i++) {
+            if (OPERATIONS[i].equals(keyword)) {
+                return i;
+            }
+        }
+        return OPERATIONS.length - 1;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Les instructions créées par la connexion sont elles-mêmes enveloppées
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = DatabaseMetrics.invoke(target, method, args);
+            String name = method.getName();
+            if ((name.equals("prepareStatement") || name.equals("prepareCall")) && result instanceof PreparedStatement) {
+                return wrapStatement((Statement) result, method.getReturnType(), operationIndex((String) args[0]));
+            }
+            if (result instanceof Statement && name.equals("createStatement")) {
+                return wrapStatement((Statement) result, Statement.class, -1);
+            }
+            return result;
+        }
+    }
+
+    private static Object wrapStatement(Statement statement, Class<?> type, int operation) {
+        return Proxy.newProxyInstance(DatabaseMetrics.class.getClassLoader(), new Class<?>[] { type },
+            new StatementHandler(statement, operation));
+    }
+
+    /**
+     * Mesure les méthodes execute* ; pour un Statement simple, le type vient du SQL passé
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final int operation;
+
+        StatementHandler(Statement target, int operation) {
+            this.target = target;
+            this.operation = operation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return DatabaseMetrics.invoke(target, method, args);
+            }
+            int index = operation >= 0 ? operation
+                : operationIndex(args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null);
+            long start = System.nanoTime();
+            try {
+                return DatabaseMetrics.invoke(target, method, args);
+            } finally {
+                STATEMENT_LATENCY[index].recordSince(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.logicielapp.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registre de métriques de l'application (compteurs, jauges, histogrammes de latence)
+ * Exposé en texte Prometheus (endpoint /metrics) et par JMX (com.logicielapp:type=Metrics).
+ *
+ * Les métriques sont créées une fois et conservées dans des champs statiques par les appelants :
+ * le chemin chaud ne fait aucune recherche dans le registre.
+ * Avec -Dmetrics.enabled=false, ENABLED est une constante que le JIT élimine :
+ * les enregistrements deviennent des appels vides et rien n'est exporté.
+ */
+public final class Metrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(Metrics.class);
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("metrics.enabled", "true"));
+
+    private static final String PREFIX = "logicielapp_";
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private static final Map<String, Family> FAMILIES = new ConcurrentHashMap<>();
+
+    private enum Type { COUNTER, GAUGE, SUMMARY }
+
+    /**
+     * Métriques d'un même nom, une par combinaison d'étiquettes
+     */
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        final Map<String, Object> children = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new MetricsBean(), new ObjectName("com.logicielapp:type=Metrics"));
+            } catch (Exception e) {
+                logger.warn("Enregistrement JMX des métriques impossible: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Compteur, éventuellement étiqueté (paires nom, valeur)
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) register(name, help, Type.COUNTER, labels, Counter::new);
+    }
+
+    /**
+     * Histogramme de durées (exporté en secondes)
+     */
+    public static Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) register(name, help, Type.SUMMARY, labels, Histogram::new);
+    }
+
+    /**
+     * Jauge lue à chaque export ; un nouvel enregistrement remplace le précédent
+     */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        if (ENABLED) {
+            family(name, help, Type.GAUGE).children.put(labelString(labels), value);
+        }
+    }
+
+    /**
+     * Début d'une mesure (0 si les métriques sont désactivées : aucun appel d'horloge)
+     */
+    public static long startTimer() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    private static Object register(String name, String help, Type type, String[] labels,
+                                   Supplier<Object> factory) {
+        Family family = family(name, help, type);
+        return family.children.computeIfAbsent(labelString(labels), k -> factory.get());
+    }
+
+    private static Family family(String name, String help, Type type) {
+        Family family = FAMILIES.computeIfAbsent(name, n -> new Family(n, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Métrique " + name + " déjà déclarée comme " + family.type);
+        }
+        return family;
+    }
+
+    /**
+     * Export au format texte Prometheus 0.0.4
+     */
+    public static String toPrometheusText() {
+        StringBuilder out = new StringBuilder(4096);
+        if (!ENABLED) {
+            return "# Métriques désactivées (-Dmetrics.enabled=false)\n";
+        }
+        for (Family family : new TreeMap<>(FAMILIES).values()) {
+            String name = PREFIX + family.name;
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type.name().toLowerCase(Locale.ROOT)).append('\n');
+            for (Map.Entry<String, Object> child : new TreeMap<>(family.children).entrySet()) {
+                String labels = child.getKey();
+                Object metric = child.getValue();
+                if (metric instanceof Counter) {
+                    sample(out, name, labels, null, ((Counter) metric).get());
+                } else if (metric instanceof Histogram) {
+                    Histogram histogram = (Histogram) metric;
+                    for (double quantile : QUANTILES) {
+                        sample(out, name, labels, "quantile=\"" + quantile + "\"",
+                               histogram.percentile(quantile * 100) / 1e9);
+                    }
+                    sample(out, name + "_sum", labels, null, histogram.getSumNanos() / 1e9);
+                    sample(out, name + "_count", labels, null, histogram.getCount());
+                } else {
+                    sample(out, name, labels, null, gaugeValue((DoubleSupplier) metric));
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Valeurs courantes par nom complet (avec étiquettes)
+     */
+    public static Map<String, Double> values() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Family family : new TreeMap<>(FAMILIES).values()) {
+            for (Map.Entry<String, Object> child : new TreeMap<>(family.children).entrySet()) {
+                String key = family.name + (child.getKey().isEmpty() ? "" : "{" + child.getKey() + "}");
+                Object metric = child.getValue();
+                if (metric instanceof Counter) {
+                    values.put(key, (double) ((Counter) metric).get());
+                } else if (metric instanceof Histogram) {
+                    Histogram histogram = (Histogram) metric;
+                    values.put(key + ".count", (double) histogram.getCount());
+                    values.put(key + ".p50", histogram.percentile(50) / 1e9);
+                    values.put(key + ".p99", histogram.percentile(99) / 1e9);
+                    values.put(key + ".p999", histogram.percentile(99.9) / 1e9);
+                } else {
+                    values.put(key, gaugeValue((DoubleSupplier) metric));
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Remet à zéro compteurs et histogrammes (les jauges reflètent l'état courant)
+     */
+    public static void reset() {
+        for (Family family : FAMILIES.values()) {
+            for (Object metric : family.children.values()) {
+                if (metric instanceof Counter) {
+                    ((Counter) metric).reset();
+                } else if (metric instanceof Histogram) {
+                    ((Histogram) metric).reset();
+                }
+            }
+        }
+    }
+
+    private static double gaugeValue(DoubleSupplier gauge) {
+        try {
+            return gauge.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String extra, double value) {
+        out.append(name);
+        if (!labels.isEmpty() || extra != null) {
+            out.append('{').append(labels);
+            if (extra != null) {
+                out.append(labels.isEmpty() ? "" : ",").append(extra);
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String labelString(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Étiquettes attendues par paires nom, valeur");
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"")
+               .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+               .append('"');
+        }
+        return out.toString();
+    }
+
+    private static final class MetricsBean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public Map<String, Double> getValues() {
+            return values();
+        }
+
+        @Override
+        public String getPrometheusText() {
+            return toPrometheusText();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
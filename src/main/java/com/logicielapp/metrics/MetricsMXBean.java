@@ -0,0 +1,26 @@
+package com.logicielapp.metrics;
+
+import java.util.Map;
+
+/**
+ * Exposition JMX des métriques (com.logicielapp:type=Metrics)
+ */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    /**
+     * Valeurs courantes : compteurs, jauges, nombre et percentiles des histogrammes (secondes)
+     */
+    Map<String, Double> getValues();
+
+    /**
+     * Même contenu que l'endpoint /metrics (format texte Prometheus)
+     */
+    String getPrometheusText();
+
+    /**
+     * Remet à zéro les compteurs et les histogrammes
+     */
+    void reset();
+}
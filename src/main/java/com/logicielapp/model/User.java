@@ -67,6 +67,30 @@ public class User {
         setupDefaultPermissions();
     }
     
+    /**
+     * Constructeur de copie (tous les champs, permissions comprises)
+     */
+    public User(User other) {
+        this.id = other.id;
+        this.nom = other.nom;
+        this.email = other.email;
+        this.motDePasse = other.motDePasse;
+        this.role = other.role;
+        this.actif = other.actif;
+        this.dateCreation = other.dateCreation;
+        this.derniereConnexion = other.derniereConnexion;
+        this.sessionToken = other.sessionToken;
+        this.adresseIP = other.adresseIP;
+        this.userAgent = other.userAgent;
+        this.tentativesConnexion = other.tentativesConnexion;
+        this.derniereTentative = other.derniereTentative;
+        this.peutDebloquerIOS = other.peutDebloquerIOS;
+        this.peutDebloquerAndroid = other.peutDebloquerAndroid;
+        this.peutUtiliserIMEI = other.peutUtiliserIMEI;
+        this.peutVoirStatistiques = other.peutVoirStatistiques;
+        this.peutGererUtilisateurs = other.peutGererUtilisateurs;
+    }
+    
     // Méthodes utilitaires
     
     /**
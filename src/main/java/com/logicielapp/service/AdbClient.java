@@ -0,0 +1,346 @@
+package com.logicielapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client du serveur adb par son protocole TCP local (Singleton)
+ * Liste des appareils et commandes shell sans lancer de processus « adb » : une requête est
+ * une connexion au serveur (port 5037, ou ANDROID_ADB_SERVER_PORT). Une session
+ * « track-devices » reste ouverte et tient à jour la liste des appareils poussée par le serveur.
+ *
+ * Le serveur n'est démarré (« adb start-server » via {@link ToolRunner}) que s'il ne répond pas.
+ * Chaque lecture est bornée en durée (-Dtools.timeoutSeconds) et en taille (-Dtools.maxOutputBytes).
+ */
+public class AdbClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdbClient.class);
+    private static AdbClient instance;
+
+    private static final String HOST = "127.0.0.1";
+    private static final int CONNECT_TIMEOUT_MS = 1000;
+    private static final int READ_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(Long.getLong("tools.timeoutSeconds", 10));
+    private static final int MAX_OUTPUT_BYTES = Integer.getInteger("tools.maxOutputBytes", 1024 * 1024);
+
+    private final int port;
+    private volatile Map<String, String> trackedDevices;
+    private final List<Runnable> stateListeners = new CopyOnWriteArrayList<>();
+    private Thread tracker;
+    private Socket trackerSocket;
+    private boolean serverStartAttempted;
+
+    private AdbClient() {
+        int configuredPort = 5037;
+        String env = System.getenv("ANDROID_ADB_SERVER_PORT");
+        if (env != null) {
+            try {
+                configuredPort = Integer.parseInt(env.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("ANDROID_ADB_SERVER_PORT invalide: {}", env);
+            }
+        }
+        this.port = configuredPort;
+    }
+
+    /**
+     * Obtient l'instance unique du client
+     */
+    public static synchronized AdbClient getInstance() {
+        if (instance == null) {
+            instance = new AdbClient();
+        }
+        return instance;
+    }
+
+    /**
+     * Numéros de série des appareils autorisés (état « device »)
+     * Lus dans la session de suivi quand elle est ouverte, sinon demandés au serveur.
+     */
+    public List<String> getOnlineDevices() throws IOException {
+        Map<String, String> devices = trackedDevices;
+        if (devices == null) {
+            devices = parseDevices(request("host:devices"));
+            startTracking();
+        }
+        List<String> serials = new ArrayList<>();
+        devices.forEach((serial, state) -> {
+            if ("device".equals(state)) {
+                serials.add(serial);
+            }
+        });
+        return serials;
+    }
+
+    /**
+     * Observateur appelé (thread de suivi) quand la liste des appareils ou leur état change,
+     * par exemple quand le débogage USB vient d'être autorisé sur le téléphone
+     */
+    public void addDeviceStateListener(Runnable listener) {
+        stateListeners.add(listener);
+    }
+
+    /**
+     * Vrai si le serveur adb répond (démarré au besoin)
+     */
+    public boolean isServerAvailable() {
+        try {
+            connect().close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Exécute une commande shell sur l'appareil et renvoie sa sortie
+     *
+     * @throws IOException appareil absent ou non autorisé, délai dépassé ou sortie trop longue
+     */
+    public String shell(String serial, String command) throws IOException {
+        try (Socket socket = connect()) {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            send(out, "host:transport:" + serial);
+            expectOkay(in);
+            send(out, "shell:" + command);
+            expectOkay(in);
+            return readToEnd(in);
+        }
+    }
+
+    /**
+     * Ferme la session de suivi
+     */
+    public synchronized void stop() {
+        closeQuietly(trackerSocket);
+        trackerSocket = null;
+        tracker = null;
+        trackedDevices = null;
+    }
+
+    /**
+     * Ouvre la session « track-devices » ; elle se referme si le serveur s'arrête et sera
+     * rouverte à la prochaine demande
+     */
+    private synchronized void startTracking() {
+        if (tracker != null) {
+            return;
+        }
+        Thread thread = new Thread(this::track, "AdbDeviceTracker");
+        thread.setDaemon(true);
+        tracker = thread;
+        thread.start();
+    }
+
+    private void track() {
+        Socket socket = null;
+        try {
+            socket = connect();
+            synchronized (this) {
+                if (tracker != Thread.currentThread()) {
+                    return;
+                }
+                trackerSocket = socket;
+            }
+            // Pas de délai de lecture : la session attend les changements du serveur
+            socket.setSoTimeout(0);
+            InputStream in = socket.getInputStream();
+            send(socket.getOutputStream(), "host:track-devices");
+            expectOkay(in);
+            logger.debug("Suivi des appareils adb ouvert");
+            while (!Thread.currentThread().isInterrupted()) {
+                Map<String, String> devices = parseDevices(readLengthPrefixed(in));
+                boolean changed = !devices.equals(trackedDevices);
+                trackedDevices = devices;
+                if (changed) {
+                    notifyStateListeners();
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Suivi des appareils adb fermé: {}", e.getMessage());
+        } finally {
+            closeQuietly(socket);
+            synchronized (this) {
+                if (tracker == Thread.currentThread()) {
+                    tracker = null;
+                    trackerSocket = null;
+                    trackedDevices = null;
+                }
+            }
+        }
+    }
+
+    private void notifyStateListeners() {
+        for (Runnable listener : stateListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.error("Erreur dans un observateur des appareils adb", e);
+            }
+        }
+    }
+
+    /**
+     * Requête hôte simple : « OKAY » puis une réponse préfixée par sa longueur
+     */
+    private String request(String service) throws IOException {
+        try (Socket socket = connect()) {
+            InputStream in = socket.getInputStream();
+            send(socket.getOutputStream(), service);
+            expectOkay(in);
+            return readLengthPrefixed(in);
+        }
+    }
+
+    private Socket connect() throws IOException {
+        try {
+            return open();
+        } catch (ConnectException e) {
+            if (!startServer()) {
+                throw e;
+            }
+            return open();
+        }
+    }
+
+    private Socket open() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(HOST, port), CONNECT_TIMEOUT_MS);
+            socket.setSoTimeout(READ_TIMEOUT_MS);
+            return socket;
+        } catch (IOException e) {
+            closeQuietly(socket);
+            throw e;
+        }
+    }
+
+    /**
+     * Autorise une nouvelle tentative de démarrage du serveur adb (adb vient d'être installé)
+     */
+    public synchronized void resetServerStart() {
+        serverStartAttempted = false;
+    }
+
+    /**
+     * Démarre le serveur adb, une seule fois par exécution de l'application
+     * (ou depuis le dernier {@link #resetServerStart()})
+     */
+    private synchronized boolean startServer() {
+        if (serverStartAttempted) {
+            return false;
+        }
+        serverStartAttempted = true;
+        try {
+            ToolRunner.Result result = ToolRunner.getInstance().run(ToolRunner.Tool.ADB, "start-server");
+            logger.info("Serveur adb démarré (code {})", result.getExitCode());
+            return result.getExitCode() == 0;
+        } catch (IOException e) {
+            logger.info("Serveur adb indisponible: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void send(OutputStream out, String service) throws IOException {
+        byte[] payload = service.getBytes(StandardCharsets.UTF_8);
+        out.write(String.format("%04x", payload.length).getBytes(StandardCharsets.US_ASCII));
+        out.write(payload);
+        out.flush();
+    }
+
+    private static void expectOkay(InputStream in) throws IOException {
+        String status = new String(readFully(in, 4), StandardCharsets.US_ASCII);
+        if ("OKAY".equals(status)) {
+            return;
+        }
+        if ("FAIL".equals(status)) {
+            throw new IOException("adb: " + readLengthPrefixed(in));
+        }
+        throw new IOException("réponse adb inattendue: " + status);
+    }
+
+    private static String readLengthPrefixed(InputStream in) throws IOException {
+        int length = Integer.parseInt(new String(readFully(in, 4), StandardCharsets.US_ASCII), 16);
+        if (length > MAX_OUTPUT_BYTES) {
+            throw new IOException("réponse adb trop longue (" + length + " octets)");
+        }
+        return new String(readFully(in, length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        try {
+            new DataInputStream(in).readFully(buffer);
+        } catch (EOFException e) {
+            throw new IOException("connexion adb fermée", e);
+        }
+        return buffer;
+    }
+
+    private static String readToEnd(InputStream in) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(READ_TIMEOUT_MS);
+        int n;
+        try {
+            while ((n = in.read(buffer)) >= 0) {
+                output.write(buffer, 0, n);
+                if (output.size() > MAX_OUTPUT_BYTES) {
+                    throw new IOException("sortie adb trop longue (> " + MAX_OUTPUT_BYTES + " octets)");
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IOException("délai dépassé pour la commande adb");
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            throw new IOException("délai dépassé pour la commande adb", e);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Liste « série\tétat » par ligne
+     */
+    static Map<String, String> parseDevices(String listing) {
+        Map<String, String> devices = new LinkedHashMap<>();
+        for (String line : listing.split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                devices.put(line.substring(0, tab).trim(), line.substring(tab + 1).trim());
+            }
+        }
+        return Collections.unmodifiableMap(devices);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Fermeture : rien à faire
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.logicielapp.service;
 
 import com.logicielapp.model.User;
 import com.logicielapp.util.DatabaseManager;
+import com.logicielapp.util.LoginRateLimiter;
+import com.logicielapp.util.SessionManager;
+import com.logicielapp.util.UserCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,16 +27,28 @@ public class AuthenticationService {
     private static final int MAX_LOGIN_ATTEMPTS = 5;
     private static final int LOCKOUT_DURATION_MINUTES = 15;
     
+    private final LoginRateLimiter rateLimiter = LoginRateLimiter.getInstance();
+    private final UserCache userCache = UserCache.getInstance();
+    
     /**
      * Authentifie un utilisateur avec username/email et mot de passe
+     * Un identifiant saisi bloqué est rejeté avant tout accès à la base de données ; le compte
+     * est ensuite limité d'après l'utilisateur trouvé, quel que soit l'identifiant saisi.
      */
     public User authenticate(String emailOrUsername, String password) throws Exception {
         logger.info("Tentative d'authentification pour: {}", emailOrUsername);
         
+        String entered = LoginRateLimiter.accountKey(null, emailOrUsername);
+        rejectIfBlocked(emailOrUsername, rateLimiter.getRemainingBlockMillis(entered));
+        
         try (Connection conn = DatabaseManager.getInstance().getConnection()) {
             
             // Rechercher l'utilisateur par email ou nom d'utilisateur
             User user = findUserByEmailOrUsername(conn, emailOrUsername);
+            String account = user != null ? LoginRateLimiter.accountKey(user.getId(), emailOrUsername) : null;
+            if (account != null) {
+                rejectIfBlocked(emailOrUsername, rateLimiter.getRemainingBlockMillis(account));
+            }
             
             // Fallback: accepter les identifiants par défaut demandés par le client
             // Admin / Serignetouba2020
@@ -52,6 +67,7 @@ public class AuthenticationService {
             }
             
             if (user == null) {
+                rateLimiter.recordFailure(entered);
                 logger.warn("Utilisateur non trouvé: {}", emailOrUsername);
                 throw new Exception("Utilisateur introuvable");
             }
@@ -80,12 +96,14 @@ public class AuthenticationService {
                     } catch (SQLException se) {
                         logger.error("Échec de mise à jour du mot de passe admin par défaut", se);
                         // si la mise à jour échoue, considérer comme échec normal
+                        recordFailure(entered, account);
                         incrementFailedAttempts(conn, user.getId());
                         logger.warn("Mot de passe incorrect pour: {}", emailOrUsername);
                         throw new Exception("Mot de passe incorrect");
                     }
                 } else {
                     // Cas standard: mot de passe incorrect
+                    recordFailure(entered, account);
                     incrementFailedAttempts(conn, user.getId());
                     logger.warn("Mot de passe incorrect pour: {}", emailOrUsername);
                     throw new Exception("Mot de passe incorrect");
@@ -93,6 +111,8 @@ public class AuthenticationService {
             }
             
             // Authentification réussie
+            rateLimiter.recordSuccess(entered);
+            rateLimiter.recordSuccess(account);
             user.updateLastLogin();
             user.generateSessionToken();
             
@@ -101,6 +121,7 @@ public class AuthenticationService {
             
             // Enregistrer l'activité
             logUserActivity(conn, user.getId(), "LOGIN_SUCCESS", "Connexion réussie");
+            userCache.putUser(user);
             
             logger.info("Authentification réussie pour: {} ({})", user.getNom(), user.getRole());
             return user;
@@ -111,6 +132,58 @@ public class AuthenticationService {
         }
     }
     
+    private void recordFailure(String entered, String account) {
+        rateLimiter.recordFailure(entered);
+        rateLimiter.recordFailure(account);
+    }
+    
+    private static void rejectIfBlocked(String emailOrUsername, long remainingMillis) throws Exception {
+        if (remainingMillis > 0) {
+            long remainingSeconds = (remainingMillis + 999) / 1000;
+            logger.warn("Tentative rejetée pour {} (bloqué encore {} s)", emailOrUsername, remainingSeconds);
+            throw new Exception("Trop de tentatives, réessayez dans " + remainingSeconds + " secondes");
+        }
+    }
+    
+    /**
+     * Lève tous les blocages de tentatives de connexion (administrateur uniquement)
+     */
+    public void clearLoginBlocks() {
+        if (!SessionManager.getInstance().isCurrentUserAdmin()) {
+            throw new SecurityException("Réservé aux administrateurs");
+        }
+        rateLimiter.clear();
+    }
+    
+    /**
+     * Recharge un utilisateur actif depuis la base (reprise de session)
+     * 
+     * @return l'utilisateur, ou null s'il n'existe pas, est désactivé ou si la base est indisponible
+     */
+    public User findActiveUserById(int userId) {
+        String sql = """
+            SELECT id, nom, email, mot_de_passe, role, actif, 
+                   date_creation, derniere_connexion
+            FROM utilisateurs 
+            WHERE id = ? AND actif = TRUE
+            """;
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    User user = buildUserFromResultSet(rs);
+                    userCache.putUser(user);
+                    return user;
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Impossible de recharger l'utilisateur {}: {}", userId, e.getMessage());
+        }
+        return null;
+    }
+    
     /**
      * Recherche un utilisateur par email ou nom d'utilisateur
      */
@@ -346,6 +419,7 @@ public class AuthenticationService {
                         user.setMotDePasse(hashedPassword);
                         
                         logger.info("Utilisateur créé avec succès: {} (ID: {})", nom, user.getId());
+                        userCache.onUserCreated(user);
                         return user;
                     } else {
                         throw new Exception("Impossible de récupérer l'ID de l'utilisateur créé");
@@ -361,10 +435,18 @@ public class AuthenticationService {
     
     /**
      * Liste tous les utilisateurs
+     * Servie depuis le cache tant qu'aucune modification n'a invalidé la liste
      */
     public List<User> getAllUsers() throws Exception {
+        List<User> cachedUsers = userCache.getUsers();
+        if (cachedUsers != null) {
+            logger.debug("{} utilisateurs servis depuis le cache", cachedUsers.size());
+            return cachedUsers;
+        }
+        
         logger.info("Récupération de la liste des utilisateurs");
         
+        long cacheVersion = userCache.getVersion();
         List<User> users = new ArrayList<>();
         
         try (Connection conn = DatabaseManager.getInstance().getConnection()) {
@@ -409,6 +491,7 @@ public class AuthenticationService {
         }
         
         logger.info("{} utilisateurs récupérés", users.size());
+        userCache.storeUsers(users, cacheVersion);
         return users;
     }
     
@@ -432,6 +515,8 @@ public class AuthenticationService {
                 }
             }
             
+            userCache.onUserStatusChanged(userId, active);
+            
         } catch (SQLException e) {
             logger.error("Erreur lors de la mise à jour du statut utilisateur", e);
             throw new Exception("Erreur de base de données");
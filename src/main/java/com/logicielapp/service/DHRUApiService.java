@@ -1,7 +1,9 @@
 package com.logicielapp.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logicielapp.metrics.Counter;
+import com.logicielapp.metrics.Histogram;
+import com.logicielapp.metrics.Metrics;
+import com.logicielapp.util.TACDatabase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,9 +12,17 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.logicielapp.service.ProviderJson.Field.*;
 
 /**
  * Service pour interroger l'API DHRU Fusion et récupérer les informations détaillées des appareils
@@ -35,6 +45,23 @@ public class DHRUApiService {
     private static final String IMEI_PRO_BASE_URL = getEnv("IMEI_PRO_BASE_URL", "https://api.imei.pro");
     private static final String IMEI_PRO_API_KEY = getEnv("IMEI_PRO_API_KEY", "28833799-a5fc-4edb-ba5e-7b8531afed15");
     
+    // Délais des appels fournisseurs (paramètre api_timeout, modifiable à chaud)
+    public static final int DEFAULT_API_TIMEOUT_SECONDS = 15;
+    private static final int MAX_CONNECT_TIMEOUT_MS = 10000;
+    private static volatile int connectTimeoutMs = MAX_CONNECT_TIMEOUT_MS;
+    private static volatile int readTimeoutMs = DEFAULT_API_TIMEOUT_SECONDS * 1000;
+    
+    // Métriques et limite de débit par fournisseur (priorité par défaut : ordre de la chaîne de repli)
+    private static final ProviderMetrics IMEI_PRO_METRICS = new ProviderMetrics("imei_pro", "IMEI.pro", 1);
+    private static final ProviderMetrics IFREECHECK_METRICS = new ProviderMetrics("ifreecheck", "iFreeCheck", 2);
+    private static final ProviderMetrics DHRU_METRICS = new ProviderMetrics("dhru", "DHRU", 3);
+    
+    // Chaîne de repli, réordonnée selon priorite/cout_requete de serveurs_imei
+    private final List<ProviderCall> providerChain = List.of(
+        new ProviderCall(IMEI_PRO_METRICS, this::tryIMEIProApi),
+        new ProviderCall(IFREECHECK_METRICS, this::tryIFreeCheckApi),
+        new ProviderCall(DHRU_METRICS, this::tryExternalApi));
+    
     // Actions API DHRU disponibles
     public static final String ACTION_PLACE_ORDER = "placeimeiorder";
     public static final String ACTION_GET_ORDER = "getimeiorder";
@@ -45,6 +72,21 @@ public class DHRUApiService {
     public static final String SERVICE_ID_BASIC_INFO = "1";
     public static final String SERVICE_ID_ICLOUD = "3";
     public static final String SERVICE_ID_CARRIER = "2";
+    
+    /**
+     * Traitement des IMEI dont le TAC n'appartient à aucun bloc connu (choix de l'administrateur)
+     */
+    public enum UnknownTacPolicy {
+        /** Signaler le TAC inconnu mais interroger quand même les fournisseurs */
+        QUERY,
+        /** Répondre localement sans consommer de requête fournisseur */
+        SKIP
+    }
+    
+    // Choix par variable d'environnement (TAC_PREFILTER_POLICY), en l'absence de skip_unknown_tac
+    private static final UnknownTacPolicy DEFAULT_UNKNOWN_TAC_POLICY =
+        "skip".equalsIgnoreCase(getEnv("TAC_PREFILTER_POLICY", "query")) ? UnknownTacPolicy.SKIP : UnknownTacPolicy.QUERY;
+    private static volatile UnknownTacPolicy unknownTacPolicy = DEFAULT_UNKNOWN_TAC_POLICY;
 
     // Helper de lecture d'env avec fallback
     private static String getEnv(String key, String def) {
@@ -81,6 +123,7 @@ public class DHRUApiService {
         private String blacklistStatus;
         private boolean success;
         private String errorMessage;
+        private boolean tacKnown = true;
         
         public DeviceInfo() {}
         
@@ -123,6 +166,8 @@ public class DHRUApiService {
         public void setSuccess(boolean success) { this.success = success; }
         public String getErrorMessage() { return errorMessage; }
         public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+        public boolean isTacKnown() { return tacKnown; }
+        public void setTacKnown(boolean tacKnown) { this.tacKnown = tacKnown; }
         
         @Override
         public String toString() {
@@ -271,6 +316,14 @@ public class DHRUApiService {
      * Récupère les informations d'un appareil via son IMEI
      */
     public CompletableFuture<DeviceInfo> getDeviceInfo(String imei) {
+        return getDeviceInfo(imei, ProviderRateLimiter.DEFAULT_CLIENT);
+    }
+    
+    /**
+     * Récupère les informations d'un appareil via son IMEI pour le compte d'un client
+     * (file d'attente du limiteur de débit, voir {@link ProviderRateLimiter})
+     */
+    public CompletableFuture<DeviceInfo> getDeviceInfo(String imei, String client) {
         return CompletableFuture.supplyAsync(() -> {
             // Validation IMEI basique (format seulement)
             if (imei == null || imei.length() != 15 || !imei.matches("\\d{15}")) {
@@ -286,44 +339,172 @@ public class DHRUApiService {
                 return new DeviceInfo(false, "IMEI de test invalide");
             }
             
+            // Préfiltre local : TAC hors de tout bloc d'attribution connu
+            boolean tacKnown = TACDatabase.isKnownTacBlock(imei);
+            if (!tacKnown && unknownTacPolicy == UnknownTacPolicy.SKIP) {
+                logger.info("TAC non attribué, requête fournisseurs évitée pour IMEI: {}", maskIMEI(imei));
+                return new DeviceInfo(false, "TAC non attribué (IMEI probablement fabriqué)");
+            }
+            
             if (API_KEY == null || API_KEY.isBlank()) {
                 String msg = "Clé API DHRU manquante. Définissez DHRU_API_KEY.";
                 logger.error(msg);
                 return new DeviceInfo(false, msg);
             }
+            if (!tacKnown) {
+                logger.info("TAC non attribué, interrogation des fournisseurs maintenue pour IMEI: {}", maskIMEI(imei));
+            }
             try {
-                logger.info("Tentative d'interrogation API IMEI pour IMEI: {}", maskIMEI(imei));
-                
-                // Essayer d'abord IMEI.pro API
-                DeviceInfo imeiProResult = tryIMEIProApi(imei);
-                if (imeiProResult != null && imeiProResult.isSuccess()) {
-                    logger.info("Données récupérées via IMEI.pro API pour IMEI: {}", maskIMEI(imei));
-                    return imeiProResult;
-                }
-                
-                // Fallback vers iFreeCheck API
-                DeviceInfo ifreeResult = tryIFreeCheckApi(imei);
-                if (ifreeResult != null && ifreeResult.isSuccess()) {
-                    logger.info("Données récupérées via iFreeCheck API pour IMEI: {}", maskIMEI(imei));
-                    return ifreeResult;
-                }
-                
-                // Fallback vers DHRU API
-                DeviceInfo dhruResult = tryExternalApi(imei);
-                if (dhruResult != null && dhruResult.isSuccess()) {
-                    logger.info("Données récupérées via DHRU API pour IMEI: {}", maskIMEI(imei));
-                    return dhruResult;
-                }
-                
-                if (dhruResult != null && !dhruResult.isSuccess()) {
-                    return dhruResult; // Retourne l'erreur API
-                }
-                return new DeviceInfo(false, "APIs IMEI.pro, iFreeCheck et DHRU inaccessibles");
+                logger.debug("Tentative d'interrogation API IMEI pour IMEI: {}", maskIMEI(imei));
+                return queryProviders(imei, client);
             } catch (Exception e) {
                 logger.error("Exception lors de l'appel API pour IMEI: {}", maskIMEI(imei), e);
                 return new DeviceInfo(false, "Erreur de connexion à l'API DHRU");
             }
-        });
+        }).thenApply(info -> flagUnknownTac(imei, info));
+    }
+    
+    /**
+     * Interroge les fournisseurs actifs dans l'ordre de priorité jusqu'à une réponse réussie
+     * Un fournisseur sans jeton dans le délai, ou dont le quota du jour est atteint, est passé.
+     */
+    private DeviceInfo queryProviders(String imei, String client) {
+        List<ProviderCall> chain = new ArrayList<>(providerChain);
+        chain.removeIf(call -> !call.metrics.limit.isActive());
+        chain.sort(Comparator.comparing(call -> call.metrics.limit));
+        
+        long start = System.nanoTime();
+        DeviceInfo failure = null;
+        ProviderMetrics failedProvider = null;
+        boolean throttled = false;
+        for (ProviderCall call : chain) {
+            ProviderRateLimiter.Admission admission = call.metrics.limit.acquire(client);
+            if (admission != ProviderRateLimiter.Admission.GRANTED) {
+                logger.info("{} API passée ({}) pour IMEI: {}", call.metrics.label, admission, maskIMEI(imei));
+                throttled = true;
+                continue;
+            }
+            DeviceInfo result = call.metrics.call(() -> call.request.apply(imei));
+            if (result != null && result.isSuccess()) {
+                logger.info("Données récupérées via {} API pour IMEI: {}", call.metrics.label, maskIMEI(imei));
+                return remember(imei, call.metrics, start, result);
+            }
+            if (result != null) {
+                failure = result;
+                failedProvider = call.metrics;
+            }
+        }
+        
+        if (failure != null) {
+            return remember(imei, failedProvider, start, failure); // Retourne l'erreur API
+        }
+        if (throttled) {
+            return new DeviceInfo(false, "Limite de requêtes des fournisseurs IMEI atteinte, réessayez plus tard");
+        }
+        return new DeviceInfo(false, "APIs IMEI.pro, iFreeCheck et DHRU inaccessibles");
+    }
+    
+    /**
+     * Fournisseur de la chaîne de repli et sa requête
+     */
+    private static final class ProviderCall {
+        private final ProviderMetrics metrics;
+        private final Function<String, DeviceInfo> request;
+        
+        ProviderCall(ProviderMetrics metrics, Function<String, DeviceInfo> request) {
+            this.metrics = metrics;
+            this.request = request;
+        }
+    }
+    
+    /**
+     * Mesure des appels à un fournisseur : réussis, refusés (réponse d'erreur) ou indisponibles (aucune réponse exploitable)
+     */
+    private static final class ProviderMetrics {
+        private final String provider;
+        private final String label;
+        private final ProviderRateLimiter.Provider limit;
+        private final Histogram latency;
+        private final Counter success;
+        private final Counter rejected;
+        private final Counter unavailable;
+        
+        ProviderMetrics(String provider, String label, int defaultPriority) {
+            this.provider = provider;
+            this.label = label;
+            this.limit = ProviderRateLimiter.getInstance().provider(provider, defaultPriority);
+            latency = Metrics.histogram("imei_provider_call_seconds", "Durée des appels aux fournisseurs IMEI", "provider", provider);
+            success = Metrics.counter("imei_provider_calls_total", "Appels aux fournisseurs IMEI", "provider", provider, "outcome", "success");
+            rejected = Metrics.counter("imei_provider_calls_total", "Appels aux fournisseurs IMEI", "provider", provider, "outcome", "rejected");
+            unavailable = Metrics.counter("imei_provider_calls_total", "Appels aux fournisseurs IMEI", "provider", provider, "outcome", "unavailable");
+        }
+        
+        DeviceInfo call(Supplier<DeviceInfo> request) {
+            long start = Metrics.startTimer();
+            DeviceInfo result = request.get();
+            latency.recordSince(start);
+            (result == null ? unavailable : result.isSuccess() ? success : rejected).inc();
+            return result;
+        }
+    }
+    
+    /**
+     * Enregistre la réponse du fournisseur dans l'historique des vérifications
+     */
+    private static DeviceInfo remember(String imei, ProviderMetrics provider, long start, DeviceInfo info) {
+        LookupHistoryService.getInstance().record(imei, provider.provider,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), info);
+        return info;
+    }
+    
+    /**
+     * Signale dans le résultat un IMEI valide dont le bloc TAC est inconnu
+     */
+    private static DeviceInfo flagUnknownTac(String imei, DeviceInfo info) {
+        if (imei != null && imei.length() == 15 && !TACDatabase.isKnownTacBlock(imei)) {
+            info.setTacKnown(false);
+        }
+        return info;
+    }
+    
+    public static UnknownTacPolicy getUnknownTacPolicy() {
+        return unknownTacPolicy;
+    }
+    
+    /**
+     * Traitement des TAC inconnus hors configuration (TAC_PREFILTER_POLICY, QUERY par défaut)
+     */
+    public static UnknownTacPolicy getDefaultUnknownTacPolicy() {
+        return DEFAULT_UNKNOWN_TAC_POLICY;
+    }
+    
+    /**
+     * Définit le traitement des TAC inconnus (paramètre skip_unknown_tac)
+     * Null rétablit le traitement par défaut.
+     */
+    public static void setUnknownTacPolicy(UnknownTacPolicy policy) {
+        UnknownTacPolicy next = policy != null ? policy : DEFAULT_UNKNOWN_TAC_POLICY;
+        if (next != unknownTacPolicy) {
+            unknownTacPolicy = next;
+            logger.info("Traitement des TAC non attribués: {}", unknownTacPolicy);
+        }
+    }
+    
+    public static int getApiTimeoutSeconds() {
+        return readTimeoutMs / 1000;
+    }
+    
+    /**
+     * Définit le délai de lecture des fournisseurs (paramètre api_timeout, en secondes)
+     * Le délai de connexion reste plafonné à 10 s.
+     */
+    public static void setApiTimeoutSeconds(int seconds) {
+        if (seconds <= 0 || seconds * 1000 == readTimeoutMs) {
+            return;
+        }
+        readTimeoutMs = seconds * 1000;
+        connectTimeoutMs = Math.min(MAX_CONNECT_TIMEOUT_MS, readTimeoutMs);
+        logger.info("Délai des fournisseurs IMEI: {} s", seconds);
     }
     
     private DeviceInfo tryExternalApi(String imei) {
@@ -334,8 +515,8 @@ public class DHRUApiService {
             URL url = URI.create(apiUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
-            conn.setConnectTimeout(10000);
-            conn.setReadTimeout(15000);
+            conn.setConnectTimeout(connectTimeoutMs);
+            conn.setReadTimeout(readTimeoutMs);
             conn.setRequestProperty("User-Agent", "LogicielApp/1.0");
             conn.setRequestProperty("Accept", "application/json");
             int code = conn.getResponseCode();
@@ -368,8 +549,8 @@ public class DHRUApiService {
             URL url = URI.create(apiUrl).toURL();
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
-            conn.setConnectTimeout(10000);
-            conn.setReadTimeout(15000);
+            conn.setConnectTimeout(connectTimeoutMs);
+            conn.setReadTimeout(readTimeoutMs);
             conn.setRequestProperty("User-Agent", "LogicielApp/1.0");
             conn.setRequestProperty("Accept", "application/json");
             
@@ -410,8 +591,8 @@ public class DHRUApiService {
             URL url = new URL(apiUrl);
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
-            conn.setConnectTimeout(10000);
-            conn.setReadTimeout(15000);
+            conn.setConnectTimeout(connectTimeoutMs);
+            conn.setReadTimeout(readTimeoutMs);
             conn.setRequestProperty("User-Agent", "LogicielApp/1.0");
             conn.setRequestProperty("Accept", "application/json");
             
@@ -445,52 +626,19 @@ public class DHRUApiService {
      */
     private DeviceInfo parseIMEIProResponse(String imei, String rawResponse) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode json = mapper.readTree(rawResponse);
+            ProviderJson json = ProviderJson.parse(rawResponse);
             
             // Vérifier le statut de la réponse
-            if (json.has("status")) {
-                String status = json.get("status").asText();
+            if (json.has(STATUS)) {
+                String status = json.get(STATUS);
                 if ("success".equalsIgnoreCase(status) || "ok".equalsIgnoreCase(status)) {
-                    DeviceInfo deviceInfo = new DeviceInfo();
-                    deviceInfo.setSuccess(true);
-                    deviceInfo.setImei(imei);
-                    
-                    // Extraire les données de l'appareil
-                    JsonNode data = json.has("data") ? json.get("data") : json;
-                    
-                    if (data.has("brand")) deviceInfo.setBrand(data.get("brand").asText());
-                    if (data.has("model")) deviceInfo.setModel(data.get("model").asText());
-                    if (data.has("device_model")) deviceInfo.setModel(data.get("device_model").asText());
-                    if (data.has("capacity")) {
-                        deviceInfo.setCapacity(data.get("capacity").asText());
-                        deviceInfo.setStorage(data.get("capacity").asText());
-                    }
-                    if (data.has("storage")) {
-                        deviceInfo.setCapacity(data.get("storage").asText());
-                        deviceInfo.setStorage(data.get("storage").asText());
-                    }
-                    if (data.has("color")) deviceInfo.setColor(data.get("color").asText());
-                    if (data.has("icloud_status")) deviceInfo.setIcloudStatus(data.get("icloud_status").asText());
-                    if (data.has("icloud")) deviceInfo.setIcloudStatus(data.get("icloud").asText());
-                    if (data.has("carrier")) deviceInfo.setCarrier(data.get("carrier").asText());
-                    if (data.has("network")) deviceInfo.setCarrier(data.get("network").asText());
-                    if (data.has("simlock_status")) deviceInfo.setSimlockStatus(data.get("simlock_status").asText());
-                    if (data.has("simlock")) deviceInfo.setSimlockStatus(data.get("simlock").asText());
-                    if (data.has("blacklist_status")) deviceInfo.setBlacklistStatus(data.get("blacklist_status").asText());
-                    if (data.has("blacklist")) deviceInfo.setBlacklistStatus(data.get("blacklist").asText());
-                    if (data.has("warranty")) deviceInfo.setWarranty(data.get("warranty").asText());
-                    if (data.has("warranty_status")) deviceInfo.setWarranty(data.get("warranty_status").asText());
-                    if (data.has("country")) deviceInfo.setCountryOrigin(data.get("country").asText());
-                    if (data.has("serial")) deviceInfo.setSerialNumber(data.get("serial").asText());
-                    if (data.has("activation_status")) deviceInfo.setActivationStatus(data.get("activation_status").asText());
-                    
-                    logger.info("IMEI.pro API - Informations extraites pour IMEI: {}", maskIMEI(imei));
+                    DeviceInfo deviceInfo = readDeviceFields(imei, json, false);
+                    logger.debug("IMEI.pro API - Informations extraites pour IMEI: {}", maskIMEI(imei));
                     return deviceInfo;
                 } else {
                     // Erreur dans la réponse
-                    String errorMsg = json.has("message") ? json.get("message").asText() : 
-                                     json.has("error") ? json.get("error").asText() : "Erreur API IMEI.pro";
+                    String errorMsg = json.has(MESSAGE) ? json.get(MESSAGE) : 
+                                     json.has(ERROR) ? json.get(ERROR) : "Erreur API IMEI.pro";
                     logger.warn("Erreur IMEI.pro API: {}", errorMsg);
                     return new DeviceInfo(false, errorMsg);
                 }
@@ -503,20 +651,19 @@ public class DHRUApiService {
 
     private DeviceInfo parseImeiInfoResponse(String imei, String raw) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode json = mapper.readTree(raw);
+            ProviderJson json = ProviderJson.parse(raw);
 
             // Format IMEI.info: {"status":"success", "imei":"...", "result":"...", "order":"...", "date":"...", "price":"...", "balance":"...", "service":"..."}
-            if (json.has("status")) {
-                String status = json.get("status").asText();
+            if (json.has(STATUS)) {
+                String status = json.get(STATUS);
                 if ("success".equals(status)) {
                     DeviceInfo deviceInfo = new DeviceInfo();
                     deviceInfo.setSuccess(true);
                     deviceInfo.setImei(imei);
                     
                     // Extraire les informations du champ "result"
-                    if (json.has("result")) {
-                        String result = json.get("result").asText();
+                    if (json.has(RESULT)) {
+                        String result = json.get(RESULT);
                         deviceInfo.setIcloudStatus(result); // Le résultat contient souvent le statut iCloud
                         
                         // Parser le résultat pour extraire plus d'infos si possible
@@ -530,7 +677,7 @@ public class DHRUApiService {
                     return deviceInfo;
                 } else {
                     // Erreur dans la réponse
-                    String errorMsg = json.has("result") ? json.get("result").asText() : "Erreur API";
+                    String errorMsg = json.has(RESULT) ? json.get(RESULT) : "Erreur API";
                     logger.warn("Erreur IMEI.info: {}", errorMsg);
                     return new DeviceInfo(false, errorMsg);
                 }
@@ -546,53 +693,19 @@ public class DHRUApiService {
      */
     private DeviceInfo parseIFreeCheckResponse(String imei, String rawResponse) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode json = mapper.readTree(rawResponse);
+            ProviderJson json = ProviderJson.parse(rawResponse);
             
             // Vérifier le statut de la réponse
-            if (json.has("status")) {
-                String status = json.get("status").asText();
+            if (json.has(STATUS)) {
+                String status = json.get(STATUS);
                 if ("success".equalsIgnoreCase(status) || "ok".equalsIgnoreCase(status)) {
-                    DeviceInfo deviceInfo = new DeviceInfo();
-                    deviceInfo.setSuccess(true);
-                    deviceInfo.setImei(imei);
-                    
-                    // Extraire les données de l'appareil
-                    JsonNode data = json.has("data") ? json.get("data") : json;
-                    
-                    if (data.has("brand")) deviceInfo.setBrand(data.get("brand").asText());
-                    if (data.has("model")) deviceInfo.setModel(data.get("model").asText());
-                    if (data.has("device_model")) deviceInfo.setModel(data.get("device_model").asText());
-                    if (data.has("capacity")) {
-                        deviceInfo.setCapacity(data.get("capacity").asText());
-                        deviceInfo.setStorage(data.get("capacity").asText());
-                    }
-                    if (data.has("storage")) {
-                        deviceInfo.setCapacity(data.get("storage").asText());
-                        deviceInfo.setStorage(data.get("storage").asText());
-                    }
-                    if (data.has("color")) deviceInfo.setColor(data.get("color").asText());
-                    if (data.has("icloud_status")) deviceInfo.setIcloudStatus(data.get("icloud_status").asText());
-                    if (data.has("icloud")) deviceInfo.setIcloudStatus(data.get("icloud").asText());
-                    if (data.has("find_my_iphone")) deviceInfo.setIcloudStatus(data.get("find_my_iphone").asText());
-                    if (data.has("carrier")) deviceInfo.setCarrier(data.get("carrier").asText());
-                    if (data.has("network")) deviceInfo.setCarrier(data.get("network").asText());
-                    if (data.has("simlock_status")) deviceInfo.setSimlockStatus(data.get("simlock_status").asText());
-                    if (data.has("simlock")) deviceInfo.setSimlockStatus(data.get("simlock").asText());
-                    if (data.has("blacklist_status")) deviceInfo.setBlacklistStatus(data.get("blacklist_status").asText());
-                    if (data.has("blacklist")) deviceInfo.setBlacklistStatus(data.get("blacklist").asText());
-                    if (data.has("warranty")) deviceInfo.setWarranty(data.get("warranty").asText());
-                    if (data.has("warranty_status")) deviceInfo.setWarranty(data.get("warranty_status").asText());
-                    if (data.has("country")) deviceInfo.setCountryOrigin(data.get("country").asText());
-                    if (data.has("serial")) deviceInfo.setSerialNumber(data.get("serial").asText());
-                    if (data.has("activation_status")) deviceInfo.setActivationStatus(data.get("activation_status").asText());
-                    
-                    logger.info("iFreeCheck API - Informations extraites pour IMEI: {}", maskIMEI(imei));
+                    DeviceInfo deviceInfo = readDeviceFields(imei, json, true);
+                    logger.debug("iFreeCheck API - Informations extraites pour IMEI: {}", maskIMEI(imei));
                     return deviceInfo;
                 } else {
                     // Erreur dans la réponse
-                    String errorMsg = json.has("message") ? json.get("message").asText() : 
-                                     json.has("error") ? json.get("error").asText() : "Erreur API iFreeCheck";
+                    String errorMsg = json.has(MESSAGE) ? json.get(MESSAGE) : 
+                                     json.has(ERROR) ? json.get(ERROR) : "Erreur API iFreeCheck";
                     logger.warn("Erreur iFreeCheck API: {}", errorMsg);
                     return new DeviceInfo(false, errorMsg);
                 }
@@ -602,6 +715,44 @@ public class DHRUApiService {
         }
         return null;
     }
+    
+    /**
+     * Champs d'appareil communs à IMEI.pro et iFreeCheck (objet « data » ou racine) ;
+     * pour deux noms d'un même champ, le second l'emporte
+     */
+    private static DeviceInfo readDeviceFields(String imei, ProviderJson json, boolean findMyIphone) {
+        DeviceInfo deviceInfo = new DeviceInfo();
+        deviceInfo.setSuccess(true);
+        deviceInfo.setImei(imei);
+        
+        if (json.hasData(BRAND)) deviceInfo.setBrand(json.data(BRAND));
+        if (json.hasData(MODEL)) deviceInfo.setModel(json.data(MODEL));
+        if (json.hasData(DEVICE_MODEL)) deviceInfo.setModel(json.data(DEVICE_MODEL));
+        if (json.hasData(CAPACITY)) {
+            deviceInfo.setCapacity(json.data(CAPACITY));
+            deviceInfo.setStorage(json.data(CAPACITY));
+        }
+        if (json.hasData(STORAGE)) {
+            deviceInfo.setCapacity(json.data(STORAGE));
+            deviceInfo.setStorage(json.data(STORAGE));
+        }
+        if (json.hasData(COLOR)) deviceInfo.setColor(json.data(COLOR));
+        if (json.hasData(ICLOUD_STATUS)) deviceInfo.setIcloudStatus(json.data(ICLOUD_STATUS));
+        if (json.hasData(ICLOUD)) deviceInfo.setIcloudStatus(json.data(ICLOUD));
+        if (findMyIphone && json.hasData(FIND_MY_IPHONE)) deviceInfo.setIcloudStatus(json.data(FIND_MY_IPHONE));
+        if (json.hasData(CARRIER)) deviceInfo.setCarrier(json.data(CARRIER));
+        if (json.hasData(NETWORK)) deviceInfo.setCarrier(json.data(NETWORK));
+        if (json.hasData(SIMLOCK_STATUS)) deviceInfo.setSimlockStatus(json.data(SIMLOCK_STATUS));
+        if (json.hasData(SIMLOCK)) deviceInfo.setSimlockStatus(json.data(SIMLOCK));
+        if (json.hasData(BLACKLIST_STATUS)) deviceInfo.setBlacklistStatus(json.data(BLACKLIST_STATUS));
+        if (json.hasData(BLACKLIST)) deviceInfo.setBlacklistStatus(json.data(BLACKLIST));
+        if (json.hasData(WARRANTY)) deviceInfo.setWarranty(json.data(WARRANTY));
+        if (json.hasData(WARRANTY_STATUS)) deviceInfo.setWarranty(json.data(WARRANTY_STATUS));
+        if (json.hasData(COUNTRY)) deviceInfo.setCountryOrigin(json.data(COUNTRY));
+        if (json.hasData(SERIAL)) deviceInfo.setSerialNumber(json.data(SERIAL));
+        if (json.hasData(ACTIVATION_STATUS)) deviceInfo.setActivationStatus(json.data(ACTIVATION_STATUS));
+        return deviceInfo;
+    }
 
     private DeviceInfo parseDhruResponse(String imei, String raw) {
         try {
@@ -617,76 +768,63 @@ public class DHRUApiService {
                 return generateSimulationData(imei);
             }
             
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode json = mapper.readTree(raw);
+            ProviderJson json = ProviderJson.parse(raw);
 
             // Gestion des erreurs explicites
-            if (json.has("error") && !json.get("error").asText().isEmpty()) {
-                String err = json.get("error").asText();
+            if (json.has(ERROR) && !json.get(ERROR).isEmpty()) {
+                String err = json.get(ERROR);
                 logger.warn("Erreur DHRU: {}", err);
                 return new DeviceInfo(false, err);
             }
             
             // Gestion format ERROR array DHRU
-            if (json.has("ERROR") && json.get("ERROR").isArray()) {
-                StringBuilder errors = new StringBuilder();
-                for (JsonNode errorNode : json.get("ERROR")) {
-                    if (errorNode.has("MESSAGE")) {
-                        if (errors.length() > 0) errors.append("; ");
-                        errors.append(errorNode.get("MESSAGE").asText());
-                        if (errorNode.has("FULL_DESCRIPTION")) {
-                            errors.append(" (").append(errorNode.get("FULL_DESCRIPTION").asText()).append(")");
-                        }
-                    }
-                }
-                String errMsg = errors.toString();
+            if (json.getErrors() != null) {
+                String errMsg = String.join("; ", json.getErrors());
                 logger.warn("Erreur DHRU: {}", errMsg);
                 return new DeviceInfo(false, errMsg);
             }
 
             // Déterminer le succès selon plusieurs schémas possibles
             boolean success = false;
-            if (json.has("success") && json.get("success").isBoolean()) {
-                success = json.get("success").asBoolean(false);
+            if (json.isBoolean(SUCCESS)) {
+                success = Boolean.parseBoolean(json.get(SUCCESS));
             }
-            if (!success && json.has("status")) {
-                JsonNode st = json.get("status");
-                if (st.isTextual()) {
-                    String s = st.asText("").toLowerCase();
+            if (!success && json.has(STATUS)) {
+                if (json.isTextual(STATUS)) {
+                    String s = json.get(STATUS).toLowerCase();
                     success = s.equals("success") || s.equals("ok") || s.equals("done");
-                } else if (st.isInt() || st.isLong()) {
-                    success = st.asInt(0) == 1;
+                } else if (json.isIntegral(STATUS)) {
+                    success = "1".equals(json.get(STATUS));
                 }
             }
-            if (!success && json.has("result") && json.get("result").isTextual()) {
-                String r = json.get("result").asText("").toLowerCase();
+            if (!success && json.isTextual(RESULT)) {
+                String r = json.get(RESULT).toLowerCase();
                 success = r.equals("ok") || r.equals("success");
             }
 
             // Extraire les données
-            JsonNode data = json.has("data") ? json.get("data") : json;
-            if (success || data.has("model") || data.has("device_model") || data.has("brand")) {
+            if (success || json.hasData(MODEL) || json.hasData(DEVICE_MODEL) || json.hasData(BRAND)) {
                 DeviceInfo d = new DeviceInfo();
                 d.setSuccess(true);
                 d.setImei(imei);
-                if (data.has("brand")) d.setBrand(data.get("brand").asText());
-                if (data.has("model")) d.setModel(data.get("model").asText());
-                if (data.has("device_model")) d.setModel(data.get("device_model").asText());
-                if (data.has("capacity")) d.setCapacity(data.get("capacity").asText());
-                if (data.has("storage")) {
-                    d.setCapacity(data.get("storage").asText());
-                    d.setStorage(data.get("storage").asText());
+                if (json.hasData(BRAND)) d.setBrand(json.data(BRAND));
+                if (json.hasData(MODEL)) d.setModel(json.data(MODEL));
+                if (json.hasData(DEVICE_MODEL)) d.setModel(json.data(DEVICE_MODEL));
+                if (json.hasData(CAPACITY)) d.setCapacity(json.data(CAPACITY));
+                if (json.hasData(STORAGE)) {
+                    d.setCapacity(json.data(STORAGE));
+                    d.setStorage(json.data(STORAGE));
                 }
-                if (data.has("color")) d.setColor(data.get("color").asText());
-                if (data.has("icloud_status")) d.setIcloudStatus(data.get("icloud_status").asText());
-                if (data.has("icloud")) d.setIcloudStatus(data.get("icloud").asText());
-                if (data.has("carrier")) d.setCarrier(data.get("carrier").asText());
-                if (data.has("network")) d.setCarrier(data.get("network").asText());
-                if (data.has("country")) d.setCountryOrigin(data.get("country").asText());
-                if (data.has("warranty")) d.setWarranty(data.get("warranty").asText());
-                if (data.has("serial")) d.setSerialNumber(data.get("serial").asText());
-                if (data.has("simlock")) d.setSimlockStatus(data.get("simlock").asText());
-                if (data.has("blacklist")) d.setBlacklistStatus(data.get("blacklist").asText());
+                if (json.hasData(COLOR)) d.setColor(json.data(COLOR));
+                if (json.hasData(ICLOUD_STATUS)) d.setIcloudStatus(json.data(ICLOUD_STATUS));
+                if (json.hasData(ICLOUD)) d.setIcloudStatus(json.data(ICLOUD));
+                if (json.hasData(CARRIER)) d.setCarrier(json.data(CARRIER));
+                if (json.hasData(NETWORK)) d.setCarrier(json.data(NETWORK));
+                if (json.hasData(COUNTRY)) d.setCountryOrigin(json.data(COUNTRY));
+                if (json.hasData(WARRANTY)) d.setWarranty(json.data(WARRANTY));
+                if (json.hasData(SERIAL)) d.setSerialNumber(json.data(SERIAL));
+                if (json.hasData(SIMLOCK)) d.setSimlockStatus(json.data(SIMLOCK));
+                if (json.hasData(BLACKLIST)) d.setBlacklistStatus(json.data(BLACKLIST));
                 return d;
             }
         } catch (Exception e) {
@@ -2,6 +2,8 @@ package com.logicielapp.service;
 
 import com.logicielapp.model.Device;
 import com.logicielapp.util.DatabaseManager;
+import com.logicielapp.util.IMEIValidator;
+import com.logicielapp.util.UsbIdDatabase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.usb4java.*;
@@ -19,71 +21,20 @@ public class DeviceDetectionService {
     
     private static final Logger logger = LoggerFactory.getLogger(DeviceDetectionService.class);
     
-    // Vendor IDs connus pour les appareils mobiles
-    private static final Map<Integer, String> KNOWN_VENDORS = new HashMap<>();
-    private static final Map<String, DeviceInfo> DEVICE_DATABASE = new HashMap<>();
+    // Fabricants et modèles connus : ressource usb_ids.txt (UsbIdDatabase)
+    private static final int APPLE_VENDOR_ID = 0x05AC;
     
     // Cache des appareils détectés
     private final Map<String, Device> detectedDevices = new ConcurrentHashMap<>();
     
+    // Chaînes des descripteurs par emplacement et identifiants USB : l'appareil n'est ouvert
+    // qu'au premier scan qui le voit ; l'entrée disparaît quand un scan ne le voit plus
+    private final Map<String, DescriptorStrings> descriptorCache = new ConcurrentHashMap<>();
+    
     // Context USB4Java
     private Context context;
     private boolean initialized = false;
     
-    static {
-        // Initialisation des vendor IDs connus
-        KNOWN_VENDORS.put(0x05AC, "Apple Inc."); // Apple
-        KNOWN_VENDORS.put(0x04E8, "Samsung"); // Samsung
-        KNOWN_VENDORS.put(0x12D1, "Huawei"); // Huawei
-        KNOWN_VENDORS.put(0x2717, "Xiaomi"); // Xiaomi
-        KNOWN_VENDORS.put(0x22B8, "Motorola"); // Motorola
-        KNOWN_VENDORS.put(0x0BB4, "HTC"); // HTC
-        KNOWN_VENDORS.put(0x054C, "Sony"); // Sony
-        KNOWN_VENDORS.put(0x0FCE, "Sony Ericsson"); // Sony Ericsson
-        KNOWN_VENDORS.put(0x18D1, "Google"); // Google/Android
-        KNOWN_VENDORS.put(0x1004, "LG"); // LG
-        KNOWN_VENDORS.put(0x0489, "Foxconn"); // OnePlus/Oppo
-        KNOWN_VENDORS.put(0x2A45, "Realme"); // Realme
-        KNOWN_VENDORS.put(0x2970, "Infinix"); // Infinix
-        
-        // Base de données des appareils
-        initializeDeviceDatabase();
-    }
-    
-    private static void initializeDeviceDatabase() {
-        // Appareils Apple
-        DEVICE_DATABASE.put("05AC:12A8", new DeviceInfo("iPhone 5c", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12AB", new DeviceInfo("iPhone 5s", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:129A", new DeviceInfo("iPhone 6", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:129C", new DeviceInfo("iPhone 6 Plus", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A0", new DeviceInfo("iPhone 6s", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A1", new DeviceInfo("iPhone 6s Plus", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:1297", new DeviceInfo("iPhone 7", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:1298", new DeviceInfo("iPhone 7 Plus", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:1299", new DeviceInfo("iPhone 8", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:129B", new DeviceInfo("iPhone 8 Plus", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A6", new DeviceInfo("iPhone X", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A7", new DeviceInfo("iPhone XS", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A4", new DeviceInfo("iPhone XR", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A5", new DeviceInfo("iPhone 11", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A2", new DeviceInfo("iPhone 12", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A3", new DeviceInfo("iPhone 13", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:129D", new DeviceInfo("iPhone 14", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:129E", new DeviceInfo("iPhone 15", "Apple", Device.Platform.iOS));
-        
-        // iPads
-        DEVICE_DATABASE.put("05AC:129F", new DeviceInfo("iPad Air", "Apple", Device.Platform.iOS));
-        DEVICE_DATABASE.put("05AC:12A9", new DeviceInfo("iPad Pro", "Apple", Device.Platform.iOS));
-        
-        // Appareils Samsung génériques (Android détecte automatiquement le modèle)
-        DEVICE_DATABASE.put("04E8:6860", new DeviceInfo("Galaxy Series", "Samsung", Device.Platform.ANDROID));
-        DEVICE_DATABASE.put("04E8:685D", new DeviceInfo("Galaxy S Series", "Samsung", Device.Platform.ANDROID));
-        
-        // Appareils génériques Android
-        DEVICE_DATABASE.put("18D1:4EE7", new DeviceInfo("Android Device", "Unknown", Device.Platform.ANDROID));
-        DEVICE_DATABASE.put("18D1:D002", new DeviceInfo("Android ADB", "Unknown", Device.Platform.ANDROID));
-    }
-    
     public DeviceDetectionService() {
         initialize();
     }
@@ -110,11 +61,21 @@ public class DeviceDetectionService {
      * Scanne les appareils USB connectés et retourne le premier appareil mobile détecté
      */
     public Device scanUSBDevices() {
+        List<Device> devices = scanAllUSBDevices();
+        return devices.isEmpty() ? null : devices.get(0);
+    }
+    
+    /**
+     * Scanne les appareils USB connectés et retourne tous les appareils mobiles détectés
+     * (plusieurs téléphones sur un hub)
+     */
+    public List<Device> scanAllUSBDevices() {
+        List<Device> foundDevices = new ArrayList<>();
         if (!initialized) {
             logger.warn("Service non initialisé, tentative de réinitialisation");
             initialize();
             if (!initialized) {
-                return null;
+                return foundDevices;
             }
         }
         
@@ -124,32 +85,32 @@ public class DeviceDetectionService {
             
             if (result < 0) {
                 logger.error("Erreur lors de la récupération de la liste USB: " + LibUsb.errorName(result));
-                return null;
+                return foundDevices;
             }
             
-            Device foundDevice = null;
-            
-            for (org.usb4java.Device usbDevice : deviceList) {
-                Device mobileDevice = analyzeUSBDevice(usbDevice);
-                if (mobileDevice != null) {
-                    foundDevice = mobileDevice;
-                    break; // Retourner le premier appareil trouvé
+            try {
+                Set<String> present = new HashSet<>();
+                for (org.usb4java.Device usbDevice : deviceList) {
+                    Device mobileDevice = analyzeUSBDevice(usbDevice, present);
+                    if (mobileDevice != null) {
+                        foundDevices.add(mobileDevice);
+                    }
                 }
+                forgetDetached(present);
+            } finally {
+                LibUsb.freeDeviceList(deviceList, true);
             }
             
-            LibUsb.freeDeviceList(deviceList, true);
-            return foundDevice;
-            
         } catch (Exception e) {
             logger.error("Erreur lors du scan USB", e);
-            return null;
         }
+        return foundDevices;
     }
     
     /**
      * Analyse un périphérique USB pour déterminer s'il s'agit d'un appareil mobile
      */
-    private Device analyzeUSBDevice(org.usb4java.Device usbDevice) {
+    private Device analyzeUSBDevice(org.usb4java.Device usbDevice, Set<String> present) {
         try {
             DeviceDescriptor descriptor = new DeviceDescriptor();
             int result = LibUsb.getDeviceDescriptor(usbDevice, descriptor);
@@ -160,7 +121,7 @@ public class DeviceDetectionService {
             
             int vendorId = descriptor.idVendor() & 0xFFFF;
             int productId = descriptor.idProduct() & 0xFFFF;
-            String vendorName = KNOWN_VENDORS.get(vendorId);
+            String vendorName = UsbIdDatabase.vendorName(vendorId);
             
             // Vérifier si c'est un vendor connu pour les mobiles
             if (vendorName == null) {
@@ -170,9 +131,7 @@ public class DeviceDetectionService {
             logger.debug("Appareil détecté - Vendor: {} (0x{:04X}), Product: 0x{:04X}", 
                         vendorName, vendorId, productId);
             
-            // Créer le device ID pour la base de données
-            String deviceId = String.format("%04X:%04X", vendorId, productId);
-            DeviceInfo deviceInfo = DEVICE_DATABASE.get(deviceId);
+            String knownModel = UsbIdDatabase.productName(vendorId, productId);
             
             Device device = new Device();
             device.setUsbVendorId(String.format("0x%04X", vendorId));
@@ -181,22 +140,21 @@ public class DeviceDetectionService {
             device.setStatus(Device.DeviceStatus.CONNECTED);
             device.setConnectionType(Device.ConnectionType.USB);
             
-            if (deviceInfo != null) {
-                device.setModel(deviceInfo.model);
-                device.setPlatform(deviceInfo.platform);
+            // Apple : iOS, autres fabricants : Android
+            if (vendorId == APPLE_VENDOR_ID) {
+                device.setModel(knownModel != null ? knownModel : "iPhone/iPad");
+                device.setPlatform(Device.Platform.iOS);
             } else {
-                // Détection générique basée sur le vendor
-                if (vendorId == 0x05AC) { // Apple
-                    device.setModel("iPhone/iPad");
-                    device.setPlatform(Device.Platform.iOS);
-                } else {
-                    device.setModel("Android Device");
-                    device.setPlatform(Device.Platform.ANDROID);
-                }
+                device.setModel(knownModel != null ? knownModel : "Android Device");
+                device.setPlatform(Device.Platform.ANDROID);
             }
             
             // Enrichir avec des informations supplémentaires si possible
-            enrichDeviceInfo(device, usbDevice, descriptor);
+            String descriptorKey = UsbHotplugMonitor.pathOf(usbDevice) + ":" + vendorId + ":" + productId;
+            present.add(descriptorKey);
+            DescriptorStrings strings = descriptorCache.computeIfAbsent(descriptorKey,
+                key -> readDescriptorStrings(usbDevice, descriptor));
+            enrichDeviceInfo(device, strings);
             
             // Sauvegarder dans le cache
             String cacheKey = device.getUsbVendorId() + ":" + device.getUsbProductId();
@@ -216,47 +174,66 @@ public class DeviceDetectionService {
     /**
      * Enrichit les informations de l'appareil avec des données supplémentaires
      */
-    private void enrichDeviceInfo(Device device, org.usb4java.Device usbDevice, DeviceDescriptor descriptor) {
+    private void enrichDeviceInfo(Device device, DescriptorStrings strings) {
+        String serialNumber = strings.serialNumber;
+        if (serialNumber != null && !serialNumber.trim().isEmpty()) {
+            device.setSerialNumber(serialNumber.trim());
+            
+            // Pour iOS, le serial number peut contenir l'UDID
+            if (device.isIOS() && serialNumber.length() >= 40) {
+                device.setUdid(serialNumber.substring(0, 40));
+            }
+        }
+        
+        String productName = strings.productName;
+        if (productName != null && !productName.trim().isEmpty()) {
+            // Utiliser le nom du produit si on n'a pas d'info spécifique
+            if (device.getModel().contains("Android Device") || device.getModel().contains("Series")) {
+                device.setModel(productName.trim());
+            }
+        }
+    }
+    
+    /**
+     * Lit les chaînes descriptives (ouverture de l'appareil) ; un échec est aussi conservé,
+     * pour ne pas retenter l'ouverture à chaque scan
+     */
+    private DescriptorStrings readDescriptorStrings(org.usb4java.Device usbDevice, DeviceDescriptor descriptor) {
+        String serialNumber = null;
+        String productName = null;
         try {
             DeviceHandle handle = new DeviceHandle();
             int result = LibUsb.open(usbDevice, handle);
             
             if (result != LibUsb.SUCCESS) {
-                return;
+                return DescriptorStrings.UNREADABLE;
             }
             
             // Essayer de lire les chaînes descriptives
             try {
                 if (descriptor.iSerialNumber() != 0) {
-                    String serialNumber = LibUsb.getStringDescriptor(handle, descriptor.iSerialNumber());
-                    if (serialNumber != null && !serialNumber.trim().isEmpty()) {
-                        device.setSerialNumber(serialNumber.trim());
-                        
-                        // Pour iOS, le serial number peut contenir l'UDID
-                        if (device.isIOS() && serialNumber.length() >= 40) {
-                            device.setUdid(serialNumber.substring(0, 40));
-                        }
-                    }
+                    serialNumber = LibUsb.getStringDescriptor(handle, descriptor.iSerialNumber());
                 }
-                
                 if (descriptor.iProduct() != 0) {
-                    String productName = LibUsb.getStringDescriptor(handle, descriptor.iProduct());
-                    if (productName != null && !productName.trim().isEmpty()) {
-                        // Utiliser le nom du produit si on n'a pas d'info spécifique
-                        if (device.getModel().contains("Android Device") || device.getModel().contains("Series")) {
-                            device.setModel(productName.trim());
-                        }
-                    }
+                    productName = LibUsb.getStringDescriptor(handle, descriptor.iProduct());
                 }
             } catch (Exception e) {
                 logger.debug("Impossible de lire les descripteurs de chaînes: {}", e.getMessage());
+            } finally {
+                LibUsb.close(handle);
             }
             
-            LibUsb.close(handle);
-            
         } catch (Exception e) {
             logger.debug("Erreur lors de l'enrichissement des informations: {}", e.getMessage());
         }
+        return new DescriptorStrings(serialNumber, productName);
+    }
+    
+    /**
+     * Oublie les descripteurs des appareils absents du dernier scan (débranchés)
+     */
+    private void forgetDetached(Set<String> present) {
+        descriptorCache.keySet().retainAll(present);
     }
     
     /**
@@ -274,12 +251,14 @@ public class DeviceDetectionService {
                 return devices;
             }
             
+            Set<String> present = new HashSet<>();
             for (org.usb4java.Device usbDevice : deviceList) {
-                Device mobileDevice = analyzeUSBDevice(usbDevice);
+                Device mobileDevice = analyzeUSBDevice(usbDevice, present);
                 if (mobileDevice != null) {
                     devices.add(mobileDevice);
                 }
             }
+            forgetDetached(present);
             
             LibUsb.freeDeviceList(deviceList, true);
             
@@ -345,17 +324,17 @@ public class DeviceDetectionService {
     }
     
     /**
-     * Classe interne pour stocker les informations des appareils
+     * Chaînes descriptives lues sur un appareil (null si absentes ou illisibles)
      */
-    private static class DeviceInfo {
-        final String model;
-        final String brand;
-        final Device.Platform platform;
-        
-        DeviceInfo(String model, String brand, Device.Platform platform) {
-            this.model = model;
-            this.brand = brand;
-            this.platform = platform;
+    private static final class DescriptorStrings {
+        static final DescriptorStrings UNREADABLE = new DescriptorStrings(null, null);
+        
+        final String serialNumber;
+        final String productName;
+        
+        DescriptorStrings(String serialNumber, String productName) {
+            this.serialNumber = serialNumber;
+            this.productName = productName;
         }
     }
     
@@ -518,36 +497,12 @@ public class DeviceDetectionService {
         }
         
         // Calculer et ajouter le chiffre de contrôle Luhn
-        int checksum = calculateLuhnChecksum(imei.toString());
+        int checksum = IMEIValidator.calculateLuhnChecksum(imei.toString());
         imei.append(checksum);
         
         return imei.toString();
     }
     
-    /**
-     * Calcule le chiffre de contrôle Luhn pour un IMEI
-     */
-    private int calculateLuhnChecksum(String imei) {
-        int sum = 0;
-        boolean alternate = false;
-        
-        for (int i = imei.length() - 1; i >= 0; i--) {
-            int digit = Character.getNumericValue(imei.charAt(i));
-            
-            if (alternate) {
-                digit *= 2;
-                if (digit > 9) {
-                    digit = (digit % 10) + 1;
-                }
-            }
-            
-            sum += digit;
-            alternate = !alternate;
-        }
-        
-        return (10 - (sum % 10)) % 10;
-    }
-    
     /**
      * Génère un numéro de série Apple réaliste
      */
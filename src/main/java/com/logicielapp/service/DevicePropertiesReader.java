@@ -0,0 +1,176 @@
+package com.logicielapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lecture groupée des propriétés d'un appareil (Singleton)
+ * Une seule commande par appareil : liste complète « ideviceinfo -u UDID » pour iOS (via
+ * {@link ToolRunner}, analysée au fil de la lecture), « getprop » pour Android (par le serveur adb,
+ * sans processus), au lieu d'un processus par clé. Le résultat est conservé par numéro de série
+ * jusqu'au débranchement ({@link #invalidate(String)}).
+ */
+public class DevicePropertiesReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(DevicePropertiesReader.class);
+    private static DevicePropertiesReader instance;
+
+    /** Domaine ideviceinfo de la batterie (absent de la liste par défaut) */
+    public static final String BATTERY_DOMAIN = "com.apple.mobile.battery";
+
+    // Clé : plateforme + série (+ domaine) -> propriétés immuables
+    private final Map<String, Map<String, String>> cache = new ConcurrentHashMap<>();
+
+    private DevicePropertiesReader() {
+        // Constructeur privé pour Singleton
+    }
+
+    /**
+     * Obtient l'instance unique du lecteur
+     */
+    public static synchronized DevicePropertiesReader getInstance() {
+        if (instance == null) {
+            instance = new DevicePropertiesReader();
+        }
+        return instance;
+    }
+
+    /**
+     * Propriétés iOS du domaine par défaut (ProductType, ProductVersion, SerialNumber, IMEI...)
+     *
+     * @param udid identifiant de l'appareil, ou null pour le seul appareil branché (non mis en cache)
+     * @return propriétés, vide si l'appareil ne répond pas
+     */
+    public Map<String, String> getIOSProperties(String udid) {
+        return getIOSProperties(udid, null);
+    }
+
+    /**
+     * Propriétés iOS d'un domaine ideviceinfo (ex. {@link #BATTERY_DOMAIN})
+     */
+    public Map<String, String> getIOSProperties(String udid, String domain) {
+        String key = "ios:" + udid + (domain != null ? ":" + domain : "");
+        return cached(udid, key, () -> {
+            List<String> args = new ArrayList<>();
+            if (udid != null) {
+                args.addAll(List.of("-u", udid));
+            }
+            if (domain != null) {
+                args.addAll(List.of("-q", domain));
+            }
+            return ToolRunner.getInstance().read(ToolRunner.Tool.IDEVICEINFO,
+                reader -> parse(reader, DevicePropertiesReader::parseIdeviceinfo), args.toArray(new String[0]));
+        });
+    }
+
+    /**
+     * Propriétés système Android (ro.product.model, ro.build.version.release...)
+     */
+    public Map<String, String> getAndroidProperties(String serial) {
+        return cached(serial, "android:" + serial, () -> parse(
+            new BufferedReader(new StringReader(AdbClient.getInstance().shell(serial, "getprop"))),
+            DevicePropertiesReader::parseGetprop));
+    }
+
+    /**
+     * Oublie les propriétés d'un appareil débranché (UDID ou numéro de série)
+     */
+    public void invalidate(String serial) {
+        if (serial == null) {
+            return;
+        }
+        cache.keySet().removeIf(key -> key.equals("ios:" + serial) || key.startsWith("ios:" + serial + ":")
+                                       || key.equals("android:" + serial));
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private interface Command {
+        Map<String, String> read() throws IOException, InterruptedException;
+    }
+
+    private interface Parser {
+        void parse(BufferedReader reader, Map<String, String> into) throws IOException;
+    }
+
+    private Map<String, String> cached(String serial, String key, Command command) {
+        Map<String, String> properties = cache.get(key);
+        if (properties != null) {
+            return properties;
+        }
+        try {
+            properties = command.read();
+        } catch (IOException e) {
+            logger.debug("Lecture des propriétés impossible pour {}: {}", serial, e.getMessage());
+            return Collections.emptyMap();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyMap();
+        }
+        // Sans série, l'appareil interrogé peut changer : pas de mise en cache ; réponse vide non plus
+        if (serial != null && !properties.isEmpty()) {
+            cache.putIfAbsent(key, properties);
+        }
+        return properties;
+    }
+
+    private static Map<String, String> parse(BufferedReader reader, Parser parser) throws IOException {
+        Map<String, String> properties = new HashMap<>();
+        parser.parse(reader, properties);
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * Sortie ideviceinfo : « Clé: valeur » ; les lignes indentées (dictionnaires imbriqués) sont ignorées
+     */
+    static void parseIdeviceinfo(BufferedReader reader, Map<String, String> into) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || Character.isWhitespace(line.charAt(0))) {
+                continue;
+            }
+            int colon = line.indexOf(": ");
+            if (colon > 0) {
+                into.put(line.substring(0, colon), line.substring(colon + 2).trim());
+            }
+        }
+    }
+
+    /**
+     * Sortie getprop : « [clé]: [valeur] », valeur éventuellement sur plusieurs lignes
+     */
+    static void parseGetprop(BufferedReader reader, Map<String, String> into) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int keyEnd = line.indexOf("]: [");
+            if (!line.startsWith("[") || keyEnd < 0) {
+                continue;
+            }
+            String key = line.substring(1, keyEnd);
+            StringBuilder value = new StringBuilder(line.substring(keyEnd + 4));
+            while (value.length() == 0 || value.charAt(value.length() - 1) != ']') {
+                String next = reader.readLine();
+                if (next == null) {
+                    break;
+                }
+                value.append('\n').append(next);
+            }
+            if (value.length() > 0 && value.charAt(value.length() - 1) == ']') {
+                value.setLength(value.length() - 1);
+            }
+            into.put(key, value.toString().trim());
+        }
+    }
+}
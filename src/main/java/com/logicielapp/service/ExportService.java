@@ -0,0 +1,313 @@
+package com.logicielapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.logicielapp.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export des données (historique des vérifications, journal d'activité, statistiques) en CSV ou JSON
+ * Les lignes sont lues par curseur serveur (fetchSize, useCursorFetch) et écrites au fil de la
+ * lecture dans un fichier tamponné, éventuellement compressé en gzip : la mémoire utilisée ne
+ * dépend pas du nombre de lignes. Le fichier est écrit à côté de la destination puis renommé,
+ * si bien qu'un export interrompu ne laisse pas de fichier incomplet.
+ *
+ * L'export est bloquant : l'appeler depuis un thread d'arrière-plan. Une interruption du thread
+ * l'arrête entre deux lots de lignes.
+ */
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static ExportService instance;
+
+    private static final int FETCH_SIZE = Integer.getInteger("export.fetchSize", 1000);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Données exportables (colonnes choisies : pas de mot de passe ni d'IMEI en clair)
+     */
+    public enum Dataset {
+        HISTORIQUE("Historique des vérifications IMEI", "historique_verifications",
+            "SELECT id, imei_hash, imei_masque, succes, marque, modele, statut_blacklist, fournisseur, latence_ms, "
+            + "nombre_verifications, premiere_verification, derniere_verification "
+            + "FROM historique_verifications ORDER BY id"),
+        ACTIVITE("Journal d'activité", "logs_activite",
+            "SELECT id, session_id, utilisateur_id, action, details, adresse_ip, date_action "
+            + "FROM logs_activite ORDER BY id"),
+        STATISTIQUES("Statistiques journalières", "statistiques",
+            "SELECT date_stat, total_operations, operations_reussies, operations_echec, plateforme_ios, "
+            + "plateforme_android, methode_usb, methode_imei FROM statistiques ORDER BY date_stat");
+
+        private final String label;
+        private final String table;
+        private final String query;
+
+        Dataset(String label, String table, String query) {
+            this.label = label;
+            this.table = table;
+            this.query = query;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum Format {
+        CSV("csv"),
+        JSON("json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Avancement : lignes écrites et total estimé (-1 s'il est inconnu)
+     */
+    public interface ProgressListener {
+        void onProgress(long written, long total);
+    }
+
+    private ExportService() {
+        // Constructeur privé pour Singleton
+    }
+
+    /**
+     * Obtient l'instance unique du service
+     */
+    public static synchronized ExportService getInstance() {
+        if (instance == null) {
+            instance = new ExportService();
+        }
+        return instance;
+    }
+
+    /**
+     * Exporte un jeu de données dans le fichier indiqué
+     *
+     * @param gzip     compresse la sortie (extension .gz conseillée)
+     * @param progress appelé tous les fetchSize lignes et à la fin, peut être null
+     * @return nombre de lignes écrites
+     */
+    public long export(Dataset dataset, Format format, Path target, boolean gzip, ProgressListener progress)
+            throws SQLException, IOException, InterruptedException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".part");
+        long written;
+        try {
+            try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+                long total = count(conn, dataset);
+                try (OutputStream file = Files.newOutputStream(temporary);
+                     OutputStream output = gzip ? new GZIPOutputStream(file, BUFFER_SIZE) : file;
+                     Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+                     PreparedStatement stmt = conn.prepareStatement(dataset.query,
+                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    // Avec useCursorFetch, un fetchSize positif lit par lots au lieu de tout charger
+                    stmt.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowWriter rows = format == Format.CSV ? new CsvWriter(writer) : new JsonWriter(writer);
+                        written = copy(rs, rows, total, progress);
+                    }
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        logger.info("Export {} ({}) : {} lignes dans {}", dataset.getTable(), format, written, target);
+        return written;
+    }
+
+    private static long count(Connection conn, Dataset dataset) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM " + dataset.getTable());
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            logger.debug("Nombre de lignes de {} inconnu: {}", dataset.getTable(), e.getMessage());
+            return -1;
+        }
+    }
+
+    private static long copy(ResultSet rs, RowWriter rows, long total, ProgressListener progress)
+            throws SQLException, IOException, InterruptedException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] names = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            names[i] = meta.getColumnLabel(i + 1);
+        }
+        Object[] values = new Object[columns];
+        rows.begin(names);
+        long written = 0;
+        while (rs.next()) {
+            for (int i = 0; i < columns; i++) {
+                values[i] = readValue(rs, i + 1);
+            }
+            rows.row(values);
+            if (++written % FETCH_SIZE == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Export annulé après " + written + " lignes");
+                }
+                if (progress != null) {
+                    progress.onProgress(written, total);
+                }
+            }
+        }
+        rows.end();
+        if (progress != null) {
+            progress.onProgress(written, Math.max(total, written));
+        }
+        return written;
+    }
+
+    /**
+     * Valeur de colonne : nombres et booléens tels quels, dates ISO 8601, binaires en hexadécimal
+     */
+    private static Object readValue(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof byte[]) {
+            return HexFormat.of().formatHex((byte[]) value);
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toInstant().toString();
+        }
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        return value.toString();
+    }
+
+    private interface RowWriter {
+        void begin(String[] columns) throws IOException;
+
+        void row(Object[] values) throws IOException;
+
+        void end() throws IOException;
+    }
+
+    /**
+     * CSV RFC 4180 : séparateur virgule, champs entre guillemets si nécessaire, fins de ligne CRLF
+     */
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin(String[] columns) throws IOException {
+            row(columns);
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String field) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < field.length() && !quote; i++) {
+                char c = field.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Tableau JSON d'objets, écrit au fil de l'eau
+     */
+    private static final class JsonWriter implements RowWriter {
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        private final JsonGenerator generator;
+        private String[] columns;
+
+        JsonWriter(Writer writer) throws IOException {
+            // Le flux sous-jacent reste géré par l'appelant
+            generator = FACTORY.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void begin(String[] columns) throws IOException {
+            this.columns = columns;
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Boolean) {
+                    generator.writeBoolean((Boolean) value);
+                } else if (value instanceof Number) {
+                    generator.writeNumber(value.toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+}
@@ -1,46 +1,406 @@
 package com.logicielapp.service;
 
 import com.logicielapp.model.Device;
+import com.logicielapp.util.UsbIdDatabase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service de détection ultra-rapide sans dépendances externes
+ *
+ * Les branchements sont signalés par {@link UsbHotplugMonitor} : un appareil mobile n'est identifié
+ * (idevice_id, adb) qu'une fois, à son arrivée, puis conservé dans un registre partagé jusqu'à son
+ * débranchement. Sans libusb, la détection revient aux commandes externes à chaque appel.
+ *
+ * Plusieurs appareils peuvent être branchés en même temps (hub d'inventaire) : chacun est identifié
+ * sur un pool borné (-Ddevice.identifyThreads, 4 par défaut) et annoncé dès qu'il est prêt,
+ * sans attendre les autres. Le numéro de série USB relie l'emplacement à l'UDID ou à la série adb.
+ *
+ * Un périphérique que les outils ne reconnaissent pas (clavier Apple, disque Samsung, téléphone
+ * pas encore autorisé ou approuvé) n'est pas enregistré. Il est réexaminé à chaque changement de
+ * la liste adb (débogage USB autorisé) et, pour les appareils iOS, toutes les
+ * -Ddevice.iosRetrySeconds (5 par défaut) tant qu'il reste branché.
  */
 public class FastDeviceDetectionService {
     private static final Logger logger = LoggerFactory.getLogger(FastDeviceDetectionService.class);
     
+    private static final int APPLE_VENDOR_ID = 0x05AC;
+    // Identifiants produit Apple des iPhone, iPad et iPod (mode normal) ; les autres sont des périphériques
+    private static final int APPLE_MOBILE_PRODUCT_MIN = 0x1290;
+    private static final int APPLE_MOBILE_PRODUCT_MAX = 0x12FF;
+    
+    // Les outils (usbmuxd, serveur adb) voient l'appareil un peu après le noyau
+    private static final int IDENTIFY_ATTEMPTS = 3;
+    private static final long IDENTIFY_RETRY_MS = 500;
+    
+    // Registre partagé par toutes les instances : emplacement USB -> appareil identifié
+    private static final Map<String, Device> CONNECTED_DEVICES = new ConcurrentHashMap<>();
+    // UDID ou série adb -> emplacement USB, pour ne pas attribuer un appareil à deux emplacements
+    private static final Map<String, String> CLAIMED_SERIALS = new ConcurrentHashMap<>();
+    // Identifications en cours, annulées si l'appareil est débranché avant la fin
+    private static final Map<String, Identification> PENDING = new ConcurrentHashMap<>();
+    // Branchés mais non reconnus par les outils : réexaminés quand leur état peut avoir changé
+    private static final Map<String, UsbHotplugMonitor.UsbEvent> UNIDENTIFIED = new ConcurrentHashMap<>();
+    private static final long IOS_RETRY_SECONDS = Math.max(1, Long.getLong("device.iosRetrySeconds", 5));
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "DeviceIdentifyRetry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private static final int IDENTIFY_THREADS = Math.max(1, Integer.getInteger("device.identifyThreads", 4));
+    private static final ExecutorService IDENTIFY_EXECUTOR = createIdentifyExecutor();
+    private static final List<DeviceListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static volatile boolean eventDriven = false;
+    private static boolean eventDetectionAttempted = false;
+    
+    // Appareils vus au dernier passage sans libusb (propriétés oubliées à leur disparition)
+    private volatile Set<String> lastSeenSerials = Collections.emptySet();
+    
     // Cache ultra-rapide
     private Device cachedDevice = null;
     private long lastCacheTime = 0;
     private static final long CACHE_DURATION = 100; // 100ms de cache pour détecter rapidement les déconnexions
     
+    /**
+     * Observateur des branchements (appelé hors du thread JavaFX)
+     */
+    public interface DeviceListener {
+        void onDeviceConnected(Device device);
+        void onDeviceDisconnected(Device device);
+    }
+    
     public FastDeviceDetectionService() {
         // Pas de simulation - uniquement détection réelle
+        startEventDetection();
+    }
+    
+    private FastDeviceDetectionService(boolean identifierOnly) {
+        // Instance interne d'identification des appareils signalés par le moniteur USB
+    }
+    
+    /**
+     * Démarre une seule fois la détection par événements USB
+     */
+    private static synchronized void startEventDetection() {
+        if (eventDetectionAttempted) {
+            return;
+        }
+        eventDetectionAttempted = true;
+        if ("false".equalsIgnoreCase(System.getProperty("usb.hotplug"))) {
+            logger.info("Détection USB par événements désactivée (-Dusb.hotplug=false)");
+            return;
+        }
+        UsbHotplugMonitor monitor = UsbHotplugMonitor.getInstance();
+        if (monitor.start()) {
+            FastDeviceDetectionService identifier = new FastDeviceDetectionService(true);
+            monitor.subscribe(identifier::onUsbEvent);
+            // Téléphone Android autorisé après son branchement : nouvelle identification
+            AdbClient.getInstance().addDeviceStateListener(() -> identifier.retryUnidentified(false));
+            eventDriven = true;
+        } else {
+            logger.info("libusb indisponible : détection par commandes externes");
+        }
+    }
+    
+    /**
+     * Vrai si les appareils sont connus par événements USB (aucun processus lancé à la lecture)
+     */
+    public boolean isEventDriven() {
+        return eventDriven;
+    }
+    
+    /**
+     * Abonne un observateur ; les appareils déjà identifiés lui sont d'abord annoncés
+     */
+    public void addDeviceListener(DeviceListener listener) {
+        LISTENERS.add(listener);
+        for (Device device : CONNECTED_DEVICES.values()) {
+            listener.onDeviceConnected(device);
+        }
+    }
+    
+    public void removeDeviceListener(DeviceListener listener) {
+        LISTENERS.remove(listener);
+    }
+    
+    /**
+     * Appareil identifié par son UDID (iOS) ou son numéro de série adb (Android)
+     */
+    public Device findDevice(String serial) {
+        String path = CLAIMED_SERIALS.get(serial);
+        return path != null ? CONNECTED_DEVICES.get(path) : null;
+    }
+    
+    /**
+     * Nombre d'appareils branchés dont l'identification n'est pas terminée
+     */
+    public int getPendingIdentificationCount() {
+        return PENDING.size();
+    }
+    
+    /**
+     * Branchement / débranchement signalé par le moniteur USB (thread de notification)
+     * L'identification part sur le pool : le thread de notification n'attend jamais les outils.
+     */
+    private void onUsbEvent(UsbHotplugMonitor.UsbEvent event) {
+        // Fabricants d'appareils mobiles (usb_ids.txt) ; les autres périphériques sont ignorés
+        String vendorName = UsbIdDatabase.vendorName(event.getVendorId());
+        if (vendorName == null || !isMobileProduct(event)) {
+            return;
+        }
+        String path = event.getPath();
+        
+        if (event.getType() == UsbHotplugMonitor.UsbEvent.Type.DETACHED) {
+            UNIDENTIFIED.remove(path);
+            Identification pending = PENDING.remove(path);
+            if (pending != null) {
+                pending.cancel(true);
+            }
+            CLAIMED_SERIALS.values().remove(path);
+            Device removed = CONNECTED_DEVICES.remove(path);
+            if (removed != null) {
+                removed.setStatus(Device.DeviceStatus.DISCONNECTED);
+                DevicePropertiesReader.getInstance().invalidate(
+                    removed.getPlatform() == Device.Platform.iOS ? removed.getUdid() : removed.getSerialNumber());
+                logger.info("📱 Appareil déconnecté: {} ({})", removed.getDisplayName(), path);
+                for (DeviceListener listener : LISTENERS) {
+                    notifyListener(() -> listener.onDeviceDisconnected(removed));
+                }
+            }
+            return;
+        }
+        
+        startIdentification(event, vendorName);
+    }
+    
+    private static boolean isMobileProduct(UsbHotplugMonitor.UsbEvent event) {
+        return event.getVendorId() != APPLE_VENDOR_ID
+            || (event.getProductId() >= APPLE_MOBILE_PRODUCT_MIN && event.getProductId() <= APPLE_MOBILE_PRODUCT_MAX);
+    }
+    
+    private void startIdentification(UsbHotplugMonitor.UsbEvent event, String vendorName) {
+        String path = event.getPath();
+        if (CONNECTED_DEVICES.containsKey(path)) {
+            return;
+        }
+        Identification identification = new Identification(event, vendorName);
+        if (PENDING.putIfAbsent(path, identification) == null) {
+            UNIDENTIFIED.remove(path);
+            IDENTIFY_EXECUTOR.execute(identification);
+        }
+    }
+    
+    /**
+     * Relance l'identification des périphériques non reconnus d'une plateforme
+     */
+    private void retryUnidentified(boolean apple) {
+        for (UsbHotplugMonitor.UsbEvent event : UNIDENTIFIED.values()) {
+            if ((event.getVendorId() == APPLE_VENDOR_ID) == apple) {
+                logger.debug("Nouvelle identification de {}", event.getPath());
+                startIdentification(event, UsbIdDatabase.vendorName(event.getVendorId()));
+            }
+        }
+    }
+    
+    /**
+     * Périphérique non reconnu : gardé de côté ; un appareil iOS pas encore approuvé est
+     * réexaminé périodiquement (usbmuxd ne signale pas l'approbation)
+     */
+    private void markUnidentified(UsbHotplugMonitor.UsbEvent event) {
+        UNIDENTIFIED.put(event.getPath(), event);
+        logger.info("Périphérique {} non identifié ({} {}), ignoré jusqu'à autorisation",
+                    event.getPath(), String.format("0x%04X", event.getVendorId()), String.format("0x%04X", event.getProductId()));
+        if (event.getVendorId() == APPLE_VENDOR_ID) {
+            RETRY_SCHEDULER.schedule(() -> {
+                if (UNIDENTIFIED.get(event.getPath()) == event) {
+                    startIdentification(event, UsbIdDatabase.vendorName(APPLE_VENDOR_ID));
+                }
+            }, IOS_RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * Identification d'un appareil branché ; enregistrée et annoncée à la fin si l'appareil
+     * est toujours là
+     */
+    private final class Identification extends FutureTask<Device> {
+        private final UsbHotplugMonitor.UsbEvent event;
+        private final String path;
+        
+        Identification(UsbHotplugMonitor.UsbEvent event, String vendorName) {
+            super(() -> identify(event, vendorName));
+            this.event = event;
+            this.path = event.getPath();
+        }
+        
+        @Override
+        protected void done() {
+            // Débranché entre-temps : l'annulation a déjà retiré la tâche
+            if (isCancelled() || !PENDING.remove(path, this)) {
+                return;
+            }
+            Device device;
+            try {
+                device = get();
+            } catch (InterruptedException | ExecutionException e) {
+                logger.error("Identification de l'appareil {} échouée", path, e);
+                CLAIMED_SERIALS.values().remove(path);
+                return;
+            }
+            if (device == null) {
+                markUnidentified(event);
+                return;
+            }
+            CONNECTED_DEVICES.put(path, device);
+            logger.info("✅ Appareil connecté: {} ({}, {} au total)",
+                        device.getDisplayName(), path, CONNECTED_DEVICES.size());
+            for (DeviceListener listener : LISTENERS) {
+                notifyListener(() -> listener.onDeviceConnected(device));
+            }
+        }
+    }
+    
+    /**
+     * Identification d'un appareil qui vient d'être branché
+     * 
+     * @return null si ni usbmuxd ni adb ne le reconnaissent (périphérique, appareil non autorisé)
+     */
+    private Device identify(UsbHotplugMonitor.UsbEvent event, String vendorName) {
+        boolean apple = event.getVendorId() == APPLE_VENDOR_ID;
+        String usbSerial = UsbHotplugMonitor.getInstance().readSerialNumber(event.getPath());
+        Device device = null;
+        for (int attempt = 0; attempt < IDENTIFY_ATTEMPTS && device == null; attempt++) {
+            if (attempt > 0) {
+                try {
+                    Thread.sleep(IDENTIFY_RETRY_MS * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            String serial = claimSerial(apple ? listIOSUdids() : listAndroidSerials(), usbSerial, event.getPath());
+            if (serial != null) {
+                device = apple ? createRealIOSDevice(serial) : createRealAndroidDevice(serial);
+            }
+        }
+        if (device == null) {
+            return null;
+        }
+        if (device.getBrand() == null) {
+            device.setBrand(vendorName);
+        }
+        device.setUsbVendorId(String.format("0x%04X", event.getVendorId()));
+        device.setUsbProductId(String.format("0x%04X", event.getProductId()));
+        return device;
+    }
+    
+    /**
+     * Attribue à un emplacement USB l'UDID ou la série adb qui lui correspond
+     * Correspondance par numéro de série USB ; s'il est illisible, un seul appareil
+     * encore non attribué est accepté (sinon l'attribution serait arbitraire).
+     */
+    private static String claimSerial(List<String> candidates, String usbSerial, String path) {
+        String wanted = normalizeSerial(usbSerial);
+        List<String> unclaimed = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (wanted != null && wanted.equals(normalizeSerial(candidate))) {
+                return claim(candidate, path) ? candidate : null;
+            }
+            String owner = CLAIMED_SERIALS.get(candidate);
+            if (owner == null || owner.equals(path) || isStale(owner)) {
+                unclaimed.add(candidate);
+            }
+        }
+        if (unclaimed.size() == 1 && claim(unclaimed.get(0), path)) {
+            return unclaimed.get(0);
+        }
+        return null;
+    }
+    
+    /**
+     * Réserve un appareil pour un emplacement ; une réserve d'un emplacement abandonné
+     * (identification annulée en cours de route) est reprise
+     */
+    private static boolean claim(String serial, String path) {
+        String owner = CLAIMED_SERIALS.compute(serial, (key, current) ->
+            current == null || current.equals(path) || isStale(current) ? path : current);
+        return path.equals(owner);
+    }
+    
+    private static boolean isStale(String path) {
+        return !PENDING.containsKey(path) && !CONNECTED_DEVICES.containsKey(path);
+    }
+    
+    // Les iPhone récents ont un UDID « 00008030-001A… » et un numéro de série USB sans tiret
+    private static String normalizeSerial(String serial) {
+        return serial != null ? serial.replace("-", "").toLowerCase(Locale.ROOT) : null;
+    }
+    
+    private static ExecutorService createIdentifyExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(IDENTIFY_THREADS, IDENTIFY_THREADS,
+            30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "DeviceIdentify");
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    private static void notifyListener(Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            logger.error("Erreur dans un observateur de détection", e);
+        }
     }
     
     /**
      * Détection ultra-rapide avec vérification de déconnexion
      */
     public List<Device> detectAllConnectedDevices() {
+        if (eventDriven) {
+            // Registre tenu à jour par les événements USB : aucun processus externe
+            return new ArrayList<>(CONNECTED_DEVICES.values());
+        }
+        
         List<Device> devices = new ArrayList<>();
         
         try {
             long currentTime = System.currentTimeMillis();
             
             // Toujours vérifier la connexion réelle, même avec cache
-            Device realDevice = detectRealDeviceQuick();
+            devices.addAll(detectRealDevices());
+            if (devices.isEmpty()) {
+                // Priorité 3: Fallback avec system_profiler (plus fiable sans erreurs)
+                Device profilerDevice = detectViaSystemProfiler();
+                if (profilerDevice != null) {
+                    devices.add(profilerDevice);
+                }
+            }
             
-            if (realDevice != null) {
+            if (!devices.isEmpty()) {
                 // Appareil détecté - mettre à jour le cache
-                cachedDevice = realDevice;
+                cachedDevice = devices.get(0);
                 lastCacheTime = currentTime;
-                devices.add(realDevice);
-                logger.debug("✅ Appareil connecté détecté");
+                logger.debug("✅ {} appareil(s) connecté(s) détecté(s)", devices.size());
             } else {
                 // Aucun appareil détecté - invalider le cache
                 if (cachedDevice != null) {
@@ -51,6 +411,8 @@ public class FastDeviceDetectionService {
                 logger.debug("❌ Aucun appareil connecté");
             }
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             logger.debug("Erreur détection rapide: {}", e.getMessage());
             // En cas d'erreur, invalider le cache pour éviter les faux positifs
@@ -62,74 +424,69 @@ public class FastDeviceDetectionService {
     }
     
     /**
-     * Détection réelle avec extraction des vraies informations
+     * Détection réelle de tous les appareils iOS (idevice_id) et Android (adb)
+     * Chaque appareil est interrogé en parallèle sur le pool d'identification ; ses propriétés
+     * restent en cache tant qu'il figure dans les listes.
      */
-    private Device detectRealDeviceQuick() {
-        // Priorité 1: Détecter les appareils iOS avec idevice_id
-        Device iosDevice = detectRealIOSDevice();
-        if (iosDevice != null) {
-            return iosDevice;
+    private List<Device> detectRealDevices() throws InterruptedException {
+        List<String> udids = listIOSUdids();
+        List<String> serials = listAndroidSerials();
+        
+        Set<String> seen = new HashSet<>(udids);
+        seen.addAll(serials);
+        for (String gone : lastSeenSerials) {
+            if (!seen.contains(gone)) {
+                DevicePropertiesReader.getInstance().invalidate(gone);
+            }
         }
+        lastSeenSerials = seen;
         
-        // Priorité 2: Détecter les appareils Android avec adb
-        Device androidDevice = detectRealAndroidDevice();
-        if (androidDevice != null) {
-            return androidDevice;
+        List<Callable<Device>> tasks = new ArrayList<>();
+        for (String udid : udids) {
+            tasks.add(() -> createRealIOSDevice(udid));
+        }
+        for (String serial : serials) {
+            tasks.add(() -> createRealAndroidDevice(serial));
         }
         
-        // Priorité 3: Fallback avec system_profiler (plus fiable sans erreurs)
-        return detectViaSystemProfiler();
+        List<Device> devices = new ArrayList<>();
+        for (Future<Device> result : IDENTIFY_EXECUTOR.invokeAll(tasks)) {
+            try {
+                devices.add(result.get());
+            } catch (ExecutionException e) {
+                logger.debug("Identification échouée: {}", e.getCause().getMessage());
+            }
+        }
+        return devices;
     }
     
     /**
-     * Détection spécifique iOS avec libimobiledevice
+     * UDID des appareils iOS branchés (libimobiledevice)
      */
-    private Device detectRealIOSDevice() {
+    private List<String> listIOSUdids() {
         try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Cellar/libimobiledevice/1.3.0_3/bin/idevice_id", "-l");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String udid = reader.readLine();
-            int exitCode = process.waitFor();
-            process.destroy();
-            
-            if (exitCode == 0 && udid != null && !udid.trim().isEmpty()) {
-                logger.info("✅ Appareil iOS détecté avec UDID: {}", udid.trim());
-                return createRealIOSDevice(udid.trim());
+            ToolRunner.Result result = ToolRunner.getInstance().run(ToolRunner.Tool.IDEVICE_ID, "-l");
+            if (result.isSuccess()) {
+                return result.lines();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             logger.debug("Détection iOS échouée: {}", e.getMessage());
         }
-        return null;
+        return new ArrayList<>();
     }
     
     /**
-     * Détection spécifique Android avec ADB
+     * Numéros de série des appareils Android autorisés (serveur adb, sans processus)
      */
-    private Device detectRealAndroidDevice() {
+    private List<String> listAndroidSerials() {
         try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Caskroom/android-platform-tools/36.0.0/platform-tools/adb", "devices");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("device") && !line.startsWith("List of devices")) {
-                    String[] parts = line.trim().split("\\s+");
-                    if (parts.length >= 2 && "device".equals(parts[1])) {
-                        String deviceId = parts[0];
-                        logger.info("✅ Appareil Android détecté avec ID: {}", deviceId);
-                        return createRealAndroidDevice(deviceId);
-                    }
-                }
-            }
-            
-            process.waitFor();
-            process.destroy();
+            return AdbClient.getInstance().getOnlineDevices();
         } catch (Exception e) {
             logger.debug("Détection Android échouée: {}", e.getMessage());
+            return new ArrayList<>();
         }
-        return null;
     }
     
     /**
@@ -163,121 +520,38 @@ public class FastDeviceDetectionService {
     }
     
     /**
-     * Extrait le vrai modèle de l'appareil
+     * Extrait le vrai modèle depuis les propriétés ideviceinfo
      */
-    private String extractRealModel(String deviceInfo, String productId) {
-        try {
-            // Utiliser ideviceinfo si disponible pour obtenir le vrai modèle
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Cellar/libimobiledevice/1.3.0_3/bin/ideviceinfo", "-k", "ProductType");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String productType = reader.readLine();
-            process.destroy();
-            
-            if (productType != null && !productType.isEmpty()) {
-                return mapProductTypeToModel(productType.trim());
-            }
-        } catch (Exception e) {
-            logger.debug("ideviceinfo non disponible, utilisation fallback");
+    private String extractRealModel(Map<String, String> properties) {
+        String productType = properties.get("ProductType");
+        if (productType != null && !productType.isEmpty()) {
+            return mapProductTypeToModel(productType);
         }
-        
-        // Fallback: extraire le modèle exact depuis system_profiler
-        if (deviceInfo != null && !deviceInfo.isEmpty()) {
-            // Nettoyer et extraire le nom exact de l'appareil
-            String cleanedInfo = deviceInfo.trim();
-            if (cleanedInfo.contains(":")) {
-                cleanedInfo = cleanedInfo.split(":")[0].trim();
-            }
-            return cleanedInfo;
-        }
-        
         return "Appareil iOS non identifié";
     }
     
     /**
-     * Extrait la vraie version iOS
+     * Extrait la vraie version iOS depuis les propriétés ideviceinfo
      */
-    private String extractRealIOSVersion() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Cellar/libimobiledevice/1.3.0_3/bin/ideviceinfo", "-k", "ProductVersion");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String version = reader.readLine();
-            process.destroy();
-            
-            if (version != null && !version.isEmpty()) {
-                return "iOS " + version.trim();
-            }
-        } catch (Exception e) {
-            logger.debug("Impossible d'extraire la version iOS réelle");
+    private String extractRealIOSVersion(Map<String, String> properties) {
+        String version = properties.get("ProductVersion");
+        if (version != null && !version.isEmpty()) {
+            return "iOS " + version;
         }
-        
         return "iOS (version en cours de détection)";
     }
     
     /**
-     * Extrait le vrai numéro de série
+     * Extrait l'IMEI depuis les propriétés ideviceinfo
      */
-    private String extractRealSerialNumber() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Cellar/libimobiledevice/1.3.0_3/bin/ideviceinfo", "-k", "SerialNumber");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String serial = reader.readLine();
-            process.destroy();
-            
-            if (serial != null && !serial.isEmpty()) {
-                return serial.trim();
-            }
-        } catch (Exception e) {
-            logger.debug("Impossible d'extraire le numéro de série réel");
+    private String extractRealIMEI(Map<String, String> properties) {
+        String imei = properties.get("InternationalMobileEquipmentIdentity");
+        if (imei != null && !imei.isEmpty()) {
+            return imei;
         }
-        
-        return "";
-    }
-    
-    /**
-     * Extrait le vrai IMEI
-     */
-    private String extractRealIMEI() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Cellar/libimobiledevice/1.3.0_3/bin/ideviceinfo", "-k", "InternationalMobileEquipmentIdentity");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String imei = reader.readLine();
-            process.destroy();
-            
-            if (imei != null && !imei.isEmpty()) {
-                return imei.trim();
-            }
-        } catch (Exception e) {
-            logger.debug("Impossible d'extraire l'IMEI réel");
-        }
-        
         return "IMEI non accessible (outils manquants)";
     }
     
-    /**
-     * Extrait le vrai UDID
-     */
-    private String extractRealUDID() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Cellar/libimobiledevice/1.3.0_3/bin/idevice_id", "-l");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String udid = reader.readLine();
-            process.destroy();
-            
-            if (udid != null && !udid.isEmpty()) {
-                return udid.trim();
-            }
-        } catch (Exception e) {
-            logger.debug("Impossible d'extraire l'UDID réel");
-        }
-        
-        return "UDID non accessible (outils manquants)";
-    }
-    
     /**
      * Mappe le ProductType vers un nom de modèle lisible
      */
@@ -313,20 +587,20 @@ public class FastDeviceDetectionService {
      * Extrait le niveau de batterie réel
      */
     public String extractRealBatteryLevel() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Cellar/libimobiledevice/1.3.0_3/bin/ideviceinfo", "-k", "BatteryCurrentCapacity");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String batteryLevel = reader.readLine();
-            process.destroy();
-            
-            if (batteryLevel != null && !batteryLevel.isEmpty()) {
-                return batteryLevel.trim() + "%";
-            }
-        } catch (Exception e) {
-            logger.debug("Impossible d'extraire le niveau de batterie réel");
+        return extractRealBatteryLevel(null);
+    }
+    
+    /**
+     * Niveau de batterie d'un appareil iOS (domaine batterie d'ideviceinfo)
+     */
+    private String extractRealBatteryLevel(String udid) {
+        String batteryLevel = DevicePropertiesReader.getInstance()
+            .getIOSProperties(udid, DevicePropertiesReader.BATTERY_DOMAIN)
+            .get("BatteryCurrentCapacity");
+        if (batteryLevel != null && !batteryLevel.isEmpty()) {
+            return batteryLevel + "%";
         }
-        
+        logger.debug("Impossible d'extraire le niveau de batterie réel");
         return "Batterie non accessible (outils manquants)";
     }
     
@@ -355,12 +629,13 @@ public class FastDeviceDetectionService {
         device.setConnectionType(Device.ConnectionType.USB);
         device.setUdid(udid);
         
-        // Extraire les vraies informations avec ideviceinfo
-        device.setModel(extractRealModel("", ""));
-        device.setSerialNumber(extractRealSerialNumber());
-        device.setImei(extractRealIMEI());
-        device.setOsVersion(extractRealIOSVersion());
-        device.setBatteryLevel(extractRealBatteryLevel());
+        // Toutes les propriétés en une seule lecture ideviceinfo (plus celle du domaine batterie)
+        Map<String, String> properties = DevicePropertiesReader.getInstance().getIOSProperties(udid);
+        device.setModel(extractRealModel(properties));
+        device.setSerialNumber(properties.getOrDefault("SerialNumber", ""));
+        device.setImei(extractRealIMEI(properties));
+        device.setOsVersion(extractRealIOSVersion(properties));
+        device.setBatteryLevel(extractRealBatteryLevel(udid));
         device.setStorageCapacity(extractRealStorageCapacity());
         
         return device;
@@ -376,48 +651,17 @@ public class FastDeviceDetectionService {
         device.setConnectionType(Device.ConnectionType.USB);
         device.setSerialNumber(deviceId);
         
-        // Extraire les informations Android avec adb
-        try {
-            ProcessBuilder pb = new ProcessBuilder("/usr/local/Caskroom/android-platform-tools/36.0.0/platform-tools/adb", "-s", deviceId, "shell", "getprop", "ro.product.model");
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String model = reader.readLine();
-            process.waitFor();
-            process.destroy();
-            
-            if (model != null && !model.trim().isEmpty()) {
-                device.setModel(model.trim());
-            } else {
-                device.setModel("Appareil Android");
-            }
-            
-            // Obtenir la marque
-            pb = new ProcessBuilder("/usr/local/Caskroom/android-platform-tools/36.0.0/platform-tools/adb", "-s", deviceId, "shell", "getprop", "ro.product.brand");
-            process = pb.start();
-            reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String brand = reader.readLine();
-            process.waitFor();
-            process.destroy();
-            
-            device.setBrand(brand != null && !brand.trim().isEmpty() ? brand.trim() : "Android");
-            
-            // Version Android
-            pb = new ProcessBuilder("/usr/local/Caskroom/android-platform-tools/36.0.0/platform-tools/adb", "-s", deviceId, "shell", "getprop", "ro.build.version.release");
-            process = pb.start();
-            reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String version = reader.readLine();
-            process.waitFor();
-            process.destroy();
-            
-            device.setOsVersion(version != null && !version.trim().isEmpty() ? 
-                              "Android " + version.trim() : "Android");
-            
-        } catch (Exception e) {
-            logger.debug("Erreur extraction informations Android: {}", e.getMessage());
-            device.setModel("Appareil Android");
-            device.setBrand("Android");
-            device.setOsVersion("Android");
+        // Toutes les propriétés en un seul appel « getprop »
+        Map<String, String> properties = DevicePropertiesReader.getInstance().getAndroidProperties(deviceId);
+        String model = properties.get("ro.product.model");
+        String brand = properties.get("ro.product.brand");
+        String version = properties.get("ro.build.version.release");
+        if (properties.isEmpty()) {
+            logger.debug("Propriétés Android indisponibles pour {}", deviceId);
         }
+        device.setModel(model != null && !model.isEmpty() ? model : "Appareil Android");
+        device.setBrand(brand != null && !brand.isEmpty() ? brand : "Android");
+        device.setOsVersion(version != null && !version.isEmpty() ? "Android " + version : "Android");
         
         device.setImei("Non accessible via ADB");
         device.setBatteryLevel("Non accessible via ADB");
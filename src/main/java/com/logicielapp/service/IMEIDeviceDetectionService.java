@@ -3,6 +3,7 @@ package com.logicielapp.service;
 import com.logicielapp.model.Device;
 import com.logicielapp.util.DatabaseManager;
 import com.logicielapp.exception.IMEINotFoundException;
+import com.logicielapp.util.IMEIValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -115,7 +116,7 @@ public class IMEIDeviceDetectionService {
      * Détecte automatiquement les informations d'un appareil à partir de son IMEI
      */
     public Device detectDeviceByIMEI(String imei) throws IMEINotFoundException {
-        if (!isValidIMEI(imei)) {
+        if (!IMEIValidator.hasValidChecksum(imei)) {
             logger.warn("IMEI invalide: {}", imei);
             throw new IMEINotFoundException("IMEI invalide: format incorrect ou checksum invalide");
         }
@@ -352,42 +353,6 @@ public class IMEIDeviceDetectionService {
     
     // ================= MÉTHODES UTILITAIRES =================
     
-    /**
-     * Valide un IMEI avec l'algorithme de Luhn
-     */
-    private boolean isValidIMEI(String imei) {
-        if (imei == null || imei.length() != 15) {
-            return false;
-        }
-        
-        try {
-            Long.parseLong(imei);
-            
-            int sum = 0;
-            boolean alternate = false;
-            
-            for (int i = imei.length() - 2; i >= 0; i--) {
-                int digit = Character.getNumericValue(imei.charAt(i));
-                
-                if (alternate) {
-                    digit *= 2;
-                    if (digit > 9) {
-                        digit = (digit % 10) + 1;
-                    }
-                }
-                
-                sum += digit;
-                alternate = !alternate;
-            }
-            
-            int checkDigit = (10 - (sum % 10)) % 10;
-            return checkDigit == Character.getNumericValue(imei.charAt(14));
-            
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-    
     /**
      * Estime la version OS actuelle basée sur la version initiale
      */
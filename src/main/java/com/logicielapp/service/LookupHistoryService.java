@@ -0,0 +1,365 @@
+package com.logicielapp.service;
+
+import com.logicielapp.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historique des vérifications IMEI (table historique_verifications) (Singleton)
+ * Chaque résultat rendu par un fournisseur est enregistré avec sa date, le fournisseur et la
+ * latence, sous un HMAC-SHA-256 de l'IMEI avec la clé secrète IMEI_HASH_KEY (variable
+ * d'environnement ou -Dimei.hashKey, 32 caractères au moins) : sans clé, rien n'est enregistré.
+ * Seul le TAC (8 premiers chiffres, le modèle) est conservé en clair ; sans la clé, retrouver
+ * l'IMEI demanderait d'essayer chaque numéro de série. Un résultat identique au dernier connu pour l'IMEI
+ * (même succès, marque, modèle, statut blacklist et fournisseur) n'ajoute pas de ligne : il
+ * incrémente nombre_verifications et avance derniere_verification.
+ *
+ * L'écriture se fait sur un thread dédié et ne ralentit jamais la vérification ; si la base est
+ * lente, au-delà de -Dhistory.queueSize enregistrements en attente les nouveaux sont abandonnés.
+ */
+public class LookupHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LookupHistoryService.class);
+    private static LookupHistoryService instance;
+
+    private static final String HMAC = "HmacSHA256";
+    private static final int MIN_KEY_LENGTH = 32;
+    private static final SecretKeySpec KEY = loadKey();
+    private static final int QUEUE_SIZE = Integer.getInteger("history.queueSize", 1000);
+
+    private static final String COLUMNS =
+        "imei_masque, succes, marque, modele, statut_blacklist, fournisseur, latence_ms, "
+        + "nombre_verifications, premiere_verification, derniere_verification";
+    private static final String SELECT_LATEST_FINGERPRINT =
+        "SELECT id, empreinte FROM historique_verifications WHERE imei_hash = ? "
+        + "ORDER BY derniere_verification DESC LIMIT 1";
+    private static final String UPDATE_REPEAT =
+        "UPDATE historique_verifications SET nombre_verifications = nombre_verifications + 1, "
+        + "derniere_verification = ?, latence_ms = ? WHERE id = ?";
+    private static final String INSERT =
+        "INSERT INTO historique_verifications (imei_hash, imei_masque, succes, marque, modele, statut_blacklist, "
+        + "fournisseur, latence_ms, empreinte, premiere_verification, derniere_verification) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Index (imei_hash, derniere_verification)
+    private static final String SELECT_BY_IMEI =
+        "SELECT " + COLUMNS + " FROM historique_verifications WHERE imei_hash = ? "
+        + "ORDER BY derniere_verification DESC LIMIT ?";
+    // Index (derniere_verification)
+    private static final String SELECT_BETWEEN =
+        "SELECT " + COLUMNS + " FROM historique_verifications "
+        + "WHERE derniere_verification >= ? AND derniere_verification < ? "
+        + "ORDER BY derniere_verification DESC LIMIT ?";
+    private static final String SELECT_RECENT =
+        "SELECT imei_hash, " + COLUMNS + " FROM historique_verifications "
+        + "WHERE derniere_verification >= ? ORDER BY derniere_verification DESC LIMIT ?";
+
+    /**
+     * Résultat enregistré pour un IMEI
+     */
+    public static final class Entry {
+        private final String maskedImei;
+        private final boolean success;
+        private final String brand;
+        private final String model;
+        private final String blacklistStatus;
+        private final String provider;
+        private final Integer latencyMs;
+        private final int count;
+        private final Instant firstSeen;
+        private final Instant lastSeen;
+
+        Entry(String maskedImei, boolean success, String brand, String model, String blacklistStatus,
+              String provider, Integer latencyMs, int count, Instant firstSeen, Instant lastSeen) {
+            this.maskedImei = maskedImei;
+            this.success = success;
+            this.brand = brand;
+            this.model = model;
+            this.blacklistStatus = blacklistStatus;
+            this.provider = provider;
+            this.latencyMs = latencyMs;
+            this.count = count;
+            this.firstSeen = firstSeen;
+            this.lastSeen = lastSeen;
+        }
+
+        public String getMaskedImei() { return maskedImei; }
+        public boolean isSuccess() { return success; }
+        public String getBrand() { return brand; }
+        public String getModel() { return model; }
+        public String getBlacklistStatus() { return blacklistStatus; }
+        public String getProvider() { return provider; }
+
+        /**
+         * Latence de la dernière vérification, ou null si elle n'a pas été mesurée
+         */
+        public Integer getLatencyMs() { return latencyMs; }
+
+        /**
+         * Nombre de vérifications consécutives ayant donné ce résultat
+         */
+        public int getCount() { return count; }
+        public Instant getFirstSeen() { return firstSeen; }
+        public Instant getLastSeen() { return lastSeen; }
+    }
+
+    private final ThreadPoolExecutor writer;
+
+    private LookupHistoryService() {
+        writer = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(QUEUE_SIZE), r -> {
+            Thread thread = new Thread(r, "LookupHistoryWriter");
+            thread.setDaemon(true);
+            return thread;
+        }, (task, executor) -> logger.debug("File de l'historique pleine, vérification non enregistrée"));
+        writer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Obtient l'instance unique du service
+     */
+    public static synchronized LookupHistoryService getInstance() {
+        if (instance == null) {
+            instance = new LookupHistoryService();
+        }
+        return instance;
+    }
+
+    /**
+     * Enregistre en arrière-plan le résultat d'un fournisseur
+     *
+     * @param latencyMs durée de la vérification, fournisseurs précédents compris
+     */
+    public void record(String imei, String provider, long latencyMs, DHRUApiService.DeviceInfo info) {
+        if (imei == null || info == null || KEY == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        writer.execute(() -> write(imei, provider, latencyMs, info, now));
+    }
+
+    /**
+     * Derniers résultats d'un IMEI, du plus récent au plus ancien
+     */
+    public List<Entry> lastResults(String imei, int limit) {
+        if (KEY == null) {
+            return Collections.emptyList();
+        }
+        return query(SELECT_BY_IMEI, stmt -> {
+            stmt.setBytes(1, hash(imei));
+            stmt.setInt(2, limit);
+        });
+    }
+
+    /**
+     * Résultats vérifiés en dernier dans l'intervalle [from, to), du plus récent au plus ancien
+     */
+    public List<Entry> between(Instant from, Instant to, int limit) {
+        return query(SELECT_BETWEEN, stmt -> {
+            stmt.setTimestamp(1, Timestamp.from(from));
+            stmt.setTimestamp(2, Timestamp.from(to));
+            stmt.setInt(3, limit);
+        });
+    }
+
+    /**
+     * Dernier résultat de chaque IMEI vérifié depuis la date donnée, par hachage hexadécimal
+     * (voir {@link #hashHex(String)}) : de quoi préremplir un cache de résultats au démarrage.
+     */
+    public Map<String, Entry> latestSince(Instant since, int limit) {
+        Map<String, Entry> latest = new HashMap<>();
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_RECENT)) {
+            stmt.setTimestamp(1, Timestamp.from(since));
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Tri décroissant : la première ligne d'un IMEI est la plus récente
+                    latest.putIfAbsent(HexFormat.of().formatHex(rs.getBytes(1)), readEntry(rs, 2));
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Lecture de l'historique des vérifications impossible: {}", e.getMessage());
+        }
+        return latest;
+    }
+
+    /**
+     * Hachage de l'IMEI sous la forme utilisée comme clé par {@link #latestSince(Instant, int)},
+     * ou null si IMEI_HASH_KEY n'est pas définie
+     */
+    public static String hashHex(String imei) {
+        return KEY != null ? HexFormat.of().formatHex(hash(imei)) : null;
+    }
+
+    /**
+     * Vrai si l'historique est activé (clé IMEI_HASH_KEY définie)
+     */
+    public static boolean isEnabled() {
+        return KEY != null;
+    }
+
+    /**
+     * Arrête l'écriture après avoir vidé la file
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Historique des vérifications : {} enregistrements perdus", writer.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(String imei, String provider, long latencyMs, DHRUApiService.DeviceInfo info, Instant at) {
+        byte[] imeiHash = hash(imei);
+        byte[] fingerprint = sha256(String.join("\u0000", String.valueOf(info.isSuccess()),
+            String.valueOf(info.getBrand()), String.valueOf(info.getModel()),
+            String.valueOf(info.getBlacklistStatus()), String.valueOf(provider)));
+        int latency = (int) Math.min(latencyMs, Integer.MAX_VALUE);
+        Timestamp timestamp = Timestamp.from(at);
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            // Un seul thread d'écriture : pas de course entre la lecture et la mise à jour
+            long repeatId = -1;
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_LATEST_FINGERPRINT)) {
+                stmt.setBytes(1, imeiHash);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && Arrays.equals(rs.getBytes(2), fingerprint)) {
+                        repeatId = rs.getLong(1);
+                    }
+                }
+            }
+            if (repeatId >= 0) {
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_REPEAT)) {
+                    stmt.setTimestamp(1, timestamp);
+                    stmt.setInt(2, latency);
+                    stmt.setLong(3, repeatId);
+                    stmt.executeUpdate();
+                }
+                return;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+                stmt.setBytes(1, imeiHash);
+                stmt.setString(2, mask(imei));
+                stmt.setBoolean(3, info.isSuccess());
+                setNullable(stmt, 4, info.getBrand(), 50);
+                setNullable(stmt, 5, info.getModel(), 100);
+                setNullable(stmt, 6, info.getBlacklistStatus(), 50);
+                setNullable(stmt, 7, provider, 50);
+                stmt.setInt(8, latency);
+                stmt.setBytes(9, fingerprint);
+                stmt.setTimestamp(10, timestamp);
+                stmt.setTimestamp(11, timestamp);
+                stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            logger.debug("Vérification non enregistrée dans l'historique: {}", e.getMessage());
+        }
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private List<Entry> query(String sql, Binder binder) {
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            binder.bind(stmt);
+            List<Entry> entries = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(readEntry(rs, 1));
+                }
+            }
+            return entries;
+        } catch (SQLException e) {
+            logger.warn("Lecture de l'historique des vérifications impossible: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Colonnes COLUMNS à partir de l'indice donné
+     */
+    private static Entry readEntry(ResultSet rs, int first) throws SQLException {
+        int latency = rs.getInt(first + 6);
+        Integer latencyMs = rs.wasNull() ? null : latency;
+        return new Entry(rs.getString(first), rs.getBoolean(first + 1), rs.getString(first + 2),
+            rs.getString(first + 3), rs.getString(first + 4), rs.getString(first + 5), latencyMs,
+            rs.getInt(first + 7), rs.getTimestamp(first + 8).toInstant(), rs.getTimestamp(first + 9).toInstant());
+    }
+
+    private static void setNullable(PreparedStatement stmt, int index, String value, int maxLength) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, Types.VARCHAR);
+        } else {
+            stmt.setString(index, value.length() > maxLength ? value.substring(0, maxLength) : value);
+        }
+    }
+
+    private static SecretKeySpec loadKey() {
+        String key = System.getProperty("imei.hashKey");
+        if (key == null || key.isBlank()) {
+            key = System.getenv("IMEI_HASH_KEY");
+        }
+        if (key == null || key.isBlank()) {
+            logger.warn("IMEI_HASH_KEY non définie : historique des vérifications désactivé");
+            return null;
+        }
+        if (key.trim().length() < MIN_KEY_LENGTH) {
+            logger.warn("IMEI_HASH_KEY trop courte ({} caractères au moins) : historique des vérifications désactivé",
+                        MIN_KEY_LENGTH);
+            return null;
+        }
+        return new SecretKeySpec(key.trim().getBytes(StandardCharsets.UTF_8), HMAC);
+    }
+
+    private static byte[] hash(String imei) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(KEY);
+            return mac.doFinal(imei.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA-256 indisponible", e);
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * TAC seul : le numéro de série et le chiffre de contrôle ne sont jamais stockés
+     */
+    private static String mask(String imei) {
+        return imei.length() < 15 ? null : imei.substring(0, 8) + "XXXXXXX";
+    }
+}
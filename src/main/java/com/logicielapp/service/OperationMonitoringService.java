@@ -1,5 +1,6 @@
 package com.logicielapp.service;
 
+import com.logicielapp.metrics.Metrics;
 import com.logicielapp.model.UnlockOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +30,12 @@ public class OperationMonitoringService {
     private static final long STUCK_THRESHOLD_MS = 60000; // 60 secondes sans progrès
     private static final int MAX_UNSTUCK_ATTEMPTS = 3; // Maximum 3 tentatives de déblocage
     
+    public OperationMonitoringService() {
+        Metrics.gauge("operations_active", "Opérations de déblocage surveillées", activeOperations::size);
+        Metrics.gauge("operations_unstuck_attempts", "Tentatives de déblocage des opérations actives",
+            () -> getMonitoringStats().getTotalUnstuckAttempts());
+    }
+    
     /**
      * Démarre la surveillance d'une opération
      */
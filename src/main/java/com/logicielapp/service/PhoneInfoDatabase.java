@@ -1,12 +1,26 @@
 package com.logicielapp.service;
 
 import com.logicielapp.util.IMEIValidator;
+import com.logicielapp.util.ModelSearchIndex;
+import com.logicielapp.util.OperatorMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Base de données complète des informations téléphone basée sur l'IMEI
@@ -16,15 +30,39 @@ public class PhoneInfoDatabase {
     
     private static final Logger logger = LoggerFactory.getLogger(PhoneInfoDatabase.class);
     
-    // Base de données TAC -> Informations complètes
-    private static final Map<String, PhoneInfo> TAC_DATABASE = new HashMap<>();
+    // Base de données TAC -> Informations complètes, publiée par copie à l'écriture :
+    // les lectures ne sont jamais bloquées et voient toujours une base et son index cohérents
+    private static final AtomicReference<TacData> TAC_DATABASE = new AtomicReference<>();
     
-    // Patterns pour identifier les opérateurs selon les premiers chiffres
-    private static final Map<Pattern, String> OPERATOR_PATTERNS = new HashMap<>();
+    // Règles d'opérateurs par préfixe IMEI (fichier de données, surchargeable par -Doperators.file)
+    private static final String OPERATOR_RULES_RESOURCE = "/operator_prefixes.csv";
+    private static final String UNKNOWN_OPERATOR = "Opérateur non identifié";
+    private static volatile OperatorMatcher operatorMatcher = new OperatorMatcher.Builder().build();
     
     static {
-        initializeTacDatabase();
-        initializeOperatorPatterns();
+        TreeMap<String, PhoneInfo> database = new TreeMap<>();
+        initializeTacDatabase(database);
+        TAC_DATABASE.set(new TacData(database));
+        initializeOperatorRules();
+    }
+    
+    /**
+     * Instantané immuable : entrées triées par TAC (recherche par TAC partiel) et index des modèles
+     */
+    private static final class TacData {
+        private final NavigableMap<String, PhoneInfo> entries;
+        private final ModelSearchIndex modelIndex;
+        
+        TacData(TreeMap<String, PhoneInfo> entries) {
+            this.entries = Collections.unmodifiableNavigableMap(entries);
+            
+            List<ModelSearchIndex.Entry> indexEntries = new ArrayList<>(entries.size());
+            for (Map.Entry<String, PhoneInfo> entry : entries.entrySet()) {
+                PhoneInfo info = entry.getValue();
+                indexEntries.add(new ModelSearchIndex.Entry(entry.getKey(), info.getManufacturer(), info.getModel(), null));
+            }
+            this.modelIndex = ModelSearchIndex.build(indexEntries);
+        }
     }
     
     /**
@@ -109,17 +147,17 @@ public class PhoneInfoDatabase {
         
         // Extraire le TAC (8 premiers chiffres)
         String tac = imei.substring(0, 8);
-        logger.info("Recherche d'informations pour TAC: {}", tac);
+        logger.debug("Recherche d'informations pour TAC: {}", tac);
         
         // Rechercher dans la base de données TAC
-        PhoneInfo phoneInfo = TAC_DATABASE.get(tac);
+        PhoneInfo phoneInfo = TAC_DATABASE.get().entries.get(tac);
         
         // Si TAC exact non trouvé, essayer avec les 6 premiers chiffres
         if (phoneInfo == null) {
             String tacShort = tac.substring(0, 6);
             phoneInfo = findByPartialTac(tacShort);
             if (phoneInfo != null) {
-                logger.info("Informations trouvées avec TAC partiel: {}", tacShort);
+                logger.debug("Informations trouvées avec TAC partiel: {}", tacShort);
             }
         }
         
@@ -138,8 +176,9 @@ public class PhoneInfoDatabase {
             isValid
         );
         
+        // Message échantillonné (RateLimitedLogFilter) : toString() seulement s'il est écrit
         logger.info("Informations récupérées pour IMEI: Modèle={}, Opérateur={}, Statut={}", 
-                   phoneInfo != null ? phoneInfo.toString() : "Inconnu", 
+                   phoneInfo != null ? phoneInfo : "Inconnu", 
                    detectedOperator, status);
         
         return result;
@@ -149,153 +188,161 @@ public class PhoneInfoDatabase {
      * Recherche par TAC partiel (6 chiffres)
      */
     private static PhoneInfo findByPartialTac(String tacPartial) {
-        return TAC_DATABASE.entrySet().stream()
-            .filter(entry -> entry.getKey().startsWith(tacPartial))
-            .map(Map.Entry::getValue)
-            .findFirst()
-            .orElse(null);
+        // Premier TAC >= préfixe dans l'ordre trié : il commence par le préfixe s'il existe
+        Map.Entry<String, PhoneInfo> entry = TAC_DATABASE.get().entries.ceilingEntry(tacPartial);
+        return entry != null && entry.getKey().startsWith(tacPartial) ? entry.getValue() : null;
     }
     
     /**
      * Détecte l'opérateur en fonction de patterns IMEI
      */
     private static String detectOperator(String imei) {
-        for (Map.Entry<Pattern, String> entry : OPERATOR_PATTERNS.entrySet()) {
-            if (entry.getKey().matcher(imei).matches()) {
-                return entry.getValue();
-            }
-        }
-        return "Opérateur non identifié";
+        String operator = operatorMatcher.match(imei);
+        return operator != null ? operator : UNKNOWN_OPERATOR;
     }
     
     /**
      * Initialise la base de données TAC complète
      */
-    private static void initializeTacDatabase() {
+    private static void initializeTacDatabase(Map<String, PhoneInfo> database) {
         // Apple iPhone
-        TAC_DATABASE.put("01326300", new PhoneInfo("Apple", "iPhone 15 Pro Max", "2023", "iOS 17", 
+        database.put("01326300", new PhoneInfo("Apple", "iPhone 15 Pro Max", "2023", "iOS 17", 
             "6.7\"", "256GB/512GB/1TB", "48MP Triple", "4441mAh", "A17 Pro", "5G"));
-        TAC_DATABASE.put("01326200", new PhoneInfo("Apple", "iPhone 15 Pro", "2023", "iOS 17", 
+        database.put("01326200", new PhoneInfo("Apple", "iPhone 15 Pro", "2023", "iOS 17", 
             "6.1\"", "128GB/256GB/512GB/1TB", "48MP Triple", "3274mAh", "A17 Pro", "5G"));
-        TAC_DATABASE.put("01326100", new PhoneInfo("Apple", "iPhone 15 Plus", "2023", "iOS 17", 
+        database.put("01326100", new PhoneInfo("Apple", "iPhone 15 Plus", "2023", "iOS 17", 
             "6.7\"", "128GB/256GB/512GB", "48MP Dual", "4383mAh", "A16 Bionic", "5G"));
-        TAC_DATABASE.put("01326000", new PhoneInfo("Apple", "iPhone 15", "2023", "iOS 17", 
+        database.put("01326000", new PhoneInfo("Apple", "iPhone 15", "2023", "iOS 17", 
             "6.1\"", "128GB/256GB/512GB", "48MP Dual", "3349mAh", "A16 Bionic", "5G"));
-        TAC_DATABASE.put("01240700", new PhoneInfo("Apple", "iPhone 14 Pro Max", "2022", "iOS 16", 
+        database.put("01240700", new PhoneInfo("Apple", "iPhone 14 Pro Max", "2022", "iOS 16", 
             "6.7\"", "128GB/256GB/512GB/1TB", "48MP Triple", "4323mAh", "A16 Bionic", "5G"));
-        TAC_DATABASE.put("01240600", new PhoneInfo("Apple", "iPhone 14 Pro", "2022", "iOS 16", 
+        database.put("01240600", new PhoneInfo("Apple", "iPhone 14 Pro", "2022", "iOS 16", 
             "6.1\"", "128GB/256GB/512GB/1TB", "48MP Triple", "3200mAh", "A16 Bionic", "5G"));
-        TAC_DATABASE.put("01240500", new PhoneInfo("Apple", "iPhone 14 Plus", "2022", "iOS 16", 
+        database.put("01240500", new PhoneInfo("Apple", "iPhone 14 Plus", "2022", "iOS 16", 
             "6.7\"", "128GB/256GB/512GB", "12MP Dual", "4325mAh", "A15 Bionic", "5G"));
-        TAC_DATABASE.put("01240400", new PhoneInfo("Apple", "iPhone 14", "2022", "iOS 16", 
+        database.put("01240400", new PhoneInfo("Apple", "iPhone 14", "2022", "iOS 16", 
             "6.1\"", "128GB/256GB/512GB", "12MP Dual", "3279mAh", "A15 Bionic", "5G"));
         
         // Samsung Galaxy S Series
-        TAC_DATABASE.put("35282405", new PhoneInfo("Samsung", "Galaxy S24 Ultra", "2024", "Android 14", 
+        database.put("35282405", new PhoneInfo("Samsung", "Galaxy S24 Ultra", "2024", "Android 14", 
             "6.8\"", "256GB/512GB/1TB", "200MP Quad", "5000mAh", "Snapdragon 8 Gen 3", "5G"));
-        TAC_DATABASE.put("35282404", new PhoneInfo("Samsung", "Galaxy S24+", "2024", "Android 14", 
+        database.put("35282404", new PhoneInfo("Samsung", "Galaxy S24+", "2024", "Android 14", 
             "6.7\"", "256GB/512GB", "50MP Triple", "4900mAh", "Snapdragon 8 Gen 3", "5G"));
-        TAC_DATABASE.put("35282403", new PhoneInfo("Samsung", "Galaxy S24", "2024", "Android 14", 
+        database.put("35282403", new PhoneInfo("Samsung", "Galaxy S24", "2024", "Android 14", 
             "6.2\"", "128GB/256GB/512GB", "50MP Triple", "4000mAh", "Snapdragon 8 Gen 3", "5G"));
-        TAC_DATABASE.put("35282305", new PhoneInfo("Samsung", "Galaxy S23 Ultra", "2023", "Android 13", 
+        database.put("35282305", new PhoneInfo("Samsung", "Galaxy S23 Ultra", "2023", "Android 13", 
             "6.8\"", "256GB/512GB/1TB", "200MP Quad", "5000mAh", "Snapdragon 8 Gen 2", "5G"));
-        TAC_DATABASE.put("35282304", new PhoneInfo("Samsung", "Galaxy S23+", "2023", "Android 13", 
+        database.put("35282304", new PhoneInfo("Samsung", "Galaxy S23+", "2023", "Android 13", 
             "6.6\"", "256GB/512GB", "50MP Triple", "4700mAh", "Snapdragon 8 Gen 2", "5G"));
-        TAC_DATABASE.put("35282303", new PhoneInfo("Samsung", "Galaxy S23", "2023", "Android 13", 
+        database.put("35282303", new PhoneInfo("Samsung", "Galaxy S23", "2023", "Android 13", 
             "6.1\"", "128GB/256GB/512GB", "50MP Triple", "3900mAh", "Snapdragon 8 Gen 2", "5G"));
         
         // Samsung Galaxy Note Series
-        TAC_DATABASE.put("35282205", new PhoneInfo("Samsung", "Galaxy Note 20 Ultra", "2020", "Android 10", 
+        database.put("35282205", new PhoneInfo("Samsung", "Galaxy Note 20 Ultra", "2020", "Android 10", 
             "6.9\"", "128GB/256GB/512GB", "108MP Triple", "4500mAh", "Snapdragon 865+", "5G"));
         
         // Samsung Galaxy A Series
-        TAC_DATABASE.put("35717810", new PhoneInfo("Samsung", "Galaxy A54 5G", "2023", "Android 13", 
+        database.put("35717810", new PhoneInfo("Samsung", "Galaxy A54 5G", "2023", "Android 13", 
             "6.4\"", "128GB/256GB", "50MP Triple", "5000mAh", "Exynos 1380", "5G"));
-        TAC_DATABASE.put("35717809", new PhoneInfo("Samsung", "Galaxy A34 5G", "2023", "Android 13", 
+        database.put("35717809", new PhoneInfo("Samsung", "Galaxy A34 5G", "2023", "Android 13", 
             "6.6\"", "128GB/256GB", "48MP Triple", "5000mAh", "Dimensity 1080", "5G"));
         
         // Huawei
-        TAC_DATABASE.put("86891203", new PhoneInfo("Huawei", "P60 Pro", "2023", "HarmonyOS 3.1", 
+        database.put("86891203", new PhoneInfo("Huawei", "P60 Pro", "2023", "HarmonyOS 3.1", 
             "6.67\"", "256GB/512GB", "48MP Triple", "4815mAh", "Snapdragon 8+ Gen 1", "5G"));
-        TAC_DATABASE.put("86891202", new PhoneInfo("Huawei", "P60", "2023", "HarmonyOS 3.1", 
+        database.put("86891202", new PhoneInfo("Huawei", "P60", "2023", "HarmonyOS 3.1", 
             "6.67\"", "128GB/256GB/512GB", "48MP Triple", "4815mAh", "Snapdragon 8+ Gen 1", "5G"));
-        TAC_DATABASE.put("86891103", new PhoneInfo("Huawei", "Mate 50 Pro", "2022", "HarmonyOS 3.0", 
+        database.put("86891103", new PhoneInfo("Huawei", "Mate 50 Pro", "2022", "HarmonyOS 3.0", 
             "6.74\"", "256GB/512GB", "50MP Triple", "4700mAh", "Snapdragon 8+ Gen 1", "4G"));
-        TAC_DATABASE.put("86891102", new PhoneInfo("Huawei", "Mate 50", "2022", "HarmonyOS 3.0", 
+        database.put("86891102", new PhoneInfo("Huawei", "Mate 50", "2022", "HarmonyOS 3.0", 
             "6.7\"", "128GB/256GB/512GB", "50MP Triple", "4460mAh", "Snapdragon 8+ Gen 1", "4G"));
         
         // Xiaomi
-        TAC_DATABASE.put("86033404", new PhoneInfo("Xiaomi", "14 Ultra", "2024", "Android 14", 
+        database.put("86033404", new PhoneInfo("Xiaomi", "14 Ultra", "2024", "Android 14", 
             "6.73\"", "512GB/1TB", "50MP Quad", "5300mAh", "Snapdragon 8 Gen 3", "5G"));
-        TAC_DATABASE.put("86033403", new PhoneInfo("Xiaomi", "14 Pro", "2024", "Android 14", 
+        database.put("86033403", new PhoneInfo("Xiaomi", "14 Pro", "2024", "Android 14", 
             "6.73\"", "256GB/512GB", "50MP Triple", "4880mAh", "Snapdragon 8 Gen 3", "5G"));
-        TAC_DATABASE.put("86033402", new PhoneInfo("Xiaomi", "14", "2024", "Android 14", 
+        database.put("86033402", new PhoneInfo("Xiaomi", "14", "2024", "Android 14", 
             "6.36\"", "256GB/512GB", "50MP Triple", "4610mAh", "Snapdragon 8 Gen 3", "5G"));
-        TAC_DATABASE.put("86033304", new PhoneInfo("Xiaomi", "13 Ultra", "2023", "Android 13", 
+        database.put("86033304", new PhoneInfo("Xiaomi", "13 Ultra", "2023", "Android 13", 
             "6.73\"", "256GB/512GB/1TB", "50MP Quad", "5000mAh", "Snapdragon 8 Gen 2", "5G"));
-        TAC_DATABASE.put("86033303", new PhoneInfo("Xiaomi", "13 Pro", "2023", "Android 13", 
+        database.put("86033303", new PhoneInfo("Xiaomi", "13 Pro", "2023", "Android 13", 
             "6.73\"", "256GB/512GB", "50MP Triple", "4820mAh", "Snapdragon 8 Gen 2", "5G"));
-        TAC_DATABASE.put("86033302", new PhoneInfo("Xiaomi", "13", "2023", "Android 13", 
+        database.put("86033302", new PhoneInfo("Xiaomi", "13", "2023", "Android 13", 
             "6.36\"", "128GB/256GB/512GB", "50MP Triple", "4500mAh", "Snapdragon 8 Gen 2", "5G"));
         
         // OnePlus
-        TAC_DATABASE.put("86177104", new PhoneInfo("OnePlus", "12", "2024", "Android 14", 
+        database.put("86177104", new PhoneInfo("OnePlus", "12", "2024", "Android 14", 
             "6.82\"", "256GB/512GB/1TB", "50MP Triple", "5400mAh", "Snapdragon 8 Gen 3", "5G"));
-        TAC_DATABASE.put("86177103", new PhoneInfo("OnePlus", "11", "2023", "Android 13", 
+        database.put("86177103", new PhoneInfo("OnePlus", "11", "2023", "Android 13", 
             "6.7\"", "128GB/256GB/512GB", "50MP Triple", "5000mAh", "Snapdragon 8 Gen 2", "5G"));
-        TAC_DATABASE.put("86177102", new PhoneInfo("OnePlus", "10 Pro", "2022", "Android 12", 
+        database.put("86177102", new PhoneInfo("OnePlus", "10 Pro", "2022", "Android 12", 
             "6.7\"", "128GB/256GB/512GB", "48MP Triple", "5000mAh", "Snapdragon 8 Gen 1", "5G"));
         
         // Google Pixel
-        TAC_DATABASE.put("35406906", new PhoneInfo("Google", "Pixel 8 Pro", "2023", "Android 14", 
+        database.put("35406906", new PhoneInfo("Google", "Pixel 8 Pro", "2023", "Android 14", 
             "6.7\"", "128GB/256GB/512GB/1TB", "50MP Triple", "5050mAh", "Tensor G3", "5G"));
-        TAC_DATABASE.put("35406905", new PhoneInfo("Google", "Pixel 8", "2023", "Android 14", 
+        database.put("35406905", new PhoneInfo("Google", "Pixel 8", "2023", "Android 14", 
             "6.2\"", "128GB/256GB", "50MP Dual", "4575mAh", "Tensor G3", "5G"));
-        TAC_DATABASE.put("35406804", new PhoneInfo("Google", "Pixel 7 Pro", "2022", "Android 13", 
+        database.put("35406804", new PhoneInfo("Google", "Pixel 7 Pro", "2022", "Android 13", 
             "6.7\"", "128GB/256GB/512GB", "50MP Triple", "5000mAh", "Tensor G2", "5G"));
-        TAC_DATABASE.put("35406803", new PhoneInfo("Google", "Pixel 7", "2022", "Android 13", 
+        database.put("35406803", new PhoneInfo("Google", "Pixel 7", "2022", "Android 13", 
             "6.3\"", "128GB/256GB", "50MP Dual", "4355mAh", "Tensor G2", "5G"));
         
         // Sony
-        TAC_DATABASE.put("35405806", new PhoneInfo("Sony", "Xperia 1 V", "2023", "Android 13", 
+        database.put("35405806", new PhoneInfo("Sony", "Xperia 1 V", "2023", "Android 13", 
             "6.5\"", "256GB/512GB", "48MP Triple", "5000mAh", "Snapdragon 8 Gen 2", "5G"));
-        TAC_DATABASE.put("35405805", new PhoneInfo("Sony", "Xperia 5 V", "2023", "Android 13", 
+        database.put("35405805", new PhoneInfo("Sony", "Xperia 5 V", "2023", "Android 13", 
             "6.1\"", "128GB/256GB", "48MP Triple", "5000mAh", "Snapdragon 8 Gen 2", "5G"));
         
-        logger.info("Base de données TAC initialisée avec {} entrées", TAC_DATABASE.size());
+        logger.info("Base de données TAC initialisée avec {} entrées", database.size());
     }
     
     /**
-     * Initialise les patterns d'opérateurs
+     * Initialise les règles d'opérateurs depuis le fichier de données
      */
-    private static void initializeOperatorPatterns() {
-        // Patterns basés sur les ranges IMEI des opérateurs français
-        OPERATOR_PATTERNS.put(Pattern.compile("^(353|354|355).*"), "Orange France");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(356|357|358).*"), "SFR France");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(359|360|361).*"), "Bouygues Telecom");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(362|363|364).*"), "Free Mobile");
-        
-        // Patterns internationaux
-        OPERATOR_PATTERNS.put(Pattern.compile("^(365|366).*"), "Verizon (USA)");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(367|368).*"), "AT&T (USA)");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(369|370).*"), "T-Mobile (USA)");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(371|372).*"), "Vodafone (EU)");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(373|374).*"), "EE (UK)");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(375|376).*"), "Three (UK)");
-        
-        // Patterns génériques par région
-        OPERATOR_PATTERNS.put(Pattern.compile("^(377|378|379).*"), "Opérateur Européen");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(380|381|382).*"), "Opérateur Asiatique");
-        OPERATOR_PATTERNS.put(Pattern.compile("^(383|384|385).*"), "Opérateur Américain");
-        
-        logger.info("Patterns d'opérateurs initialisés avec {} entrées", OPERATOR_PATTERNS.size());
+    private static void initializeOperatorRules() {
+        String externalFile = System.getProperty("operators.file");
+        try {
+            if (externalFile != null) {
+                loadOperatorRules(Paths.get(externalFile));
+                return;
+            }
+            try (InputStream is = PhoneInfoDatabase.class.getResourceAsStream(OPERATOR_RULES_RESOURCE)) {
+                if (is == null) {
+                    logger.error("Fichier de règles d'opérateurs introuvable: {}", OPERATOR_RULES_RESOURCE);
+                    return;
+                }
+                loadOperatorRules(new InputStreamReader(is, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            logger.error("Erreur lors du chargement des règles d'opérateurs: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Remplace les règles d'opérateurs par celles d'un fichier
+     */
+    public static void loadOperatorRules(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            loadOperatorRules(reader);
+        }
+    }
+    
+    private static void loadOperatorRules(Reader reader) throws IOException {
+        OperatorMatcher matcher = OperatorMatcher.parse(reader);
+        operatorMatcher = matcher;
+        logger.info("Règles d'opérateurs initialisées avec {} préfixes", matcher.size());
     }
     
     /**
      * Ajoute une nouvelle entrée dans la base TAC
+     * Le nouvel instantané est construit à part puis publié ; les écrivains sont sérialisés
      */
-    public static void addTacEntry(String tac, PhoneInfo phoneInfo) {
-        TAC_DATABASE.put(tac, phoneInfo);
+    public static synchronized void addTacEntry(String tac, PhoneInfo phoneInfo) {
+        TreeMap<String, PhoneInfo> database = new TreeMap<>(TAC_DATABASE.get().entries);
+        database.put(tac, phoneInfo);
+        TAC_DATABASE.set(new TacData(database));
         logger.info("Nouvelle entrée TAC ajoutée: {} -> {}", tac, phoneInfo);
     }
     
@@ -303,23 +350,33 @@ public class PhoneInfoDatabase {
      * Retourne la taille de la base de données TAC
      */
     public static int getDatabaseSize() {
-        return TAC_DATABASE.size();
+        return TAC_DATABASE.get().entries.size();
     }
     
     /**
-     * Recherche fuzzy par nom de modèle
+     * Recherche fuzzy par nom de modèle (meilleur résultat)
      */
     public static PhoneInfo findByModelName(String modelName) {
+        List<PhoneInfo> results = searchByModelName(modelName, 1);
+        return results.isEmpty() ? null : results.get(0);
+    }
+    
+    /**
+     * Recherche par nom de modèle ou fabricant, résultats classés (k meilleurs)
+     */
+    public static List<PhoneInfo> searchByModelName(String modelName, int limit) {
+        List<PhoneInfo> results = new ArrayList<>();
         if (modelName == null || modelName.trim().isEmpty()) {
-            return null;
+            return results;
         }
         
-        String searchTerm = modelName.toLowerCase().trim();
-        
-        return TAC_DATABASE.values().stream()
-            .filter(info -> info.getModel().toLowerCase().contains(searchTerm) ||
-                          info.getManufacturer().toLowerCase().contains(searchTerm))
-            .findFirst()
-            .orElse(null);
+        TacData data = TAC_DATABASE.get();
+        for (ModelSearchIndex.Entry entry : data.modelIndex.search(modelName, limit)) {
+            PhoneInfo info = data.entries.get(entry.getTac());
+            if (info != null) {
+                results.add(info);
+            }
+        }
+        return results;
     }
 }
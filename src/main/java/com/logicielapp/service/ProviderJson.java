@@ -0,0 +1,224 @@
+package com.logicielapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réponse JSON d'un fournisseur IMEI, lue en flux (JsonParser) sans construire d'arbre
+ * Seuls les champs connus ({@link Field}) sont conservés, sous forme de texte, à la racine et dans
+ * l'objet « data » ; les autres valeurs sont sautées. Les valeurs suivent JsonNode.asText() :
+ * texte des scalaires (« null » compris), chaîne vide pour un objet ou un tableau.
+ */
+public final class ProviderJson {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * Champs lus dans les réponses des fournisseurs
+     */
+    public enum Field {
+        STATUS("status"),
+        SUCCESS("success"),
+        RESULT("result"),
+        MESSAGE("message"),
+        ERROR("error"),
+        BRAND("brand"),
+        MODEL("model"),
+        DEVICE_MODEL("device_model"),
+        CAPACITY("capacity"),
+        STORAGE("storage"),
+        COLOR("color"),
+        ICLOUD_STATUS("icloud_status"),
+        ICLOUD("icloud"),
+        FIND_MY_IPHONE("find_my_iphone"),
+        CARRIER("carrier"),
+        NETWORK("network"),
+        SIMLOCK_STATUS("simlock_status"),
+        SIMLOCK("simlock"),
+        BLACKLIST_STATUS("blacklist_status"),
+        BLACKLIST("blacklist"),
+        WARRANTY("warranty"),
+        WARRANTY_STATUS("warranty_status"),
+        COUNTRY("country"),
+        SERIAL("serial"),
+        ACTIVATION_STATUS("activation_status");
+
+        private static final Map<String, Field> BY_NAME = new HashMap<>();
+        private static final int COUNT = values().length;
+
+        static {
+            for (Field field : values()) {
+                BY_NAME.put(field.jsonName, field);
+            }
+        }
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+
+    private final String[] root = new String[Field.COUNT];
+    private final JsonToken[] rootTokens = new JsonToken[Field.COUNT];
+    // Objet « data » s'il est présent (tous les champs absents si ce n'est pas un objet)
+    private String[] data;
+    private List<String> errors;
+
+    private ProviderJson() {
+    }
+
+    /**
+     * Lit la première valeur JSON du texte ; une racine qui n'est pas un objet ne donne aucun champ
+     *
+     * @throws IOException JSON mal formé
+     */
+    public static ProviderJson parse(String raw) throws IOException {
+        ProviderJson json = new ProviderJson();
+        try (JsonParser parser = FACTORY.createParser(raw)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                json.readRoot(parser);
+            } else if (token == null) {
+                throw new IOException("réponse vide");
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Vrai si le champ est présent à la racine
+     */
+    public boolean has(Field field) {
+        return root[field.ordinal()] != null;
+    }
+
+    /**
+     * Valeur du champ à la racine, ou null
+     */
+    public String get(Field field) {
+        return root[field.ordinal()];
+    }
+
+    public boolean isTextual(Field field) {
+        return rootTokens[field.ordinal()] == JsonToken.VALUE_STRING;
+    }
+
+    public boolean isBoolean(Field field) {
+        JsonToken token = rootTokens[field.ordinal()];
+        return token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE;
+    }
+
+    public boolean isIntegral(Field field) {
+        return rootTokens[field.ordinal()] == JsonToken.VALUE_NUMBER_INT;
+    }
+
+    /**
+     * Vrai si le champ est présent dans « data », ou à la racine en l'absence de « data »
+     */
+    public boolean hasData(Field field) {
+        return data(field) != null;
+    }
+
+    public String data(Field field) {
+        return (data != null ? data : root)[field.ordinal()];
+    }
+
+    /**
+     * Messages du tableau « ERROR » (format DHRU), ou null s'il est absent
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    private void readRoot(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("data".equals(name)) {
+                data = new String[Field.COUNT];
+                if (token == JsonToken.START_OBJECT) {
+                    readObject(parser, data, null);
+                } else {
+                    parser.skipChildren();
+                }
+            } else if ("ERROR".equals(name)) {
+                errors = token == JsonToken.START_ARRAY ? readErrors(parser) : null;
+                if (errors == null) {
+                    parser.skipChildren();
+                }
+            } else {
+                readField(parser, name, token, root, rootTokens);
+            }
+        }
+    }
+
+    private static void readObject(JsonParser parser, String[] values, JsonToken[] tokens) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            readField(parser, name, parser.nextToken(), values, tokens);
+        }
+    }
+
+    private static void readField(JsonParser parser, String name, JsonToken token, String[] values, JsonToken[] tokens)
+            throws IOException {
+        Field field = Field.BY_NAME.get(name);
+        if (field == null) {
+            parser.skipChildren();
+            return;
+        }
+        if (token.isStructStart()) {
+            values[field.ordinal()] = "";
+            parser.skipChildren();
+        } else {
+            values[field.ordinal()] = parser.getText();
+        }
+        if (tokens != null) {
+            tokens[field.ordinal()] = token;
+        }
+    }
+
+    /**
+     * [{"MESSAGE": "...", "FULL_DESCRIPTION": "..."}, ...] -> « MESSAGE (FULL_DESCRIPTION) »
+     */
+    private static List<String> readErrors(JsonParser parser) throws IOException {
+        List<String> messages = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("tableau ERROR incomplet");
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String message = null;
+            String description = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                String text = value.isStructStart() ? "" : parser.getText();
+                parser.skipChildren();
+                if ("MESSAGE".equals(name)) {
+                    message = text;
+                } else if ("FULL_DESCRIPTION".equals(name)) {
+                    description = text;
+                }
+            }
+            if (message != null) {
+                messages.add(description != null ? message + " (" + description + ")" : message);
+            }
+        }
+        return Collections.unmodifiableList(messages);
+    }
+}
@@ -0,0 +1,604 @@
+package com.logicielapp.service;
+
+import com.logicielapp.metrics.Counter;
+import com.logicielapp.metrics.Histogram;
+import com.logicielapp.metrics.Metrics;
+import com.logicielapp.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limiteur de débit des requêtes vers les fournisseurs IMEI (Singleton)
+ * Un seau à jetons par fournisseur : requetes_par_minute jetons par minute, au plus rafale
+ * d'avance. Une requête sans jeton n'est pas refusée : elle attend son tour dans une file par
+ * client (adresse du poste web, « application » pour l'interface), servie à tour de rôle pour
+ * qu'un gros lot ne retarde pas les vérifications unitaires des autres clients. Au-delà de
+ * -Dimei.providerMaxWaitMs d'attente, ou quota_journalier atteint, le fournisseur est passé
+ * et la chaîne de repli continue.
+ *
+ * Réglages lus dans serveurs_imei (lignes avec code_fournisseur) par un thread de fond
+ * ({@link #startRefreshing()}) toutes les -Dimei.providerConfigSeconds, jamais par les
+ * vérifications elles-mêmes : actif, priorite (ordre de la chaîne, puis cout_requete),
+ * requetes_par_minute, rafale, quota_journalier et cout_requete. Sans base, sans ligne ou
+ * colonne NULL (base non migrée, voir database/migrations), valeurs par défaut
+ * -Dimei.providerRatePerMinute (0 : pas de limite) et -Dimei.providerBurst.
+ *
+ * La consommation du jour est ajoutée à quota_fournisseurs à chaque relecture (et par
+ * {@link #flush()} à l'arrêt), puis relue : le quota survit au redémarrage et tient compte
+ * des autres postes qui partagent la base.
+ */
+public class ProviderRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRateLimiter.class);
+    private static ProviderRateLimiter instance;
+
+    public static final String DEFAULT_CLIENT = "application";
+
+    private static final long REFRESH_SECONDS = Long.getLong("imei.providerConfigSeconds", 60);
+    private static final long MAX_WAIT_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(Long.getLong("imei.providerMaxWaitMs", 30000));
+    private static final int DEFAULT_RATE = Integer.getInteger("imei.providerRatePerMinute", 0);
+    private static final int DEFAULT_BURST = Integer.getInteger("imei.providerBurst", 10);
+
+    private static final String SELECT_PROVIDERS =
+        "SELECT code_fournisseur, actif, priorite, requetes_par_minute, rafale, quota_journalier, cout_requete "
+        + "FROM serveurs_imei WHERE code_fournisseur IS NOT NULL";
+    private static final String ADD_USAGE =
+        "INSERT INTO quota_fournisseurs (code_fournisseur, jour, requetes, cout) VALUES (?, ?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE requetes = requetes + VALUES(requetes), cout = cout + VALUES(cout)";
+    private static final String SELECT_USAGE =
+        "SELECT code_fournisseur, requetes FROM quota_fournisseurs WHERE jour = ?";
+
+    /**
+     * Issue d'une demande de jeton
+     */
+    public enum Admission {
+        GRANTED,
+        /** quota_journalier atteint */
+        QUOTA_EXHAUSTED,
+        /** Attente plus longue que imei.providerMaxWaitMs (ou thread interrompu) */
+        WAIT_EXCEEDED
+    }
+
+    /**
+     * Réglages d'un fournisseur ; requetesParMinute <= 0 : pas de limite de débit,
+     * quotaJournalier <= 0 : pas de quota
+     */
+    private record Settings(boolean active, int priority, double perMinute, int burst, long dailyQuota, double cost) {
+
+        double tokensPerNano() {
+            return perMinute / TimeUnit.MINUTES.toNanos(1);
+        }
+
+        boolean limited() {
+            return perMinute > 0;
+        }
+    }
+
+    private final Map<String, Provider> providers = new ConcurrentHashMap<>();
+    // Dernière lecture, appliquée aussi aux fournisseurs déclarés après elle
+    private volatile Map<String, Settings> configured = Map.of();
+    private volatile StoredUsage storedUsage;
+    private volatile boolean loaded;
+    private ScheduledExecutorService scheduler;
+
+    private record StoredUsage(LocalDate day, Map<String, Long> requests) {
+    }
+
+    private ProviderRateLimiter() {
+        // Constructeur privé pour Singleton
+    }
+
+    /**
+     * Obtient l'instance unique du limiteur
+     */
+    public static synchronized ProviderRateLimiter getInstance() {
+        if (instance == null) {
+            instance = new ProviderRateLimiter();
+        }
+        return instance;
+    }
+
+    /**
+     * Déclare un fournisseur (ou retrouve celui déjà déclaré)
+     *
+     * @param defaultPriority priorité si serveurs_imei ne le configure pas
+     */
+    public Provider provider(String code, int defaultPriority) {
+        return providers.computeIfAbsent(code, c -> {
+            Settings settings = configured.get(c);
+            Provider provider = new Provider(c, defaultSettings(defaultPriority));
+            if (settings != null) {
+                provider.apply(settings);
+            }
+            StoredUsage usage = storedUsage;
+            if (usage != null) {
+                provider.seed(usage.day(), usage.requests().getOrDefault(c, 0L));
+            }
+            return provider;
+        });
+    }
+
+    /**
+     * Lit les réglages tout de suite, puis toutes les imei.providerConfigSeconds (thread de fond)
+     */
+    public synchronized void startRefreshing() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ProviderSettingsRefresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (REFRESH_SECONDS > 0) {
+            scheduler.scheduleWithFixedDelay(this::reload, 0, REFRESH_SECONDS, TimeUnit.SECONDS);
+        } else {
+            scheduler.execute(this::reload);
+        }
+    }
+
+    public synchronized void stopRefreshing() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Relit les réglages des fournisseurs puis synchronise la consommation du jour ;
+     * en cas d'erreur, les réglages et compteurs en place sont conservés
+     */
+    public void reload() {
+        Map<String, Settings> read = new HashMap<>();
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            readSettings(conn, read);
+        } catch (SQLException e) {
+            if (!loaded) {
+                logger.debug("Réglages des fournisseurs IMEI indisponibles, valeurs par défaut: {}", e.getMessage());
+            } else {
+                logger.warn("Relecture des réglages des fournisseurs IMEI impossible: {}", e.getMessage());
+            }
+            loaded = true;
+            return;
+        }
+        configured = read;
+        for (Provider provider : providers.values()) {
+            Settings settings = read.get(provider.code);
+            provider.apply(settings != null ? settings : defaultSettings(provider.defaultPriority));
+        }
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            saveUsage(conn);
+            loadUsage(conn);
+        } catch (SQLException e) {
+            logger.warn("Synchronisation de la consommation des fournisseurs IMEI impossible: {}", e.getMessage());
+        }
+        loaded = true;
+    }
+
+    private static void readSettings(Connection conn, Map<String, Settings> configured) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PROVIDERS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int rate = rs.getInt("requetes_par_minute");
+                boolean rateSet = !rs.wasNull();
+                int burst = rs.getInt("rafale");
+                boolean burstSet = !rs.wasNull();
+                configured.put(rs.getString("code_fournisseur"), new Settings(
+                    rs.getBoolean("actif"),
+                    rs.getInt("priorite"),
+                    rateSet ? rate : DEFAULT_RATE,
+                    burstSet ? Math.max(1, burst) : DEFAULT_BURST,
+                    rs.getLong("quota_journalier"),
+                    rs.getDouble("cout_requete")));
+            }
+        }
+    }
+
+    /**
+     * Ajoute à quota_fournisseurs les requêtes envoyées depuis le dernier enregistrement
+     * En cas d'échec, elles restent en attente pour l'enregistrement suivant.
+     */
+    private void saveUsage(Connection conn) throws SQLException {
+        Map<Provider, Map<LocalDate, Usage>> drained = new HashMap<>();
+        for (Provider provider : providers.values()) {
+            Map<LocalDate, Usage> unsaved = provider.drainUnsaved();
+            if (!unsaved.isEmpty()) {
+                drained.put(provider, unsaved);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(ADD_USAGE)) {
+            for (Map.Entry<Provider, Map<LocalDate, Usage>> entry : drained.entrySet()) {
+                for (Map.Entry<LocalDate, Usage> day : entry.getValue().entrySet()) {
+                    stmt.setString(1, entry.getKey().code);
+                    stmt.setDate(2, Date.valueOf(day.getKey()));
+                    stmt.setLong(3, day.getValue().requests);
+                    stmt.setDouble(4, day.getValue().cost);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            drained.forEach(Provider::restoreUnsaved);
+            throw e;
+        }
+    }
+
+    /**
+     * Reprend la consommation du jour enregistrée (tous postes confondus)
+     */
+    private void loadUsage(Connection conn) throws SQLException {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> stored = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_USAGE)) {
+            stmt.setDate(1, Date.valueOf(today));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stored.put(rs.getString("code_fournisseur"), rs.getLong("requetes"));
+                }
+            }
+        }
+        storedUsage = new StoredUsage(today, stored);
+        for (Provider provider : providers.values()) {
+            provider.seed(today, stored.getOrDefault(provider.code, 0L));
+        }
+    }
+
+    /**
+     * Enregistre la consommation en attente (arrêt de l'application)
+     */
+    public void flush() {
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            saveUsage(conn);
+        } catch (SQLException e) {
+            logger.warn("Enregistrement de la consommation des fournisseurs IMEI impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Requêtes et coût d'un jour, pas encore enregistrés
+     */
+    private static final class Usage {
+        private long requests;
+        private double cost;
+
+        void add(long requests, double cost) {
+            this.requests += requests;
+            this.cost += cost;
+        }
+    }
+
+    private static Settings defaultSettings(int priority) {
+        return new Settings(true, priority, DEFAULT_RATE, Math.max(1, DEFAULT_BURST), 0, 0);
+    }
+
+    /**
+     * Seau à jetons et file d'attente d'un fournisseur
+     */
+    public static final class Provider implements Comparable<Provider> {
+        private final String code;
+        private final int defaultPriority;
+        private volatile Settings settings;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        // Files par client ; le premier client est servi puis passe en fin de tour
+        private final LinkedHashMap<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+        private volatile int waiting;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private LocalDate quotaDay = LocalDate.now();
+        private volatile long usedToday;
+        private volatile double spent;
+        private final Map<LocalDate, Usage> unsaved = new HashMap<>();
+
+        private final Histogram waitTime;
+        private final Counter granted;
+        private final Counter quotaRejected;
+        private final Counter waitRejected;
+
+        private Provider(String code, Settings settings) {
+            this.code = code;
+            this.defaultPriority = settings.priority();
+            this.settings = settings;
+            this.tokens = settings.burst();
+            waitTime = Metrics.histogram("imei_provider_wait_seconds", "Attente d'un jeton avant l'appel au fournisseur", "provider", code);
+            granted = Metrics.counter("imei_provider_admissions_total", "Demandes de jeton des fournisseurs IMEI", "provider", code, "outcome", "granted");
+            quotaRejected = Metrics.counter("imei_provider_admissions_total", "Demandes de jeton des fournisseurs IMEI", "provider", code, "outcome", "quota_exhausted");
+            waitRejected = Metrics.counter("imei_provider_admissions_total", "Demandes de jeton des fournisseurs IMEI", "provider", code, "outcome", "wait_exceeded");
+            Metrics.gauge("imei_provider_tokens", "Jetons disponibles par fournisseur IMEI", this::availableTokens, "provider", code);
+            Metrics.gauge("imei_provider_queue_length", "Requêtes en attente d'un jeton", () -> waiting, "provider", code);
+            Metrics.gauge("imei_provider_quota_used", "Requêtes envoyées aujourd'hui", () -> usedToday, "provider", code);
+            Metrics.gauge("imei_provider_quota_limit", "Quota journalier (0 : illimité)", () -> this.settings.dailyQuota(), "provider", code);
+            Metrics.gauge("imei_provider_cost", "Coût cumulé des requêtes depuis le démarrage", () -> spent, "provider", code);
+        }
+
+        public String getCode() { return code; }
+        public boolean isActive() { return settings.active(); }
+        public int getPriority() { return settings.priority(); }
+        public double getCost() { return settings.cost(); }
+
+        /**
+         * Ordre de la chaîne de repli : priorité croissante, puis coût croissant
+         */
+        @Override
+        public int compareTo(Provider other) {
+            int byPriority = Integer.compare(getPriority(), other.getPriority());
+            return byPriority != 0 ? byPriority : Double.compare(getCost(), other.getCost());
+        }
+
+        /**
+         * Attend un jeton (au plus imei.providerMaxWaitMs) ; les clients en attente sont servis à tour de rôle
+         * L'attente se fait par ForkJoinPool.managedBlock : le pool commun compense les threads bloqués.
+         */
+        public Admission acquire(String client) {
+            long start = Metrics.startTimer();
+            Waiter waiter;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                if (quotaReached()) {
+                    quotaRejected.inc();
+                    return Admission.QUOTA_EXHAUSTED;
+                }
+                refill(now);
+                if (waiting == 0 && (!settings.limited() || tokens >= 1)) {
+                    take();
+                    waitTime.recordSince(start);
+                    return Admission.GRANTED;
+                }
+                waiter = new Waiter(now + MAX_WAIT_NANOS);
+                queues.computeIfAbsent(client != null ? client : DEFAULT_CLIENT, c -> new ArrayDeque<>()).addLast(waiter);
+                waiting++;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                ForkJoinPool.managedBlock(waiter);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lock.lock();
+                try {
+                    if (waiter.outcome == null) {
+                        dequeue(waiter);
+                        waiter.outcome = Admission.WAIT_EXCEEDED;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            switch (waiter.outcome) {
+                case GRANTED:
+                    waitTime.recordSince(start);
+                    break;
+                case QUOTA_EXHAUSTED:
+                    quotaRejected.inc();
+                    break;
+                default:
+                    waitRejected.inc();
+                    logger.debug("Attente d'un jeton {} dépassée", code);
+            }
+            return waiter.outcome;
+        }
+
+        private void apply(Settings updated) {
+            lock.lock();
+            try {
+                Settings previous = settings;
+                refill(System.nanoTime());
+                settings = updated;
+                tokens = Math.min(tokens, updated.burst());
+                if (!updated.equals(previous)) {
+                    logger.info("Fournisseur {} : actif={}, priorité={}, {} req/min, rafale {}, quota {}, coût {}",
+                        code, updated.active(), updated.priority(), updated.perMinute(), updated.burst(),
+                        updated.dailyQuota(), updated.cost());
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Map<LocalDate, Usage> drainUnsaved() {
+            lock.lock();
+            try {
+                Map<LocalDate, Usage> drained = new HashMap<>(unsaved);
+                unsaved.clear();
+                return drained;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void restoreUnsaved(Map<LocalDate, Usage> drained) {
+            lock.lock();
+            try {
+                drained.forEach((day, usage) ->
+                    unsaved.computeIfAbsent(day, d -> new Usage()).add(usage.requests, usage.cost));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Consommation du jour : valeur enregistrée plus les requêtes pas encore enregistrées
+         */
+        private void seed(LocalDate day, long stored) {
+            lock.lock();
+            try {
+                quotaReached();
+                if (day.equals(quotaDay)) {
+                    Usage pending = unsaved.get(day);
+                    usedToday = stored + (pending != null ? pending.requests : 0);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Les méthodes suivantes sont appelées avec le verrou pris
+
+        private void refill(long now) {
+            Settings current = settings;
+            if (current.limited()) {
+                tokens = Math.min(current.burst(), tokens + (now - refilledAt) * current.tokensPerNano());
+            }
+            refilledAt = now;
+        }
+
+        private boolean quotaReached() {
+            LocalDate today = LocalDate.now();
+            if (!today.equals(quotaDay)) {
+                quotaDay = today;
+                usedToday = 0;
+            }
+            long quota = settings.dailyQuota();
+            return quota > 0 && usedToday >= quota;
+        }
+
+        private void take() {
+            if (settings.limited()) {
+                tokens -= 1;
+            }
+            usedToday++;
+            spent += settings.cost();
+            unsaved.computeIfAbsent(quotaDay, d -> new Usage()).add(1, settings.cost());
+            granted.inc();
+        }
+
+        /**
+         * Distribue les jetons disponibles aux files, un client après l'autre
+         */
+        private void dispatch(long now) {
+            refill(now);
+            boolean served = false;
+            while (waiting > 0 && (!settings.limited() || tokens >= 1)) {
+                if (quotaReached()) {
+                    rejectAll(Admission.QUOTA_EXHAUSTED);
+                    return;
+                }
+                Iterator<Map.Entry<String, ArrayDeque<Waiter>>> first = queues.entrySet().iterator();
+                Map.Entry<String, ArrayDeque<Waiter>> entry = first.next();
+                first.remove();
+                Waiter next = entry.getValue().pollFirst();
+                if (!entry.getValue().isEmpty()) {
+                    queues.put(entry.getKey(), entry.getValue());
+                }
+                waiting--;
+                take();
+                next.outcome = Admission.GRANTED;
+                served = true;
+            }
+            if (served) {
+                changed.signalAll();
+            }
+        }
+
+        private void rejectAll(Admission outcome) {
+            for (ArrayDeque<Waiter> queue : queues.values()) {
+                for (Waiter waiter : queue) {
+                    waiter.outcome = outcome;
+                }
+            }
+            queues.clear();
+            waiting = 0;
+            changed.signalAll();
+        }
+
+        private void dequeue(Waiter waiter) {
+            Iterator<ArrayDeque<Waiter>> it = queues.values().iterator();
+            while (it.hasNext()) {
+                ArrayDeque<Waiter> queue = it.next();
+                if (queue.remove(waiter)) {
+                    waiting--;
+                    if (queue.isEmpty()) {
+                        it.remove();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private long nanosUntilToken() {
+            Settings current = settings;
+            if (!current.limited() || tokens >= 1) {
+                return 0;
+            }
+            return Math.max(TimeUnit.MILLISECONDS.toNanos(1), (long) Math.ceil((1 - tokens) / current.tokensPerNano()));
+        }
+
+        private double availableTokens() {
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                return tokens;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Requête en file ; débloquée par le thread qui lui attribue un jeton ou par son propre délai
+         */
+        private final class Waiter implements ForkJoinPool.ManagedBlocker {
+            private final long deadline;
+            private volatile Admission outcome;
+
+            Waiter(long deadline) {
+                this.deadline = deadline;
+            }
+
+            @Override
+            public boolean block() throws InterruptedException {
+                lock.lock();
+                try {
+                    if (outcome == null) {
+                        long now = System.nanoTime();
+                        dispatch(now);
+                        if (outcome == null) {
+                            long remaining = deadline - now;
+                            if (remaining <= 0) {
+                                dequeue(this);
+                                outcome = Admission.WAIT_EXCEEDED;
+                            } else {
+                                long untilToken = nanosUntilToken();
+                                changed.awaitNanos(untilToken > 0 ? Math.min(remaining, untilToken) : remaining);
+                            }
+                        }
+                    }
+                    return outcome != null;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return outcome != null;
+            }
+        }
+    }
+}
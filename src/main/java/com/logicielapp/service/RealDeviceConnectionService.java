@@ -4,15 +4,11 @@ import com.logicielapp.model.Device;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Service de connexion réelle aux appareils physiques
@@ -23,10 +19,6 @@ public class RealDeviceConnectionService {
     private static final Logger logger = LoggerFactory.getLogger(RealDeviceConnectionService.class);
     private final ExecutorService executorService = Executors.newCachedThreadPool();
     
-    // Patterns pour l'analyse des sorties système
-    private static final Pattern IOS_DEVICE_PATTERN = Pattern.compile("([a-f0-9]{40})\\s+(.+)");
-    private static final Pattern ANDROID_DEVICE_PATTERN = Pattern.compile("([A-Za-z0-9]+)\\s+device");
-    
     /**
      * Détection réelle des appareils iOS connectés via USB
      */
@@ -44,23 +36,16 @@ public class RealDeviceConnectionService {
                 }
                 
                 // Lister les appareils iOS connectés
-                ProcessBuilder pb = new ProcessBuilder("idevice_id", "-l");
-                Process process = pb.start();
-                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                ToolRunner.Result result = ToolRunner.getInstance().run(ToolRunner.Tool.IDEVICE_ID, "-l");
                 
-                String udid;
-                while ((udid = reader.readLine()) != null) {
-                    if (!udid.trim().isEmpty()) {
-                        Device device = createIOSDeviceFromUDID(udid.trim());
-                        if (device != null) {
-                            devices.add(device);
-                            logger.info("Appareil iOS détecté: {} ({})", device.getModel(), device.getSerialNumber());
-                        }
+                for (String udid : result.lines()) {
+                    Device device = createIOSDeviceFromUDID(udid);
+                    if (device != null) {
+                        devices.add(device);
+                        logger.info("Appareil iOS détecté: {} ({})", device.getModel(), device.getSerialNumber());
                     }
                 }
                 
-                process.waitFor();
-                
             } catch (Exception e) {
                 logger.error("Erreur lors de la détection iOS réelle", e);
             }
@@ -79,43 +64,21 @@ public class RealDeviceConnectionService {
             try {
                 logger.info("Détection des appareils Android réels...");
                 
-                // Vérifier si ADB est installé et démarré
-                if (!isADBInstalled()) {
+                // Vérifier si le serveur ADB répond (démarré si nécessaire)
+                if (!AdbClient.getInstance().isServerAvailable()) {
                     logger.warn("ADB n'est pas installé. Installation requise pour la détection Android.");
                     return devices;
                 }
                 
-                // Démarrer le serveur ADB si nécessaire
-                startADBServer();
-                
-                // Lister les appareils Android connectés
-                ProcessBuilder pb = new ProcessBuilder("adb", "devices");
-                Process process = pb.start();
-                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-                
-                String line;
-                boolean headerPassed = false;
-                while ((line = reader.readLine()) != null) {
-                    if (!headerPassed) {
-                        if (line.contains("List of devices attached")) {
-                            headerPassed = true;
-                        }
-                        continue;
-                    }
-                    
-                    Matcher matcher = ANDROID_DEVICE_PATTERN.matcher(line);
-                    if (matcher.find()) {
-                        String deviceId = matcher.group(1);
-                        Device device = createAndroidDeviceFromId(deviceId);
-                        if (device != null) {
-                            devices.add(device);
-                            logger.info("Appareil Android détecté: {} ({})", device.getModel(), device.getSerialNumber());
-                        }
+                // Lister les appareils Android connectés (serveur adb, sans processus)
+                for (String deviceId : AdbClient.getInstance().getOnlineDevices()) {
+                    Device device = createAndroidDeviceFromId(deviceId);
+                    if (device != null) {
+                        devices.add(device);
+                        logger.info("Appareil Android détecté: {} ({})", device.getModel(), device.getSerialNumber());
                     }
                 }
                 
-                process.waitFor();
-                
             } catch (Exception e) {
                 logger.error("Erreur lors de la détection Android réelle", e);
             }
@@ -170,33 +133,11 @@ public class RealDeviceConnectionService {
     // ==================== MÉTHODES D'IMPLÉMENTATION RÉELLE ====================
     
     private boolean isLibimobiledeviceInstalled() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("which", "idevice_id");
-            Process process = pb.start();
-            return process.waitFor() == 0;
-        } catch (Exception e) {
-            return false;
-        }
+        return ToolRunner.getInstance().isAvailable(ToolRunner.Tool.IDEVICE_ID);
     }
     
     private boolean isADBInstalled() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("which", "adb");
-            Process process = pb.start();
-            return process.waitFor() == 0;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    
-    private void startADBServer() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("adb", "start-server");
-            Process process = pb.start();
-            process.waitFor();
-        } catch (Exception e) {
-            logger.warn("Impossible de démarrer le serveur ADB", e);
-        }
+        return ToolRunner.getInstance().isAvailable(ToolRunner.Tool.ADB);
     }
     
     private Device createIOSDeviceFromUDID(String udid) {
@@ -258,30 +199,22 @@ public class RealDeviceConnectionService {
         }
     }
     
+    /**
+     * Propriété lue dans l'instantané ideviceinfo de l'appareil (une seule commande par appareil)
+     */
     private String getIOSDeviceInfo(String udid, String key) {
-        try {
-            Process process = Runtime.getRuntime().exec(new String[]{"ideviceinfo", "-u", udid, "-k", key});
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String result = reader.readLine();
-            process.waitFor();
-            return result != null ? result.trim() : null;
-        } catch (Exception e) {
-            logger.debug("Impossible de récupérer {} pour {}", key, udid);
-            return null;
-        }
+        return nonEmpty(DevicePropertiesReader.getInstance().getIOSProperties(udid).get(key));
     }
     
+    /**
+     * Propriété lue dans l'instantané getprop de l'appareil (une seule commande par appareil)
+     */
     private String getAndroidDeviceProperty(String deviceId, String property) {
-        try {
-            Process process = Runtime.getRuntime().exec(new String[]{"adb", "-s", deviceId, "shell", "getprop", property});
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String result = reader.readLine();
-            process.waitFor();
-            return result != null && !result.trim().isEmpty() ? result.trim() : null;
-        } catch (Exception e) {
-            logger.debug("Impossible de récupérer {} pour {}", property, deviceId);
-            return null;
-        }
+        return nonEmpty(DevicePropertiesReader.getInstance().getAndroidProperties(deviceId).get(property));
+    }
+    
+    private static String nonEmpty(String value) {
+        return value != null && !value.isEmpty() ? value : null;
     }
     
     private String mapIOSProductTypeToModel(String productType) {
@@ -312,8 +245,12 @@ public class RealDeviceConnectionService {
     
     private boolean testIOSConnection(Device device) {
         try {
-            Process process = Runtime.getRuntime().exec(new String[]{"ideviceinfo", "-u", device.getSerialNumber(), "-k", "DeviceName"});
-            return process.waitFor() == 0;
+            return ToolRunner.getInstance()
+                .run(ToolRunner.Tool.IDEVICEINFO, "-u", device.getSerialNumber(), "-k", "DeviceName")
+                .isSuccess();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
             return false;
         }
@@ -321,11 +258,7 @@ public class RealDeviceConnectionService {
     
     private boolean testAndroidConnection(Device device) {
         try {
-            Process process = Runtime.getRuntime().exec(new String[]{"adb", "-s", device.getSerialNumber(), "shell", "echo", "test"});
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String result = reader.readLine();
-            process.waitFor();
-            return "test".equals(result);
+            return "test".equals(AdbClient.getInstance().shell(device.getSerialNumber(), "echo test").trim());
         } catch (Exception e) {
             return false;
         }
@@ -347,7 +280,7 @@ public class RealDeviceConnectionService {
             // Installer libimobiledevice pour iOS
             if (!isLibimobiledeviceInstalled()) {
                 logger.info("Installation de libimobiledevice...");
-                ProcessBuilder pb = new ProcessBuilder("brew", "install", "libimobiledevice");
+                ProcessBuilder pb = new ProcessBuilder(ToolRunner.getInstance().resolve(ToolRunner.Tool.BREW), "install", "libimobiledevice");
                 Process process = pb.start();
                 if (process.waitFor() != 0) {
                     logger.error("Échec de l'installation de libimobiledevice");
@@ -358,7 +291,7 @@ public class RealDeviceConnectionService {
             // Installer platform-tools pour Android
             if (!isADBInstalled()) {
                 logger.info("Installation d'Android platform-tools...");
-                ProcessBuilder pb = new ProcessBuilder("brew", "install", "android-platform-tools");
+                ProcessBuilder pb = new ProcessBuilder(ToolRunner.getInstance().resolve(ToolRunner.Tool.BREW), "install", "android-platform-tools");
                 Process process = pb.start();
                 if (process.waitFor() != 0) {
                     logger.error("Échec de l'installation d'Android platform-tools");
@@ -366,6 +299,9 @@ public class RealDeviceConnectionService {
                 }
             }
             
+            // Nouveaux outils : chemins à résoudre de nouveau, serveur adb à redémarrer
+            ToolRunner.getInstance().refresh();
+            AdbClient.getInstance().resetServerStart();
             logger.info("Tous les outils sont installés et prêts");
             return true;
             
@@ -376,13 +312,7 @@ public class RealDeviceConnectionService {
     }
     
     private boolean isHomebrewInstalled() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("which", "brew");
-            Process process = pb.start();
-            return process.waitFor() == 0;
-        } catch (Exception e) {
-            return false;
-        }
+        return ToolRunner.getInstance().isAvailable(ToolRunner.Tool.BREW);
     }
     
     public void shutdown() {
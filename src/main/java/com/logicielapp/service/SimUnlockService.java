@@ -1,5 +1,6 @@
 package com.logicielapp.service;
 
+import com.logicielapp.util.IMEIValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.concurrent.CompletableFuture;
@@ -58,7 +59,7 @@ public class SimUnlockService {
         
         try {
             // Valider l'IMEI seulement si ce n'est pas un appareil USB détecté
-            if (!isUSBDevice && !isValidIMEI(imei)) {
+            if (!isUSBDevice && !IMEIValidator.hasValidChecksum(imei)) {
                 return "❌ IMEI invalide";
             }
             
@@ -160,7 +161,7 @@ public class SimUnlockService {
         
         try {
             // Valider l'IMEI seulement si ce n'est pas un appareil USB détecté
-            if (!isUSBDevice && !isValidIMEI(imei)) {
+            if (!isUSBDevice && !IMEIValidator.hasValidChecksum(imei)) {
                 return "IMEI_INVALID";
             }
             
@@ -214,7 +215,7 @@ public class SimUnlockService {
             
             try {
                 // Étape 1: Validation de l'IMEI
-                if (!isValidIMEI(imei)) {
+                if (!IMEIValidator.hasValidChecksum(imei)) {
                     logger.error("IMEI invalide: {}", imei);
                     return false;
                 }
@@ -258,41 +259,6 @@ public class SimUnlockService {
         });
     }
     
-    /**
-     * Vérifie si un IMEI est valide selon l'algorithme de Luhn
-     */
-    private boolean isValidIMEI(String imei) {
-        if (imei == null || imei.length() != 15) {
-            return false;
-        }
-        
-        // Vérifier que tous les caractères sont des chiffres
-        if (!imei.matches("\\d{15}")) {
-            return false;
-        }
-        
-        // Algorithme de Luhn pour validation
-        int sum = 0;
-        boolean alternate = false;
-        
-        for (int i = imei.length() - 2; i >= 0; i--) {
-            int digit = Character.getNumericValue(imei.charAt(i));
-            
-            if (alternate) {
-                digit *= 2;
-                if (digit > 9) {
-                    digit = (digit % 10) + 1;
-                }
-            }
-            
-            sum += digit;
-            alternate = !alternate;
-        }
-        
-        int checkDigit = (10 - (sum % 10)) % 10;
-        return checkDigit == Character.getNumericValue(imei.charAt(14));
-    }
-    
     /**
      * Vérifie si un appareil est éligible au déverrouillage
      */
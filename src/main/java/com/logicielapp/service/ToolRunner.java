@@ -0,0 +1,350 @@
+package com.logicielapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exécution des outils externes (libimobiledevice, adb, Homebrew) (Singleton)
+ * Le chemin de chaque outil est résolu une seule fois, sans lancer « which » : propriété
+ * -Dtools.&lt;nom&gt;, PATH, puis emplacements Homebrew et SDK Android habituels.
+ * Chaque exécution est bornée en durée (-Dtools.timeoutSeconds, 10 s par défaut) et en taille
+ * de sortie (-Dtools.maxOutputBytes, 1 Mo par défaut) : au-delà, le processus est arrêté.
+ *
+ * Les requêtes adb en lecture passent par {@link AdbClient}, sans processus.
+ */
+public class ToolRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolRunner.class);
+    private static ToolRunner instance;
+
+    private static final long DEFAULT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(Long.getLong("tools.timeoutSeconds", 10));
+    private static final int MAX_OUTPUT_BYTES = Integer.getInteger("tools.maxOutputBytes", 1024 * 1024);
+
+    /**
+     * Outils connus et emplacements à essayer après le PATH
+     */
+    public enum Tool {
+        IDEVICE_ID("idevice_id", "/usr/local/Cellar/libimobiledevice"),
+        IDEVICEINFO("ideviceinfo", "/usr/local/Cellar/libimobiledevice"),
+        ADB("adb", "/usr/local/Caskroom/android-platform-tools"),
+        BREW("brew", null);
+
+        private final String command;
+        private final String versionedHome;
+
+        Tool(String command, String versionedHome) {
+            this.command = command;
+            this.versionedHome = versionedHome;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+    }
+
+    /**
+     * Sortie d'une exécution
+     */
+    public static final class Result {
+        private final int exitCode;
+        private final String output;
+        private final boolean truncated;
+
+        Result(int exitCode, String output, boolean truncated) {
+            this.exitCode = exitCode;
+            this.output = output;
+            this.truncated = truncated;
+        }
+
+        public int getExitCode() { return exitCode; }
+        public String getOutput() { return output; }
+
+        /**
+         * Vrai si la sortie a dépassé la limite (processus arrêté, sortie incomplète)
+         */
+        public boolean isTruncated() { return truncated; }
+
+        public boolean isSuccess() {
+            return exitCode == 0 && !truncated;
+        }
+
+        public List<String> lines() {
+            List<String> lines = new ArrayList<>();
+            for (String line : output.split("\\R")) {
+                if (!line.isBlank()) {
+                    lines.add(line.trim());
+                }
+            }
+            return lines;
+        }
+
+        /**
+         * Première ligne non vide, ou null
+         */
+        public String firstLine() {
+            List<String> lines = lines();
+            return lines.isEmpty() ? null : lines.get(0);
+        }
+    }
+
+    /**
+     * Lecture de la sortie au fil de l'eau (déjà limitée en taille)
+     */
+    public interface OutputHandler<T> {
+        T read(BufferedReader reader) throws IOException;
+    }
+
+    private final Map<Tool, Optional<String>> resolved = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ToolRunnerWatchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ToolRunner() {
+        // Constructeur privé pour Singleton
+    }
+
+    /**
+     * Obtient l'instance unique
+     */
+    public static synchronized ToolRunner getInstance() {
+        if (instance == null) {
+            instance = new ToolRunner();
+        }
+        return instance;
+    }
+
+    /**
+     * Chemin absolu de l'outil, ou null s'il est introuvable
+     */
+    public String resolve(Tool tool) {
+        return resolved.computeIfAbsent(tool, this::locate).orElse(null);
+    }
+
+    public boolean isAvailable(Tool tool) {
+        return resolve(tool) != null;
+    }
+
+    /**
+     * Oublie les chemins résolus (après une installation)
+     */
+    public void refresh() {
+        resolved.clear();
+    }
+
+    /**
+     * Exécute l'outil avec le délai par défaut et renvoie sa sortie standard
+     */
+    public Result run(Tool tool, String... args) throws IOException, InterruptedException {
+        return run(tool, DEFAULT_TIMEOUT_MS, args);
+    }
+
+    public Result run(Tool tool, long timeoutMillis, String... args) throws IOException, InterruptedException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        boolean[] truncated = new boolean[1];
+        int exitCode = execute(tool, timeoutMillis, args, input -> {
+            input.transferTo(buffer);
+            truncated[0] = input.isLimitReached();
+            return null;
+        }).exitCode;
+        return new Result(exitCode, buffer.toString(StandardCharsets.UTF_8), truncated[0]);
+    }
+
+    /**
+     * Exécute l'outil et confie sa sortie au lecteur fourni, sans la copier en mémoire
+     *
+     * @throws IOException outil introuvable, délai dépassé, sortie trop longue ou code de sortie non nul
+     */
+    public <T> T read(Tool tool, OutputHandler<T> handler, String... args) throws IOException, InterruptedException {
+        Execution<T> execution = execute(tool, DEFAULT_TIMEOUT_MS, args, input -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            T value = handler.read(reader);
+            if (input.isLimitReached()) {
+                throw new IOException("sortie de " + tool.getCommand() + " trop longue (> " + MAX_OUTPUT_BYTES + " octets)");
+            }
+            return value;
+        });
+        if (execution.exitCode != 0) {
+            throw new IOException(tool.getCommand() + " a échoué (code " + execution.exitCode + ")");
+        }
+        return execution.value;
+    }
+
+    private interface StreamConsumer<T> {
+        T consume(LimitedInputStream input) throws IOException;
+    }
+
+    private static final class Execution<T> {
+        final int exitCode;
+        final T value;
+
+        Execution(int exitCode, T value) {
+            this.exitCode = exitCode;
+            this.value = value;
+        }
+    }
+
+    private <T> Execution<T> execute(Tool tool, long timeoutMillis, String[] args, StreamConsumer<T> consumer)
+            throws IOException, InterruptedException {
+        String path = resolve(tool);
+        if (path == null) {
+            throw new IOException(tool.getCommand() + " introuvable");
+        }
+        List<String> command = new ArrayList<>(args.length + 1);
+        command.add(path);
+        command.addAll(Arrays.asList(args));
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        // La lecture bloque : le délai est garanti par l'arrêt du processus, qui ferme sa sortie
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> {
+            timedOut.set(true);
+            kill(process);
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        T value;
+        try (LimitedInputStream input = new LimitedInputStream(process.getInputStream(), MAX_OUTPUT_BYTES)) {
+            value = consumer.consume(input);
+            if (input.isLimitReached()) {
+                kill(process);
+            }
+        } catch (IOException e) {
+            kill(process);
+            throw timedOut.get() ? timeout(tool, timeoutMillis) : e;
+        } finally {
+            deadline.cancel(false);
+        }
+        if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS) || timedOut.get()) {
+            kill(process);
+            throw timeout(tool, timeoutMillis);
+        }
+        return new Execution<>(process.exitValue(), value);
+    }
+
+    /**
+     * Arrête le processus et ses descendants (qui garderaient sa sortie ouverte)
+     */
+    private static void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static IOException timeout(Tool tool, long timeoutMillis) {
+        return new IOException("délai dépassé pour " + tool.getCommand() + " (" + timeoutMillis + " ms)");
+    }
+
+    private Optional<String> locate(Tool tool) {
+        List<File> candidates = new ArrayList<>();
+        String override = System.getProperty("tools." + tool.getCommand());
+        if (override != null && !override.isBlank()) {
+            candidates.add(new File(override));
+        }
+        String pathVariable = System.getenv("PATH");
+        if (pathVariable != null) {
+            for (String dir : pathVariable.split(File.pathSeparator)) {
+                if (!dir.isEmpty()) {
+                    candidates.add(new File(dir, tool.getCommand()));
+                }
+            }
+        }
+        if (tool == Tool.ADB) {
+            for (String variable : new String[] { "ANDROID_HOME", "ANDROID_SDK_ROOT" }) {
+                String home = System.getenv(variable);
+                if (home != null) {
+                    candidates.add(new File(home, "platform-tools/adb"));
+                }
+            }
+        }
+        candidates.add(new File("/opt/homebrew/bin", tool.getCommand()));
+        candidates.add(new File("/usr/local/bin", tool.getCommand()));
+        if (tool.versionedHome != null) {
+            // Installations Homebrew versionnées (Cellar/<outil>/<version>/bin, Caskroom/<outil>/<version>)
+            File[] versions = new File(tool.versionedHome).listFiles(File::isDirectory);
+            if (versions != null) {
+                Arrays.sort(versions, (a, b) -> b.getName().compareTo(a.getName()));
+                for (File version : versions) {
+                    candidates.add(new File(version, "bin/" + tool.getCommand()));
+                    candidates.add(new File(version, "platform-tools/" + tool.getCommand()));
+                }
+            }
+        }
+
+        for (File candidate : candidates) {
+            if (candidate.isFile() && candidate.canExecute()) {
+                logger.info("Outil {} : {}", tool.getCommand(), candidate.getAbsolutePath());
+                return Optional.of(candidate.getAbsolutePath());
+            }
+        }
+        logger.info("Outil {} introuvable", tool.getCommand());
+        return Optional.empty();
+    }
+
+    /**
+     * Flux qui s'arrête après un nombre d'octets donné
+     */
+    static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+        private boolean limitReached;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        boolean isLimitReached() {
+            return limitReached;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return endOfLimit();
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return endOfLimit();
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        private int endOfLimit() throws IOException {
+            // Un octet de plus signifie que la sortie dépasse réellement la limite
+            if (!limitReached && super.read() >= 0) {
+                limitReached = true;
+            }
+            return -1;
+        }
+    }
+}
@@ -4,8 +4,6 @@ import com.logicielapp.model.Device;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -45,27 +43,22 @@ public class USBDeviceDetectionService {
                 }
                 
                 // Exécuter ideviceinfo pour récupérer les informations détaillées
-                ProcessBuilder builder = new ProcessBuilder("ideviceinfo");
-                builder.redirectErrorStream(true);
-                Process process = builder.start();
+                Map<String, String> deviceData = ToolRunner.getInstance().read(ToolRunner.Tool.IDEVICEINFO, reader -> {
+                    Map<String, String> data = new HashMap<>();
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        extractDeviceInfo(line, data);
+                    }
+                    return data;
+                });
                 
-                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-                Map<String, String> deviceData = new HashMap<>();
-                String line;
-                
-                while ((line = reader.readLine()) != null) {
-                    extractDeviceInfo(line, deviceData);
-                }
-                
-                int exitCode = process.waitFor();
-                
-                if (exitCode == 0 && !deviceData.isEmpty()) {
+                if (!deviceData.isEmpty()) {
                     Device device = createDeviceFromData(deviceData);
                     logger.info("Appareil iOS détecté avec succès: {} - IMEI: {}", 
                               device.getModel(), maskIMEI(device.getImei()));
                     return device;
                 } else {
-                    logger.warn("Échec de la détection d'appareil iOS (exit code: {})", exitCode);
+                    logger.warn("Échec de la détection d'appareil iOS (aucune information)");
                     return null;
                 }
                 
@@ -83,19 +76,12 @@ public class USBDeviceDetectionService {
     public boolean isiOSDeviceConnected() {
         try {
             // Utiliser idevice_id pour vérifier la présence d'appareils
-            ProcessBuilder builder = new ProcessBuilder("idevice_id", "-l");
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-            
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line = reader.readLine();
-            
-            int exitCode = process.waitFor();
+            ToolRunner.Result result = ToolRunner.getInstance().run(ToolRunner.Tool.IDEVICE_ID, "-l");
             
             // Si idevice_id retourne une ligne non vide, un appareil est connecté
-            boolean deviceConnected = exitCode == 0 && line != null && !line.trim().isEmpty();
+            boolean deviceConnected = result.isSuccess() && result.firstLine() != null;
             
-            logger.debug("Vérification de connexion iOS: {} (exit code: {})", deviceConnected, exitCode);
+            logger.debug("Vérification de connexion iOS: {} (exit code: {})", deviceConnected, result.getExitCode());
             return deviceConnected;
             
         } catch (Exception e) {
@@ -253,21 +239,15 @@ public class USBDeviceDetectionService {
             try {
                 logger.info("Récupération de l'IMEI de l'appareil connecté...");
                 
-                ProcessBuilder builder = new ProcessBuilder("ideviceinfo", "-k", "InternationalMobileEquipmentIdentity");
-                builder.redirectErrorStream(true);
-                Process process = builder.start();
-                
-                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-                String imei = reader.readLine();
-                
-                int exitCode = process.waitFor();
+                ToolRunner.Result result = ToolRunner.getInstance()
+                    .run(ToolRunner.Tool.IDEVICEINFO, "-k", "InternationalMobileEquipmentIdentity");
+                String imei = result.firstLine();
                 
-                if (exitCode == 0 && imei != null && !imei.trim().isEmpty()) {
-                    imei = imei.trim();
+                if (result.isSuccess() && imei != null) {
                     logger.info("IMEI récupéré avec succès: {}", maskIMEI(imei));
                     return imei;
                 } else {
-                    logger.warn("Impossible de récupérer l'IMEI (exit code: {})", exitCode);
+                    logger.warn("Impossible de récupérer l'IMEI (exit code: {})", result.getExitCode());
                     return null;
                 }
                 
@@ -283,20 +263,10 @@ public class USBDeviceDetectionService {
      * @return true si les outils sont disponibles
      */
     public boolean isLibimobiledeviceAvailable() {
-        try {
-            ProcessBuilder builder = new ProcessBuilder("which", "ideviceinfo");
-            Process process = builder.start();
-            int exitCode = process.waitFor();
-            
-            boolean available = exitCode == 0;
-            logger.debug("libimobiledevice disponible: {}", available);
-            
-            return available;
-            
-        } catch (Exception e) {
-            logger.debug("Erreur lors de la vérification de libimobiledevice: {}", e.getMessage());
-            return false;
-        }
+        // Chemin résolu une seule fois par ToolRunner, sans lancer « which »
+        boolean available = ToolRunner.getInstance().isAvailable(ToolRunner.Tool.IDEVICEINFO);
+        logger.debug("libimobiledevice disponible: {}", available);
+        return available;
     }
     
     /**
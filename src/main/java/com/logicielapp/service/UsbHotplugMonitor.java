@@ -0,0 +1,382 @@
+package com.logicielapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.usb4java.Context;
+import org.usb4java.DeviceDescriptor;
+import org.usb4java.DeviceHandle;
+import org.usb4java.DeviceList;
+import org.usb4java.HotplugCallback;
+import org.usb4java.HotplugCallbackHandle;
+import org.usb4java.LibUsb;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Surveillance des branchements USB par libusb (Singleton)
+ * Avec le support hotplug, un thread attend les événements du noyau dans libusb :
+ * aucun processus n'est lancé et le processeur reste au repos entre deux branchements.
+ * Sans hotplug (certaines plateformes), la liste USB est comparée périodiquement
+ * (-Dusb.pollSeconds, 2 s par défaut), toujours sans processus externe.
+ *
+ * Les abonnés sont notifiés sur un thread dédié, jamais depuis le rappel libusb.
+ */
+public class UsbHotplugMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsbHotplugMonitor.class);
+    private static UsbHotplugMonitor instance;
+
+    private static final long EVENT_TIMEOUT_MICROS = TimeUnit.MILLISECONDS.toMicros(500);
+    private static final long POLL_SECONDS = Long.getLong("usb.pollSeconds", 2);
+
+    private final Map<String, UsbEvent> attached = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<UsbEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    private Context context;
+    private HotplugCallbackHandle callbackHandle;
+    private Thread eventThread;
+    private ScheduledExecutorService poller;
+    private ExecutorService dispatcher;
+    private volatile boolean running;
+    private boolean hotplugSupported;
+
+    /**
+     * Branchement ou débranchement d'un périphérique USB
+     */
+    public static final class UsbEvent {
+        public enum Type { ATTACHED, DETACHED }
+
+        private final Type type;
+        private final String path;
+        private final int vendorId;
+        private final int productId;
+
+        UsbEvent(Type type, String path, int vendorId, int productId) {
+            this.type = type;
+            this.path = path;
+            this.vendorId = vendorId;
+            this.productId = productId;
+        }
+
+        public Type getType() { return type; }
+
+        /**
+         * Emplacement physique (bus-ports, ex. « 1-2.3 »), stable tant que l'appareil reste branché
+         */
+        public String getPath() { return path; }
+        public int getVendorId() { return vendorId; }
+        public int getProductId() { return productId; }
+
+        UsbEvent withType(Type newType) {
+            return new UsbEvent(newType, path, vendorId, productId);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s (%04X:%04X)", type, path, vendorId, productId);
+        }
+    }
+
+    private UsbHotplugMonitor() {
+        // Constructeur privé pour Singleton
+    }
+
+    /**
+     * Obtient l'instance unique du moniteur
+     */
+    public static synchronized UsbHotplugMonitor getInstance() {
+        if (instance == null) {
+            instance = new UsbHotplugMonitor();
+        }
+        return instance;
+    }
+
+    /**
+     * Démarre la surveillance
+     *
+     * @return false si libusb n'est pas utilisable (bibliothèque native absente ou initialisation refusée)
+     */
+    public synchronized boolean start() {
+        if (running) {
+            return true;
+        }
+        try {
+            context = new Context();
+            int result = LibUsb.init(context);
+            if (result != LibUsb.SUCCESS) {
+                logger.warn("Initialisation libusb impossible: {}", LibUsb.errorName(result));
+                context = null;
+                return false;
+            }
+        } catch (Throwable e) {
+            // UnsatisfiedLinkError ou LibUsbException : pas de bibliothèque native pour cette plateforme
+            logger.warn("libusb indisponible: {}", e.getMessage());
+            context = null;
+            return false;
+        }
+
+        running = true;
+        dispatcher = Executors.newSingleThreadExecutor(r -> daemon(r, "UsbHotplugDispatch"));
+        hotplugSupported = LibUsb.hasCapability(LibUsb.CAP_HAS_HOTPLUG) && registerHotplug();
+        if (hotplugSupported) {
+            eventThread = daemon(this::handleEvents, "UsbHotplugEvents");
+            eventThread.start();
+            logger.info("Détection USB par événements hotplug démarrée");
+        } else {
+            poller = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "UsbHotplugPoller"));
+            poller.scheduleWithFixedDelay(this::poll, 0, POLL_SECONDS, TimeUnit.SECONDS);
+            logger.info("Hotplug USB non supporté, comparaison de la liste USB toutes les {} s", POLL_SECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Arrête la surveillance et libère le contexte libusb
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (callbackHandle != null) {
+            LibUsb.hotplugDeregisterCallback(context, callbackHandle);
+            callbackHandle = null;
+        }
+        if (eventThread != null) {
+            try {
+                // Le thread sort au plus tard après EVENT_TIMEOUT_MICROS
+                eventThread.join(TimeUnit.MICROSECONDS.toMillis(EVENT_TIMEOUT_MICROS) * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            eventThread = null;
+        }
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        dispatcher.shutdownNow();
+        LibUsb.exit(context);
+        context = null;
+        attached.clear();
+        logger.info("Détection USB arrêtée");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isHotplugSupported() {
+        return hotplugSupported;
+    }
+
+    /**
+     * Abonne un observateur ; les périphériques déjà branchés lui sont d'abord annoncés
+     *
+     * @return action de désabonnement
+     */
+    public Runnable subscribe(Consumer<UsbEvent> subscriber) {
+        subscribers.add(subscriber);
+        ExecutorService current = dispatcher;
+        if (current != null && !current.isShutdown()) {
+            List<UsbEvent> present = new ArrayList<>(attached.values());
+            current.execute(() -> present.forEach(event -> notify(subscriber, event)));
+        }
+        return () -> subscribers.remove(subscriber);
+    }
+
+    /**
+     * Périphériques actuellement branchés
+     */
+    public List<UsbEvent> getAttached() {
+        return new ArrayList<>(attached.values());
+    }
+
+    /**
+     * Numéro de série USB du périphérique branché à cet emplacement
+     * Pour un iPhone il correspond à l'UDID (sans tiret), pour un Android au numéro de série adb.
+     * Jamais appelé depuis le rappel hotplug : l'ouverture de l'appareil y est interdite.
+     *
+     * @return numéro de série, ou null (périphérique absent, sans numéro ou droits insuffisants)
+     */
+    public synchronized String readSerialNumber(String path) {
+        if (!running) {
+            return null;
+        }
+        DeviceList list = new DeviceList();
+        if (LibUsb.getDeviceList(context, list) < 0) {
+            return null;
+        }
+        try {
+            for (org.usb4java.Device device : list) {
+                if (!path.equals(pathOf(device))) {
+                    continue;
+                }
+                DeviceDescriptor descriptor = new DeviceDescriptor();
+                if (LibUsb.getDeviceDescriptor(device, descriptor) != LibUsb.SUCCESS
+                        || descriptor.iSerialNumber() == 0) {
+                    return null;
+                }
+                DeviceHandle handle = new DeviceHandle();
+                int result = LibUsb.open(device, handle);
+                if (result != LibUsb.SUCCESS) {
+                    logger.debug("Ouverture de {} impossible: {}", path, LibUsb.errorName(result));
+                    return null;
+                }
+                try {
+                    return LibUsb.getStringDescriptor(handle, descriptor.iSerialNumber());
+                } finally {
+                    LibUsb.close(handle);
+                }
+            }
+        } finally {
+            LibUsb.freeDeviceList(list, true);
+        }
+        return null;
+    }
+
+    private boolean registerHotplug() {
+        HotplugCallbackHandle handle = new HotplugCallbackHandle();
+        HotplugCallback callback = (ctx, device, event, userData) -> {
+            // Rappel exécuté dans handleEvents : seul le descripteur est lu, sans ouvrir l'appareil
+            UsbEvent.Type type = event == LibUsb.HOTPLUG_EVENT_DEVICE_ARRIVED
+                ? UsbEvent.Type.ATTACHED : UsbEvent.Type.DETACHED;
+            onEvent(describe(device, type));
+            return 0;
+        };
+        int result = LibUsb.hotplugRegisterCallback(context,
+            LibUsb.HOTPLUG_EVENT_DEVICE_ARRIVED | LibUsb.HOTPLUG_EVENT_DEVICE_LEFT,
+            LibUsb.HOTPLUG_ENUMERATE,
+            LibUsb.HOTPLUG_MATCH_ANY, LibUsb.HOTPLUG_MATCH_ANY, LibUsb.HOTPLUG_MATCH_ANY,
+            callback, null, handle);
+        if (result != LibUsb.SUCCESS) {
+            logger.warn("Enregistrement hotplug refusé: {}", LibUsb.errorName(result));
+            return false;
+        }
+        callbackHandle = handle;
+        return true;
+    }
+
+    /**
+     * Attente bloquante des événements libusb (aucune activité tant que rien n'est branché)
+     */
+    private void handleEvents() {
+        while (running) {
+            int result = LibUsb.handleEventsTimeout(context, EVENT_TIMEOUT_MICROS);
+            if (result != LibUsb.SUCCESS && result != LibUsb.ERROR_INTERRUPTED) {
+                logger.warn("Erreur de traitement des événements USB: {}", LibUsb.errorName(result));
+                sleepQuietly(1000);
+            }
+        }
+    }
+
+    /**
+     * Repli sans hotplug : différence entre deux listes USB
+     */
+    private void poll() {
+        DeviceList list = new DeviceList();
+        int result = LibUsb.getDeviceList(context, list);
+        if (result < 0) {
+            logger.debug("Liste USB indisponible: {}", LibUsb.errorName(result));
+            return;
+        }
+        Map<String, UsbEvent> present = new HashMap<>();
+        try {
+            for (org.usb4java.Device device : list) {
+                UsbEvent event = describe(device, UsbEvent.Type.ATTACHED);
+                present.put(event.getPath(), event);
+            }
+        } finally {
+            LibUsb.freeDeviceList(list, true);
+        }
+        for (UsbEvent event : present.values()) {
+            if (!attached.containsKey(event.getPath())) {
+                onEvent(event);
+            }
+        }
+        for (UsbEvent event : new ArrayList<>(attached.values())) {
+            if (!present.containsKey(event.getPath())) {
+                onEvent(event.withType(UsbEvent.Type.DETACHED));
+            }
+        }
+    }
+
+    private void onEvent(UsbEvent event) {
+        if (event.getType() == UsbEvent.Type.ATTACHED) {
+            attached.put(event.getPath(), event);
+        } else {
+            UsbEvent known = attached.remove(event.getPath());
+            // Descripteur parfois illisible après débranchement : identifiants du branchement
+            if (known != null) {
+                event = known.withType(UsbEvent.Type.DETACHED);
+            }
+        }
+        logger.debug("Événement USB: {}", event);
+        UsbEvent dispatched = event;
+        ExecutorService current = dispatcher;
+        if (current != null && !current.isShutdown()) {
+            current.execute(() -> subscribers.forEach(subscriber -> notify(subscriber, dispatched)));
+        }
+    }
+
+    private static UsbEvent describe(org.usb4java.Device device, UsbEvent.Type type) {
+        DeviceDescriptor descriptor = new DeviceDescriptor();
+        int vendorId = 0;
+        int productId = 0;
+        if (LibUsb.getDeviceDescriptor(device, descriptor) == LibUsb.SUCCESS) {
+            vendorId = descriptor.idVendor() & 0xFFFF;
+            productId = descriptor.idProduct() & 0xFFFF;
+        }
+        return new UsbEvent(type, pathOf(device), vendorId, productId);
+    }
+
+    static String pathOf(org.usb4java.Device device) {
+        int bus = LibUsb.getBusNumber(device);
+        ByteBuffer ports = ByteBuffer.allocateDirect(7);
+        int count = LibUsb.getPortNumbers(device, ports);
+        if (count <= 0) {
+            return bus + ":" + LibUsb.getDeviceAddress(device);
+        }
+        StringBuilder path = new StringBuilder().append(bus).append('-');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                path.append('.');
+            }
+            path.append(ports.get(i) & 0xFF);
+        }
+        return path.toString();
+    }
+
+    private static void notify(Consumer<UsbEvent> subscriber, UsbEvent event) {
+        try {
+            subscriber.accept(event);
+        } catch (RuntimeException e) {
+            logger.error("Erreur dans un abonné aux événements USB", e);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.logicielapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Configuration de l'application issue de la table configurations (Singleton)
+ * Toutes les lignes sont lues en une requête et publiées dans un instantané immuable :
+ * les lectures ne touchent jamais la base et peuvent se faire depuis le thread JavaFX.
+ *
+ * L'instantané est rechargé après chaque enregistrement, et périodiquement si la table a été
+ * modifiée ailleurs (nombre de lignes ou date_modification, -Dconfig.refreshSeconds, 30 par défaut).
+ * Les abonnés sont notifiés sur le thread de rechargement, uniquement si une valeur a changé.
+ */
+public class ConfigurationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationService.class);
+    private static ConfigurationService instance;
+
+    public static final String KEY_API_TIMEOUT = "api_timeout";
+    public static final String KEY_SKIP_UNKNOWN_TAC = "skip_unknown_tac";
+    public static final String KEY_SESSION_TIMEOUT = "timeout_session";
+    public static final String KEY_SESSION_DURATION = "session_duration";
+
+    private static final long REFRESH_SECONDS = Long.getLong("config.refreshSeconds", 30);
+
+    private static final String SELECT_ALL = "SELECT cle_config, valeur FROM configurations";
+    private static final String SELECT_STAMP = "SELECT COUNT(*), MAX(date_modification) FROM configurations";
+    private static final String UPSERT =
+        "INSERT INTO configurations (cle_config, valeur, description) VALUES (?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE valeur = VALUES(valeur)";
+    private static final String DELETE_ALL = "DELETE FROM configurations";
+
+    private final AtomicLong versions = new AtomicLong();
+    private final CopyOnWriteArrayList<Consumer<Snapshot>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyMap(), null, false);
+    private ScheduledExecutorService scheduler;
+
+    // Accès JDBC demandés par les écrans : thread dédié, jamais le pool commun
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ConfigurationWorker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * État de la table à un instant donné
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<String, String> values;
+        private final String stamp;
+        private final boolean loaded;
+
+        Snapshot(long version, Map<String, String> values, String stamp, boolean loaded) {
+            this.version = version;
+            this.values = values;
+            this.stamp = stamp;
+            this.loaded = loaded;
+        }
+
+        public long getVersion() { return version; }
+
+        /**
+         * Faux tant que la table n'a pas pu être lue (valeurs par défaut uniquement)
+         */
+        public boolean isLoaded() { return loaded; }
+
+        public Map<String, String> asMap() { return values; }
+
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        public String getString(String key, String defaultValue) {
+            String value = values.get(key);
+            return value != null ? value : defaultValue;
+        }
+
+        public boolean getBoolean(String key, boolean defaultValue) {
+            String value = values.get(key);
+            return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+        }
+
+        public int getInt(String key, int defaultValue) {
+            return (int) getLong(key, defaultValue);
+        }
+
+        public long getLong(String key, long defaultValue) {
+            String value = values.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Valeur numérique invalide pour {}: {}", key, value);
+                return defaultValue;
+            }
+        }
+
+        /**
+         * Clés ajoutées, modifiées ou supprimées depuis un instantané précédent
+         */
+        public Set<String> changedKeys(Snapshot previous) {
+            Set<String> changed = new HashSet<>();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                if (!Objects.equals(entry.getValue(), previous.values.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String key : previous.values.keySet()) {
+                if (!values.containsKey(key)) {
+                    changed.add(key);
+                }
+            }
+            return changed;
+        }
+    }
+
+    private ConfigurationService() {
+        // Constructeur privé pour Singleton
+    }
+
+    /**
+     * Obtient l'instance unique du service
+     */
+    public static synchronized ConfigurationService getInstance() {
+        if (instance == null) {
+            instance = new ConfigurationService();
+        }
+        return instance;
+    }
+
+    /**
+     * Instantané courant (sans accès à la base)
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public String getString(String key, String defaultValue) {
+        return snapshot.getString(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return snapshot.getLong(key, defaultValue);
+    }
+
+    /**
+     * Abonne un observateur, appelé immédiatement avec l'instantané courant puis à chaque changement
+     * Les appels ont lieu hors du thread JavaFX : utiliser Platform.runLater pour l'interface.
+     */
+    public Runnable subscribe(Consumer<Snapshot> subscriber) {
+        subscribers.add(subscriber);
+        notify(subscriber, snapshot);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    /**
+     * Recharge la table en une requête ; les abonnés sont notifiés si une valeur a changé
+     * En cas d'erreur l'instantané précédent est conservé.
+     */
+    public synchronized Snapshot reload() {
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            Map<String, String> values = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    values.put(rs.getString(1), rs.getString(2));
+                }
+            }
+            publish(values, readStamp(conn));
+        } catch (SQLException e) {
+            logger.warn("Impossible de charger les configurations: {}", e.getMessage());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rechargement en arrière-plan (écrans ouverts avant le premier chargement)
+     */
+    public CompletableFuture<Snapshot> reloadAsync() {
+        return CompletableFuture.supplyAsync(this::reload, worker);
+    }
+
+    /**
+     * {@link #saveAll} en arrière-plan (écran Paramètres)
+     */
+    public CompletableFuture<Boolean> saveAllAsync(Map<String, String> values, Map<String, String> descriptions) {
+        return CompletableFuture.supplyAsync(() -> saveAll(values, descriptions), worker);
+    }
+
+    /**
+     * {@link #resetAll} en arrière-plan (écran Paramètres)
+     */
+    public CompletableFuture<Boolean> resetAllAsync() {
+        return CompletableFuture.supplyAsync(this::resetAll, worker);
+    }
+
+    /**
+     * Enregistre plusieurs paramètres dans une seule transaction puis recharge l'instantané
+     *
+     * @param values       clé → valeur
+     * @param descriptions clé → description (colonne description à la création), peut être vide
+     */
+    public synchronized boolean saveAll(Map<String, String> values, Map<String, String> descriptions) {
+        if (values.isEmpty()) {
+            return true;
+        }
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT)) {
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    stmt.setString(1, entry.getKey());
+                    stmt.setString(2, entry.getValue() != null ? entry.getValue() : "");
+                    stmt.setString(3, descriptions.getOrDefault(entry.getKey(), "Configuration système"));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error("Erreur lors de l'enregistrement des configurations", e);
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * Supprime toutes les configurations (retour aux valeurs par défaut) puis recharge l'instantané
+     */
+    public synchronized boolean resetAll() {
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_ALL)) {
+            int rows = stmt.executeUpdate();
+            logger.info("Configurations supprimées: {}", rows);
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la réinitialisation des configurations", e);
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * Démarre la détection des modifications faites par un autre poste
+     */
+    public synchronized void startWatching() {
+        if (scheduler != null || REFRESH_SECONDS <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ConfigurationWatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkForChanges, REFRESH_SECONDS, REFRESH_SECONDS, TimeUnit.SECONDS);
+        logger.debug("Surveillance des configurations démarrée ({} s)", REFRESH_SECONDS);
+    }
+
+    public synchronized void stopWatching() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Requête légère (nombre de lignes, dernière modification) ; rechargement complet si elle diffère
+     */
+    private void checkForChanges() {
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            if (!Objects.equals(readStamp(conn), snapshot.stamp)) {
+                reload();
+            }
+        } catch (Exception e) {
+            logger.debug("Vérification des configurations impossible: {}", e.getMessage());
+        }
+    }
+
+    private static String readStamp(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_STAMP);
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            Timestamp modified = rs.getTimestamp(2);
+            return rs.getLong(1) + "@" + (modified != null ? modified.getTime() : 0);
+        }
+    }
+
+    private void publish(Map<String, String> values, String stamp) {
+        Snapshot previous = snapshot;
+        Snapshot current = new Snapshot(versions.incrementAndGet(),
+                                        Collections.unmodifiableMap(values), stamp, true);
+        snapshot = current;
+
+        Set<String> changed = current.changedKeys(previous);
+        if (previous.loaded && changed.isEmpty()) {
+            return;
+        }
+        logger.info("Configurations chargées: {} paramètre(s), {} modifié(s)", values.size(), changed.size());
+        for (Consumer<Snapshot> subscriber : subscribers) {
+            notify(subscriber, current);
+        }
+    }
+
+    private static void notify(Consumer<Snapshot> subscriber, Snapshot current) {
+        try {
+            subscriber.accept(current);
+        } catch (RuntimeException e) {
+            logger.error("Erreur dans un abonné aux configurations", e);
+        }
+    }
+}
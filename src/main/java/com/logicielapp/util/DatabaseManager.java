@@ -1,7 +1,9 @@
 package com.logicielapp.util;
 
+import com.logicielapp.metrics.DatabaseMetrics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +70,14 @@ public class DatabaseManager {
             config.addDataSourceProperty("cacheServerConfiguration", "true");
             config.addDataSourceProperty("elideSetAutoCommits", "true");
             config.addDataSourceProperty("maintainTimeStats", "false");
+            // Curseur serveur pour les requêtes qui fixent un fetchSize (exports volumineux)
+            config.addDataSourceProperty("useCursorFetch", "true");
+            
+            // Attente et usage du pool exportés dans les métriques
+            MetricsTrackerFactory poolTracker = DatabaseMetrics.poolTracker();
+            if (poolTracker != null) {
+                config.setMetricsTrackerFactory(poolTracker);
+            }
             
             dataSource = new HikariDataSource(config);
             
@@ -104,13 +114,13 @@ public class DatabaseManager {
     }
     
     /**
-     * Obtient une connexion depuis le pool
+     * Obtient une connexion depuis le pool (requêtes mesurées si les métriques sont actives)
      */
     public Connection getConnection() throws SQLException {
         if (dataSource == null) {
             throw new SQLException("La base de données n'est pas initialisée");
         }
-        return dataSource.getConnection();
+        return DatabaseMetrics.wrap(dataSource.getConnection());
     }
     
     /**
@@ -0,0 +1,246 @@
+package com.logicielapp.util;
+
+import com.logicielapp.metrics.Counter;
+import com.logicielapp.metrics.Histogram;
+import com.logicielapp.metrics.Metrics;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chien de garde du thread JavaFX
+ * Un battement est posté périodiquement avec Platform.runLater : le délai avant son exécution
+ * est le temps pendant lequel l'interface n'a pas pu traiter d'événement.
+ * Un seul battement est en attente à la fois, pour ne pas encombrer la file d'événements.
+ *
+ * Tant qu'un battement tarde, la pile du thread JavaFX est échantillonnée ; si le retard dépasse
+ * le seuil (-Dfx.stall.thresholdMs, 250 ms par défaut), le blocage est conservé dans un tampon
+ * circulaire et attribué au gestionnaire de l'application le plus présent dans les échantillons.
+ * Le rapport agrégé par gestionnaire est journalisé à l'arrêt (-Dfx.watchdog=false pour désactiver).
+ */
+public final class FxThreadMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxThreadMonitor.class);
+
+    private static final long HEARTBEAT_INTERVAL_MS = 100;
+    private static final long STALL_THRESHOLD_MS = Long.getLong("fx.stall.thresholdMs", 250);
+    private static final int MAX_RECENT_STALLS = 64;
+    private static final int MAX_SAMPLES_PER_STALL = 50;
+    private static final String APPLICATION_PACKAGE = "com.logicielapp.";
+
+    private static final Histogram HEARTBEAT_DELAY = Metrics.histogram("fx_heartbeat_delay_seconds",
+        "Délai d'exécution d'un battement sur le thread JavaFX");
+    private static final Counter STALLS = Metrics.counter("fx_stalls_total",
+        "Blocages du thread JavaFX au-delà du seuil");
+
+    private static FxThreadMonitor instance;
+
+    // Instant de publication du battement en attente (0 si aucun)
+    private final AtomicLong pendingSince = new AtomicLong();
+    private volatile Thread fxThread;
+    private ScheduledExecutorService scheduler;
+
+    // Échantillons du retard en cours (thread du chien de garde), protégés par this
+    private final List<StackTraceElement[]> currentSamples = new ArrayList<>();
+    private final ArrayDeque<Stall> recentStalls = new ArrayDeque<>();
+    private final Map<String, HandlerStats> handlerStats = new HashMap<>();
+
+    /**
+     * Blocage détecté : durée, gestionnaire attribué et pile représentative
+     */
+    public static final class Stall {
+        private final Instant startedAt;
+        private final long durationMs;
+        private final String handler;
+        private final StackTraceElement[] stack;
+
+        Stall(Instant startedAt, long durationMs, String handler, StackTraceElement[] stack) {
+            this.startedAt = startedAt;
+            this.durationMs = durationMs;
+            this.handler = handler;
+            this.stack = stack;
+        }
+
+        public Instant getStartedAt() { return startedAt; }
+        public long getDurationMs() { return durationMs; }
+        public String getHandler() { return handler; }
+        public StackTraceElement[] getStack() { return stack.clone(); }
+    }
+
+    private static final class HandlerStats {
+        int stalls;
+        long totalMs;
+        long maxMs;
+    }
+
+    private FxThreadMonitor() {
+        Metrics.gauge("fx_pending_heartbeat_seconds", "Âge du battement JavaFX en attente", () -> {
+            long since = pendingSince.get();
+            return since == 0 ? 0 : (System.nanoTime() - since) / 1e9;
+        });
+    }
+
+    public static synchronized FxThreadMonitor getInstance() {
+        if (instance == null) {
+            instance = new FxThreadMonitor();
+        }
+        return instance;
+    }
+
+    /**
+     * Démarre les battements
+     */
+    public synchronized void start() {
+        if (scheduler != null || "false".equalsIgnoreCase(System.getProperty("fx.watchdog"))) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "FxThreadMonitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        logger.debug("Surveillance du thread JavaFX démarrée (seuil {} ms)", STALL_THRESHOLD_MS);
+    }
+
+    /**
+     * Arrête les battements et journalise le rapport s'il y a eu des blocages
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            if (!handlerStats.isEmpty()) {
+                logger.info(getReport());
+            }
+        }
+    }
+
+    /**
+     * Derniers blocages, du plus ancien au plus récent
+     */
+    public synchronized List<Stall> getRecentStalls() {
+        return new ArrayList<>(recentStalls);
+    }
+
+    /**
+     * Rapport des blocages agrégés par gestionnaire, par durée cumulée décroissante
+     */
+    public synchronized String getReport() {
+        StringBuilder report = new StringBuilder();
+        int total = handlerStats.values().stream().mapToInt(s -> s.stalls).sum();
+        report.append(String.format("Blocages du thread JavaFX (seuil %d ms) : %d%n", STALL_THRESHOLD_MS, total));
+        if (total == 0) {
+            return report.toString();
+        }
+        report.append(String.format("%8s %10s %8s  %s%n", "Blocages", "Total ms", "Max ms", "Gestionnaire"));
+        handlerStats.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, HandlerStats> e) -> e.getValue().totalMs).reversed())
+            .forEach(e -> report.append(String.format("%8d %10d %8d  %s%n",
+                e.getValue().stalls, e.getValue().totalMs, e.getValue().maxMs, e.getKey())));
+        return report.toString();
+    }
+
+    private void tick() {
+        long since = pendingSince.get();
+        if (since == 0) {
+            postHeartbeat();
+        } else if (fxThread != null) {
+            // Battement en retard d'au moins un intervalle : la pile montre ce qui occupe le thread
+            sample(fxThread.getStackTrace());
+        }
+    }
+
+    private void postHeartbeat() {
+        if (!pendingSince.compareAndSet(0, System.nanoTime())) {
+            return;
+        }
+        try {
+            Platform.runLater(this::heartbeat);
+        } catch (IllegalStateException e) {
+            // Toolkit JavaFX arrêté
+            pendingSince.set(0);
+            stop();
+        }
+    }
+
+    private void heartbeat() {
+        fxThread = Thread.currentThread();
+        // Remis à zéro d'abord : les échantillons pris ensuite n'appartiennent plus à ce retard
+        long delay = System.nanoTime() - pendingSince.getAndSet(0);
+        HEARTBEAT_DELAY.record(delay);
+        long delayMs = TimeUnit.NANOSECONDS.toMillis(delay);
+        if (delayMs >= STALL_THRESHOLD_MS) {
+            STALLS.inc();
+            recordStall(delayMs);
+        } else {
+            clearSamples();
+        }
+    }
+
+    private synchronized void sample(StackTraceElement[] stack) {
+        if (pendingSince.get() != 0 && currentSamples.size() < MAX_SAMPLES_PER_STALL && stack.length > 0) {
+            currentSamples.add(stack);
+        }
+    }
+
+    private synchronized void clearSamples() {
+        currentSamples.clear();
+    }
+
+    private synchronized void recordStall(long durationMs) {
+        // Gestionnaire le plus souvent en cours d'exécution pendant le blocage
+        Map<String, Integer> votes = new HashMap<>();
+        StackTraceElement[] representative = new StackTraceElement[0];
+        String handler = "(pile non capturée)";
+        int best = 0;
+        for (StackTraceElement[] stack : currentSamples) {
+            String candidate = handlerOf(stack);
+            int count = votes.merge(candidate, 1, Integer::sum);
+            if (count > best) {
+                best = count;
+                handler = candidate;
+                representative = stack;
+            }
+        }
+        currentSamples.clear();
+
+        if (recentStalls.size() == MAX_RECENT_STALLS) {
+            recentStalls.removeFirst();
+        }
+        recentStalls.addLast(new Stall(Instant.now().minusMillis(durationMs), durationMs, handler, representative));
+
+        HandlerStats stats = handlerStats.computeIfAbsent(handler, k -> new HandlerStats());
+        stats.stalls++;
+        stats.totalMs += durationMs;
+        stats.maxMs = Math.max(stats.maxMs, durationMs);
+
+        logger.warn("Thread JavaFX bloqué {} ms dans {}{}", durationMs, handler,
+                    representative.length > 0 ? " (sommet de pile: " + representative[0] + ")" : "");
+    }
+
+    /**
+     * Premier cadre de l'application en partant du sommet de la pile, sinon le sommet lui-même
+     */
+    private static String handlerOf(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                    && !frame.getClassName().equals(FxThreadMonitor.class.getName())) {
+                return frame.getClassName() + "." + frame.getMethodName();
+            }
+        }
+        return stack[0].getClassName() + "." + stack[0].getMethodName();
+    }
+}
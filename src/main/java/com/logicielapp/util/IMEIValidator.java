@@ -1,5 +1,8 @@
 package com.logicielapp.util;
 
+import com.logicielapp.metrics.Counter;
+import com.logicielapp.metrics.Histogram;
+import com.logicielapp.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +21,10 @@ public class IMEIValidator {
     // Pattern pour IMEI (15 chiffres uniquement)
     private static final Pattern IMEI_PATTERN = Pattern.compile("^\\d{15}$");
     
+    private static final Histogram VALIDATION_LATENCY = Metrics.histogram("imei_validation_seconds", "Durée des validations IMEI");
+    private static final Counter VALID_IMEIS = Metrics.counter("imei_validations_total", "Validations IMEI", "result", "valid");
+    private static final Counter INVALID_IMEIS = Metrics.counter("imei_validations_total", "Validations IMEI", "result", "invalid");
+    
     // TACs (Type Allocation Code) valides pour les principales marques
     private static final Set<String> VALID_TACS = new HashSet<>();
     
@@ -191,6 +198,14 @@ public class IMEIValidator {
      * @return résultat de validation avec détails
      */
     public static ValidationResult validateIMEI(String imei) {
+        long start = Metrics.startTimer();
+        ValidationResult result = validate(imei);
+        VALIDATION_LATENCY.recordSince(start);
+        (result.isValid() ? VALID_IMEIS : INVALID_IMEIS).inc();
+        return result;
+    }
+    
+    private static ValidationResult validate(String imei) {
         if (imei == null || imei.trim().isEmpty()) {
             return new ValidationResult(false, "IMEI vide ou null", null, null);
         }
@@ -250,33 +265,18 @@ public class IMEIValidator {
      * @return true si valide
      */
     private static boolean validateLuhnChecksum(String imei) {
-        try {
-            int sum = 0;
-            boolean alternate = false;
-            
-            // Parcourir de droite à gauche (sans le dernier chiffre qui est le checksum)
-            for (int i = imei.length() - 2; i >= 0; i--) {
-                int digit = Character.getNumericValue(imei.charAt(i));
-                
-                if (alternate) {
-                    digit *= 2;
-                    if (digit > 9) {
-                        digit = digit - 9;
-                    }
-                }
-                
-                sum += digit;
-                alternate = !alternate;
-            }
-            
-            // Le chiffre de contrôle doit faire que la somme soit divisible par 10
-            int checkDigit = Character.getNumericValue(imei.charAt(imei.length() - 1));
-            return (sum + checkDigit) % 10 == 0;
-            
-        } catch (Exception e) {
-            logger.error("Erreur lors de la validation Luhn pour IMEI: {}", imei, e);
-            return false;
-        }
+        int checkDigit = Character.getNumericValue(imei.charAt(imei.length() - 1));
+        return calculateLuhnChecksum(imei.substring(0, imei.length() - 1)) == checkDigit;
+    }
+    
+    /**
+     * Vérifie qu'un IMEI compte 15 chiffres et que son chiffre de contrôle Luhn est correct,
+     * sans contrôle du TAC ni de la liste noire
+     * @param imei IMEI à vérifier
+     * @return true si le format et la somme de contrôle sont valides
+     */
+    public static boolean hasValidChecksum(String imei) {
+        return imei != null && IMEI_PATTERN.matcher(imei).matches() && validateLuhnChecksum(imei);
     }
     
     /**
@@ -530,9 +530,10 @@ public class IMEIValidator {
      * @param imeiWithoutChecksum IMEI sans le dernier chiffre
      * @return chiffre de contrôle
      */
-    private static int calculateLuhnChecksum(String imeiWithoutChecksum) {
+    public static int calculateLuhnChecksum(String imeiWithoutChecksum) {
         int sum = 0;
-        boolean alternate = false;
+        // Le chiffre voisin du chiffre de contrôle est le premier doublé
+        boolean alternate = true;
         
         for (int i = imeiWithoutChecksum.length() - 1; i >= 0; i--) {
             int digit = Character.getNumericValue(imeiWithoutChecksum.charAt(i));
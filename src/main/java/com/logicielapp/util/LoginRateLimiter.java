@@ -0,0 +1,191 @@
+package com.logicielapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limiteur de tentatives de connexion en mémoire (fenêtre glissante)
+ * Protège la base de données et le hachage contre les attaques par force brute,
+ * par compte, avec back-off exponentiel
+ *
+ * Deux clés par compte (voir {@link #accountKey(Integer, String)}) : l'identifiant saisi
+ * (normalisé), vérifiable avant tout accès à la base, et l'identifiant résolu de l'utilisateur,
+ * partagé par son email et son nom.
+ */
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+    private static LoginRateLimiter instance;
+
+    // Nombre de verrous (doit être une puissance de 2)
+    private static final int STRIPES = 16;
+
+    // Nombre maximum d'entrées par verrou (éviction LRU au-delà)
+    private static final int MAX_ENTRIES_PER_STRIPE = 512;
+
+    // Seuils par défaut
+    private static final int MAX_ACCOUNT_ATTEMPTS = 5;
+    private static final long WINDOW_MS = TimeUnit.MINUTES.toMillis(15);
+    private static final long BASE_BACKOFF_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(15);
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Fenêtres d'une partie des clés et leur verrou
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, AttemptWindow> windows = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AttemptWindow> eldest) {
+                return size() > MAX_ENTRIES_PER_STRIPE;
+            }
+        };
+    }
+
+    private LoginRateLimiter() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Obtient l'instance unique du limiteur
+     */
+    public static synchronized LoginRateLimiter getInstance() {
+        if (instance == null) {
+            instance = new LoginRateLimiter();
+        }
+        return instance;
+    }
+
+    /**
+     * Clé de compte : l'identifiant de l'utilisateur s'il existe, sinon l'identifiant saisi
+     * (normalisé) pour limiter aussi les essais sur des comptes inexistants
+     */
+    public static String accountKey(Integer userId, String enteredIdentifier) {
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        return "login:" + (enteredIdentifier == null ? "" : enteredIdentifier.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Retourne le temps d'attente restant (en ms) avant qu'une nouvelle tentative
+     * soit autorisée pour ce compte, ou 0 si elle est autorisée
+     *
+     * @param account clé de compte ({@link #accountKey})
+     */
+    public long getRemainingBlockMillis(String account) {
+        return remainingFor(account, System.currentTimeMillis());
+    }
+
+    /**
+     * Enregistre une tentative échouée pour le compte
+     */
+    public void recordFailure(String account) {
+        recordFailure(account, MAX_ACCOUNT_ATTEMPTS, System.currentTimeMillis());
+    }
+
+    /**
+     * Réinitialise le compteur du compte après une connexion réussie
+     */
+    public void recordSuccess(String account) {
+        Stripe stripe = stripeFor(account);
+        stripe.lock.lock();
+        try {
+            stripe.windows.remove(account);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Vide toutes les fenêtres (déblocage manuel par l'administrateur, écran Paramètres)
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.windows.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        logger.info("Blocages des tentatives de connexion levés");
+    }
+
+    private long remainingFor(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            AttemptWindow window = stripe.windows.get(key);
+            return window == null ? 0 : Math.max(0, window.blockedUntil - now);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void recordFailure(String key, int maxAttempts, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            AttemptWindow window = stripe.windows.computeIfAbsent(key, k -> new AttemptWindow(maxAttempts));
+            if (window.lockouts > 0 && now - window.blockedUntil > WINDOW_MS) {
+                // Aucun blocage récent : on repart du palier initial
+                window.lockouts = 0;
+            }
+            window.add(now);
+
+            if (window.countSince(now - WINDOW_MS) >= maxAttempts) {
+                long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(window.lockouts, 10));
+                window.blockedUntil = now + backoff;
+                window.lockouts++;
+                logger.warn("Tentatives de connexion bloquées pour {} pendant {} s", key, backoff / 1000);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Fenêtre glissante des dernières tentatives échouées (tampon circulaire)
+     */
+    private static final class AttemptWindow {
+        private final long[] timestamps;
+        private int next;
+        private long blockedUntil;
+        private int lockouts;
+
+        AttemptWindow(int capacity) {
+            this.timestamps = new long[capacity];
+        }
+
+        void add(long timestamp) {
+            timestamps[next] = timestamp;
+            next = (next + 1) % timestamps.length;
+        }
+
+        int countSince(long since) {
+            int count = 0;
+            for (long t : timestamps) {
+                if (t != 0 && t > since) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
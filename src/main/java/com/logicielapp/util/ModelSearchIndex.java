@@ -0,0 +1,474 @@
+package com.logicielapp.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche par nom de modèle (fabricant, modèle, nom commercial)
+ * Index immuable : trigrammes pour la recherche par sous-chaîne, trie aplati (tableau trié
+ * de mots) pour la saisie semi-automatique par préfixe. Les résultats sont classés et limités
+ * aux k meilleurs.
+ *
+ * Une mise à jour ({@link #withReplaced}) ne reconstruit pas l'index : les entrées dont la clé
+ * est remplacée sont masquées dans l'index d'origine et les nouvelles sont indexées dans un
+ * second segment, fusionné à la recherche.
+ */
+public final class ModelSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final ModelSearchIndex EMPTY = new ModelSearchIndex(new Segment(Collections.emptyList()), null, null);
+
+    private final Segment base;
+    // Entrées remplacées depuis la construction de base (null : aucune)
+    private final Segment overlay;
+    private final Predicate<String> replacedKeys;
+
+    /**
+     * Entrée indexée (un nom d'appareil distinct et un TAC représentatif)
+     */
+    public static final class Entry {
+        private final String tac;
+        private final String manufacturer;
+        private final String model;
+        private final String marketingName;
+
+        public Entry(String tac, String manufacturer, String model, String marketingName) {
+            this.tac = tac;
+            this.manufacturer = manufacturer != null ? manufacturer : "";
+            this.model = model != null ? model : "";
+            this.marketingName = marketingName != null ? marketingName : "";
+        }
+
+        public String getTac() { return tac; }
+        public String getManufacturer() { return manufacturer; }
+        public String getModel() { return model; }
+        public String getMarketingName() { return marketingName; }
+
+        /**
+         * Libellé affiché dans les suggestions
+         */
+        public String getLabel() {
+            String label = manufacturer + " " + model;
+            if (!marketingName.isEmpty() && !marketingName.equalsIgnoreCase(model)) {
+                label += " (" + marketingName + ")";
+            }
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return getLabel();
+        }
+    }
+
+    private ModelSearchIndex(Segment base, Segment overlay, Predicate<String> replacedKeys) {
+        this.base = base;
+        this.overlay = overlay;
+        this.replacedKeys = replacedKeys;
+    }
+
+    /**
+     * Construit un index à partir des entrées fournies
+     * Pour un nom partagé par plusieurs entrées, la première rencontrée est le représentant.
+     */
+    public static ModelSearchIndex build(Collection<Entry> source) {
+        return source.isEmpty() ? EMPTY : new ModelSearchIndex(new Segment(source), null, null);
+    }
+
+    /**
+     * Index vide
+     */
+    public static ModelSearchIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Index dont les entrées de clé remplacée sont retirées et remplacées par replacements
+     * L'index d'origine n'est pas reconstruit. replacedKeys et replacements portent sur toutes
+     * les clés remplacées depuis sa construction (ils remplacent ceux d'une mise à jour
+     * précédente) ; replacements dans l'ordre de construction.
+     */
+    public ModelSearchIndex withReplaced(Predicate<String> replacedKeys, Collection<Entry> replacements) {
+        return new ModelSearchIndex(base, new Segment(replacements), replacedKeys);
+    }
+
+    /**
+     * Nombre de noms d'appareils distincts indexés
+     */
+    public int size() {
+        if (overlay == null) {
+            return base.entries.length;
+        }
+        Set<String> names = new HashSet<>(Arrays.asList(overlay.texts));
+        for (int doc = 0; doc < base.entries.length; doc++) {
+            if (representative(doc) != null) {
+                names.add(base.texts[doc]);
+            }
+        }
+        return names.size();
+    }
+
+    /**
+     * Recherche les k meilleurs résultats
+     * Chaque mot de la requête doit apparaître dans le nom (préfixe de mot
+     * pour les mots de moins de 3 caractères, sous-chaîne sinon)
+     */
+    public List<Entry> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String[] queryTokens = normalizedQuery.split(" ");
+
+        // Tas borné : la tête est le moins bon des k résultats retenus
+        Comparator<Scored> ranking = Comparator.comparingInt(Scored::score)
+            .thenComparing(Comparator.comparingInt((Scored s) -> s.text().length()).reversed())
+            .thenComparing(Comparator.comparing(Scored::text).reversed());
+        PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, ranking);
+
+        if (overlay == null) {
+            BitSet candidates = base.candidates(queryTokens);
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                offer(top, limit, new Scored(base.entries[doc][0], base.texts[doc],
+                                             base.score(doc, normalizedQuery, queryTokens)));
+            }
+        } else {
+            // Un même nom peut figurer dans les deux segments : le plus petit représentant l'emporte
+            Map<String, Scored> merged = new HashMap<>();
+            BitSet candidates = base.candidates(queryTokens);
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                Entry representative = representative(doc);
+                if (representative != null) {
+                    merged.put(base.texts[doc], new Scored(representative, base.texts[doc],
+                                                           base.score(doc, normalizedQuery, queryTokens)));
+                }
+            }
+            candidates = overlay.candidates(queryTokens);
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                Scored scored = new Scored(overlay.entries[doc][0], overlay.texts[doc],
+                                           overlay.score(doc, normalizedQuery, queryTokens));
+                merged.merge(scored.text(), scored,
+                    (a, b) -> a.entry().getTac().compareTo(b.entry().getTac()) <= 0 ? a : b);
+            }
+            for (Scored scored : merged.values()) {
+                offer(top, limit, scored);
+            }
+        }
+
+        Entry[] ranked = new Entry[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = top.poll().entry();
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private static void offer(PriorityQueue<Scored> top, int limit, Scored scored) {
+        top.offer(scored);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    /**
+     * Première entrée d'un nom de l'index d'origine dont la clé n'est pas remplacée
+     */
+    private Entry representative(int doc) {
+        for (Entry entry : base.entries[doc]) {
+            if (!replacedKeys.test(entry.getTac())) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalisation : minuscules, sans accents, lettres et chiffres séparés par un espace,
+     * « + » lu comme « plus »
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Décomposition des accents uniquement si nécessaire (la plupart des noms sont en ASCII)
+        String decomposed = isAscii(value)
+            ? value
+            : DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                out.append(c);
+                pendingSpace = false;
+            } else if (c == '+') {
+                // « S24+ » et « S24 Plus » désignent le même modèle, distinct du « S24 »
+                out.append(out.length() > 0 ? " plus" : "plus");
+                pendingSpace = true;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Segment d'index immuable construit en une fois
+     */
+    private static final class Segment {
+        // Entrées de chaque nom distinct, dans l'ordre de construction (la première représente le nom)
+        private final Entry[][] entries;
+        private final String[] texts;
+        private final String[][] textTokens;
+        private final int[] trigramKeys;
+        private final int[][] trigramPostings;
+        private final String[] tokens;
+        private final int[][] tokenPostings;
+
+        Segment(Collection<Entry> source) {
+            // Dédoublonnage : plusieurs TAC partagent souvent le même nom d'appareil
+            Map<String, List<Entry>> distinct = new LinkedHashMap<>();
+            for (Entry entry : source) {
+                String text = normalize(entry.getManufacturer() + " " + entry.getModel() + " " + entry.getMarketingName());
+                if (!text.isEmpty()) {
+                    distinct.computeIfAbsent(dedupeTokens(text), k -> new ArrayList<>(1)).add(entry);
+                }
+            }
+
+            int size = distinct.size();
+            entries = new Entry[size][];
+            texts = new String[size];
+            textTokens = new String[size][];
+
+            // (trigramme << 32 | document), trié une seule fois : pas de boxing pendant la construction
+            long[] pairs = new long[64];
+            int pairCount = 0;
+            TreeMap<String, IntList> tokenBuilder = new TreeMap<>();
+
+            int doc = 0;
+            for (Map.Entry<String, List<Entry>> item : distinct.entrySet()) {
+                String text = item.getKey();
+                entries[doc] = item.getValue().toArray(new Entry[0]);
+                texts[doc] = text;
+                textTokens[doc] = text.split(" ");
+
+                for (int i = 0; i + 3 <= text.length(); i++) {
+                    if (pairCount == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairCount * 2);
+                    }
+                    pairs[pairCount++] = ((long) trigram(text, i) << 32) | doc;
+                }
+                for (String token : textTokens[doc]) {
+                    tokenBuilder.computeIfAbsent(token, k -> new IntList()).addDistinct(doc);
+                }
+                doc++;
+            }
+
+            Arrays.sort(pairs, 0, pairCount);
+            IntList keys = new IntList();
+            List<int[]> postings = new ArrayList<>();
+            IntList docs = new IntList();
+            for (int i = 0; i < pairCount; i++) {
+                int key = (int) (pairs[i] >>> 32);
+                if (keys.size() == 0 || keys.last() != key) {
+                    if (keys.size() > 0) {
+                        postings.add(docs.toArray());
+                        docs = new IntList();
+                    }
+                    keys.addDistinct(key);
+                }
+                docs.addDistinct((int) pairs[i]);
+            }
+            if (keys.size() > 0) {
+                postings.add(docs.toArray());
+            }
+            trigramKeys = keys.toArray();
+            trigramPostings = postings.toArray(new int[0][]);
+
+            tokens = tokenBuilder.keySet().toArray(new String[0]);
+            tokenPostings = new int[tokens.length][];
+            int t = 0;
+            for (IntList tokenDocs : tokenBuilder.values()) {
+                tokenPostings[t++] = tokenDocs.toArray();
+            }
+        }
+
+        /**
+         * Documents contenant tous les mots de la requête
+         */
+        BitSet candidates(String[] queryTokens) {
+            BitSet candidates = null;
+            for (String queryToken : queryTokens) {
+                BitSet matches = queryToken.length() >= 3 ? substringMatches(queryToken) : prefixMatches(queryToken);
+                if (candidates == null) {
+                    candidates = matches;
+                } else {
+                    candidates.and(matches);
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+            return candidates != null ? candidates : new BitSet();
+        }
+
+        private int score(int doc, String query, String[] queryTokens) {
+            String text = texts[doc];
+            int score = 0;
+            if (text.equals(query)) {
+                score += 1000;
+            } else if (text.startsWith(query)) {
+                score += 200;
+            } else if (text.contains(query)) {
+                score += 100;
+            }
+            for (String queryToken : queryTokens) {
+                int best = 0;
+                for (String token : textTokens[doc]) {
+                    if (token.equals(queryToken)) {
+                        best = 30;
+                        break;
+                    } else if (token.startsWith(queryToken)) {
+                        best = Math.max(best, 20);
+                    } else if (best == 0 && token.contains(queryToken)) {
+                        best = 5;
+                    }
+                }
+                score += best;
+            }
+            return score;
+        }
+
+        private BitSet substringMatches(String queryToken) {
+            // Intersection des listes de trigrammes, de la plus courte à la plus longue
+            int count = queryToken.length() - 2;
+            int[][] postings = new int[count][];
+            for (int i = 0; i < count; i++) {
+                int key = Arrays.binarySearch(trigramKeys, trigram(queryToken, i));
+                if (key < 0) {
+                    return new BitSet();
+                }
+                postings[i] = trigramPostings[key];
+            }
+            Arrays.sort(postings, Comparator.comparingInt(p -> p.length));
+
+            int[] current = postings[0];
+            for (int i = 1; i < postings.length && current.length > 0; i++) {
+                current = intersect(current, postings[i]);
+            }
+
+            // Vérification : les trigrammes peuvent être présents sans être contigus
+            BitSet matches = new BitSet(entries.length);
+            for (int doc : current) {
+                if (texts[doc].contains(queryToken)) {
+                    matches.set(doc);
+                }
+            }
+            return matches;
+        }
+
+        private BitSet prefixMatches(String prefix) {
+            BitSet matches = new BitSet(entries.length);
+            int index = Arrays.binarySearch(tokens, prefix);
+            for (int i = index >= 0 ? index : -index - 1; i < tokens.length && tokens[i].startsWith(prefix); i++) {
+                for (int doc : tokenPostings[i]) {
+                    matches.set(doc);
+                }
+            }
+            return matches;
+        }
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int trigram(String text, int offset) {
+        return (text.charAt(offset) << 16) | (text.charAt(offset + 1) << 8) | text.charAt(offset + 2);
+    }
+
+    private static String dedupeTokens(String text) {
+        // "samsung galaxy s23 galaxy s23" -> "samsung galaxy s23"
+        List<String> kept = new ArrayList<>();
+        for (String token : text.split(" ")) {
+            if (!kept.contains(token)) {
+                kept.add(token);
+            }
+        }
+        return String.join(" ", kept);
+    }
+
+    private record Scored(Entry entry, String text, int score) {
+    }
+
+    /**
+     * Liste d'entiers croissants sans boxing (construction des listes de documents)
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addDistinct(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int last() {
+            return values[size - 1];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.logicielapp.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Détection d'opérateur par préfixe IMEI
+ * Les règles sont compilées en un automate de préfixes sur les chiffres :
+ * la détection parcourt l'IMEI une seule fois, sans expression régulière.
+ * Priorité explicite : priorité la plus haute, puis préfixe le plus long, puis ordre de déclaration.
+ *
+ * Format du fichier de règles (CSV) :
+ *   prefixes,operator,priority
+ *   353|354|355,Orange France,100
+ */
+public final class OperatorMatcher {
+
+    private static final int NO_RULE = -1;
+
+    // Nœud n, chiffre d -> enfant à l'indice n * 10 + d (0 = absent, la racine n'est jamais enfant)
+    private final int[] children;
+    private final int[] ruleAt;
+    private final String[] operators;
+    private final int[] priorities;
+
+    private OperatorMatcher(int[] children, int[] ruleAt, String[] operators, int[] priorities) {
+        this.children = children;
+        this.ruleAt = ruleAt;
+        this.operators = operators;
+        this.priorities = priorities;
+    }
+
+    /**
+     * Retourne l'opérateur correspondant, ou null si aucune règle ne s'applique
+     */
+    public String match(CharSequence imei) {
+        if (imei == null) {
+            return null;
+        }
+        int node = 0;
+        int best = NO_RULE;
+        for (int i = 0; i < imei.length(); i++) {
+            int digit = imei.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            node = children[node * 10 + digit];
+            if (node == 0) {
+                break;
+            }
+            int rule = ruleAt[node];
+            // À priorité égale, le préfixe plus long (rencontré plus tard) l'emporte
+            if (rule != NO_RULE && (best == NO_RULE || priorities[rule] >= priorities[best])) {
+                best = rule;
+            }
+        }
+        return best != NO_RULE ? operators[best] : null;
+    }
+
+    /**
+     * Nombre de préfixes compilés
+     */
+    public int size() {
+        int count = 0;
+        for (int rule : ruleAt) {
+            if (rule != NO_RULE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lit un fichier de règles (lignes vides et commentaires « # » ignorés)
+     */
+    public static OperatorMatcher parse(Reader source) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("prefixes,")) {
+                continue;
+            }
+            String[] parts = trimmed.split(",", -1);
+            if (parts.length < 2 || parts[1].trim().isEmpty()) {
+                throw new IOException("Règle d'opérateur invalide ligne " + lineNumber + ": " + line);
+            }
+            int priority;
+            try {
+                priority = parts.length > 2 && !parts[2].trim().isEmpty() ? Integer.parseInt(parts[2].trim()) : 0;
+            } catch (NumberFormatException e) {
+                throw new IOException("Priorité invalide ligne " + lineNumber + ": " + parts[2]);
+            }
+            for (String prefix : parts[0].split("\\|")) {
+                builder.add(prefix.trim(), parts[1].trim(), priority);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Construction de l'automate
+     */
+    public static final class Builder {
+        private int[] children = new int[10 * 64];
+        private int[] ruleAt = new int[64];
+        private int nodeCount = 1;
+        private final List<String> operators = new ArrayList<>();
+        private final List<Integer> priorities = new ArrayList<>();
+
+        public Builder() {
+            Arrays.fill(ruleAt, NO_RULE);
+        }
+
+        public Builder add(String prefix, String operator, int priority) {
+            if (prefix.isEmpty() || !prefix.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                throw new IllegalArgumentException("Préfixe IMEI invalide: " + prefix);
+            }
+            int node = 0;
+            for (int i = 0; i < prefix.length(); i++) {
+                int slot = node * 10 + (prefix.charAt(i) - '0');
+                if (children[slot] == 0) {
+                    children[slot] = newNode();
+                }
+                node = children[slot];
+            }
+            // Même préfixe déclaré deux fois : la priorité la plus haute, puis la première déclaration
+            int existing = ruleAt[node];
+            if (existing == NO_RULE || priority > priorities.get(existing)) {
+                operators.add(operator);
+                priorities.add(priority);
+                ruleAt[node] = operators.size() - 1;
+            }
+            return this;
+        }
+
+        public OperatorMatcher build() {
+            int[] priorityArray = new int[priorities.size()];
+            for (int i = 0; i < priorityArray.length; i++) {
+                priorityArray[i] = priorities.get(i);
+            }
+            return new OperatorMatcher(Arrays.copyOf(children, nodeCount * 10), Arrays.copyOf(ruleAt, nodeCount),
+                                       operators.toArray(new String[0]), priorityArray);
+        }
+
+        private int newNode() {
+            if (nodeCount == ruleAt.length) {
+                children = Arrays.copyOf(children, children.length * 2);
+                int previous = ruleAt.length;
+                ruleAt = Arrays.copyOf(ruleAt, previous * 2);
+                Arrays.fill(ruleAt, previous, ruleAt.length, NO_RULE);
+            }
+            return nodeCount++;
+        }
+    }
+}
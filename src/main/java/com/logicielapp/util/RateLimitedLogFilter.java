@@ -0,0 +1,179 @@
+package com.logicielapp.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.logicielapp.metrics.Counter;
+import com.logicielapp.metrics.Metrics;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitation de débit des messages par requête (filtre logback, déclaré dans logback.xml)
+ * Pour les loggers surveillés, chaque message (clé : son modèle, avant formatage) est écrit
+ * au plus permitsPerSecond fois par seconde ; au-delà, un message sur sampleEvery est conservé
+ * (0 : aucun). Le nombre de messages écartés est journalisé à la seconde suivante (au prochain
+ * message identique, ou par un thread de fond si le message ne se répète pas) et compté
+ * dans log_events_suppressed_total.
+ *
+ * Le filtre intervient avant le formatage : un message écarté ne coûte ni toString() ni E/S.
+ * Les niveaux supérieurs à maxLevel (WARN par défaut) ne sont jamais filtrés.
+ */
+public class RateLimitedLogFilter extends TurboFilter {
+
+    private static final Marker SUMMARY = MarkerFactory.getMarker("LOG_SAMPLING");
+    private static final int MAX_TRACKED_MESSAGES = 2048;
+    private static final Counter SUPPRESSED = Metrics.counter("log_events_suppressed_total",
+        "Messages écartés par la limitation de débit de la journalisation");
+
+    private final List<String> loggers = new ArrayList<>();
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private int permitsPerSecond = 10;
+    private int sampleEvery = 100;
+    private Level maxLevel = Level.WARN;
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Compteur d'un message sur la seconde courante
+     */
+    private static final class Window {
+        long second;
+        int count;
+        long suppressed;
+        Logger logger;
+    }
+
+    /**
+     * Logger surveillé (préfixe de nom, élément &lt;logger&gt; répétable)
+     */
+    public void addLogger(String name) {
+        loggers.add(name.trim());
+    }
+
+    public void setPermitsPerSecond(int permitsPerSecond) {
+        this.permitsPerSecond = Math.max(0, permitsPerSecond);
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(0, sampleEvery);
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.WARN);
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "LogSamplingFlush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(() -> flush(false), 1, 1, TimeUnit.SECONDS);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        flush(true);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                              Object[] params, Throwable t) {
+        if (!isStarted() || level == null || marker == SUMMARY
+                || level.levelInt > maxLevel.levelInt
+                || level.levelInt < logger.getEffectiveLevel().levelInt
+                || !isWatched(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        String key = format != null ? format : logger.getName();
+        Window window = windows.get(key);
+        if (window == null) {
+            // Modèles construits dynamiquement : regroupés par logger au-delà de la limite
+            if (windows.size() >= MAX_TRACKED_MESSAGES) {
+                key = logger.getName();
+            }
+            window = windows.computeIfAbsent(key, k -> new Window());
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+        long previouslySuppressed = 0;
+        FilterReply reply;
+        synchronized (window) {
+            if (window.second != second) {
+                previouslySuppressed = window.suppressed;
+                window.second = second;
+                window.count = 0;
+                window.suppressed = 0;
+            }
+            window.logger = logger;
+            int count = ++window.count;
+            if (count <= permitsPerSecond
+                    || (sampleEvery > 0 && (count - permitsPerSecond) % sampleEvery == 0)) {
+                reply = FilterReply.NEUTRAL;
+            } else {
+                window.suppressed++;
+                reply = FilterReply.DENY;
+            }
+        }
+
+        if (reply == FilterReply.DENY) {
+            SUPPRESSED.inc();
+        }
+        if (previouslySuppressed > 0) {
+            report(logger, key, previouslySuppressed);
+        }
+        return reply;
+    }
+
+    /**
+     * Journalise les messages écartés des secondes terminées (toutes si all)
+     * pour les messages qui ne se sont pas répétés depuis
+     */
+    private void flush(boolean all) {
+        long second = System.currentTimeMillis() / 1000;
+        for (Map.Entry<String, Window> entry : windows.entrySet()) {
+            Window window = entry.getValue();
+            long suppressed;
+            Logger logger;
+            synchronized (window) {
+                if (window.suppressed == 0 || (!all && window.second == second)) {
+                    continue;
+                }
+                suppressed = window.suppressed;
+                logger = window.logger;
+                window.suppressed = 0;
+            }
+            report(logger, entry.getKey(), suppressed);
+        }
+    }
+
+    private static void report(Logger logger, String key, long suppressed) {
+        logger.info(SUMMARY, "{} message(s) « {} » écarté(s) par la limitation de débit", suppressed, key);
+    }
+
+    private boolean isWatched(String name) {
+        for (int i = 0; i < loggers.size(); i++) {
+            if (name.startsWith(loggers.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,13 +1,19 @@
 package com.logicielapp.util;
 
+import com.logicielapp.metrics.Metrics;
 import com.logicielapp.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.security.SecureRandom;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 /**
  * Gestionnaire de session utilisateur (Singleton)
@@ -17,6 +23,7 @@ public class SessionManager {
     
     private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
     private static SessionManager instance;
+    private static final SecureRandom RANDOM = new SecureRandom();
     
     // Session actuelle
     private User currentUser;
@@ -31,10 +38,29 @@ public class SessionManager {
     private int successfulOperations = 0;
     private int failedOperations = 0;
     
+    // Persistance de la session (reprise rapide au redémarrage)
+    public static final long DEFAULT_SESSION_TIMEOUT_SECONDS = 1800; // configurations.timeout_session
+    private final SessionStore sessionStore = new SessionStore();
+    private SessionStore.SessionState persistedState;
+    private long sessionTimeoutSeconds = DEFAULT_SESSION_TIMEOUT_SECONDS;
+    private LocalDateTime lastActivityTime;
+    
     // Constructeur privé pour Singleton
     private SessionManager() {
         this.sessionStartTime = LocalDateTime.now();
         this.sessionId = generateSessionId();
+        
+        // Restaurer les préférences persistées (ex: email mémorisé)
+        this.persistedState = sessionStore.load();
+        if (persistedState != null && persistedState.preferences != null) {
+            userPreferences.putAll(persistedState.preferences);
+        }
+        
+        Metrics.gauge("session_operations", "Opérations de la session courante", () -> operationsCount, "result", "all");
+        Metrics.gauge("session_operations", "Opérations de la session courante", () -> successfulOperations, "result", "success");
+        Metrics.gauge("session_operations", "Opérations de la session courante", () -> failedOperations, "result", "failure");
+        Metrics.gauge("session_logged_in", "Utilisateur connecté (1) ou non (0)", () -> currentUser != null ? 1 : 0);
+        
         logger.info("Gestionnaire de session initialisé - ID: {}", sessionId);
     }
     
@@ -51,18 +77,71 @@ public class SessionManager {
     /**
      * Définit l'utilisateur actuel et démarre la session
      */
-    public void setCurrentUser(User user) {
+    public synchronized void setCurrentUser(User user) {
         this.currentUser = user;
         this.sessionStartTime = LocalDateTime.now();
         this.sessionId = generateSessionId();
         
         // Charger les préférences utilisateur
         loadUserPreferences();
+        persistSession();
         
         logger.info("Session démarrée pour: {} ({})", user.getNom(), user.getRole());
         logger.info("ID de session: {}", sessionId);
     }
     
+    /**
+     * Restaure la dernière session sauvegardée si elle n'a pas expiré
+     * Le délai est celui de la configuration actuelle (session_duration ou timeout_session),
+     * pas celui en vigueur lors de la sauvegarde.
+     * Le fichier ne fournit que l'identifiant signé de l'utilisateur : nom, rôle et statut
+     * viennent de {@code userLoader} (base de données), jamais du fichier.
+     * 
+     * @param userLoader utilisateur actif d'après son identifiant, ou null
+     * @return true si une session a été restaurée
+     */
+    public synchronized boolean restoreLastSession(IntFunction<User> userLoader) {
+        SessionStore.SessionState state = persistedState;
+        persistedState = null;
+        
+        if (currentUser != null || state == null || state.userId == null) {
+            return false;
+        }
+        
+        long idleSeconds = (System.currentTimeMillis() - state.lastActivity) / 1000;
+        if (idleSeconds < 0 || idleSeconds > sessionTimeoutSeconds) {
+            logger.info("Session précédente expirée ({} s d'inactivité)", idleSeconds);
+            return false;
+        }
+        
+        try {
+            User user = userLoader.apply(state.userId);
+            if (user == null || !user.isActif()) {
+                logger.info("Utilisateur de la session précédente introuvable ou désactivé");
+                return false;
+            }
+            user.generateSessionToken();
+            
+            this.currentUser = user;
+            this.sessionId = state.sessionId != null ? state.sessionId : generateSessionId();
+            this.sessionStartTime = toLocalDateTime(state.sessionStart);
+            this.operationsCount = state.operationsCount;
+            this.successfulOperations = state.successfulOperations;
+            this.failedOperations = state.failedOperations;
+            UserCache.getInstance().putUser(currentUser);
+            
+            loadUserPreferences();
+            persistSession();
+            
+            logger.info("Session restaurée pour: {} ({}) - ID: {}", user.getNom(), user.getRole(), sessionId);
+            return true;
+            
+        } catch (Exception e) {
+            logger.warn("Impossible de restaurer la session précédente: {}", e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * Obtient l'utilisateur actuel
      */
@@ -88,11 +167,16 @@ public class SessionManager {
             // Sauvegarder les préférences
             saveUserPreferences();
             
-            // Nettoyer la session
+            // Nettoyer la session (l'email mémorisé survit à la déconnexion)
+            Object storedEmail = userPreferences.get("storedEmail");
             currentUser = null;
             sessionStartTime = null;
             userPreferences.clear();
+            if (storedEmail != null) {
+                userPreferences.put("storedEmail", storedEmail);
+            }
             resetStatistics();
+            persistSession();
         }
     }
     
@@ -134,6 +218,7 @@ public class SessionManager {
     public void setPreference(String key, Object value) {
         userPreferences.put(key, value);
         logger.debug("Préférence mise à jour: {} = {}", key, value);
+        persistSession();
     }
     
     /**
@@ -156,7 +241,9 @@ public class SessionManager {
      * Supprime une préférence
      */
     public void removePreference(String key) {
-        userPreferences.remove(key);
+        if (userPreferences.remove(key) != null) {
+            persistSession();
+        }
     }
     
     /**
@@ -192,12 +279,12 @@ public class SessionManager {
         
         try {
             // TODO: Charger depuis la base de données
-            // Pour l'instant, valeurs par défaut
-            setPreference("theme", "default");
-            setPreference("language", "fr");
-            setPreference("autoSaveInterval", 300); // 5 minutes
-            setPreference("showNotifications", true);
-            setPreference("debugMode", false);
+            // Pour l'instant, valeurs par défaut (sans écraser les préférences persistées)
+            userPreferences.putIfAbsent("theme", "default");
+            userPreferences.putIfAbsent("language", "fr");
+            userPreferences.putIfAbsent("autoSaveInterval", 300); // 5 minutes
+            userPreferences.putIfAbsent("showNotifications", true);
+            userPreferences.putIfAbsent("debugMode", false);
             
             logger.debug("Préférences utilisateur chargées pour: {}", currentUser.getNom());
             
@@ -214,6 +301,7 @@ public class SessionManager {
         
         try {
             // TODO: Sauvegarder en base de données
+            persistSession();
             logger.debug("Préférences utilisateur sauvegardées pour: {}", currentUser.getNom());
             
         } catch (Exception e) {
@@ -221,6 +309,38 @@ public class SessionManager {
         }
     }
     
+    /**
+     * Programme la sauvegarde asynchrone de l'état de session sur disque
+     */
+    private void persistSession() {
+        lastActivityTime = LocalDateTime.now();
+        
+        SessionStore.SessionState state = new SessionStore.SessionState();
+        User user = currentUser;
+        if (user != null) {
+            state.userId = user.getId();
+            state.sessionId = sessionId;
+            state.sessionStart = toEpochMillis(sessionStartTime);
+            state.operationsCount = operationsCount;
+            state.successfulOperations = successfulOperations;
+            state.failedOperations = failedOperations;
+        }
+        state.lastActivity = toEpochMillis(lastActivityTime);
+        state.preferences.putAll(userPreferences);
+        
+        sessionStore.saveAsync(state);
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis <= 0
+            ? LocalDateTime.now()
+            : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
     // =================== STATISTIQUES DE SESSION ===================
     
     /**
@@ -228,6 +348,7 @@ public class SessionManager {
      */
     public void incrementOperationsCount() {
         operationsCount++;
+        persistSession();
     }
     
     /**
@@ -269,36 +390,48 @@ public class SessionManager {
      * Vérifie si l'utilisateur actuel peut effectuer une opération
      */
     public boolean canPerformOperation(String operationType) {
-        if (currentUser == null) {
+        User user = getEffectiveUser();
+        if (user == null) {
             return false;
         }
-        return currentUser.canPerformOperation(operationType);
+        return user.canPerformOperation(operationType);
     }
     
     /**
      * Vérifie si l'utilisateur actuel est administrateur
      */
     public boolean isCurrentUserAdmin() {
-        return currentUser != null && currentUser.getRole() == User.Role.ADMIN;
+        User user = getEffectiveUser();
+        return user != null && user.isActif() && user.getRole() == User.Role.ADMIN;
     }
     
     /**
      * Vérifie si l'utilisateur actuel est technicien ou administrateur
      */
     public boolean isCurrentUserTechnician() {
-        return currentUser != null && 
-               (currentUser.getRole() == User.Role.TECHNICIEN || 
-                currentUser.getRole() == User.Role.ADMIN);
+        User user = getEffectiveUser();
+        return user != null && user.isActif() &&
+               (user.getRole() == User.Role.TECHNICIEN || 
+                user.getRole() == User.Role.ADMIN);
+    }
+    
+    /**
+     * Retourne l'état le plus récent de l'utilisateur actuel (cache des rôles),
+     * afin qu'une désactivation soit prise en compte sans reconnexion
+     */
+    private User getEffectiveUser() {
+        return UserCache.getInstance().resolve(currentUser);
     }
     
     // =================== UTILITAIRES ===================
     
     /**
-     * Génère un ID de session unique
+     * Génère un ID de session unique et imprévisible
      */
     private String generateSessionId() {
-        return "SESSION_" + System.currentTimeMillis() + "_" + 
-               Integer.toHexString((int)(Math.random() * 65536));
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return "SESSION_" + HexFormat.of().formatHex(bytes);
     }
     
     /**
@@ -334,6 +467,14 @@ public class SessionManager {
         return LocalDateTime.now().isAfter(expiration);
     }
     
+    /**
+     * Écrit immédiatement l'état de session en attente, sans fermer la session
+     * (arrêt de l'application : la session pourra être reprise)
+     */
+    public void flush() {
+        sessionStore.flush();
+    }
+    
     /**
      * Nettoyage global des ressources de session (appelé à la fermeture)
      */
@@ -344,6 +485,7 @@ public class SessionManager {
             logger.warn("Erreur lors du nettoyage de la session", e);
         } finally {
             logout();
+            sessionStore.flush();
         }
     }
     
@@ -368,4 +510,16 @@ public class SessionManager {
     public LocalDateTime getSessionStartTime() {
         return sessionStartTime;
     }
+    
+    public long getSessionTimeoutSeconds() {
+        return sessionTimeoutSeconds;
+    }
+    
+    /**
+     * Définit le délai de reprise de session (valeur de configurations.timeout_session)
+     * Une valeur nulle ou négative rétablit le délai par défaut.
+     */
+    public void setSessionTimeoutSeconds(long sessionTimeoutSeconds) {
+        this.sessionTimeoutSeconds = sessionTimeoutSeconds > 0 ? sessionTimeoutSeconds : DEFAULT_SESSION_TIMEOUT_SECONDS;
+    }
 }
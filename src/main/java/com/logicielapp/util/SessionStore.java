@@ -0,0 +1,212 @@
+package com.logicielapp.util;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stockage persistant de l'état de session (fichier JSON local)
+ * Les écritures sont asynchrones et regroupées (debounce) pour ne jamais
+ * bloquer le thread JavaFX
+ *
+ * Le fichier ne contient ni nom, ni rôle : seulement l'identifiant de l'utilisateur, un
+ * identifiant de session aléatoire et les dates, signés par HMAC-SHA-256 avec une clé propre
+ * à l'installation (session.key, lisible par le seul propriétaire). Un état dont la signature
+ * ne correspond pas est chargé sans session (préférences seules).
+ */
+public class SessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStore.class);
+
+    // Délai de regroupement des écritures
+    private static final long SAVE_DELAY_MS = 500;
+
+    private static final Path DEFAULT_FILE = Paths.get(
+        System.getProperty("user.home"), ".logicielapp", "session.json");
+    private static final String HMAC = "HmacSHA256";
+    private static final int KEY_BYTES = 32;
+
+    private final Path file;
+    private final Path keyFile;
+    private byte[] key;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<SessionState> pendingState = new AtomicReference<>();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "SessionStoreWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> scheduledSave;
+
+    public SessionStore() {
+        this(DEFAULT_FILE);
+    }
+
+    public SessionStore(Path file) {
+        this.file = file;
+        this.keyFile = file.resolveSibling("session.key");
+    }
+
+    /**
+     * Charge le dernier état sauvegardé, ou null s'il n'existe pas ou est illisible
+     */
+    public SessionState load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        SessionState state;
+        try {
+            state = objectMapper.readValue(file.toFile(), SessionState.class);
+        } catch (IOException e) {
+            logger.warn("État de session illisible, ignoré: {}", e.getMessage());
+            return null;
+        }
+        if (state.userId != null && !verify(state)) {
+            logger.warn("Signature de l'état de session invalide, session ignorée");
+            state.userId = null;
+            state.sessionId = null;
+        }
+        return state;
+    }
+
+    /**
+     * Programme l'écriture de l'état (seul le dernier état d'une rafale est écrit)
+     */
+    public synchronized void saveAsync(SessionState state) {
+        pendingState.set(state);
+        if (scheduledSave == null || scheduledSave.isDone()) {
+            scheduledSave = writer.schedule(this::writePending, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Écrit immédiatement l'état en attente (fermeture de l'application)
+     */
+    public void flush() {
+        try {
+            writer.submit(this::writePending).get(2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Impossible de vider l'état de session: {}", e.getMessage());
+        }
+    }
+
+    private void writePending() {
+        SessionState state = pendingState.getAndSet(null);
+        if (state == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            state.signature = state.userId != null ? sign(state) : null;
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), state);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("État de session sauvegardé dans {}", file);
+        } catch (IOException | GeneralSecurityException e) {
+            logger.warn("Erreur lors de la sauvegarde de l'état de session", e);
+        }
+    }
+
+    private boolean verify(SessionState state) {
+        if (state.signature == null) {
+            return false;
+        }
+        try {
+            byte[] expected = HexFormat.of().parseHex(sign(state));
+            return MessageDigest.isEqual(expected, HexFormat.of().parseHex(state.signature));
+        } catch (IllegalArgumentException | IOException | GeneralSecurityException e) {
+            logger.debug("Vérification de la signature de session impossible: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * HMAC des champs qui ouvrent la session (utilisateur, identifiant, dates)
+     */
+    private String sign(SessionState state) throws IOException, GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC);
+        mac.init(new SecretKeySpec(key(), HMAC));
+        String payload = state.userId + "|" + state.sessionId + "|" + state.sessionStart + "|"
+            + state.lastActivity;
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Clé de l'installation, créée au premier besoin
+     */
+    private synchronized byte[] key() throws IOException {
+        if (key != null) {
+            return key;
+        }
+        if (!Files.isRegularFile(keyFile)) {
+            byte[] generated = new byte[KEY_BYTES];
+            new SecureRandom().nextBytes(generated);
+            Files.createDirectories(keyFile.getParent());
+            try {
+                // Droits restreints dès la création : la clé n'est jamais lisible par les autres
+                try {
+                    Files.createFile(keyFile, PosixFilePermissions.asFileAttribute(
+                        PosixFilePermissions.fromString("rw-------")));
+                } catch (UnsupportedOperationException e) {
+                    Files.createFile(keyFile);
+                    keyFile.toFile().setReadable(false, false);
+                    keyFile.toFile().setReadable(true, true);
+                }
+                Files.write(keyFile, generated, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                // Créée entre-temps par une autre instance
+            }
+        }
+        byte[] loaded = Files.readAllBytes(keyFile);
+        if (loaded.length < KEY_BYTES) {
+            throw new IOException("Clé de session trop courte: " + keyFile);
+        }
+        key = loaded;
+        return key;
+    }
+
+    /**
+     * État de session sérialisé
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class SessionState {
+        public Integer userId;
+        public String sessionId;
+        public long sessionStart;
+        public long lastActivity;
+        public int operationsCount;
+        public int successfulOperations;
+        public int failedOperations;
+        public Map<String, Object> preferences = new LinkedHashMap<>();
+        public String signature;
+    }
+}
@@ -0,0 +1,93 @@
+package com.logicielapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surveillance du répertoire de données TAC
+ * Les événements d'une rafale (copie de fichier en plusieurs écritures) sont regroupés,
+ * puis le rechargement s'exécute sur un thread dédié, hors des threads de lecture
+ */
+class TACDataWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TACDataWatcher.class);
+
+    // Délai de regroupement des événements
+    private static final long RELOAD_DELAY_MS = 1000;
+
+    private final Path directory;
+    private final Runnable reloadAction;
+    private final WatchService watchService;
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "TACDataReloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> scheduledReload;
+    private Thread watchThread;
+
+    TACDataWatcher(Path directory, Runnable reloadAction) throws IOException {
+        this.directory = directory;
+        this.reloadAction = reloadAction;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    void start() {
+        watchThread = new Thread(this::watchLoop, "TACDataWatcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        logger.info("Surveillance du répertoire TAC: {}", directory);
+    }
+
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                scheduleReload();
+                if (!key.reset()) {
+                    logger.warn("Répertoire TAC inaccessible, surveillance arrêtée: {}", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Arrêt demandé
+        }
+    }
+
+    private synchronized void scheduleReload() {
+        if (scheduledReload != null) {
+            scheduledReload.cancel(false);
+        }
+        scheduledReload = reloader.schedule(reloadAction, RELOAD_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Fermeture de la surveillance TAC: {}", e.getMessage());
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+        reloader.shutdownNow();
+    }
+}
@@ -1,33 +1,79 @@
 package com.logicielapp.util;
 
+import com.logicielapp.metrics.Counter;
+import com.logicielapp.metrics.Histogram;
+import com.logicielapp.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Service pour charger et interroger la base de données TAC (Type Allocation Code) de la GSMA
+ *
+ * Les données sont publiées sous forme d'instantanés immuables (référence atomique) :
+ * les lectures ne prennent aucun verrou et ne voient jamais un état partiel.
+ * Un répertoire externe versionné (-Dtac.data.dir, par défaut ~/.logicielapp/tac) peut contenir :
+ *   tacdb-&lt;version&gt;.csv        base complète (remplace la ressource tacdb.csv)
+ *   tacdb-delta-&lt;version&gt;.csv  modifications appliquées dans l'ordre des versions
+ *                               (lignes au format CSV de la base, « -TAC » pour supprimer)
  */
 public class TACDatabase {
     
     private static final Logger logger = LoggerFactory.getLogger(TACDatabase.class);
-    private static final Map<String, DeviceInfo> tacDatabase = new HashMap<>();
-    private static boolean isLoaded = false;
+    
+    private static final String CLASSPATH_DATABASE = "/tacdb.csv";
+    private static final Pattern BASE_FILE = Pattern.compile("tacdb-(\\d+)\\.csv");
+    private static final Pattern DELTA_FILE = Pattern.compile("tacdb-delta-(\\d+)\\.csv");
+    
+    // Les TAC sont répartis par plages (4 premiers chiffres) : un delta ne recopie que les plages modifiées
+    private static final int RANGE_DIGITS = 4;
+    private static final int RANGE_COUNT = 10_000;
+    private static final int INDEX_COMPACTION_RATIO = 4;
+    
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private static volatile TACDataWatcher watcher;
+    
+    private static final Histogram LOOKUP_LATENCY = Metrics.histogram("tac_lookup_seconds", "Durée des recherches TAC");
+    private static final Counter LOOKUP_HITS = Metrics.counter("tac_lookups_total", "Recherches TAC", "result", "hit");
+    private static final Counter LOOKUP_MISSES = Metrics.counter("tac_lookups_total", "Recherches TAC", "result", "miss");
+    
+    static {
+        // Lecture sans déclencher de chargement
+        Metrics.gauge("tac_database_entries", "Entrées de la base TAC", () -> {
+            Snapshot current = snapshot.get();
+            return current != null ? current.size : 0;
+        });
+    }
     
     /**
      * Classe pour stocker les informations d'un appareil basées sur le TAC
      */
     public static class DeviceInfo {
-        private String tac;
-        private String manufacturer;
-        private String model;
-        private String marketingName;
-        private String contributor;
-        private String comment;
+        private final String tac;
+        private final String manufacturer;
+        private final String model;
+        private final String marketingName;
+        private final String contributor;
+        private final String comment;
         
         public DeviceInfo(String tac, String manufacturer, String model, String marketingName, String contributor, String comment) {
             this.tac = tac;
@@ -53,77 +99,491 @@ public class TACDatabase {
     }
     
     /**
-     * Charge la base de données TAC depuis le fichier CSV
+     * Instantané immuable de la base TAC
      */
-    public static synchronized void loadDatabase() {
-        if (isLoaded) {
-            return;
+    private static final class Snapshot {
+        private final Map<String, DeviceInfo>[] ranges;
+        private final int size;
+        private final long baseVersion;
+        private final long deltaVersion;
+        // Deltas appliqués : version → empreinte du fichier (date de modification et taille)
+        private final Map<Long, String> appliedDeltas;
+        private final ModelSearchIndex modelIndex;
+        // Plages réindexées dans le second segment de modelIndex depuis sa construction complète
+        private final BitSet reindexedRanges;
+        private final TACPrefilter prefilter;
+        
+        private Snapshot(Map<String, DeviceInfo>[] ranges, int size, long baseVersion, Map<Long, String> appliedDeltas,
+                         ModelSearchIndex modelIndex, BitSet reindexedRanges, TACPrefilter prefilter) {
+            this.ranges = ranges;
+            this.size = size;
+            this.baseVersion = baseVersion;
+            this.appliedDeltas = appliedDeltas;
+            this.deltaVersion = appliedDeltas.isEmpty() ? 0 : Collections.max(appliedDeltas.keySet());
+            this.modelIndex = modelIndex;
+            this.reindexedRanges = reindexedRanges;
+            this.prefilter = prefilter;
         }
         
-        try (InputStream is = TACDatabase.class.getResourceAsStream("/tacdb.csv");
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-            
-            String line;
-            int lineCount = 0;
-            int loadedCount = 0;
-            
-            // Ignorer la première ligne (copyright)
-            reader.readLine();
-            // Ignorer la deuxième ligne (headers)
-            reader.readLine();
-            
-            while ((line = reader.readLine()) != null) {
-                lineCount++;
-                
-                if (line.trim().isEmpty()) {
+        /**
+         * Instantané complet : index des modèles et préfiltre construits sur toutes les entrées
+         */
+        static Snapshot build(Map<String, DeviceInfo>[] ranges, long baseVersion, Map<Long, String> appliedDeltas) {
+            List<ModelSearchIndex.Entry> entries = indexEntries(ranges, null);
+            List<String> tacs = new ArrayList<>(entries.size());
+            for (ModelSearchIndex.Entry entry : entries) {
+                tacs.add(entry.getTac());
+            }
+            return new Snapshot(ranges, entries.size(), baseVersion, appliedDeltas,
+                                ModelSearchIndex.build(entries), new BitSet(), TACPrefilter.build(tacs));
+        }
+        
+        /**
+         * Instantané suivant après modification de quelques plages : le préfiltre et l'index
+         * des modèles ne sont recalculés que pour ces plages (l'index est entièrement reconstruit
+         * quand son second segment dépasse 1/INDEX_COMPACTION_RATIO des entrées)
+         */
+        Snapshot update(Map<String, DeviceInfo>[] updated, boolean[] changed, Map<Long, String> applied) {
+            int count = size;
+            TACPrefilter.Builder filter = prefilter.toBuilder();
+            BitSet reindexed = (BitSet) reindexedRanges.clone();
+            for (int range = 0; range < RANGE_COUNT; range++) {
+                if (!changed[range]) {
                     continue;
                 }
-                
-                String[] parts = line.split(",", -1);
-                if (parts.length >= 3) {
-                    String tac = parts[0].trim();
-                    String manufacturer = parts[1].trim();
-                    String model = parts[2].trim();
-                    String contributor = parts.length > 3 ? parts[3].trim() : "";
-                    String comment = parts.length > 4 ? parts[4].trim() : "";
-                    String marketingName = parts.length > 7 ? parts[7].trim() : model;
-                    
-                    if (!tac.isEmpty() && !manufacturer.isEmpty()) {
-                        DeviceInfo deviceInfo = new DeviceInfo(tac, manufacturer, model, marketingName, contributor, comment);
-                        tacDatabase.put(tac, deviceInfo);
-                        loadedCount++;
+                count += sizeOf(updated[range]) - sizeOf(ranges[range]);
+                filter.clearRange(rangeKey(range));
+                if (updated[range] != null) {
+                    for (String tac : updated[range].keySet()) {
+                        filter.add(tac);
                     }
                 }
+                reindexed.set(range);
             }
             
-            isLoaded = true;
-            logger.info("Base TAC chargée: {} entrées sur {} lignes traitées", loadedCount, lineCount);
-            
+            List<ModelSearchIndex.Entry> replacements = indexEntries(updated, reindexed);
+            if (replacements.size() * INDEX_COMPACTION_RATIO > count) {
+                return build(updated, baseVersion, applied);
+            }
+            ModelSearchIndex index = modelIndex.withReplaced(tac -> reindexed.get(rangeOf(tac)), replacements);
+            return new Snapshot(updated, count, baseVersion, applied, index, reindexed, filter.build());
+        }
+        
+        DeviceInfo get(String tac) {
+            int range = rangeOf(tac);
+            if (range < 0) {
+                return null;
+            }
+            Map<String, DeviceInfo> devices = ranges[range];
+            return devices != null ? devices.get(tac) : null;
+        }
+        
+        String version() {
+            return deltaVersion > 0 ? baseVersion + "+" + deltaVersion : String.valueOf(baseVersion);
+        }
+    }
+    
+    /**
+     * Charge la base de données TAC (répertoire externe s'il contient une base, sinon ressource tacdb.csv)
+     */
+    public static synchronized void loadDatabase() {
+        if (snapshot.get() != null) {
+            return;
+        }
+        try {
+            snapshot.set(buildFromSources());
         } catch (Exception e) {
             logger.error("Erreur lors du chargement de la base TAC: {}", e.getMessage(), e);
         }
     }
     
     /**
-     * Recherche les informations d'un appareil par son TAC (8 premiers chiffres de l'IMEI)
+     * Recharge les données du répertoire externe (appelé par la surveillance du répertoire)
+     * Un nouveau fichier de base provoque une reconstruction complète ;
+     * de nouveaux deltas ne recopient que les plages de TAC qu'ils modifient.
+     * L'instantané courant reste servi pendant toute la construction.
      */
-    public static DeviceInfo getDeviceByTAC(String tac) {
-        if (!isLoaded) {
+    public static synchronized void reload() {
+        Snapshot current = snapshot.get();
+        try {
+            Path directory = getDataDirectory();
+            long latestBase = latestBaseVersion(directory);
+            
+            // Base remplacée, delta déjà appliqué retiré ou modifié, ou nouveau delta antérieur
+            // au dernier appliqué : reconstruction complète
+            Snapshot next;
+            TreeMap<Long, Path> deltas = current != null ? deltaFiles(directory, current.baseVersion) : null;
+            if (current == null || latestBase != current.baseVersion || !extendsApplied(current, deltas)) {
+                next = buildFromSources();
+            } else {
+                next = applyDeltas(current, deltas);
+            }
+            
+            if (next != current) {
+                snapshot.set(next);
+                logger.info("Base TAC publiée: version {}, {} entrées", next.version(), next.size);
+            }
+        } catch (Exception e) {
+            // L'instantané précédent reste en service
+            logger.error("Erreur lors du rechargement de la base TAC: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Reconstruit entièrement l'instantané depuis les sources (base et deltas) et le publie
+     */
+    public static synchronized void rebuild() {
+        try {
+            Snapshot next = buildFromSources();
+            snapshot.set(next);
+            logger.info("Base TAC reconstruite: version {}, {} entrées", next.version(), next.size);
+        } catch (Exception e) {
+            logger.error("Erreur lors de la reconstruction de la base TAC: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Démarre la surveillance du répertoire de données TAC
+     */
+    public static synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            Path directory = getDataDirectory();
+            Files.createDirectories(directory);
+            watcher = new TACDataWatcher(directory, TACDatabase::reload);
+            watcher.start();
+        } catch (IOException e) {
+            logger.warn("Surveillance du répertoire TAC impossible: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Arrête la surveillance du répertoire de données TAC
+     */
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+    
+    /**
+     * Répertoire externe des données TAC
+     */
+    public static Path getDataDirectory() {
+        String configured = System.getProperty("tac.data.dir");
+        return configured != null
+            ? Paths.get(configured)
+            : Paths.get(System.getProperty("user.home"), ".logicielapp", "tac");
+    }
+    
+    /**
+     * Version des données servies (base, et dernier delta appliqué)
+     */
+    public static String getDataVersion() {
+        return current().version();
+    }
+    
+    private static Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
             loadDatabase();
+            current = snapshot.get();
+            if (current == null) {
+                // Chargement en échec : base vide, nouvelle tentative au prochain appel
+                return emptySnapshot();
+            }
+        }
+        return current;
+    }
+    
+    private static Snapshot buildFromSources() throws IOException {
+        Path directory = getDataDirectory();
+        long baseVersion = latestBaseVersion(directory);
+        
+        Map<String, DeviceInfo>[] ranges = newRanges();
+        int lineCount;
+        
+        if (baseVersion > 0) {
+            Path baseFile = directory.resolve("tacdb-" + baseVersion + ".csv");
+            try (BufferedReader reader = Files.newBufferedReader(baseFile, StandardCharsets.UTF_8)) {
+                lineCount = readBase(reader, ranges);
+            }
+            logger.info("Base TAC externe: {}", baseFile);
+        } else {
+            try (InputStream is = TACDatabase.class.getResourceAsStream(CLASSPATH_DATABASE)) {
+                if (is == null) {
+                    throw new IOException("Ressource introuvable: " + CLASSPATH_DATABASE);
+                }
+                lineCount = readBase(new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8)), ranges);
+            }
         }
         
+        Snapshot base = Snapshot.build(freeze(ranges), baseVersion, Collections.emptyMap());
+        logger.info("Base TAC chargée: {} entrées sur {} lignes traitées, {} modèles indexés",
+                   base.size, lineCount, base.modelIndex.size());
+        return applyDeltas(base, deltaFiles(directory, baseVersion));
+    }
+    
+    private static int readBase(BufferedReader reader, Map<String, DeviceInfo>[] ranges) throws IOException {
+        String line;
+        int lineCount = 0;
+        while ((line = reader.readLine()) != null) {
+            lineCount++;
+            // Les lignes d'en-tête (copyright, noms de colonnes) sont ignorées : TAC non numérique
+            DeviceInfo device = parseLine(line);
+            if (device != null) {
+                int range = rangeOf(device.getTac());
+                if (ranges[range] == null) {
+                    ranges[range] = new HashMap<>();
+                }
+                ranges[range].put(device.getTac(), device);
+            }
+        }
+        return lineCount;
+    }
+    
+    /**
+     * Vrai si les deltas présents ne font que compléter ceux de l'instantané :
+     * chaque delta appliqué est toujours là et inchangé, et aucun nouveau delta ne le précède
+     */
+    private static boolean extendsApplied(Snapshot current, TreeMap<Long, Path> deltas) throws IOException {
+        for (Map.Entry<Long, String> applied : current.appliedDeltas.entrySet()) {
+            Path file = deltas.get(applied.getKey());
+            if (file == null || !applied.getValue().equals(fingerprint(file))) {
+                return false;
+            }
+        }
+        for (Long version : deltas.keySet()) {
+            if (version < current.deltaVersion && !current.appliedDeltas.containsKey(version)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Applique les deltas pas encore appliqués à l'instantané (copie à l'écriture par plage de TAC)
+     */
+    private static Snapshot applyDeltas(Snapshot current, TreeMap<Long, Path> deltas) throws IOException {
+        Map<Long, Path> pending = new TreeMap<>(deltas);
+        pending.keySet().removeAll(current.appliedDeltas.keySet());
+        if (pending.isEmpty()) {
+            return current;
+        }
+        
+        Map<String, DeviceInfo>[] ranges = current.ranges.clone();
+        boolean[] copied = new boolean[RANGE_COUNT];
+        Map<Long, String> applied = new HashMap<>(current.appliedDeltas);
+        int changes = 0;
+        
+        for (Map.Entry<Long, Path> delta : pending.entrySet()) {
+            // Empreinte relevée avant la lecture : une modification pendant la lecture sera vue au rechargement
+            applied.put(delta.getKey(), fingerprint(delta.getValue()));
+            try (BufferedReader reader = Files.newBufferedReader(delta.getValue(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String trimmed = line.trim();
+                    boolean removal = trimmed.startsWith("-");
+                    String tac = removal ? trimmed.substring(1).trim() : null;
+                    DeviceInfo device = removal ? null : parseLine(trimmed);
+                    if (device != null) {
+                        tac = device.getTac();
+                    }
+                    if (tac == null || !isTac(tac)) {
+                        continue;
+                    }
+                    
+                    int range = rangeOf(tac);
+                    if (!copied[range]) {
+                        ranges[range] = ranges[range] != null ? new HashMap<>(ranges[range]) : new HashMap<>();
+                        copied[range] = true;
+                    }
+                    if (removal) {
+                        ranges[range].remove(tac);
+                    } else {
+                        ranges[range].put(tac, device);
+                    }
+                    changes++;
+                }
+            }
+        }
+        
+        int touched = 0;
+        for (int i = 0; i < RANGE_COUNT; i++) {
+            if (copied[i]) {
+                touched++;
+                ranges[i] = ranges[i].isEmpty() ? null : Collections.unmodifiableMap(ranges[i]);
+            }
+        }
+        
+        logger.info("Deltas TAC appliqués jusqu'à la version {}: {} modifications, {} plages recopiées et réindexées",
+                   Collections.max(applied.keySet()), changes, touched);
+        return current.update(ranges, copied, Collections.unmodifiableMap(applied));
+    }
+    
+    private static DeviceInfo parseLine(String line) {
+        if (line.trim().isEmpty()) {
+            return null;
+        }
+        String[] parts = line.split(",", -1);
+        if (parts.length < 3) {
+            return null;
+        }
+        String tac = parts[0].trim();
+        String manufacturer = parts[1].trim();
+        String model = parts[2].trim();
+        String contributor = parts.length > 3 ? parts[3].trim() : "";
+        String comment = parts.length > 4 ? parts[4].trim() : "";
+        String marketingName = parts.length > 7 ? parts[7].trim() : model;
+        
+        if (!isTac(tac) || manufacturer.isEmpty()) {
+            return null;
+        }
+        return new DeviceInfo(tac, manufacturer, model, marketingName, contributor, comment);
+    }
+    
+    private static boolean isTac(String tac) {
+        if (tac.length() < RANGE_DIGITS) {
+            return false;
+        }
+        for (int i = 0; i < tac.length(); i++) {
+            char c = tac.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int rangeOf(String tac) {
+        if (tac == null || tac.length() < RANGE_DIGITS) {
+            return -1;
+        }
+        int range = 0;
+        for (int i = 0; i < RANGE_DIGITS; i++) {
+            int digit = tac.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            range = range * 10 + digit;
+        }
+        return range;
+    }
+    
+    private static long latestBaseVersion(Path directory) throws IOException {
+        long latest = 0;
+        for (Path file : listDataFiles(directory)) {
+            Matcher matcher = BASE_FILE.matcher(file.getFileName().toString());
+            if (matcher.matches()) {
+                latest = Math.max(latest, Long.parseLong(matcher.group(1)));
+            }
+        }
+        return latest;
+    }
+    
+    private static TreeMap<Long, Path> deltaFiles(Path directory, long afterVersion) throws IOException {
+        TreeMap<Long, Path> deltas = new TreeMap<>();
+        for (Path file : listDataFiles(directory)) {
+            Matcher matcher = DELTA_FILE.matcher(file.getFileName().toString());
+            if (matcher.matches()) {
+                long version = Long.parseLong(matcher.group(1));
+                if (version > afterVersion) {
+                    deltas.put(version, file);
+                }
+            }
+        }
+        return deltas;
+    }
+    
+    private static String fingerprint(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file);
+    }
+    
+    private static List<Path> listDataFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+    
+    private static Map<String, DeviceInfo>[] freeze(Map<String, DeviceInfo>[] ranges) {
+        for (int i = 0; i < ranges.length; i++) {
+            if (ranges[i] != null) {
+                ranges[i] = Collections.unmodifiableMap(ranges[i]);
+            }
+        }
+        return ranges;
+    }
+    
+    private static Snapshot emptySnapshot() {
+        return Snapshot.build(newRanges(), 0, Collections.emptyMap());
+    }
+    
+    /**
+     * Entrées à indexer des plages sélectionnées (toutes si null), par TAC croissant :
+     * TAC représentatif stable pour les noms partagés
+     */
+    private static List<ModelSearchIndex.Entry> indexEntries(Map<String, DeviceInfo>[] ranges, BitSet selected) {
+        List<ModelSearchIndex.Entry> entries = new ArrayList<>();
+        for (int range = selected != null ? selected.nextSetBit(0) : 0;
+             range >= 0 && range < RANGE_COUNT;
+             range = selected != null ? selected.nextSetBit(range + 1) : range + 1) {
+            if (ranges[range] == null) {
+                continue;
+            }
+            for (DeviceInfo device : new TreeMap<>(ranges[range]).values()) {
+                entries.add(new ModelSearchIndex.Entry(device.getTac(), device.getManufacturer(),
+                                                       device.getModel(), device.getMarketingName()));
+            }
+        }
+        return entries;
+    }
+    
+    private static int sizeOf(Map<String, DeviceInfo> range) {
+        return range != null ? range.size() : 0;
+    }
+    
+    private static String rangeKey(int range) {
+        return String.format("%0" + RANGE_DIGITS + "d", range);
+    }
+    
+    // Tableau générique : seule création non vérifiable, isolée ici
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Map<String, DeviceInfo>[] newRanges() {
+        return new Map[RANGE_COUNT];
+    }
+    
+    /**
+     * Recherche les informations d'un appareil par son TAC (8 premiers chiffres de l'IMEI)
+     */
+    public static DeviceInfo getDeviceByTAC(String tac) {
+        long start = Metrics.startTimer();
+        DeviceInfo device = lookup(tac);
+        LOOKUP_LATENCY.recordSince(start);
+        (device != null ? LOOKUP_HITS : LOOKUP_MISSES).inc();
+        return device;
+    }
+    
+    private static DeviceInfo lookup(String tac) {
         if (tac == null || tac.length() < 8) {
             return null;
         }
         
+        Snapshot current = current();
+        
         // Essayer avec TAC complet (8 chiffres)
         String tacKey = tac.substring(0, Math.min(8, tac.length()));
-        DeviceInfo device = tacDatabase.get(tacKey);
+        DeviceInfo device = current.get(tacKey);
         
         if (device == null && tacKey.length() >= 6) {
             // Fallback: essayer avec TAC 6 chiffres (ancien format)
             tacKey = tac.substring(0, 6);
-            device = tacDatabase.get(tacKey);
+            device = current.get(tacKey);
         }
         
         return device;
@@ -154,14 +614,26 @@ public class TACDatabase {
         return getDeviceByIMEI(imei) != null;
     }
     
+    /**
+     * Préfiltre : vrai si le bloc d'attribution (6 premiers chiffres) de l'IMEI figure dans la base
+     * Un IMEI hors de tout bloc connu a un TAC très probablement non attribué ou fabriqué
+     */
+    public static boolean isKnownTacBlock(String imei) {
+        return current().prefilter.isKnownBlock(imei);
+    }
+    
     /**
      * Retourne le nombre d'entrées dans la base TAC
      */
     public static int getDatabaseSize() {
-        if (!isLoaded) {
-            loadDatabase();
-        }
-        return tacDatabase.size();
+        return current().size;
+    }
+    
+    /**
+     * Recherche de modèles par nom (saisie semi-automatique), k meilleurs résultats
+     */
+    public static List<ModelSearchIndex.Entry> searchModels(String query, int limit) {
+        return current().modelIndex.search(query, limit);
     }
     
     /**
@@ -0,0 +1,130 @@
+package com.logicielapp.util;
+
+/**
+ * Préfiltre des TAC attribués, construit à partir de la base TAC
+ * Bitset sur l'espace des blocs d'attribution (6 premiers chiffres du TAC, 10^6 bits = 122 Kio) :
+ * un IMEI dont le bloc n'apparaît dans aucune entrée de la base est signalé
+ * localement, en quelques nanosecondes, avant toute requête distante.
+ *
+ * La granularité de 6 chiffres tolère les TAC récents absents de la base
+ * mais attribués dans un bloc connu ; il n'y a pas de faux négatif pour les TAC de la base.
+ */
+public final class TACPrefilter {
+
+    private static final int PREFIX_DIGITS = 6;
+    private static final int PREFIX_SPACE = 1_000_000;
+
+    private final long[] bits;
+    private final int blockCount;
+
+    private TACPrefilter(long[] bits, int blockCount) {
+        this.bits = bits;
+        this.blockCount = blockCount;
+    }
+
+    /**
+     * Construit le préfiltre à partir des TAC connus
+     */
+    public static TACPrefilter build(Iterable<String> tacs) {
+        Builder builder = new Builder(new long[PREFIX_SPACE / 64 + 1], 0);
+        for (String tac : tacs) {
+            builder.add(tac);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copie modifiable du préfiltre (mise à jour de quelques plages de TAC)
+     */
+    public Builder toBuilder() {
+        return new Builder(bits.clone(), blockCount);
+    }
+
+    /**
+     * Construction ou mise à jour d'un préfiltre
+     */
+    public static final class Builder {
+        private final long[] bits;
+        private int blockCount;
+
+        private Builder(long[] bits, int blockCount) {
+            this.bits = bits;
+            this.blockCount = blockCount;
+        }
+
+        /**
+         * Retire les blocs dont le préfixe commence par rangePrefix
+         * (ex. « 3532 » : blocs 353200 à 353299)
+         */
+        public Builder clearRange(String rangePrefix) {
+            int digits = rangePrefix.length();
+            if (digits > PREFIX_DIGITS) {
+                return this;
+            }
+            int first = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = rangePrefix.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return this;
+                }
+                first = first * 10 + digit;
+            }
+            int span = 1;
+            for (int i = digits; i < PREFIX_DIGITS; i++) {
+                span *= 10;
+            }
+            first *= span;
+            for (int prefix = first; prefix < first + span; prefix++) {
+                if ((bits[prefix >>> 6] & (1L << prefix)) != 0) {
+                    bits[prefix >>> 6] &= ~(1L << prefix);
+                    blockCount--;
+                }
+            }
+            return this;
+        }
+
+        public Builder add(CharSequence tac) {
+            int prefix = prefixOf(tac);
+            if (prefix >= 0 && (bits[prefix >>> 6] & (1L << prefix)) == 0) {
+                bits[prefix >>> 6] |= 1L << prefix;
+                blockCount++;
+            }
+            return this;
+        }
+
+        public TACPrefilter build() {
+            return new TACPrefilter(bits.clone(), blockCount);
+        }
+    }
+
+    /**
+     * Vrai si le bloc TAC de l'IMEI (ou du TAC) figure dans la base
+     * Faux pour un bloc jamais attribué ou une entrée non numérique
+     */
+    public boolean isKnownBlock(CharSequence imeiOrTac) {
+        int prefix = prefixOf(imeiOrTac);
+        return prefix >= 0 && (bits[prefix >>> 6] & (1L << prefix)) != 0;
+    }
+
+    /**
+     * Nombre de blocs d'attribution connus
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    private static int prefixOf(CharSequence value) {
+        if (value == null || value.length() < PREFIX_DIGITS) {
+            return -1;
+        }
+        int prefix = 0;
+        for (int i = 0; i < PREFIX_DIGITS; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            prefix = prefix * 10 + digit;
+        }
+        return prefix;
+    }
+}
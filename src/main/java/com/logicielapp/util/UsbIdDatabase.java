@@ -0,0 +1,156 @@
+package com.logicielapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Noms des fabricants et produits USB d'appareils mobiles (ressource usb_ids.txt, format usb.ids)
+ *
+ * Les tables sont indexées par entier (fabricant, ou fabricant &lt;&lt; 16 | produit) avec un
+ * adressage ouvert : une recherche ne crée aucun objet. Chargées une fois, en lecture seule.
+ */
+public final class UsbIdDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsbIdDatabase.class);
+
+    private static final String RESOURCE = "/usb_ids.txt";
+
+    private static final IntTable VENDORS = new IntTable(64);
+    private static final IntTable PRODUCTS = new IntTable(256);
+
+    static {
+        load();
+    }
+
+    private UsbIdDatabase() {
+    }
+
+    /**
+     * Nom du fabricant, ou null s'il ne fait pas partie des fabricants d'appareils mobiles
+     */
+    public static String vendorName(int vendorId) {
+        return VENDORS.get(vendorId & 0xFFFF);
+    }
+
+    /**
+     * Nom du produit, ou null s'il est inconnu
+     */
+    public static String productName(int vendorId, int productId) {
+        return PRODUCTS.get((vendorId & 0xFFFF) << 16 | (productId & 0xFFFF));
+    }
+
+    public static boolean isKnownVendor(int vendorId) {
+        return vendorName(vendorId) != null;
+    }
+
+    private static void load() {
+        InputStream input = UsbIdDatabase.class.getResourceAsStream(RESOURCE);
+        if (input == null) {
+            logger.warn("Ressource {} introuvable : aucun fabricant USB connu", RESOURCE);
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int vendor = -1;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                boolean product = line.charAt(0) == '\t';
+                String entry = product ? line.substring(1) : line;
+                // Sous-niveaux (interfaces, « \t\t ») et lignes mal formées ignorés
+                if (entry.length() < 6 || entry.charAt(0) == '\t' || entry.charAt(4) != ' ') {
+                    continue;
+                }
+                int id;
+                try {
+                    id = Integer.parseInt(entry.substring(0, 4), 16);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                String name = entry.substring(5).trim();
+                if (!product) {
+                    vendor = id;
+                    VENDORS.put(id, name);
+                } else if (vendor >= 0) {
+                    PRODUCTS.put(vendor << 16 | id, name);
+                }
+            }
+            logger.debug("Identifiants USB chargés: {} fabricants, {} produits", VENDORS.size(), PRODUCTS.size());
+        } catch (IOException e) {
+            logger.error("Erreur lors du chargement de {}", RESOURCE, e);
+        }
+    }
+
+    /**
+     * Table entier -> nom à adressage ouvert (sondage linéaire, capacité doublée à 50 %)
+     */
+    private static final class IntTable {
+        private int[] keys;
+        private String[] values;
+        private int size;
+
+        IntTable(int capacity) {
+            keys = new int[capacity];
+            values = new String[capacity];
+        }
+
+        String get(int key) {
+            int[] k = keys;
+            String[] v = values;
+            int mask = k.length - 1;
+            for (int i = mix(key) & mask; v[i] != null; i = (i + 1) & mask) {
+                if (k[i] == key) {
+                    return v[i];
+                }
+            }
+            return null;
+        }
+
+        void put(int key, String value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new String[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.logicielapp.util;
+
+import com.logicielapp.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache local des utilisateurs et de leurs rôles (Singleton)
+ * Sert les vérifications de permissions et la liste des utilisateurs depuis la mémoire,
+ * avec invalidation par numéro de version lors des modifications
+ *
+ * Deux caches distincts : les utilisateurs connectés ou créés, par identifiant, pour les
+ * permissions, et la liste de l'écran d'administration (lignes sans mot de passe ni jeton).
+ * Le cache ne conserve et ne rend que des copies : un objet reçu ou rendu (dont
+ * l'utilisateur de la session) n'est jamais modifié par le cache.
+ */
+public class UserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+    private static UserCache instance;
+
+    // Durée de validité de la liste (changements effectués depuis un autre poste)
+    private static final long LIST_TTL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Integer, User> usersById = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot;
+
+    private UserCache() {
+        // Constructeur privé pour Singleton
+    }
+
+    /**
+     * Obtient l'instance unique du cache
+     */
+    public static synchronized UserCache getInstance() {
+        if (instance == null) {
+            instance = new UserCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Version courante du cache, à relever avant un chargement depuis la base
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Retourne la liste des utilisateurs en cache, ou null si elle est invalide ou expirée
+     */
+    public List<User> getUsers() {
+        Snapshot current = snapshot;
+        if (current == null
+                || current.version != version.get()
+                || System.currentTimeMillis() - current.loadedAt > LIST_TTL_MS) {
+            return null;
+        }
+        return copyOf(current.users);
+    }
+
+    /**
+     * Enregistre une liste chargée depuis la base
+     * Ignorée si le cache a été invalidé pendant le chargement
+     */
+    public synchronized void storeUsers(List<User> users, long loadedVersion) {
+        if (version.get() == loadedVersion) {
+            snapshot = new Snapshot(loadedVersion, System.currentTimeMillis(),
+                                    Collections.unmodifiableList(copyOf(users)));
+        } else {
+            logger.debug("Liste des utilisateurs périmée pendant le chargement, non mise en cache");
+        }
+    }
+
+    /**
+     * Mémorise un utilisateur (connexion réussie, création)
+     */
+    public void putUser(User user) {
+        if (user != null) {
+            usersById.put(user.getId(), new User(user));
+        }
+    }
+
+    /**
+     * Signale la création d'un utilisateur
+     */
+    public synchronized void onUserCreated(User user) {
+        putUser(user);
+        invalidate();
+    }
+
+    /**
+     * Signale un changement de statut actif/inactif
+     */
+    public synchronized void onUserStatusChanged(int userId, boolean active) {
+        usersById.computeIfPresent(userId, (id, cached) -> {
+            User updated = new User(cached);
+            updated.setActif(active);
+            return updated;
+        });
+        invalidate();
+    }
+
+    /**
+     * Retourne la version la plus récente connue de l'utilisateur
+     * (statut et rôle), ou l'utilisateur fourni s'il n'est pas en cache
+     */
+    public User resolve(User user) {
+        if (user == null) {
+            return null;
+        }
+        User cached = usersById.get(user.getId());
+        return cached != null ? new User(cached) : user;
+    }
+
+    /**
+     * Invalide la liste en cache
+     */
+    public void invalidate() {
+        long newVersion = version.incrementAndGet();
+        logger.debug("Cache utilisateurs invalidé (version {})", newVersion);
+    }
+
+    /**
+     * Vide complètement le cache
+     */
+    public void clear() {
+        usersById.clear();
+        snapshot = null;
+        invalidate();
+    }
+
+    private static List<User> copyOf(List<User> users) {
+        List<User> copies = new ArrayList<>(users.size());
+        for (User user : users) {
+            copies.add(new User(user));
+        }
+        return copies;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final long loadedAt;
+        private final List<User> users;
+
+        Snapshot(long version, long loadedAt, List<User> users) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.users = users;
+        }
+    }
+}
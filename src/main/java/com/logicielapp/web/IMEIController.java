@@ -1,21 +1,61 @@
 package com.logicielapp.web;
 
 import com.logicielapp.service.DHRUApiService;
+import com.logicielapp.service.ProviderRateLimiter;
 import com.logicielapp.util.IMEIValidator;
+import com.logicielapp.util.TACDatabase;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Controller
 public class IMEIController {
     
     private final DHRUApiService dhruService = new DHRUApiService();
     
+    // Résultats réussis récents, partagés par les lots (requêtes identiques en cours comprises)
+    private static final long RESULT_TTL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("imei.resultCacheSeconds", 300));
+    private static final int RESULT_CACHE_SIZE = Integer.getInteger("imei.resultCacheSize", 10000);
+    // LRU borné : au-delà de imei.resultCacheSize, l'entrée la moins récemment utilisée est évincée
+    private final Map<String, CachedResult> recentResults = Collections.synchronizedMap(
+        new LinkedHashMap<String, CachedResult>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > RESULT_CACHE_SIZE;
+            }
+        });
+    
+    private static final class CachedResult {
+        final CompletableFuture<VerifyImeiResponse> response;
+        // Requête en cours : jamais expirée (nanoTime peut être négatif, pas de date sentinelle)
+        private volatile boolean inFlight = true;
+        private volatile long expiresAt;
+        
+        CachedResult(CompletableFuture<VerifyImeiResponse> response) {
+            this.response = response;
+        }
+        
+        void succeeded(long expiresAt) {
+            this.expiresAt = expiresAt;
+            this.inFlight = false;
+        }
+        
+        boolean isExpired(long now) {
+            return !inFlight && now - expiresAt > 0;
+        }
+    }
+    
     @GetMapping("/")
     public String index() {
         return "index";
@@ -23,52 +63,183 @@ public class IMEIController {
     
     @PostMapping("/api/verify-imei")
     @ResponseBody
-    public ResponseEntity<Map<String, Object>> verifyIMEI(@RequestBody Map<String, String> request) {
+    public ResponseEntity<VerifyImeiResponse> verifyIMEI(@RequestBody Map<String, String> request) {
         String imei = request.get("imei");
-        Map<String, Object> response = new HashMap<>();
         
         if (imei == null || imei.trim().isEmpty()) {
-            response.put("success", false);
-            response.put("error", "IMEI requis");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(missingImeiResponse());
         }
         
+        return ResponseEntity.ok(verifyIMEIAsync(imei).join());
+    }
+    
+    /**
+     * Vérifie un IMEI sans bloquer l'appelant
+     * La validation locale est immédiate, seule la requête distante est asynchrone
+     */
+    public CompletableFuture<VerifyImeiResponse> verifyIMEIAsync(String imei) {
+        return verifyIMEIAsync(imei, ProviderRateLimiter.DEFAULT_CLIENT);
+    }
+    
+    /**
+     * Vérifie un IMEI pour le compte d'un client (adresse du poste : partage équitable des fournisseurs)
+     */
+    public CompletableFuture<VerifyImeiResponse> verifyIMEIAsync(String imei, String client) {
         // Validation stricte IMEI
         IMEIValidator.ValidationResult validation = IMEIValidator.validateIMEI(imei);
         if (!validation.isValid()) {
-            response.put("success", false);
-            response.put("error", validation.getReason());
-            response.put("fake", true);
-            return ResponseEntity.ok(response);
+            return CompletableFuture.completedFuture(VerifyImeiResponse.fake(validation.getReason()));
         }
         
-        try {
-            // Appel API pour récupérer les vraies informations
-            CompletableFuture<DHRUApiService.DeviceInfo> future = dhruService.getDeviceInfo(imei);
-            DHRUApiService.DeviceInfo deviceInfo = future.get();
-            
-            if (deviceInfo.isSuccess()) {
-                response.put("success", true);
-                response.put("imei", imei);
-                response.put("brand", deviceInfo.getBrand());
-                response.put("model", deviceInfo.getModel());
-                response.put("color", deviceInfo.getColor());
-                response.put("storage", deviceInfo.getStorage());
-                response.put("simlock", deviceInfo.getSimlockStatus());
-                response.put("blacklist", deviceInfo.getBlacklistStatus());
-                response.put("warranty", deviceInfo.getWarrantyStatus());
-                response.put("activation", deviceInfo.getActivationStatus());
-                response.put("fake", false);
-            } else {
-                response.put("success", false);
-                response.put("error", deviceInfo.getErrorMessage());
+        return lookup(imei, client);
+    }
+    
+    /**
+     * Appel API pour récupérer les vraies informations (IMEI déjà validé)
+     */
+    private CompletableFuture<VerifyImeiResponse> lookup(String imei, String client) {
+        return dhruService.getDeviceInfo(imei, client)
+            .thenApply(deviceInfo -> VerifyImeiResponse.of(imei, deviceInfo))
+            .exceptionally(e -> {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                return VerifyImeiResponse.error("Erreur lors de la vérification: " + cause.getMessage());
+            });
+    }
+    
+    /**
+     * Vérifie un lot d'IMEI ; chaque enregistrement est transmis dès qu'il est prêt
+     *
+     * La validation locale et la résolution TAC sont faites immédiatement pour tout le lot :
+     * un IMEI invalide donne aussitôt son résultat (type « result »), un IMEI valide un premier
+     * enregistrement « local » (constructeur et modèle d'après le TAC) puis son résultat quand le
+     * fournisseur répond. Au plus {@code parallelism} requêtes distantes sont en cours ; un IMEI
+     * répété ou vérifié récemment avec succès n'est pas redemandé. Les requêtes du lot attendent
+     * leur tour chez les fournisseurs dans la file de {@code client}.
+     * Les appels à {@code sink} peuvent venir de plusieurs threads.
+     *
+     * @return terminé après le dernier enregistrement ; l'annuler arrête l'envoi des requêtes restantes
+     */
+    public CompletableFuture<Void> verifyIMEIBatch(List<String> imeis, int parallelism, String client,
+                                           Consumer<ImeiBatchRecord> sink) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        List<Integer> pending = new ArrayList<>();
+        for (int index = 0; index < imeis.size(); index++) {
+            String imei = imeis.get(index);
+            IMEIValidator.ValidationResult validation = IMEIValidator.validateIMEI(imei);
+            if (!validation.isValid()) {
+                sink.accept(ImeiBatchRecord.result(index, imei, VerifyImeiResponse.fake(validation.getReason())));
+                continue;
+            }
+            TACDatabase.DeviceInfo tac = TACDatabase.getDeviceByIMEI(imei);
+            sink.accept(ImeiBatchRecord.local(index, imei, TACDatabase.isKnownTacBlock(imei),
+                tac != null ? tac.getManufacturer() : null,
+                tac == null ? null : tac.getMarketingName() != null ? tac.getMarketingName() : tac.getModel()));
+            pending.add(index);
+        }
+        if (pending.isEmpty()) {
+            done.complete(null);
+            return done;
+        }
+        BatchRun run = new BatchRun(imeis, pending, client, sink, done);
+        for (int i = 0; i < Math.max(1, parallelism); i++) {
+            run.dispatch();
+        }
+        return done;
+    }
+    
+    /**
+     * Requêtes distantes d'un lot : chaque réponse libère une place pour la suivante
+     */
+    private final class BatchRun {
+        private final List<String> imeis;
+        private final List<Integer> pending;
+        private final String client;
+        private final Consumer<ImeiBatchRecord> sink;
+        private final CompletableFuture<Void> done;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        
+        BatchRun(List<String> imeis, List<Integer> pending, String client, Consumer<ImeiBatchRecord> sink,
+                 CompletableFuture<Void> done) {
+            this.imeis = imeis;
+            this.pending = pending;
+            this.client = client;
+            this.sink = sink;
+            this.done = done;
+            this.remaining = new AtomicInteger(pending.size());
+        }
+        
+        void dispatch() {
+            int position;
+            while (!done.isDone() && (position = next.getAndIncrement()) < pending.size()) {
+                int index = pending.get(position);
+                CompletableFuture<VerifyImeiResponse> response = cachedLookup(imeis.get(index), client);
+                if (response.isDone()) {
+                    // Résultat en cache : la place reste libre, sans récursion
+                    finish(index, response);
+                    continue;
+                }
+                response.whenComplete((result, error) -> {
+                    finish(index, response);
+                    dispatch();
+                });
+                return;
             }
-            
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("error", "Erreur lors de la vérification: " + e.getMessage());
         }
         
-        return ResponseEntity.ok(response);
+        private void finish(int index, CompletableFuture<VerifyImeiResponse> response) {
+            VerifyImeiResponse result;
+            try {
+                result = response.join();
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                result = VerifyImeiResponse.error("Erreur lors de la vérification: " + cause.getMessage());
+            }
+            if (!done.isDone()) {
+                sink.accept(ImeiBatchRecord.result(index, imeis.get(index), result));
+            }
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+    }
+    
+    /**
+     * Requête distante, ou résultat réussi de moins de imei.resultCacheSeconds (300 s par défaut)
+     */
+    private CompletableFuture<VerifyImeiResponse> cachedLookup(String imei, String client) {
+        long now = System.nanoTime();
+        CachedResult[] created = new CachedResult[1];
+        CachedResult entry = recentResults.compute(imei, (key, cached) -> {
+            if (cached != null && !cached.isExpired(now)) {
+                return cached;
+            }
+            created[0] = new CachedResult(new CompletableFuture<>());
+            return created[0];
+        });
+        if (created[0] == null) {
+            return entry.response;
+        }
+        lookup(imei, client).whenComplete((result, error) -> {
+            if (error == null && result.isSuccess()) {
+                entry.succeeded(System.nanoTime() + RESULT_TTL_NANOS);
+            } else {
+                // Les échecs ne sont pas conservés
+                recentResults.remove(imei, entry);
+            }
+            if (error != null) {
+                entry.response.completeExceptionally(error);
+            } else {
+                entry.response.complete(result);
+            }
+        });
+        return entry.response;
+    }
+    
+    /**
+     * Réponse d'erreur lorsque l'IMEI est absent de la requête
+     */
+    public VerifyImeiResponse missingImeiResponse() {
+        return VerifyImeiResponse.error("IMEI requis");
     }
 }
@@ -0,0 +1,82 @@
+package com.logicielapp.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * Enregistrement NDJSON d'un lot /api/verify-imei/batch (voir {@link IMEIController#verifyIMEIBatch})
+ * « local » : index, type, imei, tacKnown, brand et model d'après le TAC (si connus)
+ * « result » : index, type, imei puis les champs de {@link VerifyImeiResponse}
+ */
+public final class ImeiBatchRecord extends JsonSerializable.Base {
+
+    private final int index;
+    private final String imei;
+    private final VerifyImeiResponse result;
+    private final boolean tacKnown;
+    private final String brand;
+    private final String model;
+
+    private ImeiBatchRecord(int index, String imei, VerifyImeiResponse result, boolean tacKnown,
+                            String brand, String model) {
+        this.index = index;
+        this.imei = imei;
+        this.result = result;
+        this.tacKnown = tacKnown;
+        this.brand = brand;
+        this.model = model;
+    }
+
+    /**
+     * Résultat de la validation locale et du TAC, avant la réponse du fournisseur
+     */
+    public static ImeiBatchRecord local(int index, String imei, boolean tacKnown, String brand, String model) {
+        return new ImeiBatchRecord(index, imei, null, tacKnown, brand, model);
+    }
+
+    /**
+     * Résultat définitif de l'IMEI
+     */
+    public static ImeiBatchRecord result(int index, String imei, VerifyImeiResponse result) {
+        return new ImeiBatchRecord(index, imei, result, true, null, null);
+    }
+
+    public int getIndex() { return index; }
+    public String getImei() { return imei; }
+    public boolean isLocal() { return result == null; }
+
+    /**
+     * Résultat définitif, ou null pour un enregistrement « local »
+     */
+    public VerifyImeiResponse getResult() { return result; }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("index", index);
+        gen.writeStringField("type", result == null ? "local" : "result");
+        gen.writeStringField("imei", imei);
+        if (result != null) {
+            result.writeFields(gen, false);
+        } else {
+            gen.writeBooleanField("tacKnown", tacKnown);
+            if (brand != null) {
+                gen.writeStringField("brand", brand);
+            }
+            if (model != null) {
+                gen.writeStringField("model", model);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -0,0 +1,110 @@
+package com.logicielapp.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.logicielapp.service.DHRUApiService;
+
+import java.io.IOException;
+
+/**
+ * Réponse de /api/verify-imei, immuable
+ * Sérialisée par {@link #serialize} directement dans le JsonGenerator : Jackson n'inspecte pas
+ * la classe et aucune Map n'est construite. Les champs écrits sont ceux de l'ancienne réponse :
+ *   - IMEI refusé localement : success, error, fake (true)
+ *   - trouvé : success, imei, brand, model, color, storage, simlock, blacklist, warranty, activation, fake (false)
+ *   - échec du fournisseur : success, error
+ * plus tacKnown (false) lorsque le bloc TAC est inconnu.
+ */
+public final class VerifyImeiResponse extends JsonSerializable.Base {
+
+    private final boolean success;
+    private final String error;
+    private final boolean fake;
+    private final boolean tacKnown;
+    private final String imei;
+    private final DHRUApiService.DeviceInfo device;
+
+    private VerifyImeiResponse(boolean success, String error, boolean fake, boolean tacKnown,
+                               String imei, DHRUApiService.DeviceInfo device) {
+        this.success = success;
+        this.error = error;
+        this.fake = fake;
+        this.tacKnown = tacKnown;
+        this.imei = imei;
+        this.device = device;
+    }
+
+    /**
+     * IMEI rejeté par la validation locale
+     */
+    public static VerifyImeiResponse fake(String reason) {
+        return new VerifyImeiResponse(false, reason, true, true, null, null);
+    }
+
+    /**
+     * Erreur sans réponse de fournisseur (requête incomplète, exception)
+     */
+    public static VerifyImeiResponse error(String message) {
+        return new VerifyImeiResponse(false, message, false, true, null, null);
+    }
+
+    /**
+     * Réponse du service fournisseurs, réussie ou non
+     */
+    public static VerifyImeiResponse of(String imei, DHRUApiService.DeviceInfo info) {
+        return info.isSuccess()
+            ? new VerifyImeiResponse(true, null, false, info.isTacKnown(), imei, info)
+            : new VerifyImeiResponse(false, info.getErrorMessage(), false, info.isTacKnown(), null, null);
+    }
+
+    public boolean isSuccess() { return success; }
+    public String getError() { return error; }
+    public boolean isFake() { return fake; }
+    public boolean isTacKnown() { return tacKnown; }
+    public String getImei() { return imei; }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        writeFields(gen, true);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    /**
+     * Écrit les champs dans l'objet en cours (enregistrements des lots : l'IMEI y est déjà)
+     */
+    void writeFields(JsonGenerator gen, boolean withImei) throws IOException {
+        gen.writeBooleanField("success", success);
+        if (success) {
+            if (withImei) {
+                gen.writeStringField("imei", imei);
+            }
+            gen.writeStringField("brand", device.getBrand());
+            gen.writeStringField("model", device.getModel());
+            gen.writeStringField("color", device.getColor());
+            gen.writeStringField("storage", device.getStorage());
+            gen.writeStringField("simlock", device.getSimlockStatus());
+            gen.writeStringField("blacklist", device.getBlacklistStatus());
+            gen.writeStringField("warranty", device.getWarrantyStatus());
+            gen.writeStringField("activation", device.getActivationStatus());
+            gen.writeBooleanField("fake", false);
+        } else {
+            gen.writeStringField("error", error);
+            if (fake) {
+                gen.writeBooleanField("fake", true);
+            }
+        }
+        if (!tacKnown) {
+            // TAC hors de tout bloc d'attribution connu (préfiltre local)
+            gen.writeBooleanField("tacKnown", false);
+        }
+    }
+}
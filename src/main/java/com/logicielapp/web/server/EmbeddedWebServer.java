@@ -0,0 +1,325 @@
+package com.logicielapp.web.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.logicielapp.metrics.Metrics;
+import com.logicielapp.web.HelpController;
+import com.logicielapp.web.IMEIController;
+import com.logicielapp.web.ImeiBatchRecord;
+import com.logicielapp.web.StatisticsController;
+import com.logicielapp.web.VerifyImeiResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serveur HTTP embarqué léger pour l'interface web
+ * Sert les pages et les API IMEI, statistiques et aide sans conteneur Spring,
+ * avec connexions persistantes (keep-alive), compression gzip et JSON en flux
+ */
+public class EmbeddedWebServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedWebServer.class);
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final int BATCH_MAX_SIZE = Integer.getInteger("imei.batchMaxSize", 5000);
+    private static final int BATCH_PARALLELISM = Integer.getInteger("imei.batchParallelism", 8);
+    private static final int POOL_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 4);
+    // Un lot occupe un thread du serveur jusqu'à son dernier enregistrement : au plus la moitié du pool
+    private static final int BATCH_CONCURRENCY = Integer.getInteger("imei.batchConcurrency", Math.max(1, POOL_THREADS / 2));
+    private static final ImeiBatchRecord END_OF_BATCH = ImeiBatchRecord.result(-1, null, null);
+
+    private final int port;
+    private final Map<String, Route> routes = new HashMap<>();
+    private final IMEIController imeiController = new IMEIController();
+    private final StatisticsController statisticsController = new StatisticsController();
+    private final HelpController helpController = new HelpController();
+    private final StaticAssets staticAssets = StaticAssets.load();
+    private final Semaphore batchSlots = new Semaphore(BATCH_CONCURRENCY);
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Traitement d'une requête HTTP
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private record Route(Handler handler, boolean async) {
+    }
+
+    public EmbeddedWebServer(int port) {
+        this.port = port;
+        registerRoutes();
+    }
+
+    /**
+     * Déclare les routes (équivalentes aux mappings des contrôleurs web)
+     */
+    private void registerRoutes() {
+        // Pages
+        get("/", ex -> sendPage(ex, "templates/index.html"));
+        get("/statistics", ex -> sendPage(ex, "static/statistiques.html"));
+        get("/help", ex -> sendPage(ex, "static/aide.html"));
+
+        // API IMEI (asynchrone : le thread du serveur est libéré pendant la requête distante)
+        postAsync("/api/verify-imei", this::verifyImei);
+        // Lot d'IMEI : un enregistrement JSON par ligne, envoyé dès qu'il est prêt
+        post("/api/verify-imei/batch", this::verifyImeiBatch);
+
+        // API statistiques
+        get("/statistics/api/stats",
+            ex -> HttpResponses.sendJson(ex, 200, statisticsController.getStatistics().getBody()));
+        get("/statistics/api/recent-activity",
+            ex -> HttpResponses.sendJson(ex, 200, statisticsController.getRecentActivity().getBody()));
+
+        // Métriques (format texte Prometheus)
+        get("/metrics", ex -> HttpResponses.sendText(ex, 200, HttpResponses.PROMETHEUS_TYPE, Metrics.toPrometheusText()));
+
+        // API aide
+        get("/help/api/contact-info",
+            ex -> HttpResponses.sendJson(ex, 200, helpController.getContactInfo().getBody()));
+        get("/help/api/faq",
+            ex -> HttpResponses.sendJson(ex, 200, helpController.getFAQ().getBody()));
+        get("/help/api/features",
+            ex -> HttpResponses.sendJson(ex, 200, helpController.getFeatures().getBody()));
+        post("/help/api/contact", ex -> {
+            @SuppressWarnings("unchecked")
+            Map<String, String> form = HttpResponses.readJson(ex, Map.class);
+            var response = helpController.submitContactForm(form);
+            HttpResponses.sendJson(ex, response.getStatusCode().value(), response.getBody());
+        });
+    }
+
+    public void get(String path, Handler handler) {
+        routes.put("GET " + path, new Route(handler, false));
+    }
+
+    public void post(String path, Handler handler) {
+        routes.put("POST " + path, new Route(handler, false));
+    }
+
+    /**
+     * Route dont le gestionnaire termine lui-même l'échange (réponse différée)
+     */
+    public void postAsync(String path, Handler handler) {
+        routes.put("POST " + path, new Route(handler, true));
+    }
+
+    /**
+     * Démarre le serveur
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        // Sans TCP_NODELAY, les réponses chunked subissent le délai d'ACK retardé (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        executor = createExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", this::dispatch);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Serveur web embarqué démarré sur http://localhost:{}", getPort());
+    }
+
+    /**
+     * Arrête le serveur (délai maximal de fin des échanges en cours : 1 s)
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdownNow();
+            server = null;
+            logger.info("Serveur web embarqué arrêté");
+        }
+    }
+
+    /**
+     * Port effectif (utile lorsque le port 0 est demandé)
+     */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+        Route route = routes.get(key);
+
+        if (route == null) {
+            try {
+                HttpResponses.drainRequest(exchange);
+                String path = exchange.getRequestURI().getPath();
+                boolean read = "GET".equals(exchange.getRequestMethod()) || "HEAD".equals(exchange.getRequestMethod());
+                if (read && path.endsWith(".html") && !path.contains("..")) {
+                    // Pages statiques (statiques.html, parametres.html, ...)
+                    sendPage(exchange, "static" + path);
+                } else {
+                    HttpResponses.sendError(exchange, 404, "Ressource introuvable");
+                }
+            } finally {
+                exchange.close();
+            }
+            return;
+        }
+
+        try {
+            route.handler().handle(exchange);
+        } catch (Exception e) {
+            logger.error("Erreur lors du traitement de {}", key, e);
+            HttpResponses.sendQuietly(exchange, 500, Map.of("success", false, "error", "Erreur interne"));
+            return;
+        }
+
+        if (!route.async()) {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sert une page précompressée du manifeste, ou la ressource brute en l'absence de build
+     */
+    private void sendPage(HttpExchange exchange, String logicalName) throws IOException {
+        if (!staticAssets.serveLogical(exchange, logicalName)) {
+            HttpResponses.sendResource(exchange, "/" + logicalName, HttpResponses.HTML_TYPE);
+        }
+    }
+
+    private void verifyImei(HttpExchange exchange) throws IOException {
+        String imei;
+        try {
+            imei = HttpResponses.readStringField(exchange, "imei");
+        } catch (JsonProcessingException e) {
+            HttpResponses.sendQuietly(exchange, 400, VerifyImeiResponse.error("Requête JSON invalide"));
+            return;
+        }
+
+        if (imei == null || imei.trim().isEmpty()) {
+            HttpResponses.sendQuietly(exchange, 400, imeiController.missingImeiResponse());
+            return;
+        }
+
+        imeiController.verifyIMEIAsync(imei, clientOf(exchange))
+            .thenAccept(response -> HttpResponses.sendQuietly(exchange, 200, response));
+    }
+
+    /**
+     * Corps {"imeis": [...]} ; réponse NDJSON (voir {@link IMEIController#verifyIMEIBatch}) écrite
+     * par le thread de la requête à mesure que les résultats arrivent.
+     * Au-delà de imei.batchConcurrency lots simultanés, la requête est refusée (503, Retry-After)
+     * pour que les lots n'accaparent pas les threads des autres routes.
+     */
+    private void verifyImeiBatch(HttpExchange exchange) throws IOException {
+        List<String> batch;
+        try {
+            batch = HttpResponses.readStringArrayField(exchange, "imeis");
+        } catch (JsonProcessingException e) {
+            HttpResponses.sendError(exchange, 400, "Requête JSON invalide");
+            return;
+        }
+        if (batch == null || batch.isEmpty()) {
+            HttpResponses.sendError(exchange, 400, "Liste « imeis » requise");
+            return;
+        }
+        if (batch.size() > BATCH_MAX_SIZE) {
+            HttpResponses.sendError(exchange, 413, "Lot limité à " + BATCH_MAX_SIZE + " IMEI");
+            return;
+        }
+
+        if (!batchSlots.tryAcquire()) {
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            HttpResponses.sendError(exchange, 503, "Trop de lots en cours, réessayez plus tard");
+            return;
+        }
+        try {
+            streamBatch(exchange, batch);
+        } finally {
+            batchSlots.release();
+        }
+    }
+
+    private void streamBatch(HttpExchange exchange, List<String> batch) {
+        BlockingQueue<ImeiBatchRecord> records = new LinkedBlockingQueue<>();
+        CompletableFuture<Void> done = imeiController.verifyIMEIBatch(batch, BATCH_PARALLELISM, clientOf(exchange),
+            records::add);
+        done.whenComplete((ignored, error) -> records.add(END_OF_BATCH));
+        try (OutputStream out = HttpResponses.openNdjson(exchange, 200)) {
+            ImeiBatchRecord record;
+            while ((record = records.take()) != END_OF_BATCH) {
+                HttpResponses.writeNdjsonRecord(out, record);
+                // Envoi dès que la file est vide ; les enregistrements déjà prêts partent ensemble
+                if (records.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Client déconnecté pendant un lot IMEI: {}", e.getMessage());
+            done.cancel(false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.cancel(false);
+        }
+    }
+
+    /**
+     * Client au sens du limiteur des fournisseurs IMEI : adresse du poste appelant
+     */
+    private static String clientOf(HttpExchange exchange) {
+        InetSocketAddress remote = exchange.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "inconnu";
+    }
+    
+    /**
+     * Threads virtuels lorsque la JVM les propose (Java 21+),
+     * sinon pool de threads borné (cible Java 17 du projet)
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            logger.info("Serveur web : threads virtuels activés");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = POOL_THREADS;
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "WebServer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            pool.allowCoreThreadTimeOut(true);
+            logger.info("Serveur web : pool de {} threads", threads);
+            return pool;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("server.port", DEFAULT_PORT);
+        EmbeddedWebServer webServer = new EmbeddedWebServer(port);
+        webServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(webServer::stop, "WebServerShutdown"));
+    }
+}
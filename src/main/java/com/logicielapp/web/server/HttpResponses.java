@@ -0,0 +1,222 @@
+package com.logicielapp.web.server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utilitaires d'écriture des réponses HTTP du serveur embarqué
+ * Le JSON est écrit en flux directement dans la réponse (encodage chunked),
+ * compressé en gzip lorsque le client l'accepte
+ */
+public final class HttpResponses {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpResponses.class);
+
+    public static final String JSON_TYPE = "application/json; charset=utf-8";
+    public static final String HTML_TYPE = "text/html; charset=utf-8";
+    public static final String PROMETHEUS_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    public static final String NDJSON_TYPE = "application/x-ndjson; charset=utf-8";
+
+    // Instance partagée (thread-safe une fois configurée)
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // NDJSON : l'appelant décide quand vider le flux
+    private static final ObjectWriter NDJSON_WRITER = MAPPER.writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private HttpResponses() {
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Écrit un objet en JSON, en flux
+     */
+    public static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        try (OutputStream out = openBody(exchange, status, true)) {
+            MAPPER.writeValue(out, body);
+        }
+    }
+
+    /**
+     * Ouvre une réponse NDJSON (un objet JSON par ligne), sans gzip : chaque enregistrement
+     * doit pouvoir partir dès qu'il est écrit
+     */
+    public static OutputStream openNdjson(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", NDJSON_TYPE);
+        return openBody(exchange, status, false);
+    }
+
+    /**
+     * Écrit un enregistrement NDJSON (sans vider le flux)
+     */
+    public static void writeNdjsonRecord(OutputStream out, Object record) throws IOException {
+        NDJSON_WRITER.writeValue(out, record);
+        out.write('\n');
+    }
+
+    /**
+     * Écrit une réponse texte (format d'exposition des métriques)
+     */
+    public static void sendText(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        try (OutputStream out = openBody(exchange, status, true)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Écrit une ressource du classpath (pages HTML)
+     */
+    public static void sendResource(HttpExchange exchange, String resource, String contentType) throws IOException {
+        try (InputStream in = HttpResponses.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                sendError(exchange, 404, "Ressource introuvable");
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            try (OutputStream out = openBody(exchange, 200, true)) {
+                in.transferTo(out);
+            }
+        }
+    }
+
+    /**
+     * Écrit une réponse d'erreur JSON
+     */
+    public static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, Map.of("success", false, "error", message));
+    }
+
+    /**
+     * Écrit une réponse d'erreur sans propager d'exception (callbacks asynchrones)
+     */
+    public static void sendQuietly(HttpExchange exchange, int status, Object body) {
+        try {
+            sendJson(exchange, status, body);
+        } catch (IOException e) {
+            logger.debug("Client déconnecté avant la fin de la réponse: {}", e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Lit le corps de la requête JSON
+     */
+    public static <T> T readJson(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return MAPPER.readValue(in, type);
+        }
+    }
+
+    /**
+     * Lit en flux un champ texte à la racine de l'objet JSON du corps (sans Map intermédiaire)
+     *
+     * @return texte du champ s'il est scalaire, sinon null
+     * @throws JsonProcessingException corps qui n'est pas un objet JSON valide
+     */
+    public static String readStringField(HttpExchange exchange, String field) throws IOException {
+        try (InputStream in = exchange.getRequestBody();
+             JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            String value = null;
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (field.equals(name) && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                    value = parser.getText();
+                }
+                parser.skipChildren();
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Lit en flux un tableau à la racine de l'objet JSON du corps ; les éléments scalaires sont
+     * lus comme texte, les autres valent null
+     *
+     * @return éléments, ou null si le champ est absent ou n'est pas un tableau
+     * @throws JsonProcessingException corps qui n'est pas un objet JSON valide
+     */
+    public static List<String> readStringArrayField(HttpExchange exchange, String field) throws IOException {
+        try (InputStream in = exchange.getRequestBody();
+             JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            List<String> values = null;
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (!field.equals(name) || token != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                values = new ArrayList<>();
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    boolean text = token.isScalarValue() && token != JsonToken.VALUE_NULL;
+                    values.add(text ? parser.getText() : null);
+                    parser.skipChildren();
+                }
+            }
+            return values;
+        }
+    }
+
+    private static void expectObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "objet JSON attendu");
+        }
+    }
+
+    /**
+     * Vide le corps de la requête (nécessaire pour réutiliser la connexion keep-alive)
+     */
+    public static void drainRequest(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Ouvre le flux de réponse en mode chunked, avec gzip si accepté
+     */
+    static OutputStream openBody(HttpExchange exchange, int status, boolean compressible) throws IOException {
+        boolean gzip = compressible && acceptsGzip(exchange);
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        exchange.sendResponseHeaders(status, 0);
+
+        OutputStream body = exchange.getResponseBody();
+        return gzip ? new GZIPOutputStream(body, BUFFER_SIZE) : body;
+    }
+
+    static boolean acceptsGzip(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+}
@@ -0,0 +1,163 @@
+package com.logicielapp.web.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Étape de build des ressources web (phase process-classes)
+ * Minifie les pages HTML, les précompresse en gzip et écrit un manifeste
+ * (empreinte du contenu pour l'ETag) lu par {@link StaticAssets}
+ * Les noms de fichiers ne sont pas modifiés : les pages se référencent toutes
+ * entre elles (barre de navigation), une empreinte dans l'URL ne pourrait pas
+ * être calculée et les pages restent servies avec revalidation.
+ *
+ * Usage : StaticAssetPipeline &lt;répertoire des classes&gt;
+ */
+public class StaticAssetPipeline {
+
+    public static final String DIST_DIR = "web-dist";
+    public static final String MANIFEST = "manifest.json";
+
+    // Répertoires sources, relatifs au répertoire des classes
+    private static final String[] SOURCE_DIRS = { "static", "templates" };
+
+    private static final Pattern HTML_COMMENT = Pattern.compile("<!--(?!\\[if).*?-->", Pattern.DOTALL);
+
+    // En dessous de cette taille, la version gzip n'apporte rien
+    private static final int MIN_GZIP_SIZE = 256;
+
+    public static void main(String[] args) throws Exception {
+        Path classesDir = Paths.get(args.length > 0 ? args[0] : "target/classes");
+        Map<String, StaticAssets.Asset> manifest = new StaticAssetPipeline().build(classesDir);
+        System.out.println("Ressources web générées : " + manifest.size()
+            + " -> " + classesDir.resolve(DIST_DIR));
+    }
+
+    /**
+     * Construit le répertoire web-dist et retourne le manifeste
+     */
+    public Map<String, StaticAssets.Asset> build(Path classesDir) throws IOException {
+        Path distDir = classesDir.resolve(DIST_DIR);
+        Map<String, StaticAssets.Asset> manifest = new TreeMap<>();
+
+        // Supprimer les fichiers des builds précédents
+        if (Files.isDirectory(distDir)) {
+            for (Path stale : listFiles(distDir)) {
+                Files.delete(stale);
+            }
+        }
+
+        for (String sourceDir : SOURCE_DIRS) {
+            Path source = classesDir.resolve(sourceDir);
+            if (!Files.isDirectory(source)) {
+                continue;
+            }
+            for (Path file : listFiles(source)) {
+                String logicalName = sourceDir + "/" + source.relativize(file).toString().replace('\\', '/');
+                manifest.put(logicalName, processFile(file, logicalName, distDir));
+            }
+        }
+
+        Files.createDirectories(distDir);
+        new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(distDir.resolve(MANIFEST).toFile(), manifest);
+        return manifest;
+    }
+
+    private StaticAssets.Asset processFile(Path file, String logicalName, Path distDir) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        String contentType = StaticAssets.contentTypeFor(logicalName);
+        if (contentType.startsWith("text/html")) {
+            content = minifyHtml(new String(content, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+        }
+
+        String hash = sha256Hex(content).substring(0, 16);
+        Path target = distDir.resolve(logicalName);
+        Files.createDirectories(target.getParent());
+        Files.write(target, content);
+
+        StaticAssets.Asset asset = new StaticAssets.Asset();
+        asset.file = logicalName;
+        asset.etag = "\"" + hash + "\"";
+        asset.contentType = contentType;
+        asset.size = content.length;
+
+        if (content.length >= MIN_GZIP_SIZE) {
+            byte[] gzipped = gzip(content);
+            if (gzipped.length < content.length) {
+                Files.write(distDir.resolve(logicalName + ".gz"), gzipped);
+                asset.gzipSize = gzipped.length;
+            }
+        }
+        return asset;
+    }
+
+    /**
+     * Minification prudente : suppression des commentaires HTML, de l'indentation
+     * et des lignes vides. Les retours à la ligne sont conservés pour ne pas
+     * casser les commentaires « // » des scripts en ligne.
+     */
+    static String minifyHtml(String html) {
+        String withoutComments = HTML_COMMENT.matcher(html).replaceAll("");
+        StringBuilder out = new StringBuilder(withoutComments.length());
+        for (String line : withoutComments.split("\r?\n")) {
+            String trimmed = line.strip();
+            if (!trimmed.isEmpty()) {
+                out.append(trimmed).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 3);
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static List<Path> listFiles(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(dir)) {
+            stream.filter(Files::isRegularFile).sorted().forEach(files::add);
+        }
+        return files;
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.logicielapp.web.server;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Service des ressources web générées par {@link StaticAssetPipeline}
+ * ETag forts avec revalidation (réponses 304) et versions gzip précalculées.
+ * Les fichiers sont transmis par FileChannel.transferTo lorsqu'ils sont sur
+ * disque, depuis la mémoire lorsqu'ils sont dans le JAR.
+ */
+public class StaticAssets {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticAssets.class);
+
+    private static final String CACHE_REVALIDATE = "no-cache";
+
+    private final Map<String, LoadedAsset> byLogicalName;
+
+    /**
+     * Entrée du manifeste
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Asset {
+        public String file;
+        public String etag;
+        public String contentType;
+        public long size;
+        public long gzipSize;
+    }
+
+    /**
+     * Variante servie (identité ou gzip)
+     */
+    private static final class Variant {
+        private final Path path;
+        private final byte[] bytes;
+        private final long size;
+        private final String etag;
+
+        Variant(Path path, byte[] bytes, long size, String etag) {
+            this.path = path;
+            this.bytes = bytes;
+            this.size = size;
+            this.etag = etag;
+        }
+    }
+
+    private record LoadedAsset(String contentType, Variant identity, Variant gzip) {
+    }
+
+    private StaticAssets(Map<String, LoadedAsset> byLogicalName) {
+        this.byLogicalName = byLogicalName;
+    }
+
+    /**
+     * Charge le manifeste depuis le classpath
+     * Retourne un ensemble vide si l'étape de build n'a pas été exécutée
+     */
+    public static StaticAssets load() {
+        String base = "/" + StaticAssetPipeline.DIST_DIR + "/";
+        Map<String, LoadedAsset> byLogicalName = new HashMap<>();
+
+        try (InputStream in = StaticAssets.class.getResourceAsStream(base + StaticAssetPipeline.MANIFEST)) {
+            if (in == null) {
+                logger.info("Aucun manifeste web-dist, pages servies sans précompression");
+                return new StaticAssets(Collections.emptyMap());
+            }
+            Map<String, Asset> manifest = HttpResponses.mapper().readValue(in, new TypeReference<Map<String, Asset>>() {});
+
+            for (Map.Entry<String, Asset> entry : manifest.entrySet()) {
+                Asset asset = entry.getValue();
+                Variant identity = loadVariant(base + asset.file, asset.size, asset.etag);
+                Variant gzip = asset.gzipSize > 0
+                    ? loadVariant(base + asset.file + ".gz", asset.gzipSize, gzipEtag(asset.etag))
+                    : null;
+                if (identity == null) {
+                    continue;
+                }
+                LoadedAsset loaded = new LoadedAsset(asset.contentType, identity, gzip);
+                byLogicalName.put(entry.getKey(), loaded);
+            }
+            logger.info("{} ressources web précompressées chargées", byLogicalName.size());
+
+        } catch (IOException e) {
+            logger.warn("Manifeste web-dist illisible, pages servies sans précompression", e);
+        }
+        return new StaticAssets(byLogicalName);
+    }
+
+    /**
+     * Sert une ressource par son nom logique (ex: static/aide.html), avec revalidation
+     * @return false si la ressource n'est pas dans le manifeste
+     */
+    public boolean serveLogical(HttpExchange exchange, String logicalName) throws IOException {
+        LoadedAsset asset = byLogicalName.get(logicalName);
+        if (asset == null) {
+            return false;
+        }
+        serve(exchange, asset);
+        return true;
+    }
+
+    private void serve(HttpExchange exchange, LoadedAsset asset) throws IOException {
+        Variant variant = asset.gzip() != null && HttpResponses.acceptsGzip(exchange) ? asset.gzip() : asset.identity();
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", asset.contentType());
+        headers.set("ETag", variant.etag);
+        headers.set("Cache-Control", CACHE_REVALIDATE);
+        headers.set("Vary", "Accept-Encoding");
+
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), asset)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        if (variant == asset.gzip()) {
+            headers.set("Content-Encoding", "gzip");
+        }
+
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(200, head ? -1 : variant.size);
+        if (head) {
+            return;
+        }
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (variant.path != null) {
+                try (FileChannel channel = FileChannel.open(variant.path, StandardOpenOption.READ)) {
+                    WritableByteChannel target = Channels.newChannel(out);
+                    long position = 0;
+                    while (position < variant.size) {
+                        position += channel.transferTo(position, variant.size - position, target);
+                    }
+                }
+            } else {
+                out.write(variant.bytes);
+            }
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, LoadedAsset asset) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")
+                    || candidate.equals(asset.identity().etag)
+                    || (asset.gzip() != null && candidate.equals(asset.gzip().etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Variant loadVariant(String resource, long size, String etag) throws IOException {
+        URL url = StaticAssets.class.getResource(resource);
+        if (url == null) {
+            return null;
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new Variant(Paths.get(url.toURI()), null, size, etag);
+            } catch (URISyntaxException e) {
+                // Repli sur le chargement en mémoire
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            byte[] bytes = in.readAllBytes();
+            return new Variant(null, bytes, bytes.length, etag);
+        }
+    }
+
+    private static String gzipEtag(String etag) {
+        // Un ETag fort doit différer selon l'encodage de la représentation
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    /**
+     * Type MIME d'après l'extension
+     */
+    public static String contentTypeFor(String name) {
+        String lower = name.toLowerCase();
+        if (lower.endsWith(".html")) return HttpResponses.HTML_TYPE;
+        if (lower.endsWith(".css")) return "text/css; charset=utf-8";
+        if (lower.endsWith(".js")) return "application/javascript; charset=utf-8";
+        if (lower.endsWith(".json")) return HttpResponses.JSON_TYPE;
+        if (lower.endsWith(".svg")) return "image/svg+xml";
+        if (lower.endsWith(".png")) return "image/png";
+        return "application/octet-stream";
+    }
+}
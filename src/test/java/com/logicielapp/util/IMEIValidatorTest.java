@@ -0,0 +1,53 @@
+package com.logicielapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests du chiffre de contrôle Luhn des IMEI
+ */
+class IMEIValidatorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"490154203237518", "356938035643809", "353918051234561", "012345678901237"})
+    void acceptsKnownValidImeis(String imei) {
+        assertTrue(IMEIValidator.hasValidChecksum(imei));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"490154203237517", "490154203237519", "356938035643808", "353918051234563"})
+    void rejectsWrongCheckDigit(String imei) {
+        assertFalse(IMEIValidator.hasValidChecksum(imei));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "49015420323751", "4901542032375180", "49015420323751A", " 490154203237518"})
+    void rejectsMalformedImeis(String imei) {
+        assertFalse(IMEIValidator.hasValidChecksum(imei));
+    }
+
+    @Test
+    void rejectsNull() {
+        assertFalse(IMEIValidator.hasValidChecksum(null));
+    }
+
+    @Test
+    void doublesTheDigitNextToTheCheckDigit() {
+        // Avec la parité inversée, 49015420323751 donnait 0 au lieu de 8
+        assertEquals(8, IMEIValidator.calculateLuhnChecksum("49015420323751"));
+        assertEquals(9, IMEIValidator.calculateLuhnChecksum("35693803564380"));
+        assertEquals(7, IMEIValidator.calculateLuhnChecksum("01234567890123"));
+    }
+
+    @Test
+    void generatedTestImeisHaveValidChecksum() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(IMEIValidator.hasValidChecksum(IMEIValidator.generateTestIMEI("Apple")));
+        }
+    }
+}